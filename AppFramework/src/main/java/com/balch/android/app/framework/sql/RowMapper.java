@@ -0,0 +1,67 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 6:40 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ */
+
+package com.balch.android.app.framework.sql;
+
+import android.database.Cursor;
+
+import com.balch.android.app.framework.core.DomainObject;
+
+import java.util.Date;
+
+/**
+ * Reads rows of one cursor shape into domain objects. Subclasses look up the
+ * index of each column they read in their constructor, so reading a row is
+ * a plain factory call and indexed cursor reads, with no reflection and no
+ * column name lookups.
+ */
+public abstract class RowMapper<T extends DomainObject> {
+    private final int createTimeIndex;
+    private final int updateTimeIndex;
+
+    protected RowMapper(Cursor cursor) {
+        this.createTimeIndex = cursor.getColumnIndex(SqlMapper.COLUMN_CREATE_TIME);
+        this.updateTimeIndex = cursor.getColumnIndex(SqlMapper.COLUMN_UPDATE_TIME);
+    }
+
+    /**
+     * Returns a new domain object populated from the current row of the cursor.
+     */
+    public final T map(Cursor cursor) {
+        T item = newItem();
+
+        if (createTimeIndex != -1) {
+            item.setCreateTime(new Date(cursor.getLong(createTimeIndex)));
+        }
+
+        if (updateTimeIndex != -1) {
+            item.setUpdateTime(new Date(cursor.getLong(updateTimeIndex)));
+        }
+
+        populate(item, cursor);
+        return item;
+    }
+
+    protected abstract T newItem();
+
+    protected abstract void populate(T item, Cursor cursor);
+}
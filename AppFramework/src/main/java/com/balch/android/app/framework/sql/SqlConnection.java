@@ -27,6 +27,7 @@ import android.content.Context;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
 import android.text.TextUtils;
 import android.util.Log;
 
@@ -35,37 +36,81 @@ import com.balch.android.app.framework.core.DomainObject;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Date;
-import java.util.Hashtable;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+/**
+ * The app's connection to its SQLite database.
+ *
+ * With write-ahead logging enabled, queries run on a pool of read connections
+ * and see the last committed data without waiting on a writer, and every
+ * mutation runs on a single writer thread, see {@link #write}. The WAL is only
+ * checkpointed into the database file when {@link #checkpoint()} is called, with
+ * a large auto checkpoint left as a safety net, so background writes never pay
+ * for a checkpoint.
+ *
+ * Without write-ahead logging, writes run on the calling thread.
+ */
 public class SqlConnection extends SQLiteOpenHelper {
     private static final String TAG = SqlConnection.class.getSimpleName();
 
+    // about 40 MB of 4 KB pages
+    private static final int WAL_AUTO_CHECKPOINT_PAGES = 10000;
+
+    /**
+     * Work run by the writer thread
+     */
+    public interface WriteTask<T, E extends Exception> {
+        T run(SQLiteDatabase db) throws E;
+    }
+
     protected final Context context;
     protected final String createScript;
     protected final String updateScript;
 
+    private final boolean writeAheadLogging;
+    private final ExecutorService writer;
+    private volatile Thread writerThread;
+
+    private volatile StatementCache statementCache;
+
     public SqlConnection(Context context, String databaseName, int version,
                          String createScript, String updateScript) {
+        this(context, databaseName, version, createScript, updateScript, false);
+    }
+
+    public SqlConnection(Context context, String databaseName, int version,
+                         String createScript, String updateScript, boolean writeAheadLogging) {
         super(context, databaseName, null, version);
         this.context = context;
         this.createScript = createScript;
         this.updateScript = updateScript;
+        this.writeAheadLogging = writeAheadLogging;
+
+        if (writeAheadLogging) {
+            setWriteAheadLoggingEnabled(true);
+            writer = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "SqlConnection-writer");
+                writerThread = thread;
+                return thread;
+            });
+        } else {
+            writer = null;
+        }
     }
 
-    public <T extends DomainObject> T queryById(SqlMapper mapper, Class<T> clazz, Long id) throws InvocationTargetException, NoSuchMethodException, InstantiationException, IllegalAccessException, SQLException {
-        List<T> items = this.query(mapper, clazz, SqlMapper.COLUMN_ID+"=?", new String[]{String.valueOf(id)}, null);
+    public <T extends DomainObject> T queryById(SqlMapper<T> mapper, Long id) {
+        List<T> items = this.query(mapper, SqlMapper.COLUMN_ID+"=?", new String[]{String.valueOf(id)}, null);
         return (items.size() == 1) ? items.get(0) : null;
     }
 
-    public <T extends DomainObject> List<T> query(SqlMapper mapper, Class<T> clazz, String where, String[] whereArgs, String orderBy) throws NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException, SQLException {
+    public <T extends DomainObject> List<T> query(SqlMapper<T> mapper, String where, String[] whereArgs, String orderBy) {
 
         StopWatch sw = StopWatch.newInstance();
 
@@ -76,7 +121,7 @@ public class SqlConnection extends SQLiteOpenHelper {
         Cursor cursor = null;
         try {
             cursor = this.getReadableDatabase().query(table, null, where, whereArgs, null, null, orderBy);
-            processCursor(mapper, cursor, clazz, results);
+            processCursor(mapper, cursor, results);
         } finally {
             if (cursor != null) {
                 cursor.close();
@@ -89,30 +134,13 @@ public class SqlConnection extends SQLiteOpenHelper {
         return results;
     }
 
-    public <T extends DomainObject> void processCursor(SqlMapper mapper, Cursor cursor,
-                                                       Class<T> clazz, List<T> results)
-                    throws IllegalAccessException, InvocationTargetException,
-                            InstantiationException, NoSuchMethodException {
+    public <T extends DomainObject> void processCursor(SqlMapper<T> mapper, Cursor cursor, List<T> results) {
 
         StopWatch sw = StopWatch.newInstance();
 
-        Map<String, Integer> columnMap = getColumnMap(cursor);
-        Constructor<T> ctor = clazz.getConstructor();
+        RowMapper<T> rowMapper = mapper.getRowMapper(cursor);
         while (cursor.moveToNext()) {
-            T item = ctor.newInstance();
-
-            if (columnMap.containsKey(SqlMapper.COLUMN_CREATE_TIME)) {
-                Date date = new Date(cursor.getLong(columnMap.get(SqlMapper.COLUMN_CREATE_TIME)));
-                item.setCreateTime(date);
-            }
-
-            if (columnMap.containsKey(SqlMapper.COLUMN_CREATE_TIME)) {
-                Date date = new Date(cursor.getLong(columnMap.get(SqlMapper.COLUMN_UPDATE_TIME)));
-                item.setUpdateTime(date);
-            }
-
-            mapper.populate(item, cursor, columnMap);
-            results.add(item);
+            results.add(rowMapper.map(cursor));
         }
 
         long elapsedMs = sw.stop();
@@ -129,18 +157,24 @@ public class SqlConnection extends SQLiteOpenHelper {
         return cursor;
     }
 
-        public long insert(SqlMapper mapper, DomainObject item) throws SQLException {
-        return insert(mapper, item, this.getWritableDatabase());
+    public long insert(SqlMapper mapper, DomainObject item) throws SQLException {
+        return write(db -> insert(mapper, item, db));
     }
 
     public long insert(SqlMapper mapper, DomainObject item, SQLiteDatabase db) throws SQLException {
-        ContentValues values = mapper.getContentValues(item);
+        long id;
+        if (mapper instanceof StatementMapper) {
+            id = insertStatement((StatementMapper) mapper, item, db);
+        } else {
+            ContentValues values = mapper.getContentValues(item);
+
+            long currentMillis = System.currentTimeMillis();
+            values.put(SqlMapper.COLUMN_CREATE_TIME, currentMillis);
+            values.put(SqlMapper.COLUMN_UPDATE_TIME, currentMillis);
 
-        long currentMillis = System.currentTimeMillis();
-        values.put(SqlMapper.COLUMN_CREATE_TIME, currentMillis);
-        values.put(SqlMapper.COLUMN_UPDATE_TIME, currentMillis);
+            id = db.insert(mapper.getTableName(), null, values);
+        }
 
-        long id = db.insert(mapper.getTableName(), null, values);
         if (id == -1) {
             throw new SQLException("Error inserting record");
         }
@@ -150,7 +184,7 @@ public class SqlConnection extends SQLiteOpenHelper {
     }
 
     public boolean update(SqlMapper mapper, DomainObject item)  {
-        return update(mapper, item, null, null, this.getWritableDatabase());
+        return write(db -> update(mapper, item, null, null, db));
     }
 
     public boolean update(SqlMapper mapper, DomainObject item, SQLiteDatabase db)  {
@@ -158,6 +192,9 @@ public class SqlConnection extends SQLiteOpenHelper {
     }
 
     public boolean update(SqlMapper mapper, DomainObject item, String extraWhere, String [] whereArgs, SQLiteDatabase db)  {
+        if (mapper instanceof StatementMapper) {
+            return updateStatement((StatementMapper) mapper, item, extraWhere, whereArgs, db);
+        }
 
         ContentValues values = mapper.getContentValues(item);
 
@@ -178,16 +215,175 @@ public class SqlConnection extends SQLiteOpenHelper {
         return (count == 1);
     }
 
+    @SuppressWarnings("unchecked")
+    private long insertStatement(StatementMapper mapper, DomainObject item, SQLiteDatabase db) {
+        StatementCache.Statements statements = getStatementCache(db).getInsert(mapper);
+        SQLiteStatement statement = statements.acquire();
+        try {
+            mapper.bind(statement, item);
+
+            int index = statements.getColumnCount();
+            long currentMillis = System.currentTimeMillis();
+            statement.bindLong(++index, currentMillis);
+            statement.bindLong(++index, currentMillis);
+
+            return statement.executeInsert();
+        } finally {
+            statements.release(statement);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean updateStatement(StatementMapper mapper, DomainObject item, String extraWhere,
+                                    String [] whereArgs, SQLiteDatabase db) {
+        StatementCache.Statements statements = getStatementCache(db)
+                .getUpdate(mapper, TextUtils.isEmpty(extraWhere) ? null : extraWhere);
+        SQLiteStatement statement = statements.acquire();
+        try {
+            mapper.bind(statement, item);
+
+            int index = statements.getColumnCount();
+            statement.bindLong(++index, System.currentTimeMillis());
+            statement.bindLong(++index, item.getId());
+            if (!TextUtils.isEmpty(extraWhere) && (whereArgs != null)) {
+                for (String arg : whereArgs) {
+                    statement.bindString(++index, arg);
+                }
+            }
+
+            return (statement.executeUpdateDelete() == 1);
+        } finally {
+            statements.release(statement);
+        }
+    }
+
+    /**
+     * Returns the statement cache of the database, a new one if the database
+     * was reopened since the last call.
+     */
+    private StatementCache getStatementCache(SQLiteDatabase db) {
+        StatementCache cache = statementCache;
+        if ((cache == null) || (cache.getDatabase() != db)) {
+            synchronized (this) {
+                cache = statementCache;
+                if ((cache == null) || (cache.getDatabase() != db)) {
+                    if (cache != null) {
+                        cache.close();
+                    }
+                    cache = new StatementCache(db);
+                    statementCache = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Binds the value to the parameter, or binds null if there is no value.
+     */
+    public static void bindString(SQLiteStatement statement, int index, String value) {
+        if (value != null) {
+            statement.bindString(index, value);
+        } else {
+            statement.bindNull(index);
+        }
+    }
+
     public boolean delete(SqlMapper mapper, DomainObject item)  {
-        return delete(mapper, item, this.getWritableDatabase());
+        return write(db -> delete(mapper, item, db));
     }
 
     public boolean delete(SqlMapper mapper, DomainObject item, SQLiteDatabase db)  {
         return (db.delete(mapper.getTableName(), "_id=?", new String[]{item.getId().toString()}) == 1);
     }
 
+    /**
+     * Runs the task inside a transaction on the writer thread and returns its
+     * result. The calling thread waits for the task. A task that calls write
+     * again runs inline, in the same transaction.
+     *
+     * The task must not wait on other threads that may be waiting to write.
+     */
+    public <T, E extends Exception> T write(final WriteTask<T, E> task) throws E {
+        return execute(db -> {
+            db.beginTransaction();
+            try {
+                T result = task.run(db);
+                db.setTransactionSuccessful();
+                return result;
+            } finally {
+                db.endTransaction();
+            }
+        });
+    }
+
+    /**
+     * Runs the task on the writer thread outside of a transaction, nothing else
+     * is written while it runs.
+     */
+    public <T, E extends Exception> T runOnWriter(WriteTask<T, E> task) throws E {
+        return execute(task);
+    }
+
+    /**
+     * Copies the committed pages of the write-ahead log into the database file
+     * and truncates the log. Call it when the app is idle, like after the end of
+     * day processing, and before copying the database file.
+     */
+    public void checkpoint() {
+        if (!writeAheadLogging) {
+            return;
+        }
+
+        execute(db -> {
+            StopWatch sw = StopWatch.newInstance();
+            Cursor cursor = db.rawQuery("PRAGMA wal_checkpoint(TRUNCATE)", null);
+            try {
+                cursor.moveToFirst();
+            } finally {
+                cursor.close();
+            }
+            Log.d(TAG, String.format("SqlConnection.checkpoint took %d ms", sw.stop()));
+            return null;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T, E extends Exception> T execute(final WriteTask<T, E> task) throws E {
+        if ((writer == null) || (Thread.currentThread() == writerThread)) {
+            return task.run(getWritableDatabase());
+        }
+
+        Future<T> future = writer.submit(() -> task.run(getWritableDatabase()));
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            // the task only throws E or unchecked exceptions
+            throw (E) cause;
+        }
+    }
+
 /////////////////////////////////
 
+    @Override
+    public synchronized void close() {
+        if (statementCache != null) {
+            statementCache.close();
+            statementCache = null;
+        }
+        super.close();
+    }
+
     @Override
     public void onCreate(SQLiteDatabase db) {
         executeScript(this.createScript, db);
@@ -227,6 +423,16 @@ public class SqlConnection extends SQLiteOpenHelper {
     public void onConfigure(SQLiteDatabase db){
         super.onConfigure(db);
         db.setForeignKeyConstraintsEnabled(true);
+
+        if (writeAheadLogging) {
+            // only the writer connection commits, so only it runs auto checkpoints
+            Cursor cursor = db.rawQuery("PRAGMA wal_autocheckpoint=" + WAL_AUTO_CHECKPOINT_PAGES, null);
+            try {
+                cursor.moveToFirst();
+            } finally {
+                cursor.close();
+            }
+        }
     }
 
     protected String getScript(String scriptName) {
@@ -259,14 +465,4 @@ public class SqlConnection extends SQLiteOpenHelper {
         }
         return sql;
     }
-
-    public Map<String, Integer> getColumnMap(Cursor cursor) {
-        Map<String, Integer> columnMap = new Hashtable<>(cursor.getColumnCount());
-
-        for (int x = 0; x < cursor.getColumnCount(); x++) {
-            columnMap.put(cursor.getColumnName(x), x);
-        }
-
-        return columnMap;
-    }
 }
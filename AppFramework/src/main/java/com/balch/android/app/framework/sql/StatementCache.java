@@ -0,0 +1,199 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 7:25 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ */
+
+
+package com.balch.android.app.framework.sql;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The compiled insert and update statements of the {@link StatementMapper}s
+ * written through one database, keyed by table and operation.
+ *
+ * A statement holds its bind arguments, so it is confined to one thread at a
+ * time: {@link Statements#acquire} hands an idle statement to the calling
+ * thread, which binds and executes it and gives it back with
+ * {@link Statements#release}. Threads running the same statement at the same
+ * time each get their own copy. No lock is held while a statement executes,
+ * so a thread inside a transaction can never wait on a statement owned by a
+ * thread that is waiting on that transaction.
+ */
+class StatementCache {
+
+    private static final String NO_EXTRA_WHERE = "";
+
+    private final SQLiteDatabase db;
+
+    // table -> insert statements
+    private final ConcurrentMap<String, Statements> inserts = new ConcurrentHashMap<>();
+
+    // table -> extra where clause -> update statements
+    private final ConcurrentMap<String, ConcurrentMap<String, Statements>> updates = new ConcurrentHashMap<>();
+
+    private volatile boolean closed;
+
+    StatementCache(SQLiteDatabase db) {
+        this.db = db;
+    }
+
+    SQLiteDatabase getDatabase() {
+        return db;
+    }
+
+    /**
+     * Returns the statements inserting a row of the mapper's table. The values
+     * of the mapper's columns are followed by the create and update times.
+     */
+    Statements getInsert(StatementMapper<?> mapper) {
+        String table = mapper.getTableName();
+        Statements statements = inserts.get(table);
+        if (statements == null) {
+            statements = putIfAbsent(inserts, table, new Statements(this,
+                    getInsertSql(table, mapper.getColumnNames()), mapper.getColumnNames().length));
+        }
+        return statements;
+    }
+
+    /**
+     * Returns the statements updating a row of the mapper's table by id. The
+     * values of the mapper's columns are followed by the update time, the id
+     * and the arguments of the extra where clause.
+     */
+    Statements getUpdate(StatementMapper<?> mapper, String extraWhere) {
+        String table = mapper.getTableName();
+        ConcurrentMap<String, Statements> tableUpdates = updates.get(table);
+        if (tableUpdates == null) {
+            tableUpdates = putIfAbsent(updates, table, new ConcurrentHashMap<String, Statements>());
+        }
+
+        String key = (extraWhere != null) ? extraWhere : NO_EXTRA_WHERE;
+        Statements statements = tableUpdates.get(key);
+        if (statements == null) {
+            statements = putIfAbsent(tableUpdates, key, new Statements(this,
+                    getUpdateSql(table, mapper.getColumnNames(), key), mapper.getColumnNames().length));
+        }
+        return statements;
+    }
+
+    /**
+     * Closes every idle statement. Statements still owned by a thread are
+     * closed when they are released.
+     */
+    void close() {
+        closed = true;
+        for (Statements statements : inserts.values()) {
+            statements.closeIdle();
+        }
+        for (Map<String, Statements> tableUpdates : updates.values()) {
+            for (Statements statements : tableUpdates.values()) {
+                statements.closeIdle();
+            }
+        }
+    }
+
+    static String getInsertSql(String table, String[] columns) {
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(table).append(" (");
+        StringBuilder values = new StringBuilder(") VALUES (");
+        for (String column : columns) {
+            sql.append(column).append(",");
+            values.append("?,");
+        }
+        sql.append(SqlMapper.COLUMN_CREATE_TIME).append(",").append(SqlMapper.COLUMN_UPDATE_TIME);
+        values.append("?,?)");
+        return sql.append(values).toString();
+    }
+
+    static String getUpdateSql(String table, String[] columns, String extraWhere) {
+        StringBuilder sql = new StringBuilder("UPDATE ").append(table).append(" SET ");
+        for (String column : columns) {
+            sql.append(column).append("=?,");
+        }
+        sql.append(SqlMapper.COLUMN_UPDATE_TIME).append("=?")
+                .append(" WHERE ").append(SqlMapper.COLUMN_ID).append("=?");
+        if (!extraWhere.isEmpty()) {
+            sql.append(" ").append(extraWhere);
+        }
+        return sql.toString();
+    }
+
+    private static <K, V> V putIfAbsent(ConcurrentMap<K, V> map, K key, V value) {
+        V existing = map.putIfAbsent(key, value);
+        return (existing != null) ? existing : value;
+    }
+
+    /**
+     * The idle compiled copies of one SQL statement.
+     */
+    static class Statements {
+        private final StatementCache cache;
+        private final String sql;
+        private final int columnCount;
+        private final Queue<SQLiteStatement> idle = new ConcurrentLinkedQueue<>();
+
+        Statements(StatementCache cache, String sql, int columnCount) {
+            this.cache = cache;
+            this.sql = sql;
+            this.columnCount = columnCount;
+        }
+
+        String getSql() {
+            return sql;
+        }
+
+        /**
+         * Returns the number of mapper columns bound before the fixed parameters.
+         */
+        int getColumnCount() {
+            return columnCount;
+        }
+
+        /**
+         * Returns a statement owned by the calling thread until it is released.
+         */
+        SQLiteStatement acquire() {
+            SQLiteStatement statement = idle.poll();
+            return (statement != null) ? statement : cache.db.compileStatement(sql);
+        }
+
+        void release(SQLiteStatement statement) {
+            statement.clearBindings();
+            idle.offer(statement);
+            if (cache.closed) {
+                closeIdle();
+            }
+        }
+
+        private void closeIdle() {
+            SQLiteStatement statement;
+            while ((statement = idle.poll()) != null) {
+                statement.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 7:20 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ */
+
+
+package com.balch.android.app.framework.sql;
+
+import android.database.sqlite.SQLiteStatement;
+
+import com.balch.android.app.framework.core.DomainObject;
+
+/**
+ * A SqlMapper that can bind its columns straight into a compiled statement.
+ * SqlConnection inserts and updates the rows of these mappers through cached
+ * statements instead of building ContentValues on every call.
+ */
+public interface StatementMapper<T extends DomainObject> extends SqlMapper<T> {
+
+    /**
+     * Returns the columns written by {@link #bind}, in binding order. The
+     * columns must be the same for every call.
+     */
+    String[] getColumnNames();
+
+    /**
+     * Binds the value of each column returned by {@link #getColumnNames} to
+     * parameters 1 through getColumnNames().length of the statement.
+     */
+    void bind(SQLiteStatement statement, T domainObject);
+
+}
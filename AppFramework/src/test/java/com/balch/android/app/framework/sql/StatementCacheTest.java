@@ -0,0 +1,148 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 7:40 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ */
+
+
+package com.balch.android.app.framework.sql;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import com.balch.android.app.framework.core.DomainObject;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class StatementCacheTest {
+
+    private static class Item extends DomainObject {
+    }
+
+    private static class ItemMapper implements StatementMapper<Item> {
+        @Override
+        public String getTableName() {
+            return "item";
+        }
+
+        @Override
+        public ContentValues getContentValues(Item domainObject) {
+            return null;
+        }
+
+        @Override
+        public RowMapper<Item> getRowMapper(Cursor cursor) {
+            return null;
+        }
+
+        @Override
+        public String[] getColumnNames() {
+            return new String[]{"name", "price"};
+        }
+
+        @Override
+        public void bind(SQLiteStatement statement, Item domainObject) {
+        }
+    }
+
+    private SQLiteDatabase db;
+    private StatementCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        db = mock(SQLiteDatabase.class);
+        when(db.compileStatement(anyString()))
+                .thenAnswer(invocation -> mock(SQLiteStatement.class));
+        cache = new StatementCache(db);
+    }
+
+    @Test
+    public void testInsertSql() throws Exception {
+        StatementCache.Statements statements = cache.getInsert(new ItemMapper());
+
+        assertEquals("INSERT INTO item (name,price,create_time,update_time) VALUES (?,?,?,?)",
+                statements.getSql());
+        assertEquals(2, statements.getColumnCount());
+        assertSame(statements, cache.getInsert(new ItemMapper()));
+    }
+
+    @Test
+    public void testUpdateSql() throws Exception {
+        StatementCache.Statements statements = cache.getUpdate(new ItemMapper(), null);
+        StatementCache.Statements extraStatements = cache.getUpdate(new ItemMapper(), "AND status=?");
+
+        assertEquals("UPDATE item SET name=?,price=?,update_time=? WHERE _id=?",
+                statements.getSql());
+        assertEquals("UPDATE item SET name=?,price=?,update_time=? WHERE _id=? AND status=?",
+                extraStatements.getSql());
+        assertNotSame(statements, extraStatements);
+        assertSame(extraStatements, cache.getUpdate(new ItemMapper(), "AND status=?"));
+    }
+
+    @Test
+    public void testReleasedStatementIsReused() throws Exception {
+        StatementCache.Statements statements = cache.getInsert(new ItemMapper());
+
+        SQLiteStatement statement = statements.acquire();
+        statements.release(statement);
+
+        assertSame(statement, statements.acquire());
+        verify(statement, times(1)).clearBindings();
+        verify(db, times(1)).compileStatement(anyString());
+    }
+
+    @Test
+    public void testStatementIsOwnedByOneCaller() throws Exception {
+        StatementCache.Statements statements = cache.getInsert(new ItemMapper());
+
+        SQLiteStatement statement1 = statements.acquire();
+        SQLiteStatement statement2 = statements.acquire();
+
+        assertNotSame(statement1, statement2);
+        verify(db, times(2)).compileStatement(anyString());
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        StatementCache.Statements statements = cache.getInsert(new ItemMapper());
+
+        SQLiteStatement idle = statements.acquire();
+        SQLiteStatement owned = statements.acquire();
+        statements.release(idle);
+
+        cache.close();
+        verify(idle, times(1)).close();
+        verify(owned, times(0)).close();
+
+        statements.release(owned);
+        verify(owned, times(1)).close();
+    }
+}
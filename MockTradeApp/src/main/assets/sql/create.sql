@@ -49,6 +49,7 @@ CREATE TABLE [order] (
 );
 
 CREATE INDEX order_account_idx ON [order](account_id);
+CREATE INDEX order_status_idx ON [order](status, duration);
 
 CREATE TABLE [transaction] (
     _id INTEGER PRIMARY KEY AUTOINCREMENT,
@@ -77,14 +78,30 @@ CREATE TABLE snapshot_totals (
 CREATE INDEX snapshot_totals_account_idx ON [snapshot_totals](account_id);
 CREATE INDEX snapshot_totals_query_idx ON [snapshot_totals](account_id, snapshot_time);
 
-CREATE VIEW IF NOT EXISTS snapshot_totals_daily
-AS
-SELECT n.*
-FROM snapshot_totals n
-INNER JOIN (
-  SELECT _id, MAX(snapshot_time) AS snapshot_time
-  FROM snapshot_totals
-  WHERE strftime("%w",snapshot_time/1000, 'unixepoch') NOT IN ('0', '6')
-  GROUP BY date(snapshot_time/1000, 'unixepoch'), account_id
-) AS max USING (_id, snapshot_time);
+-- the last weekday snapshot of each account per UTC day (snapshot_time/86400000)
+CREATE TABLE snapshot_totals_daily (
+    _id INTEGER PRIMARY KEY AUTOINCREMENT,
+    account_id INTEGER  NOT NULL REFERENCES account(_id) ON DELETE CASCADE,
+    snapshot_day INTEGER NOT NULL,
+    snapshot_time INTEGER NOT NULL,
+    cost_basis INTEGER NOT NULL,
+    total_value INTEGER NOT NULL,
+    today_change INTEGER NOT NULL,
+    create_time INTEGER NOT NULL,
+    update_time INTEGER NOT NULL
+);
+
+CREATE UNIQUE INDEX snapshot_totals_daily_day_idx ON [snapshot_totals_daily](account_id, snapshot_day);
+CREATE INDEX snapshot_totals_daily_query_idx ON [snapshot_totals_daily](account_id, snapshot_time);
+CREATE INDEX snapshot_totals_daily_time_idx ON [snapshot_totals_daily](snapshot_time);
+
+
+CREATE TABLE fundamentals (
+    _id INTEGER PRIMARY KEY AUTOINCREMENT,
+    symbol TEXT NOT NULL,
+    dividend_per_share INTEGER NOT NULL,
+    create_time INTEGER NOT NULL,
+    update_time INTEGER NOT NULL
+);
 
+CREATE UNIQUE INDEX fundamentals_symbol_idx ON fundamentals(symbol);
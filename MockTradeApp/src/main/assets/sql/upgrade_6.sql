@@ -0,0 +1,10 @@
+-- daily fundamentals (dividend yield) fetched separately from the intraday quotes
+CREATE TABLE IF NOT EXISTS fundamentals (
+    _id INTEGER PRIMARY KEY AUTOINCREMENT,
+    symbol TEXT NOT NULL,
+    dividend_per_share INTEGER NOT NULL,
+    create_time INTEGER NOT NULL,
+    update_time INTEGER NOT NULL
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS fundamentals_symbol_idx ON fundamentals(symbol);
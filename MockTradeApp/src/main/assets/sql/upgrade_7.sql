@@ -0,0 +1,2 @@
+-- open order scans and the end of session DAY order expiry filter on status and duration
+CREATE INDEX IF NOT EXISTS order_status_idx ON [order](status, duration);
@@ -0,0 +1,31 @@
+-- snapshot_totals_daily becomes a table kept up to date as snapshots are inserted
+DROP VIEW IF EXISTS snapshot_totals_daily;
+
+CREATE TABLE IF NOT EXISTS snapshot_totals_daily (
+    _id INTEGER PRIMARY KEY AUTOINCREMENT,
+    account_id INTEGER  NOT NULL REFERENCES account(_id) ON DELETE CASCADE,
+    snapshot_day INTEGER NOT NULL,
+    snapshot_time INTEGER NOT NULL,
+    cost_basis INTEGER NOT NULL,
+    total_value INTEGER NOT NULL,
+    today_change INTEGER NOT NULL,
+    create_time INTEGER NOT NULL,
+    update_time INTEGER NOT NULL
+);
+
+-- backfill with the rows the view returned
+INSERT INTO snapshot_totals_daily (account_id, snapshot_day, snapshot_time, cost_basis,
+    total_value, today_change, create_time, update_time)
+SELECT n.account_id, n.snapshot_time/86400000, n.snapshot_time, n.cost_basis,
+    n.total_value, n.today_change, n.create_time, n.update_time
+FROM snapshot_totals n
+INNER JOIN (
+  SELECT _id, MAX(snapshot_time) AS snapshot_time
+  FROM snapshot_totals
+  WHERE strftime("%w",snapshot_time/1000, 'unixepoch') NOT IN ('0', '6')
+  GROUP BY date(snapshot_time/1000, 'unixepoch'), account_id
+) AS max USING (_id, snapshot_time);
+
+CREATE UNIQUE INDEX IF NOT EXISTS snapshot_totals_daily_day_idx ON [snapshot_totals_daily](account_id, snapshot_day);
+CREATE INDEX IF NOT EXISTS snapshot_totals_daily_query_idx ON [snapshot_totals_daily](account_id, snapshot_time);
+CREATE INDEX IF NOT EXISTS snapshot_totals_daily_time_idx ON [snapshot_totals_daily](snapshot_time);
@@ -0,0 +1,254 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 7:50 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+package com.balch.mocktrade;
+
+import android.util.Log;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+import java.util.Locale;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Interceptor;
+import okhttp3.Protocol;
+import okhttp3.Response;
+
+/**
+ * Collects per call HTTP timings (DNS, connect, time to first byte and body
+ * read) from an OkHttp EventListener, plus cache and compression counts, so
+ * we can see where each poll spends its time.
+ */
+public class HttpMetrics {
+    private static final String TAG = HttpMetrics.class.getSimpleName();
+
+    public enum Phase {
+        DNS, CONNECT, TTFB, BODY, TOTAL
+    }
+
+    private final long[] phaseCounts = new long[Phase.values().length];
+    private final long[] phaseTotalNanos = new long[Phase.values().length];
+    private final long[] phaseMaxNanos = new long[Phase.values().length];
+
+    private long callCount;
+    private long failedCount;
+    private long connectionReuseCount;
+    private long networkResponseCount;
+    private long gzipResponseCount;
+    private long bodyBytes;
+
+    private final EventListener.Factory eventListenerFactory = call -> new CallTimer();
+
+    private final Interceptor gzipVerificationInterceptor = chain -> {
+        // network interceptors see the response before OkHttp transparently
+        // decompresses it, so this is where we can tell if gzip was used
+        Response response = chain.proceed(chain.request());
+        boolean isGzip = "gzip".equalsIgnoreCase(response.header("Content-Encoding"));
+        synchronized (HttpMetrics.this) {
+            networkResponseCount++;
+            if (isGzip) {
+                gzipResponseCount++;
+            }
+        }
+        if (!isGzip && (response.body() != null) && (response.body().contentLength() != 0)) {
+            Log.w(TAG, "Uncompressed response: " + chain.request().url().encodedPath());
+        }
+        return response;
+    };
+
+    EventListener.Factory getEventListenerFactory() {
+        return eventListenerFactory;
+    }
+
+    Interceptor getGzipVerificationInterceptor() {
+        return gzipVerificationInterceptor;
+    }
+
+    private synchronized void record(Phase phase, long startNanos, long endNanos) {
+        if ((startNanos != 0) && (endNanos >= startNanos)) {
+            long nanos = endNanos - startNanos;
+            int index = phase.ordinal();
+            phaseCounts[index]++;
+            phaseTotalNanos[index] += nanos;
+            phaseMaxNanos[index] = Math.max(phaseMaxNanos[index], nanos);
+        }
+    }
+
+    private synchronized void recordCall(boolean success, boolean isConnectionReused, long byteCount) {
+        callCount++;
+        if (!success) {
+            failedCount++;
+        }
+        if (isConnectionReused) {
+            connectionReuseCount++;
+        }
+        bodyBytes += byteCount;
+    }
+
+    public synchronized long getCallCount() {
+        return callCount;
+    }
+
+    public synchronized long getFailedCount() {
+        return failedCount;
+    }
+
+    public synchronized long getConnectionReuseCount() {
+        return connectionReuseCount;
+    }
+
+    public synchronized long getGzipResponseCount() {
+        return gzipResponseCount;
+    }
+
+    public synchronized long getNetworkResponseCount() {
+        return networkResponseCount;
+    }
+
+    public synchronized long getBodyBytes() {
+        return bodyBytes;
+    }
+
+    /**
+     * Number of calls that went through the phase
+     */
+    public synchronized long getCount(Phase phase) {
+        return phaseCounts[phase.ordinal()];
+    }
+
+    /**
+     * Average time in ms spent in the phase over all calls that went through it
+     */
+    public synchronized double getAverageMs(Phase phase) {
+        int index = phase.ordinal();
+        return (phaseCounts[index] == 0) ? 0 : phaseTotalNanos[index] / 1e6 / phaseCounts[index];
+    }
+
+    /**
+     * Longest time in ms spent in the phase by a single call
+     */
+    public synchronized double getMaxMs(Phase phase) {
+        return phaseMaxNanos[phase.ordinal()] / 1e6;
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder builder = new StringBuilder("HttpMetrics{calls=").append(callCount)
+                .append(", failed=").append(failedCount)
+                .append(", reused=").append(connectionReuseCount)
+                .append(", network=").append(networkResponseCount)
+                .append(", gzip=").append(gzipResponseCount)
+                .append(", bodyBytes=").append(bodyBytes);
+        // average/max per phase
+        for (Phase phase : Phase.values()) {
+            builder.append(String.format(Locale.US, ", %s=%.1f/%.1fms",
+                    phase.name().toLowerCase(Locale.US), getAverageMs(phase),
+                    phaseMaxNanos[phase.ordinal()] / 1e6));
+        }
+        return builder.append('}').toString();
+    }
+
+    /**
+     * One instance per call, OkHttp delivers the events of a call in order
+     */
+    private class CallTimer extends EventListener {
+        private long callStart;
+        private long dnsStart;
+        private long connectStart;
+        private long requestStart;
+        private long bodyStart;
+        private long byteCount;
+        private boolean isConnectionReused = true;
+
+        @Override
+        public void callStart(Call call) {
+            callStart = System.nanoTime();
+        }
+
+        @Override
+        public void dnsStart(Call call, String domainName) {
+            dnsStart = System.nanoTime();
+        }
+
+        @Override
+        public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+            record(Phase.DNS, dnsStart, System.nanoTime());
+        }
+
+        @Override
+        public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+            connectStart = System.nanoTime();
+            isConnectionReused = false;
+        }
+
+        @Override
+        public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+            record(Phase.CONNECT, connectStart, System.nanoTime());
+        }
+
+        @Override
+        public void connectFailed(Call call, InetSocketAddress inetSocketAddress, Proxy proxy,
+                                  Protocol protocol, IOException ioe) {
+            record(Phase.CONNECT, connectStart, System.nanoTime());
+        }
+
+        @Override
+        public void requestHeadersStart(Call call) {
+            requestStart = System.nanoTime();
+        }
+
+        @Override
+        public void responseHeadersEnd(Call call, Response response) {
+            // responseHeadersStart fires before the read blocks, so the first
+            // byte has only arrived once the headers have been read
+            record(Phase.TTFB, requestStart, System.nanoTime());
+        }
+
+        @Override
+        public void responseBodyStart(Call call) {
+            bodyStart = System.nanoTime();
+        }
+
+        @Override
+        public void responseBodyEnd(Call call, long byteCount) {
+            record(Phase.BODY, bodyStart, System.nanoTime());
+            this.byteCount = byteCount;
+        }
+
+        @Override
+        public void callEnd(Call call) {
+            record(Phase.TOTAL, callStart, System.nanoTime());
+            recordCall(true, isConnectionReused, byteCount);
+        }
+
+        @Override
+        public void callFailed(Call call, IOException ioe) {
+            record(Phase.TOTAL, callStart, System.nanoTime());
+            recordCall(false, isConnectionReused, byteCount);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 7:50 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+package com.balch.mocktrade;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+
+/**
+ * Transport settings for the OkHttpClient used by the model apis.
+ *
+ * The defaults are tuned for the quote polling cadence: a couple of idle
+ * connections are kept alive long enough to span the order poll interval so
+ * consecutive polls skip DNS, connect and TLS, and a small disk cache lets
+ * responses that allow caching (like the daily stats) be served locally.
+ * Use the {@link Builder} to change any of them.
+ */
+public class HttpTransportProfile {
+
+    private static final long DEFAULT_CACHE_SIZE = 5 * 1024 * 1024;
+    private static final int DEFAULT_MAX_IDLE_CONNECTIONS = 2;
+    private static final long DEFAULT_KEEP_ALIVE_MS = TimeUnit.MINUTES.toMillis(5);
+    private static final long DEFAULT_CONNECT_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(10);
+    private static final long DEFAULT_READ_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(20);
+
+    private final File cacheDir;
+    private final long cacheSize;
+    private final int maxIdleConnections;
+    private final long keepAliveMs;
+    private final long connectTimeoutMs;
+    private final long readTimeoutMs;
+
+    public HttpTransportProfile(File cacheDir, long cacheSize, int maxIdleConnections,
+                                long keepAliveMs, long connectTimeoutMs, long readTimeoutMs) {
+        this.cacheDir = cacheDir;
+        this.cacheSize = cacheSize;
+        this.maxIdleConnections = maxIdleConnections;
+        this.keepAliveMs = keepAliveMs;
+        this.connectTimeoutMs = connectTimeoutMs;
+        this.readTimeoutMs = readTimeoutMs;
+    }
+
+    /**
+     * Profile for polling with the defaults. Pass a null cacheDir to run without a disk cache.
+     */
+    public static HttpTransportProfile forPolling(File cacheDir) {
+        return new Builder().setCacheDir(cacheDir).build();
+    }
+
+    public File getCacheDir() {
+        return cacheDir;
+    }
+
+    public long getCacheSize() {
+        return cacheSize;
+    }
+
+    public int getMaxIdleConnections() {
+        return maxIdleConnections;
+    }
+
+    public long getKeepAliveMs() {
+        return keepAliveMs;
+    }
+
+    public long getConnectTimeoutMs() {
+        return connectTimeoutMs;
+    }
+
+    public long getReadTimeoutMs() {
+        return readTimeoutMs;
+    }
+
+    /**
+     * Applies the profile to the builder and hooks up the metrics and gzip verification
+     */
+    OkHttpClient.Builder apply(OkHttpClient.Builder builder, HttpMetrics metrics) {
+        if (cacheDir != null) {
+            builder.cache(new Cache(new File(cacheDir, "http"), cacheSize));
+        }
+
+        return builder
+                .connectionPool(new ConnectionPool(maxIdleConnections, keepAliveMs, TimeUnit.MILLISECONDS))
+                .connectTimeout(connectTimeoutMs, TimeUnit.MILLISECONDS)
+                .readTimeout(readTimeoutMs, TimeUnit.MILLISECONDS)
+                .retryOnConnectionFailure(true)
+                .eventListenerFactory(metrics.getEventListenerFactory())
+                .addNetworkInterceptor(metrics.getGzipVerificationInterceptor());
+    }
+
+    /**
+     * Starts from the polling defaults, without a disk cache
+     */
+    public static class Builder {
+        private File cacheDir = null;
+        private long cacheSize = DEFAULT_CACHE_SIZE;
+        private int maxIdleConnections = DEFAULT_MAX_IDLE_CONNECTIONS;
+        private long keepAliveMs = DEFAULT_KEEP_ALIVE_MS;
+        private long connectTimeoutMs = DEFAULT_CONNECT_TIMEOUT_MS;
+        private long readTimeoutMs = DEFAULT_READ_TIMEOUT_MS;
+
+        /**
+         * Directory of the disk cache, null to run without one
+         */
+        public Builder setCacheDir(File cacheDir) {
+            this.cacheDir = cacheDir;
+            return this;
+        }
+
+        public Builder setCacheSize(long cacheSize) {
+            this.cacheSize = cacheSize;
+            return this;
+        }
+
+        public Builder setMaxIdleConnections(int maxIdleConnections) {
+            this.maxIdleConnections = maxIdleConnections;
+            return this;
+        }
+
+        /**
+         * How long an idle connection is kept, this should span the poll interval
+         * for consecutive polls to reuse the connection
+         */
+        public Builder setKeepAlive(long keepAlive, TimeUnit unit) {
+            this.keepAliveMs = unit.toMillis(keepAlive);
+            return this;
+        }
+
+        public Builder setConnectTimeout(long timeout, TimeUnit unit) {
+            this.connectTimeoutMs = unit.toMillis(timeout);
+            return this;
+        }
+
+        public Builder setReadTimeout(long timeout, TimeUnit unit) {
+            this.readTimeoutMs = unit.toMillis(timeout);
+            return this;
+        }
+
+        public HttpTransportProfile build() {
+            if (maxIdleConnections < 0) {
+                throw new IllegalArgumentException("maxIdleConnections < 0: " + maxIdleConnections);
+            }
+            if (keepAliveMs <= 0) {
+                throw new IllegalArgumentException("keepAliveMs <= 0: " + keepAliveMs);
+            }
+            return new HttpTransportProfile(cacheDir, cacheSize, maxIdleConnections,
+                    keepAliveMs, connectTimeoutMs, readTimeoutMs);
+        }
+    }
+}
@@ -41,6 +41,7 @@ import com.balch.android.app.framework.types.Money;
 import com.balch.mocktrade.account.Account;
 import com.balch.mocktrade.investment.Investment;
 import com.balch.mocktrade.order.Order;
+import com.balch.mocktrade.order.OrderRejectedException;
 import com.balch.mocktrade.portfolio.AccountViewHolder;
 import com.balch.mocktrade.portfolio.PortfolioAdapter;
 import com.balch.mocktrade.portfolio.PortfolioData;
@@ -54,6 +55,7 @@ import java.util.List;
 
 import io.reactivex.Observable;
 import io.reactivex.android.schedulers.AndroidSchedulers;
+import io.reactivex.disposables.CompositeDisposable;
 import io.reactivex.disposables.Disposable;
 import io.reactivex.schedulers.Schedulers;
 
@@ -83,6 +85,7 @@ public class MainPresenter extends BasePresenter<MainPortfolioView> {
     private PortfolioAdapter portfolioAdapter;
 
     private Disposable disposableNewAccount = null;
+    private final CompositeDisposable disposableNewOrders = new CompositeDisposable();
     private ViewProvider viewProvider;
     private ActivityBridge listener;
 
@@ -296,14 +299,40 @@ public class MainPresenter extends BasePresenter<MainPortfolioView> {
 
     public void createNewOrder(Order order) {
         if (order != null) {
-            portfolioModel.createOrder(order);
-            updateView();
-
-            portfolioModel.processOrders(view.getContext(),
-                    (order.getStrategy() == Order.OrderStrategy.MANUAL));
+            createNewOrderAsync(order);
         }
     }
 
+    private void createNewOrderAsync(final Order order) {
+        listener.showProgress(true);
+
+        // creating the order waits for the account lane and the writer,
+        // every order is kept so a second one does not drop the first
+        disposableNewOrders.add(Observable.just(true)
+                .subscribeOn(Schedulers.io())
+                .map(aBoolean -> {
+                    portfolioModel.createOrder(order);
+                    return true;
+                })
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(aBoolean -> {
+                            listener.showProgress(false);
+                            updateView();
+
+                            portfolioModel.processOrders(view.getContext(),
+                                    (order.getStrategy() == Order.OrderStrategy.MANUAL));
+                        },
+                        throwable -> {
+                            listener.showProgress(false);
+                            if (throwable instanceof OrderRejectedException) {
+                                listener.showSnackBar(view, view.getResources().getString(R.string.quantity_edit_error_insufficient_funds),
+                                        R.color.failure);
+                            } else {
+                                Log.e(TAG, "createNewOrderAsync error", throwable);
+                            }
+                        }));
+    }
+
     public void createNewAccount(Account account) {
         if (account != null) {
             Account newAccount = new Account(account.getName(), account.getDescription(),
@@ -351,6 +380,7 @@ public class MainPresenter extends BasePresenter<MainPortfolioView> {
         performanceItemLiveData.removeObserver(graphDataObserver);
         portfolioLiveData.removeObserver(portfolioDataObserver);
         disposeNewAccount();
+        disposableNewOrders.clear();
 
         appSetting = null;
         portfolioModel = null;
@@ -23,7 +23,9 @@
 
 package com.balch.mocktrade;
 
+import com.balch.mocktrade.finance.FundamentalsResult;
 import com.balch.mocktrade.finance.IEXFinanceApi;
+import com.balch.mocktrade.finance.IEXFundamentalsTypeAdapter;
 import com.balch.mocktrade.finance.IEXQuoteTypeAdapter;
 import com.balch.mocktrade.finance.QuoteResult;
 import com.google.gson.Gson;
@@ -42,10 +44,22 @@ public class ModelApiFactory {
 
     private IEXFinanceApi IEXFinanceApi = null;
 
+    private final HttpTransportProfile transportProfile;
+    private final HttpMetrics httpMetrics = new HttpMetrics();
+
     private final static Gson gson = new GsonBuilder()
             .registerTypeAdapter(QuoteResult.class, new IEXQuoteTypeAdapter())
+            .registerTypeAdapter(FundamentalsResult.class, new IEXFundamentalsTypeAdapter())
             .create();
 
+    public ModelApiFactory(HttpTransportProfile transportProfile) {
+        this.transportProfile = transportProfile;
+    }
+
+    public HttpMetrics getHttpMetrics() {
+        return httpMetrics;
+    }
+
     @SuppressWarnings("unchecked")
     public <T> T getModelApi(Class<T> api) {
         if (api == IEXFinanceApi.class) {
@@ -59,12 +73,14 @@ public class ModelApiFactory {
         return null;
     }
 
-    private static Retrofit getRetrofitService(String baseUrl) {
+    private Retrofit getRetrofitService(String baseUrl) {
         HttpLoggingInterceptor interceptor = new HttpLoggingInterceptor();
         interceptor.setLevel(BuildConfig.DEBUG
                 ? HttpLoggingInterceptor.Level.BODY
                 : HttpLoggingInterceptor.Level.NONE);
-        OkHttpClient client = new OkHttpClient.Builder().addInterceptor(interceptor).build();
+        OkHttpClient client = transportProfile.apply(new OkHttpClient.Builder(), httpMetrics)
+                .addInterceptor(interceptor)
+                .build();
 
         return new Retrofit.Builder()
                 .baseUrl(baseUrl)
@@ -24,17 +24,26 @@ package com.balch.mocktrade;
 
 import android.app.Application;
 import android.content.Context;
+import android.content.SharedPreferences;
 import android.content.res.Configuration;
 import android.os.Environment;
 import android.os.StrictMode;
 import android.util.Log;
 
 import com.balch.android.app.framework.sql.SqlConnection;
+import com.balch.mocktrade.account.AccountExecutor;
 import com.balch.mocktrade.finance.FinanceModel;
 import com.balch.mocktrade.finance.FinanceModelImpl;
 import com.balch.mocktrade.finance.IEXFinanceApi;
+import com.balch.mocktrade.finance.LocalFinanceModel;
+import com.balch.mocktrade.finance.QuotePollPlanner;
+import com.balch.mocktrade.order.BuyingPowerLedger;
+import com.balch.mocktrade.order.OrderBook;
+import com.balch.mocktrade.order.OrderSqliteModel;
+import com.balch.mocktrade.order.TrailingStopMarks;
 import com.balch.mocktrade.portfolio.PortfolioModel;
 import com.balch.mocktrade.portfolio.PortfolioSqliteModel;
+import com.balch.mocktrade.services.OrderProcessor;
 import com.balch.mocktrade.services.WearSyncService;
 import com.balch.mocktrade.settings.Settings;
 
@@ -46,6 +55,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.channels.FileChannel;
 import java.util.Arrays;
+import java.util.concurrent.Executors;
 
 import io.reactivex.Completable;
 import io.reactivex.schedulers.Schedulers;
@@ -54,15 +64,40 @@ public class TradeApplication extends Application implements TradeModelProvider,
     private static final String TAG = TradeApplication.class.getSimpleName();
 
     public static final String DATABASE_NAME = "mocktrade.db";
-    private static final int DATABASE_VERSION = 5;
+    private static final int DATABASE_VERSION = 8;
     private static final String DATABASE_CREATES_SCRIPT = "sql/create.sql";
     private static final String DATABASE_UPDATE_SCRIPT_FORMAT = "sql/upgrade_%d.sql";
 
     private static final String DAILY_BACKUP_DATABASE_NAME = "daily_backup";
 
+    private static final long TRAILING_STOP_FLUSH_DELAY_MS = 30000;
+    private static final int MAX_ACCOUNT_LANES = 4;
+
     private volatile SqlConnection sqlConnection;
     private volatile Settings settings;
-    private final ModelApiFactory modelApiFactory = new ModelApiFactory();
+    private volatile FinanceModel financeModel;
+    private volatile boolean financeModelStale;
+    private volatile ModelApiFactory modelApiFactory;
+    private volatile OrderBook orderBook;
+    private volatile OrderProcessor orderProcessor;
+    private volatile TrailingStopMarks trailingStopMarks;
+    private volatile AccountExecutor accountExecutor;
+    private volatile BuyingPowerLedger buyingPowerLedger;
+    private volatile QuotePollPlanner quotePollPlanner;
+
+    // the finance model is built from the quote provider settings, it is
+    // replaced on the next call after any of them changes
+    private final SharedPreferences.OnSharedPreferenceChangeListener quoteProviderListener =
+            (sharedPreferences, key) -> {
+                Settings.Key settingKey = Settings.Key.fromKey(key);
+                if ((settingKey == Settings.Key.PREF_QUOTE_PROVIDER) ||
+                        (settingKey == Settings.Key.PREF_LOCAL_QUOTE_LATENCY) ||
+                        (settingKey == Settings.Key.PREF_LOCAL_QUOTE_ERROR_RATE) ||
+                        (settingKey == Settings.Key.PREF_LOCAL_QUOTE_SEED) ||
+                        (settingKey == Settings.Key.PREF_QUOTE_REPLAY_FILE)) {
+                    financeModelStale = true;
+                }
+            };
 
     @Override
     public void onCreate() {
@@ -91,10 +126,33 @@ public class TradeApplication extends Application implements TradeModelProvider,
                 .subscribe();
     }
 
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+
+        // the process may be killed once it is in the background
+        if ((level >= TRIM_MEMORY_UI_HIDDEN) && (trailingStopMarks != null)) {
+            Completable.fromAction(trailingStopMarks::flush)
+                    .subscribeOn(Schedulers.io())
+                    .subscribe();
+        }
+    }
+
+    @Override
+    public void onTerminate() {
+        if (trailingStopMarks != null) {
+            trailingStopMarks.flush();
+        }
+        super.onTerminate();
+    }
+
     protected void startAlarms() {
         FinanceModel financeModel = getFinanceModel();
         financeModel.setQuoteServiceAlarm();
 
+        // load the open orders before the first quote arrives
+        getOrderBook();
+
         PortfolioModel portfolioModel = new PortfolioSqliteModel(this,
                 getSqlConnection(), financeModel, getSettings());
         portfolioModel.scheduleOrderServiceAlarmIfNeeded();
@@ -112,8 +170,9 @@ public class TradeApplication extends Application implements TradeModelProvider,
         if (sqlConnection == null) {
             synchronized (this) {
                 if (sqlConnection == null) {
+                    // WAL keeps UI queries from waiting on the background writes
                     sqlConnection = new SqlConnection(this, DATABASE_NAME, DATABASE_VERSION,
-                            DATABASE_CREATES_SCRIPT, DATABASE_UPDATE_SCRIPT_FORMAT);
+                            DATABASE_CREATES_SCRIPT, DATABASE_UPDATE_SCRIPT_FORMAT, true);
                 }
             }
         }
@@ -127,7 +186,9 @@ public class TradeApplication extends Application implements TradeModelProvider,
         if (settings == null) {
             synchronized (this) {
                 if (settings == null) {
-                    settings = new Settings(this);
+                    Settings appSettings = new Settings(this);
+                    appSettings.registerOnChangeListener(quoteProviderListener);
+                    settings = appSettings;
                 }
             }
         }
@@ -146,8 +207,6 @@ public class TradeApplication extends Application implements TradeModelProvider,
     }
 
     public static boolean backupDatabase(Context context, boolean isDaily) {
-        boolean success = false;
-
         String backupDBPathPrefix;
 
         if (isDaily) {
@@ -159,7 +218,24 @@ public class TradeApplication extends Application implements TradeModelProvider,
             backupDBPathPrefix = String.valueOf(System.currentTimeMillis());
         }
 
-        String backupDBPath = backupDBPathPrefix + "_" + DATABASE_NAME;
+        final String backupDBPath = backupDBPathPrefix + "_" + DATABASE_NAME;
+
+        // nothing is written while the file is copied, and the checkpoint moves
+        // the write-ahead log into the file first so the copy is complete
+        SqlConnection sqlConnection = ((TradeModelProvider) context.getApplicationContext()).getSqlConnection();
+        return sqlConnection.runOnWriter(db -> {
+            try {
+                sqlConnection.checkpoint();
+            } catch (Exception e) {
+                Log.e(TAG, "Error checkpointing Database", e);
+                return false;
+            }
+            return copyDatabaseFile(context, backupDBPath);
+        });
+    }
+
+    private static boolean copyDatabaseFile(Context context, String backupDBPath) {
+        boolean success = false;
 
         FileChannel src = null;
         FileChannel dst = null;
@@ -199,6 +275,44 @@ public class TradeApplication extends Application implements TradeModelProvider,
     }
 
     public static boolean restoreDatabase(Context context) {
+        // the database is closed and replaced on the writer so no write lands in
+        // the old file, it is reopened by the next read or write
+        TradeApplication application = (TradeApplication) context.getApplicationContext();
+        SqlConnection sqlConnection = application.getSqlConnection();
+        return sqlConnection.runOnWriter(db -> {
+            // pending marks were raised against the old database, flushing them
+            // later would write them over the restored orders
+            TrailingStopMarks marks = application.trailingStopMarks;
+            if (marks != null) {
+                marks.clear();
+            }
+            sqlConnection.close();
+            boolean success = restoreDatabaseFile(context);
+            if (success) {
+                application.onDatabaseRestored();
+            }
+            return success;
+        });
+    }
+
+    /**
+     * Reloads the in memory state that mirrors the database. This runs on the
+     * writer so no fill can be committed against the old state in between.
+     */
+    private void onDatabaseRestored() {
+        BuyingPowerLedger ledger = buyingPowerLedger;
+        if (ledger != null) {
+            ledger.clear();
+        }
+
+        OrderBook book = orderBook;
+        if (book != null) {
+            book.rebuild(new OrderSqliteModel(this, getFinanceModel(),
+                    getSqlConnection(), getSettings()).getOpenOrders());
+        }
+    }
+
+    private static boolean restoreDatabaseFile(Context context) {
         boolean success = false;
 
         FileChannel src = null;
@@ -218,6 +332,10 @@ public class TradeApplication extends Application implements TradeModelProvider,
                 }
 
                 if (backups != null) {
+                    // the log of the old database must not be replayed over the restored one
+                    deleteDatabaseFile(new File(dbFile.getPath() + "-wal"));
+                    deleteDatabaseFile(new File(dbFile.getPath() + "-shm"));
+
                     src = new FileInputStream(backups[backups.length - 1]).getChannel();
                     dst = new FileOutputStream(dbFile).getChannel();
                     dst.transferFrom(src, 0, src.size());
@@ -246,15 +364,156 @@ public class TradeApplication extends Application implements TradeModelProvider,
         return success;
     }
 
+    private static void deleteDatabaseFile(File file) {
+        if (file.exists() && !file.delete()) {
+            Log.w(TAG, "Error deleting " + file.getPath());
+        }
+    }
+
     @Override
     public ModelApiFactory getModelApiFactory() {
+        // double check lock pattern
+        if (modelApiFactory == null) {
+            synchronized (this) {
+                if (modelApiFactory == null) {
+                    modelApiFactory = new ModelApiFactory(HttpTransportProfile.forPolling(getCacheDir()));
+                }
+            }
+        }
+
         return modelApiFactory;
     }
 
     @Override
     public FinanceModel getFinanceModel() {
+        // double check lock pattern
+        // a single instance is shared so all callers go through the same quote cache.
+        // the instance is replaced when one of the quote provider settings changes
+        Settings appSettings = getSettings();
+        if ((financeModel == null) || financeModelStale) {
+            synchronized (this) {
+                if ((financeModel == null) || financeModelStale) {
+                    financeModelStale = false;
+                    financeModel = createFinanceModel(appSettings.getQuoteProvider());
+
+                    // orders are evaluated on every quote the model fetches
+                    getOrderProcessor().subscribe(financeModel);
+                }
+            }
+        }
+
+        return financeModel;
+    }
+
+    @Override
+    public OrderBook getOrderBook() {
+        // double check lock pattern
+        // the book is fully loaded before it is published so callers
+        // never see a partially built book
+        if (orderBook == null) {
+            synchronized (this) {
+                if (orderBook == null) {
+                    OrderBook book = new OrderBook();
+                    book.rebuild(new OrderSqliteModel(this, getFinanceModel(),
+                            getSqlConnection(), getSettings()).getOpenOrders());
+                    orderBook = book;
+                }
+            }
+        }
+
+        return orderBook;
+    }
+
+    @Override
+    public OrderProcessor getOrderProcessor() {
+        // double check lock pattern
+        if (orderProcessor == null) {
+            synchronized (this) {
+                if (orderProcessor == null) {
+                    orderProcessor = new OrderProcessor(this,
+                            Schedulers.from(Executors.newSingleThreadExecutor()));
+                }
+            }
+        }
+
+        return orderProcessor;
+    }
+
+    @Override
+    public TrailingStopMarks getTrailingStopMarks() {
+        // double check lock pattern
+        if (trailingStopMarks == null) {
+            synchronized (this) {
+                if (trailingStopMarks == null) {
+                    trailingStopMarks = new TrailingStopMarks(getSqlConnection(),
+                            TRAILING_STOP_FLUSH_DELAY_MS, Schedulers.io());
+                }
+            }
+        }
+
+        return trailingStopMarks;
+    }
+
+    @Override
+    public AccountExecutor getAccountExecutor() {
+        // double check lock pattern
+        // a few lanes are enough, the accounts mostly wait on the same database
+        if (accountExecutor == null) {
+            synchronized (this) {
+                if (accountExecutor == null) {
+                    int laneCount = Math.max(2, Math.min(MAX_ACCOUNT_LANES,
+                            Runtime.getRuntime().availableProcessors()));
+                    accountExecutor = new AccountExecutor(laneCount);
+                }
+            }
+        }
+
+        return accountExecutor;
+    }
+
+    @Override
+    public BuyingPowerLedger getBuyingPowerLedger() {
+        // double check lock pattern
+        // accounts are loaded into the ledger the first time they are used
+        if (buyingPowerLedger == null) {
+            synchronized (this) {
+                if (buyingPowerLedger == null) {
+                    buyingPowerLedger = new BuyingPowerLedger(new OrderSqliteModel(this, getFinanceModel(),
+                            getSqlConnection(), getSettings()));
+                }
+            }
+        }
+
+        return buyingPowerLedger;
+    }
+
+    @Override
+    public QuotePollPlanner getQuotePollPlanner() {
+        // double check lock pattern
+        // only the QuoteService plans polls, the metrics can be read from anywhere
+        if (quotePollPlanner == null) {
+            synchronized (this) {
+                if (quotePollPlanner == null) {
+                    quotePollPlanner = new QuotePollPlanner();
+                }
+            }
+        }
+
+        return quotePollPlanner;
+    }
+
+    private FinanceModel createFinanceModel(String provider) {
+        if (!Settings.QUOTE_PROVIDER_IEX.equals(provider)) {
+            try {
+                return LocalFinanceModel.create(this, getSettings());
+            } catch (IOException e) {
+                Log.e(TAG, "Error creating local quote provider: " + provider, e);
+            }
+        }
+
         return new FinanceModelImpl(this,
-                modelApiFactory.getModelApi(IEXFinanceApi.class), getSettings());
+                getModelApiFactory().getModelApi(IEXFinanceApi.class),
+                getSqlConnection(), getSettings());
     }
 
 }
@@ -27,7 +27,13 @@ import android.content.Context;
 
 import com.balch.android.app.framework.ModelProvider;
 import com.balch.android.app.framework.sql.SqlConnection;
+import com.balch.mocktrade.account.AccountExecutor;
 import com.balch.mocktrade.finance.FinanceModel;
+import com.balch.mocktrade.finance.QuotePollPlanner;
+import com.balch.mocktrade.order.BuyingPowerLedger;
+import com.balch.mocktrade.order.OrderBook;
+import com.balch.mocktrade.order.TrailingStopMarks;
+import com.balch.mocktrade.services.OrderProcessor;
 import com.balch.mocktrade.settings.Settings;
 
 public interface TradeModelProvider extends ModelProvider {
@@ -40,4 +46,16 @@ public interface TradeModelProvider extends ModelProvider {
     ModelApiFactory getModelApiFactory();
 
     FinanceModel getFinanceModel();
+
+    QuotePollPlanner getQuotePollPlanner();
+
+    OrderBook getOrderBook();
+
+    OrderProcessor getOrderProcessor();
+
+    TrailingStopMarks getTrailingStopMarks();
+
+    AccountExecutor getAccountExecutor();
+
+    BuyingPowerLedger getBuyingPowerLedger();
 }
@@ -0,0 +1,126 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 6:40 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+
+package com.balch.mocktrade.account;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Runs every mutation of an account on that account's lane.
+ *
+ * A lane is a single thread, and accounts are striped across a small fixed
+ * number of lanes by id. Work for one account is strictly ordered, in the
+ * order it was submitted, while accounts on different lanes run in parallel.
+ * Because a cancel and a fill of the same order run on the same lane, one of
+ * them always completes before the other starts, and the second one sees the
+ * order is no longer open.
+ *
+ * A task submitted from the lane it belongs to runs inline. A task should only
+ * touch its own account, waiting on another account's lane from inside a lane
+ * can deadlock.
+ */
+public class AccountExecutor {
+
+    private final ExecutorService[] lanes;
+    private final ThreadLocal<Integer> currentLane = new ThreadLocal<>();
+
+    public AccountExecutor(int laneCount) {
+        if (laneCount < 1) {
+            throw new IllegalArgumentException("laneCount must be at least 1");
+        }
+
+        lanes = new ExecutorService[laneCount];
+        for (int x = 0; x < laneCount; x++) {
+            final int lane = x;
+            lanes[x] = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(() -> {
+                    currentLane.set(lane);
+                    runnable.run();
+                }, "AccountLane-" + lane);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public int getLaneCount() {
+        return lanes.length;
+    }
+
+    public int getLane(long accountId) {
+        int hash = (int) (accountId ^ (accountId >>> 32));
+        return (hash & Integer.MAX_VALUE) % lanes.length;
+    }
+
+    /**
+     * Queues the task on the account's lane.
+     */
+    public <T> Future<T> submit(long accountId, Callable<T> task) {
+        int lane = getLane(accountId);
+        Integer current = currentLane.get();
+        if ((current != null) && (current == lane)) {
+            FutureTask<T> futureTask = new FutureTask<>(task);
+            futureTask.run();
+            return futureTask;
+        }
+
+        return lanes[lane].submit(task);
+    }
+
+    /**
+     * Runs the task on the account's lane and waits for the result. Exceptions
+     * thrown by the task are rethrown to the caller as is.
+     */
+    public <T> T execute(long accountId, Callable<T> task) throws Exception {
+        return getResult(submit(accountId, task));
+    }
+
+    /**
+     * Waits for a future returned by {@link #submit} and unwraps the task's exception.
+     */
+    public static <T> T getResult(Future<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw ex;
+        }
+    }
+
+    public void shutdown() {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+    }
+}
@@ -26,8 +26,10 @@ import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
 import android.util.Log;
 
+import com.balch.android.app.framework.sql.RowMapper;
 import com.balch.android.app.framework.sql.SqlConnection;
 import com.balch.android.app.framework.sql.SqlMapper;
 import com.balch.android.app.framework.types.Money;
@@ -37,7 +39,6 @@ import com.balch.mocktrade.settings.Settings;
 
 import java.sql.SQLException;
 import java.util.List;
-import java.util.Map;
 
 public class AccountSqliteModel implements SqlMapper<Account> {
     private static final String TAG = AccountSqliteModel.class.getSimpleName();
@@ -51,6 +52,11 @@ public class AccountSqliteModel implements SqlMapper<Account> {
     private static final String COLUMN_AVAILABLE_FUNDS = "available_funds";
     private static final String COLUMN_EXCLUDE_FROM_TOTALS = "exclude_from_totals";
 
+    private static final String SQL_ADD_AVAILABLE_FUNDS =
+            "UPDATE " + TABLE_NAME +
+            " SET " + COLUMN_AVAILABLE_FUNDS + "=" + COLUMN_AVAILABLE_FUNDS + "+?, " + SqlMapper.COLUMN_UPDATE_TIME + "=?" +
+            " WHERE " + SqlMapper.COLUMN_ID + "=?";
+
     private final SqlConnection sqlConnection;
     private final Context context;
     private final FinanceModel financeModel;
@@ -72,7 +78,7 @@ public class AccountSqliteModel implements SqlMapper<Account> {
                 where = COLUMN_EXCLUDE_FROM_TOTALS + "=?";
                 args = new String[]{"0"};
             }
-            return sqlConnection.query(this, Account.class, where, args, COLUMN_NAME + " COLLATE NOCASE");
+            return sqlConnection.query(this, where, args, COLUMN_NAME + " COLLATE NOCASE");
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -80,28 +86,24 @@ public class AccountSqliteModel implements SqlMapper<Account> {
 
     public Account getAccount(long accountId) {
         try {
-            List<Account> accounts = sqlConnection.query(this, Account.class, SqlMapper.COLUMN_ID+"=?", new String[]{String.valueOf(accountId)}, null);
+            List<Account> accounts = sqlConnection.query(this, SqlMapper.COLUMN_ID+"=?", new String[]{String.valueOf(accountId)}, null);
             return (accounts.size() == 1) ? accounts.get(0) : null;
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
     }
 
-    public void createAccount(Account account) {
-        SQLiteDatabase db = sqlConnection.getWritableDatabase();
-        db.beginTransaction();
+    public void createAccount(final Account account) {
         try {
-            sqlConnection.insert(this, account, db);
-
-            Transaction transaction = new Transaction(account, account.getInitialBalance(), Transaction.TransactionType.DEPOSIT, "Initial Deposit");
-            sqlConnection.insert(transaction, transaction, db);
-
-            db.setTransactionSuccessful();
+            sqlConnection.write(db -> {
+                sqlConnection.insert(this, account, db);
 
+                Transaction transaction = new Transaction(account, account.getInitialBalance(), Transaction.TransactionType.DEPOSIT, "Initial Deposit");
+                sqlConnection.insert(transaction, transaction, db);
+                return null;
+            });
         } catch (SQLException e) {
             throw new RuntimeException(e);
-        } finally {
-            db.endTransaction();
         }
 
         // see if we should run a strategy
@@ -110,6 +112,9 @@ public class AccountSqliteModel implements SqlMapper<Account> {
             try {
                 BaseStrategy strategy = BaseStrategy.createStrategy(strategyClazz,
                         context, financeModel, sqlConnection, settings);
+
+                // the strategy places its orders asynchronously, each order runs on
+                // the account's lane when OrderSqliteModel creates it
                 strategy.initialize(account);
             } catch (Exception e) {
                 Log.e(TAG, "Error initializing the strategy", e);
@@ -117,6 +122,22 @@ public class AccountSqliteModel implements SqlMapper<Account> {
         }
     }
 
+    /**
+     * Adds the amount, negative for a withdrawal, to the available funds of the
+     * account in place, without reading the account first.
+     */
+    public boolean addAvailableFunds(long accountId, Money amount, SQLiteDatabase db) {
+        SQLiteStatement statement = db.compileStatement(SQL_ADD_AVAILABLE_FUNDS);
+        try {
+            statement.bindLong(1, amount.getMicroCents());
+            statement.bindLong(2, System.currentTimeMillis());
+            statement.bindLong(3, accountId);
+            return statement.executeUpdateDelete() == 1;
+        } finally {
+            statement.close();
+        }
+    }
+
     public void deleteAccount(Account account) {
         try {
             sqlConnection.delete(this, account);
@@ -146,14 +167,45 @@ public class AccountSqliteModel implements SqlMapper<Account> {
     }
 
     @Override
-    public void populate(Account account, Cursor cursor, Map<String, Integer> columnMap) {
-        account.setId(cursor.getLong(columnMap.get(COLUMN_ID)));
-        account.setName(cursor.getString(columnMap.get(COLUMN_NAME)));
-        account.setDescription(cursor.getString(columnMap.get(COLUMN_DESCRIPTION)));
-        account.setInitialBalance(new Money(cursor.getLong(columnMap.get(COLUMN_INITIAL_BALANCE))));
-        account.setStrategy(Account.Strategy.valueOf(cursor.getString(columnMap.get(COLUMN_STRATEGY))));
-        account.setAvailableFunds(new Money(cursor.getLong(columnMap.get(COLUMN_AVAILABLE_FUNDS))));
-        account.setExcludeFromTotals(cursor.getInt(columnMap.get(COLUMN_EXCLUDE_FROM_TOTALS))==1);
+    public RowMapper<Account> getRowMapper(Cursor cursor) {
+        return new AccountRowMapper(cursor);
+    }
+
+    private static class AccountRowMapper extends RowMapper<Account> {
+        private final int idIndex;
+        private final int nameIndex;
+        private final int descriptionIndex;
+        private final int initialBalanceIndex;
+        private final int strategyIndex;
+        private final int availableFundsIndex;
+        private final int excludeFromTotalsIndex;
+
+        AccountRowMapper(Cursor cursor) {
+            super(cursor);
+            idIndex = cursor.getColumnIndexOrThrow(COLUMN_ID);
+            nameIndex = cursor.getColumnIndexOrThrow(COLUMN_NAME);
+            descriptionIndex = cursor.getColumnIndexOrThrow(COLUMN_DESCRIPTION);
+            initialBalanceIndex = cursor.getColumnIndexOrThrow(COLUMN_INITIAL_BALANCE);
+            strategyIndex = cursor.getColumnIndexOrThrow(COLUMN_STRATEGY);
+            availableFundsIndex = cursor.getColumnIndexOrThrow(COLUMN_AVAILABLE_FUNDS);
+            excludeFromTotalsIndex = cursor.getColumnIndexOrThrow(COLUMN_EXCLUDE_FROM_TOTALS);
+        }
+
+        @Override
+        protected Account newItem() {
+            return new Account();
+        }
+
+        @Override
+        protected void populate(Account account, Cursor cursor) {
+            account.setId(cursor.getLong(idIndex));
+            account.setName(cursor.getString(nameIndex));
+            account.setDescription(cursor.getString(descriptionIndex));
+            account.setInitialBalance(new Money(cursor.getLong(initialBalanceIndex)));
+            account.setStrategy(Account.Strategy.valueOf(cursor.getString(strategyIndex)));
+            account.setAvailableFunds(new Money(cursor.getLong(availableFundsIndex)));
+            account.setExcludeFromTotals(cursor.getInt(excludeFromTotalsIndex)==1);
+        }
     }
 
 }
@@ -25,16 +25,17 @@ package com.balch.mocktrade.account;
 
 import android.content.ContentValues;
 import android.database.Cursor;
+import android.database.sqlite.SQLiteStatement;
 import android.os.Parcel;
 import android.os.Parcelable;
 
 import com.balch.android.app.framework.core.DomainObject;
-import com.balch.android.app.framework.sql.SqlMapper;
+import com.balch.android.app.framework.sql.RowMapper;
+import com.balch.android.app.framework.sql.SqlConnection;
+import com.balch.android.app.framework.sql.StatementMapper;
 import com.balch.android.app.framework.types.Money;
 
-import java.util.Map;
-
-public class Transaction extends DomainObject implements SqlMapper<Transaction>, Parcelable {
+public class Transaction extends DomainObject implements StatementMapper<Transaction>, Parcelable {
     public static final String TABLE_NAME = "[transaction]";
 
     public static final String COLUMN_ACCOUNT_ID = "account_id";
@@ -42,6 +43,13 @@ public class Transaction extends DomainObject implements SqlMapper<Transaction>,
     public static final String COLUMN_TYPE = "type";
     public static final String COLUMN_NOTES = "notes";
 
+    private static final String[] COLUMNS = {
+            COLUMN_ACCOUNT_ID,
+            COLUMN_AMOUNT,
+            COLUMN_TYPE,
+            COLUMN_NOTES
+    };
+
     private Account mAccount;
     private Money mAmount;
     private TransactionType mTransactionType;
@@ -146,13 +154,53 @@ public class Transaction extends DomainObject implements SqlMapper<Transaction>,
     }
 
     @Override
-    public void populate(Transaction transaction, Cursor cursor, Map<String, Integer> columnMap) {
-        transaction.id = cursor.getLong(columnMap.get(COLUMN_ID));
-        transaction.mAccount = new Account();
-        transaction.mAccount.setId(cursor.getLong(columnMap.get(COLUMN_ACCOUNT_ID)));
-        transaction.mAmount = new Money(cursor.getLong(columnMap.get(COLUMN_AMOUNT)));
-        transaction.mTransactionType = TransactionType.valueOf(cursor.getString(columnMap.get(COLUMN_TYPE)));
-        transaction.mNotes = cursor.getString(columnMap.get(COLUMN_NOTES));
+    public String[] getColumnNames() {
+        return COLUMNS;
+    }
+
+    @Override
+    public void bind(SQLiteStatement statement, Transaction transaction) {
+        statement.bindLong(1, transaction.mAccount.getId());
+        statement.bindLong(2, transaction.mAmount.getMicroCents());
+        statement.bindString(3, transaction.mTransactionType.name());
+        SqlConnection.bindString(statement, 4, transaction.mNotes);
+    }
+
+    @Override
+    public RowMapper<Transaction> getRowMapper(Cursor cursor) {
+        return new TransactionRowMapper(cursor);
+    }
+
+    private static class TransactionRowMapper extends RowMapper<Transaction> {
+        private final int idIndex;
+        private final int accountIdIndex;
+        private final int amountIndex;
+        private final int typeIndex;
+        private final int notesIndex;
+
+        TransactionRowMapper(Cursor cursor) {
+            super(cursor);
+            idIndex = cursor.getColumnIndexOrThrow(COLUMN_ID);
+            accountIdIndex = cursor.getColumnIndexOrThrow(COLUMN_ACCOUNT_ID);
+            amountIndex = cursor.getColumnIndexOrThrow(COLUMN_AMOUNT);
+            typeIndex = cursor.getColumnIndexOrThrow(COLUMN_TYPE);
+            notesIndex = cursor.getColumnIndexOrThrow(COLUMN_NOTES);
+        }
+
+        @Override
+        protected Transaction newItem() {
+            return new Transaction();
+        }
+
+        @Override
+        protected void populate(Transaction transaction, Cursor cursor) {
+            transaction.id = cursor.getLong(idIndex);
+            transaction.mAccount = new Account();
+            transaction.mAccount.setId(cursor.getLong(accountIdIndex));
+            transaction.mAmount = new Money(cursor.getLong(amountIndex));
+            transaction.mTransactionType = TransactionType.valueOf(cursor.getString(typeIndex));
+            transaction.mNotes = cursor.getString(notesIndex);
+        }
     }
 
 }
@@ -28,18 +28,24 @@ import com.balch.android.app.framework.sql.SqlConnection;
 import com.balch.mocktrade.account.Account;
 import com.balch.mocktrade.finance.FinanceModel;
 import com.balch.mocktrade.finance.Quote;
+import com.balch.mocktrade.finance.QuoteBook;
 import com.balch.mocktrade.investment.Investment;
 import com.balch.mocktrade.portfolio.PortfolioModel;
 import com.balch.mocktrade.portfolio.PortfolioSqliteModel;
+import com.balch.mocktrade.portfolio.PortfolioUpdateBroadcaster;
 import com.balch.mocktrade.settings.Settings;
 
 import java.util.List;
 import java.util.Map;
 
+import io.reactivex.Scheduler;
+import io.reactivex.schedulers.Schedulers;
+
 public abstract class BaseStrategy {
     protected FinanceModel financeModel;
     protected PortfolioModel portfolioModel;
     protected Context context;
+    protected Scheduler scheduler;
 
     public abstract void initialize(Account account);
 
@@ -49,6 +55,27 @@ public abstract class BaseStrategy {
         this.portfolioModel = new PortfolioSqliteModel(context, sqlConnection,
                 financeModel, settings);
         this.context = context.getApplicationContext();
+        this.scheduler = Schedulers.io();
+    }
+
+    /**
+     * Sets a tuning parameter by name, used to try out alternatives in a backtest.
+     * Returns false if the strategy has no such parameter.
+     *
+     * @throws IllegalArgumentException if the value is not valid for the parameter
+     */
+    public boolean setParameter(String name, String value) {
+        return false;
+    }
+
+    /**
+     * Tells the UI the portfolio changed. Nothing is broadcast when the strategy
+     * is not running in the app.
+     */
+    protected void broadcastUpdate() {
+        if (context != null) {
+            PortfolioUpdateBroadcaster.broadcast(context);
+        }
     }
 
     // NOTE: No Guarantees!!! This could be called more than once a day or not called at all
@@ -58,8 +85,11 @@ public abstract class BaseStrategy {
                                      Map<String, Quote> quoteMap) {
     }
 
+    // called on every quote tick. Read prices from the quoteBook by symbol id
+    // (quoteBook.indexOf) to keep this path from allocating. Only the symbols
+    // refreshed on this tick report hasQuote, the others keep their last price (hasPrice)
     public void pollUpdate(Account account, List<Investment> investments,
-                            Map<String, Quote> quoteMap) {
+                            QuoteBook quoteBook) {
 
     }
 
@@ -73,4 +103,21 @@ public abstract class BaseStrategy {
         return baseStrategy;
     }
 
+    /**
+     * Creates a strategy that runs headless against the given models instead of
+     * the database, like in a backtest. Work the strategy would do in the
+     * background runs on the scheduler.
+     */
+    static public BaseStrategy createStrategy(Class<? extends BaseStrategy> clazz,
+                      FinanceModel financeModel, PortfolioModel portfolioModel,
+                      Scheduler scheduler)
+            throws IllegalAccessException, InstantiationException {
+        BaseStrategy baseStrategy = clazz.newInstance();
+        baseStrategy.financeModel = financeModel;
+        baseStrategy.portfolioModel = portfolioModel;
+        baseStrategy.scheduler = scheduler;
+
+        return baseStrategy;
+    }
+
 }
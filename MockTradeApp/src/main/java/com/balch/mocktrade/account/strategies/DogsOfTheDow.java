@@ -28,7 +28,6 @@ import com.balch.mocktrade.account.Account;
 import com.balch.mocktrade.finance.Quote;
 import com.balch.mocktrade.investment.Investment;
 import com.balch.mocktrade.order.Order;
-import com.balch.mocktrade.portfolio.PortfolioUpdateBroadcaster;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -38,8 +37,6 @@ import java.util.GregorianCalendar;
 import java.util.List;
 import java.util.Map;
 
-import io.reactivex.schedulers.Schedulers;
-
 public class DogsOfTheDow extends BaseStrategy {
     private static final String TAG = DogsOfTheDow.class.getSimpleName();
 
@@ -48,14 +45,33 @@ public class DogsOfTheDow extends BaseStrategy {
             "IBM","INTC","JNJ","KO","JPM","MCD","MMM","MRK","MSFT","NKE",
             "PFE","PG","T","TRV","UNH","UTX","VZ","V","WMT","DIS"};
 
+    public static final String PARAM_NUMBER_OF_STOCKS = "numberOfStocks";
+
+    private static final int DEFAULT_NUMBER_OF_STOCKS = 10;
+
+    private int numberOfStocks = DEFAULT_NUMBER_OF_STOCKS;
+
     public void initialize(final Account account) {
         financeModel.getQuotes(Arrays.asList(DOW_SYMBOLS))
-                .subscribeOn(Schedulers.io())
-                .observeOn(Schedulers.io())
+                .subscribeOn(scheduler)
+                .observeOn(scheduler)
                 .subscribe(quoteMap -> handleQuotes(account, quoteMap),
                         throwable -> Log.e(TAG, "Dogs of the Dow getQuotes error", throwable));
     }
 
+    @Override
+    public boolean setParameter(String name, String value) {
+        if (PARAM_NUMBER_OF_STOCKS.equals(name)) {
+            int count = Integer.parseInt(value);
+            if (count < 1) {
+                throw new IllegalArgumentException("Invalid number of stocks: " + value);
+            }
+            numberOfStocks = count;
+            return true;
+        }
+        return false;
+    }
+
     @Override
     public void dailyUpdate(Account account, List<Investment> investments,
                             Map<String, Quote> quoteMap) {
@@ -64,6 +80,7 @@ public class DogsOfTheDow extends BaseStrategy {
             createDate.setTime(investments.get(0).getCreateTime());
 
             Calendar now = new GregorianCalendar();
+            now.setTimeInMillis(financeModel.getMarketClock().currentTimeMillis());
             if (createDate.get(Calendar.YEAR) < now.get(Calendar.YEAR)) {
                 Account updatedAccount = sellAll(account, investments, quoteMap);
                 initialize(updatedAccount);
@@ -83,8 +100,8 @@ public class DogsOfTheDow extends BaseStrategy {
             order.setLimitPrice(quote.getPrice());
             order.setQuantity(i.getQuantity());
 
-            portfolioModel.createOrder(order);
             try {
+                portfolioModel.createOrder(order);
                 portfolioModel.attemptExecuteOrder(order, quote);
             } catch (Exception e) {
                 Log.e(TAG, "Error executing order", e);
@@ -105,11 +122,11 @@ public class DogsOfTheDow extends BaseStrategy {
 
         if (sortedQuotes.size() > 0) {
             int size = sortedQuotes.size();
-            int numberOfStocks = Math.min(size, 10);
+            int stockCount = Math.min(size, numberOfStocks);
             double fundsPerOrder = account.getAvailableFunds().getDollars()
-                    / (double) numberOfStocks;
+                    / (double) stockCount;
 
-            for (int x = 0; x < numberOfStocks; x++) {
+            for (int x = 0; x < stockCount; x++) {
                 Quote quote = sortedQuotes.get(x);
                 Order order = new Order();
                 order.setAccount(account);
@@ -119,15 +136,15 @@ public class DogsOfTheDow extends BaseStrategy {
                 order.setLimitPrice(quote.getPrice());
                 order.setQuantity((long) (fundsPerOrder / quote.getPrice().getDollars()));
 
-                portfolioModel.createOrder(order);
                 try {
+                    portfolioModel.createOrder(order);
                     portfolioModel.attemptExecuteOrder(order, quote);
                 } catch (Exception e) {
                     Log.e(TAG, "Error executing order", e);
                 }
             }
 
-            PortfolioUpdateBroadcaster.broadcast(context);
+            broadcastUpdate();
         }
     }
 }
@@ -28,7 +28,6 @@ import com.balch.mocktrade.account.Account;
 import com.balch.mocktrade.finance.Quote;
 import com.balch.mocktrade.investment.Investment;
 import com.balch.mocktrade.order.Order;
-import com.balch.mocktrade.portfolio.PortfolioUpdateBroadcaster;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -40,12 +39,44 @@ import java.util.Set;
 public class TripleMomentum extends BaseStrategy {
     private static final String TAG = TripleMomentum.class.getSimpleName();
 
-    private static final double TRAILING_PERCENTAGE = 2.0;
+    public static final String PARAM_TRAILING_PERCENTAGE = "trailingPercentage";
+    // comma separated
+    public static final String PARAM_SYMBOLS = "symbols";
 
-    private static final String[] SYMBOLS = {"TQQQ", "SQQQ"};
+    private static final double DEFAULT_TRAILING_PERCENTAGE = 2.0;
+
+    private static final String[] DEFAULT_SYMBOLS = {"TQQQ", "SQQQ"};
+
+    private double trailingPercentage = DEFAULT_TRAILING_PERCENTAGE;
+    private List<String> symbols = Arrays.asList(DEFAULT_SYMBOLS);
 
     public void initialize(Account account) {
-        executeStrategy(Arrays.asList(SYMBOLS), account);
+        executeStrategy(symbols, account);
+    }
+
+    @Override
+    public boolean setParameter(String name, String value) {
+        if (PARAM_TRAILING_PERCENTAGE.equals(name)) {
+            double percentage = Double.parseDouble(value);
+            if (percentage <= 0) {
+                throw new IllegalArgumentException("Invalid trailing percentage: " + value);
+            }
+            trailingPercentage = percentage;
+            return true;
+        } else if (PARAM_SYMBOLS.equals(name)) {
+            List<String> symbolList = new ArrayList<>();
+            for (String symbol : value.split(",")) {
+                if (!symbol.trim().isEmpty()) {
+                    symbolList.add(symbol.trim().toUpperCase());
+                }
+            }
+            if (symbolList.isEmpty()) {
+                throw new IllegalArgumentException("Invalid symbols: " + value);
+            }
+            symbols = symbolList;
+            return true;
+        }
+        return false;
     }
 
     private void executeStrategy(final List<String> symbols, final Account account) {
@@ -63,8 +94,8 @@ public class TripleMomentum extends BaseStrategy {
                 order.setLimitPrice(quote.getPrice());
                 order.setQuantity(quantity);
 
-                portfolioModel.createOrder(order);
                 try {
+                    portfolioModel.createOrder(order);
                     portfolioModel.attemptExecuteOrder(order, quote);
 
                     Order sellOrder = new Order();
@@ -72,7 +103,7 @@ public class TripleMomentum extends BaseStrategy {
                     sellOrder.setSymbol(quote.getSymbol());
                     sellOrder.setStrategy(Order.OrderStrategy.TRAILING_STOP_PERCENT_CHANGE);
                     sellOrder.setAction(Order.OrderAction.SELL);
-                    sellOrder.setStopPercent(TRAILING_PERCENTAGE);
+                    sellOrder.setStopPercent(trailingPercentage);
                     sellOrder.setQuantity(quantity);
                     portfolioModel.createOrder(sellOrder);
 
@@ -81,7 +112,7 @@ public class TripleMomentum extends BaseStrategy {
                 }
             }
 
-            PortfolioUpdateBroadcaster.broadcast(context);
+            broadcastUpdate();
         }
 
     }
@@ -89,7 +120,7 @@ public class TripleMomentum extends BaseStrategy {
     @Override
     public void dailyUpdate(Account account, List<Investment> investments,
                             Map<String, Quote> quoteMap) {
-        Set<String> currentSymbols = new HashSet<>(Arrays.asList(SYMBOLS));
+        Set<String> currentSymbols = new HashSet<>(symbols);
         if ((investments != null) && (investments.size() > 0)) {
             for (Investment investment : investments) {
                 currentSymbols.remove(investment.getSymbol());
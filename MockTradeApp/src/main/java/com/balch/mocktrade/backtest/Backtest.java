@@ -0,0 +1,228 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 5:45 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+
+package com.balch.mocktrade.backtest;
+
+import com.balch.android.app.framework.types.Money;
+import com.balch.mocktrade.account.Account;
+import com.balch.mocktrade.account.strategies.BaseStrategy;
+import com.balch.mocktrade.finance.MarketClock;
+import com.balch.mocktrade.finance.QuoteBook;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TimeZone;
+
+import io.reactivex.schedulers.Schedulers;
+
+/**
+ * Runs a strategy headless over historical prices, as fast as the CPU allows.
+ *
+ * Each bar of the {@link PriceData} is one tick on a simulated clock, processed
+ * in the same order as the QuoteService does it live: the open orders the new
+ * prices can trigger are evaluated with the OrderManager rules, the investments
+ * are repriced, the strategy gets dailyUpdate on the first bar of each day and
+ * pollUpdate on every bar, and the account value is recorded. DAY orders expire
+ * when the day rolls over.
+ *
+ * The portfolio lives in memory and nothing is shared between runs except the
+ * read-only prices, so backtests of the same data can run in parallel.
+ */
+public class Backtest {
+
+    public static final TimeZone NEW_YORK = TimeZone.getTimeZone("America/New_York");
+
+    /**
+     * Regular NYSE hours with no holidays, the days in the data are the trading days
+     */
+    public static final MarketClock.Configuration REGULAR_SESSION = new MarketClock.Configuration() {
+        @Override
+        public String getOpenTime() {
+            return "9:30";
+        }
+
+        @Override
+        public String getCloseTime() {
+            return "16:00";
+        }
+
+        @Override
+        public String getHolidays() {
+            return "";
+        }
+
+        @Override
+        public String getHalfDays() {
+            return "";
+        }
+
+        @Override
+        public String getHalfDayCloseTime() {
+            return "13:00";
+        }
+    };
+
+    private static final String EXCHANGE = "BACKTEST";
+
+    private static class SimulatedTime implements MarketClock.TimeSource {
+        private long now;
+
+        @Override
+        public long currentTimeMillis() {
+            return now;
+        }
+    }
+
+    private final PriceData priceData;
+    private final TimeZone timeZone;
+    private final MarketClock.Configuration marketConfig;
+
+    /**
+     * Bar times must fall within the regular session in New York, daily bars
+     * are best stamped with the close.
+     */
+    public Backtest(PriceData priceData) {
+        this(priceData, NEW_YORK, REGULAR_SESSION);
+    }
+
+    public Backtest(PriceData priceData, TimeZone timeZone, MarketClock.Configuration marketConfig) {
+        this.priceData = priceData;
+        this.timeZone = timeZone;
+        this.marketConfig = marketConfig;
+    }
+
+    public PriceData getPriceData() {
+        return priceData;
+    }
+
+    public BacktestResult run(Class<? extends BaseStrategy> strategyClazz, Money initialBalance) {
+        return run(strategyClazz, initialBalance, Collections.<String, String>emptyMap());
+    }
+
+    /**
+     * Opens an account with the initial balance on the first bar, initializes the
+     * strategy for it and replays every bar. The parameters are set on the strategy
+     * before it is initialized.
+     *
+     * @throws IllegalArgumentException if the strategy does not have one of the parameters
+     */
+    public BacktestResult run(Class<? extends BaseStrategy> strategyClazz, Money initialBalance,
+                              Map<String, String> parameters) {
+        long startNanos = System.nanoTime();
+
+        SimulatedTime time = new SimulatedTime();
+        MarketClock marketClock = new MarketClock(time, timeZone, marketConfig);
+
+        // the symbols get the same ids in the book as in the price data
+        QuoteBook quoteBook = new QuoteBook();
+        for (int symbolId = 0; symbolId < priceData.getSymbolCount(); symbolId++) {
+            quoteBook.intern(priceData.getSymbol(symbolId));
+        }
+
+        BacktestFinanceModel financeModel = new BacktestFinanceModel(marketClock, quoteBook);
+        BacktestPortfolioModel portfolioModel = new BacktestPortfolioModel(financeModel);
+
+        BaseStrategy strategy;
+        try {
+            strategy = BaseStrategy.createStrategy(strategyClazz, financeModel, portfolioModel,
+                    Schedulers.trampoline());
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+
+        for (Map.Entry<String, String> parameter : parameters.entrySet()) {
+            if (!strategy.setParameter(parameter.getKey(), parameter.getValue())) {
+                throw new IllegalArgumentException(strategyClazz.getSimpleName() +
+                        " does not have parameter: " + parameter.getKey());
+            }
+        }
+
+        Account account = new Account(strategyClazz.getSimpleName(), "Backtest",
+                initialBalance.clone(), getAccountStrategy(strategyClazz), false);
+
+        int barCount = priceData.getBarCount();
+        long[] times = new long[barCount];
+        long[] equity = new long[barCount];
+        long[] lastPrices = new long[priceData.getSymbolCount()];
+        long[] previousCloses = new long[priceData.getSymbolCount()];
+        long lastBarTime = 0;
+
+        for (int bar = 0; bar < barCount; bar++) {
+            time.now = priceData.getBarTime(bar);
+
+            boolean isNewDay = (bar == 0) || !marketClock.isToday(lastBarTime);
+            if (isNewDay) {
+                System.arraycopy(lastPrices, 0, previousCloses, 0, lastPrices.length);
+                if (bar > 0) {
+                    portfolioModel.expireDayOrders(marketClock.lastMarketClose());
+                }
+            }
+
+            quoteBook.startTick();
+            int tickStart = priceData.getTickStart(bar);
+            int tickEnd = priceData.getTickEnd(bar);
+            for (int tick = tickStart; tick < tickEnd; tick++) {
+                int symbolId = priceData.getTickSymbol(tick);
+                long price = priceData.getTickPrice(tick);
+                long previousClose = (previousCloses[symbolId] != 0) ? previousCloses[symbolId] : price;
+                String symbol = priceData.getSymbol(symbolId);
+                quoteBook.put(symbolId, symbol, EXCHANGE, price, previousClose, time.now,
+                        priceData.getTickDividendPerShare(tick));
+                lastPrices[symbolId] = price;
+            }
+
+            if (bar == 0) {
+                portfolioModel.createAccount(account);
+                strategy.initialize(portfolioModel.getAccount(account.getId()));
+            }
+
+            portfolioModel.evaluateOrders(quoteBook);
+            portfolioModel.updateInvestments(quoteBook);
+
+            if (isNewDay) {
+                strategy.dailyUpdate(portfolioModel.getAccount(account.getId()),
+                        portfolioModel.getInvestments(account.getId()),
+                        financeModel.getAllQuotes());
+            }
+            strategy.pollUpdate(portfolioModel.getAccount(account.getId()),
+                    portfolioModel.getInvestments(account.getId()), quoteBook);
+
+            times[bar] = time.now;
+            equity[bar] = portfolioModel.getEquity(account.getId(), quoteBook);
+            lastBarTime = time.now;
+        }
+
+        return new BacktestResult(strategyClazz.getSimpleName(), initialBalance.getMicroCents(),
+                times, equity, portfolioModel.getTrades(), System.nanoTime() - startNanos);
+    }
+
+    private static Account.Strategy getAccountStrategy(Class<? extends BaseStrategy> strategyClazz) {
+        for (Account.Strategy strategy : Account.Strategy.values()) {
+            if (strategy.getStrategyClazz() == strategyClazz) {
+                return strategy;
+            }
+        }
+        return Account.Strategy.NONE;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 5:20 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+
+package com.balch.mocktrade.backtest;
+
+import com.balch.mocktrade.finance.FinanceModel;
+import com.balch.mocktrade.finance.MarketClock;
+import com.balch.mocktrade.finance.Quote;
+import com.balch.mocktrade.finance.QuoteBook;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.reactivex.BackpressureStrategy;
+import io.reactivex.Flowable;
+import io.reactivex.Observable;
+
+/**
+ * FinanceModel that answers from the replay's QuoteBook on the simulated clock.
+ * A request returns the latest price of each symbol as of the current bar,
+ * without any delay, and there are no alarms to set.
+ */
+class BacktestFinanceModel implements FinanceModel {
+
+    private final MarketClock marketClock;
+    private final QuoteBook quoteBook;
+
+    BacktestFinanceModel(MarketClock marketClock, QuoteBook quoteBook) {
+        this.marketClock = marketClock;
+        this.quoteBook = quoteBook;
+    }
+
+    /**
+     * Returns a quote for every symbol that has been priced so far
+     */
+    Map<String, Quote> getAllQuotes() {
+        Map<String, Quote> quoteMap = new HashMap<>(quoteBook.getSymbolCount());
+        for (int id = 0; id < quoteBook.getSymbolCount(); id++) {
+            if (quoteBook.hasPrice(id)) {
+                quoteMap.put(quoteBook.getSymbol(id), quoteBook.getQuote(id));
+            }
+        }
+        return quoteMap;
+    }
+
+    @Override
+    public Observable<Map<String, Quote>> getQuotes(List<String> symbols) {
+        Map<String, Quote> quoteMap = new HashMap<>(symbols.size());
+        for (String symbol : symbols) {
+            int id = quoteBook.indexOf(symbol.toUpperCase());
+            if (quoteBook.hasPrice(id)) {
+                quoteMap.put(quoteBook.getSymbol(id), quoteBook.getQuote(id));
+            }
+        }
+        return Observable.just(quoteMap);
+    }
+
+    @Override
+    public Observable<Quote> getQuote(final String symbol) {
+        return getQuotes(Collections.singletonList(symbol))
+                .filter(quoteMap -> quoteMap.containsKey(symbol.toUpperCase()))
+                .map(quoteMap -> quoteMap.get(symbol.toUpperCase()));
+    }
+
+    @Override
+    public Flowable<Map<String, Quote>> streamQuotes(List<String> symbols, long intervalMs) {
+        return getQuotes(symbols).toFlowable(BackpressureStrategy.LATEST);
+    }
+
+    @Override
+    public Observable<Map<String, Quote>> getQuoteUpdates() {
+        return Observable.never();
+    }
+
+    @Override
+    public MarketClock getMarketClock() {
+        return marketClock;
+    }
+
+    @Override
+    public boolean isMarketOpen() {
+        return marketClock.isMarketOpen();
+    }
+
+    @Override
+    public Date nextMarketOpen() {
+        return new Date(marketClock.nextMarketOpen());
+    }
+
+    @Override
+    public boolean isInPollTime() {
+        return marketClock.isInPollTime();
+    }
+
+    @Override
+    public void setQuoteServiceAlarm() {
+    }
+}
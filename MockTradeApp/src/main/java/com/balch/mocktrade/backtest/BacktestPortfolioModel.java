@@ -0,0 +1,413 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 5:31 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+
+package com.balch.mocktrade.backtest;
+
+import android.content.Context;
+import android.util.LongSparseArray;
+
+import com.balch.android.app.framework.types.Money;
+import com.balch.mocktrade.account.Account;
+import com.balch.mocktrade.finance.MarketClock;
+import com.balch.mocktrade.finance.Quote;
+import com.balch.mocktrade.finance.QuoteBook;
+import com.balch.mocktrade.investment.Investment;
+import com.balch.mocktrade.investment.InvestmentRevaluation;
+import com.balch.mocktrade.order.BuyingPowerLedger;
+import com.balch.mocktrade.order.Order;
+import com.balch.mocktrade.order.OrderBook;
+import com.balch.mocktrade.order.OrderEvaluator;
+import com.balch.mocktrade.order.OrderExecution;
+import com.balch.mocktrade.order.OrderExecutionException;
+import com.balch.mocktrade.order.OrderRejectedException;
+import com.balch.mocktrade.order.OrderResult;
+import com.balch.mocktrade.portfolio.PortfolioModel;
+import com.balch.mocktrade.portfolio.RevaluationMetrics;
+import com.balch.mocktrade.shared.PerformanceItem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory PortfolioModel for a backtest. Accounts, investments and orders are
+ * plain objects in maps instead of rows, orders go through the same
+ * {@link OrderEvaluator} trigger rules and are filled the same way as
+ * OrderSqliteModel fills them. Every fill is recorded as a {@link BacktestTrade}.
+ *
+ * Like the database, accounts are handed out as copies so a strategy holding
+ * an account does not see fills made after it read it.
+ *
+ * The model is not thread safe, a backtest runs on one thread.
+ */
+class BacktestPortfolioModel implements PortfolioModel, OrderEvaluator.Listener, BuyingPowerLedger.Loader {
+
+    private final MarketClock marketClock;
+    private final OrderEvaluator orderEvaluator;
+    private final OrderBook orderBook = new OrderBook();
+    private final BuyingPowerLedger buyingPowerLedger = new BuyingPowerLedger(this);
+    private final Map<Long, Account> accounts = new LinkedHashMap<>();
+    private final Map<Long, List<Investment>> accountInvestments = new HashMap<>();
+    private final List<BacktestTrade> trades = new ArrayList<>();
+    private long nextId = 1;
+
+    BacktestPortfolioModel(BacktestFinanceModel financeModel) {
+        this.marketClock = financeModel.getMarketClock();
+        this.orderEvaluator = new OrderEvaluator(financeModel, this);
+    }
+
+    List<BacktestTrade> getTrades() {
+        return trades;
+    }
+
+    /**
+     * Evaluates the open orders on the symbols quoted in the current tick of the book
+     */
+    void evaluateOrders(QuoteBook quoteBook) {
+        long validSince = marketClock.isMarketOpen() ? marketClock.getDayStart() : Long.MAX_VALUE;
+        attemptExecuteOrders(orderBook.getTriggeredOrders(quoteBook, validSince, null), quoteBook);
+    }
+
+    /**
+     * Prices the investments whose symbols are quoted in the current tick of the book
+     */
+    void updateInvestments(QuoteBook quoteBook) {
+        for (List<Investment> investments : accountInvestments.values()) {
+            for (Investment investment : investments) {
+                int symbolId = quoteBook.indexOf(investment.getSymbol());
+                if (quoteBook.hasQuote(symbolId)) {
+                    investment.setPrevDayClose(new Money(quoteBook.getPreviousClose(symbolId)));
+                    investment.setPrice(new Money(quoteBook.getPrice(symbolId)),
+                            new Date(quoteBook.getLastTradeTime(symbolId)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the cash plus the value of the investments at the latest prices, in micro cents
+     */
+    long getEquity(long accountId, QuoteBook quoteBook) {
+        Account account = accounts.get(accountId);
+        long equity = account.getAvailableFunds().getMicroCents();
+        for (Investment investment : accountInvestments.get(accountId)) {
+            int symbolId = quoteBook.indexOf(investment.getSymbol());
+            long price = quoteBook.hasPrice(symbolId) ?
+                    quoteBook.getPrice(symbolId) : investment.getPrice().getMicroCents();
+            equity += investment.getQuantity() * price;
+        }
+        return equity;
+    }
+
+    private static Account copyOf(Account account) {
+        Account copy = new Account(account.getName(), account.getDescription(),
+                account.getInitialBalance().clone(), account.getAvailableFunds().clone(),
+                account.getStrategy(), account.getExcludeFromTotals());
+        copy.setId(account.getId());
+        copy.setCreateTime(account.getCreateTime());
+        return copy;
+    }
+
+    @Override
+    public List<Account> getAccounts(boolean allAccounts) {
+        List<Account> accountList = new ArrayList<>(accounts.size());
+        for (Account account : accounts.values()) {
+            if (allAccounts || !account.getExcludeFromTotals()) {
+                accountList.add(copyOf(account));
+            }
+        }
+        return accountList;
+    }
+
+    @Override
+    public Account getAccount(long accountID) {
+        Account account = accounts.get(accountID);
+        return (account != null) ? copyOf(account) : null;
+    }
+
+    @Override
+    public void createAccount(Account account) {
+        account.setId(nextId++);
+        account.setCreateTime(new Date(marketClock.currentTimeMillis()));
+        accounts.put(account.getId(), copyOf(account));
+        accountInvestments.put(account.getId(), new ArrayList<Investment>());
+    }
+
+    @Override
+    public void deleteAccount(Account account) {
+        accounts.remove(account.getId());
+        accountInvestments.remove(account.getId());
+        orderBook.removeAccount(account.getId());
+        buyingPowerLedger.removeAccount(account.getId());
+    }
+
+    @Override
+    public List<Investment> getAllInvestments() {
+        List<Investment> investments = new ArrayList<>();
+        for (List<Investment> list : accountInvestments.values()) {
+            investments.addAll(list);
+        }
+        return investments;
+    }
+
+    @Override
+    public List<Investment> getInvestments(Long accountId) {
+        List<Investment> investments = accountInvestments.get(accountId);
+        return (investments != null) ? new ArrayList<>(investments) : new ArrayList<Investment>();
+    }
+
+    @Override
+    public void createOrder(Order order) throws OrderRejectedException {
+        order.setId(nextId++);
+        order.setCreateTime(new Date(marketClock.currentTimeMillis()));
+        try {
+            buyingPowerLedger.reserve(order);
+        } catch (OrderRejectedException ex) {
+            order.setId(null);
+            throw ex;
+        }
+        orderBook.add(order);
+    }
+
+    @Override
+    public long getAvailableFunds(long accountId) {
+        return accounts.get(accountId).getAvailableFunds().getMicroCents();
+    }
+
+    @Override
+    public List<Order> getOpenOrders(Long accountId) {
+        List<Order> orders = new ArrayList<>();
+        for (Order order : orderBook.getOrders()) {
+            if (order.getAccount().getId().equals(accountId)) {
+                orders.add(order);
+            }
+        }
+        return orders;
+    }
+
+    @Override
+    public List<Order> getOpenOrders() {
+        return orderBook.getOrders();
+    }
+
+    @Override
+    public OrderResult attemptExecuteOrder(Order order, Quote quote) throws OrderExecutionException {
+        try {
+            return orderEvaluator.attemptExecuteOrder(order, quote);
+        } catch (Exception ex) {
+            throw failOrder(order, ex);
+        }
+    }
+
+    @Override
+    public OrderResult attemptExecuteOrder(Order order, QuoteBook quoteBook, int symbolId) throws OrderExecutionException {
+        try {
+            return orderEvaluator.attemptExecuteOrder(order, quoteBook, symbolId);
+        } catch (Exception ex) {
+            throw failOrder(order, ex);
+        }
+    }
+
+    private OrderExecutionException failOrder(Order order, Exception ex) {
+        if (order != null) {
+            order.setStatus(Order.OrderStatus.ERROR);
+            orderBook.remove(order);
+            buyingPowerLedger.release(order.getId());
+        }
+        return new OrderExecutionException(ex);
+    }
+
+    /**
+     * Evaluates the orders one after the other on the replay thread and returns
+     * an execution for every order that filled or failed.
+     */
+    @Override
+    public List<OrderExecution> attemptExecuteOrders(List<Order> orders, QuoteBook quoteBook) {
+        List<OrderExecution> executions = new ArrayList<>();
+        for (Order order : orders) {
+            // filled or canceled after it was triggered
+            if (!orderBook.contains(order.getId())) {
+                continue;
+            }
+
+            try {
+                OrderResult result = attemptExecuteOrder(order, quoteBook, quoteBook.indexOf(order.getSymbol()));
+                orderBook.raiseHighestPrice(order);
+                if (result.isSuccess()) {
+                    executions.add(new OrderExecution(order, result, null));
+                }
+            } catch (OrderExecutionException ex) {
+                // the order is marked as ERROR and out of the book
+                executions.add(new OrderExecution(order, null, ex));
+            }
+        }
+        return executions;
+    }
+
+    @Override
+    public int expireDayOrders(long sessionClose) {
+        List<Long> orderIds = new ArrayList<>();
+        for (Order order : orderBook.getOrders()) {
+            if ((order.getDuration() == Order.OrderDuration.DAY) &&
+                    (order.getCreateTime().getTime() < sessionClose)) {
+                order.setStatus(Order.OrderStatus.CANCELED);
+                orderIds.add(order.getId());
+                buyingPowerLedger.release(order.getId());
+            }
+        }
+        return orderBook.removeAll(orderIds);
+    }
+
+    @Override
+    public boolean updateInvestment(Investment investment) {
+        return true;
+    }
+
+    @Override
+    public RevaluationMetrics revalueInvestments(InvestmentRevaluation revaluation) {
+        return new RevaluationMetrics(revaluation.size(), revaluation.size(), 0, 0);
+    }
+
+    @Override
+    public void processOrders(Context context, boolean forceExecution) {
+    }
+
+    @Override
+    public void scheduleOrderServiceAlarm() {
+    }
+
+    @Override
+    public void scheduleOrderServiceAlarmIfNeeded() {
+    }
+
+    @Override
+    public void createSnapshotTotals(List<Account> accounts, LongSparseArray<List<Investment>> accountToInvestmentMap) {
+        // the replay records the equity curve itself
+    }
+
+    @Override
+    public int purgeSnapshots(int days) {
+        return 0;
+    }
+
+    @Override
+    public Date getLastQuoteTime() {
+        return new Date(marketClock.currentTimeMillis());
+    }
+
+    @Override
+    public List<PerformanceItem> getCurrentSnapshot() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public List<PerformanceItem> getCurrentSnapshot(long accountId) {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public List<PerformanceItem> getCurrentDailySnapshot(int days) {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public List<PerformanceItem> getCurrentDailySnapshot(long accountId, int days) {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public OrderResult executeOrder(Order order, Quote quote, Money price) throws IllegalAccessException {
+        Account account = accounts.get(order.getAccount().getId());
+        if (account == null) {
+            throw new IllegalAccessException("Account not found");
+        }
+
+        Money cost = order.getCost(price);
+        Money transactionCost = Money.multiply(cost, -1);
+        Money profit = new Money(0);
+
+        Investment investment = getInvestmentBySymbol(order.getSymbol(), account.getId());
+        if (order.getAction() == Order.OrderAction.BUY) {
+            if (buyingPowerLedger.getBuyingPower(order) < cost.getMicroCents()) {
+                throw new IllegalAccessException("Insufficient funds");
+            }
+        } else {
+            if (investment == null) {
+                throw new IllegalAccessException("Can't sell and investment you don't own");
+            }
+            if (order.getQuantity() > investment.getQuantity()) {
+                throw new IllegalAccessException("Selling too many shares");
+            }
+            profit = Money.subtract(transactionCost, investment.getCostBasis());
+        }
+
+        account.getAvailableFunds().add(transactionCost);
+        buyingPowerLedger.settle(order, transactionCost.getMicroCents());
+
+        if (investment == null) {
+            investment = new Investment(account, quote.getSymbol(),
+                    Investment.InvestmentStatus.OPEN, quote.getName(), quote.getExchange(),
+                    cost, price, quote.getLastTradeTime(), order.getQuantity());
+            investment.setId(nextId++);
+            investment.setCreateTime(new Date(marketClock.currentTimeMillis()));
+            accountInvestments.get(account.getId()).add(investment);
+        } else {
+            investment.aggregateOrder(order, price);
+            if (investment.getQuantity() <= 0) {
+                accountInvestments.get(account.getId()).remove(investment);
+            }
+        }
+
+        order.setStatus(Order.OrderStatus.FULFILLED);
+        orderBook.remove(order);
+
+        trades.add(new BacktestTrade(marketClock.currentTimeMillis(), order.getSymbol(),
+                order.getAction(), order.getStrategy(), order.getQuantity(), price, profit));
+
+        return new OrderResult(true, price, cost, profit, trades.size());
+    }
+
+    @Override
+    public Investment getInvestmentBySymbol(String symbol, Long accountId) {
+        List<Investment> investments = accountInvestments.get(accountId);
+        if (investments != null) {
+            for (Investment investment : investments) {
+                if (investment.getSymbol().equals(symbol)) {
+                    return investment;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean updateOrder(Order order) {
+        // the highest price lives on the order itself
+        return true;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 5:14 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+
+package com.balch.mocktrade.backtest;
+
+import com.balch.android.app.framework.types.Money;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Outcome of one backtest run: the account value at the end of every bar and
+ * the list of filled orders. Money is in micro cents.
+ */
+public class BacktestResult {
+    private final String strategyName;
+    private final long initialBalance;
+    private final long[] times;
+    private final long[] equity;
+    private final List<BacktestTrade> trades;
+    private final long elapsedNanos;
+
+    BacktestResult(String strategyName, long initialBalance, long[] times, long[] equity,
+                   List<BacktestTrade> trades, long elapsedNanos) {
+        this.strategyName = strategyName;
+        this.initialBalance = initialBalance;
+        this.times = times;
+        this.equity = equity;
+        this.trades = Collections.unmodifiableList(trades);
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public String getStrategyName() {
+        return strategyName;
+    }
+
+    public Money getInitialBalance() {
+        return new Money(initialBalance);
+    }
+
+    public int getPointCount() {
+        return equity.length;
+    }
+
+    public long getTime(int point) {
+        return times[point];
+    }
+
+    /**
+     * Returns the account value, cash plus investments, at the end of the bar
+     */
+    public long getEquity(int point) {
+        return equity[point];
+    }
+
+    public Money getFinalEquity() {
+        return new Money((equity.length > 0) ? equity[equity.length - 1] : initialBalance);
+    }
+
+    public List<BacktestTrade> getTrades() {
+        return trades;
+    }
+
+    public double getTotalReturnPercent() {
+        return (initialBalance != 0) ?
+                (getFinalEquity().getMicroCents() - initialBalance) * 100.0 / initialBalance :
+                0;
+    }
+
+    /**
+     * Returns the largest drop from a peak of the equity curve, in percent
+     */
+    public double getMaxDrawdownPercent() {
+        long peak = initialBalance;
+        double maxDrawdown = 0;
+        for (long value : equity) {
+            if (value > peak) {
+                peak = value;
+            } else if (peak > 0) {
+                maxDrawdown = Math.max(maxDrawdown, (peak - value) * 100.0 / peak);
+            }
+        }
+        return maxDrawdown;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US,
+                "%s: final=%s return=%.2f%% maxDrawdown=%.2f%% trades=%d bars=%d (%.1f ms)",
+                strategyName, getFinalEquity().getFormatted(), getTotalReturnPercent(),
+                getMaxDrawdownPercent(), trades.size(), equity.length, elapsedNanos / 1e6);
+    }
+}
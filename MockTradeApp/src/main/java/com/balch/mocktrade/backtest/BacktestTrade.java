@@ -0,0 +1,95 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 5:10 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+
+package com.balch.mocktrade.backtest;
+
+import com.balch.android.app.framework.types.Money;
+import com.balch.mocktrade.order.Order;
+
+import java.util.Date;
+
+/**
+ * One order filled during a backtest
+ */
+public class BacktestTrade {
+    private final long time;
+    private final String symbol;
+    private final Order.OrderAction action;
+    private final Order.OrderStrategy strategy;
+    private final long quantity;
+    private final Money price;
+    private final Money profit;
+
+    BacktestTrade(long time, String symbol, Order.OrderAction action, Order.OrderStrategy strategy,
+                  long quantity, Money price, Money profit) {
+        this.time = time;
+        this.symbol = symbol;
+        this.action = action;
+        this.strategy = strategy;
+        this.quantity = quantity;
+        this.price = price;
+        this.profit = profit;
+    }
+
+    public long getTime() {
+        return time;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public Order.OrderAction getAction() {
+        return action;
+    }
+
+    public Order.OrderStrategy getStrategy() {
+        return strategy;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public Money getPrice() {
+        return price;
+    }
+
+    public Money getProfit() {
+        return profit;
+    }
+
+    @Override
+    public String toString() {
+        return "BacktestTrade{" +
+                "time=" + new Date(time) +
+                ", symbol='" + symbol + '\'' +
+                ", action=" + action +
+                ", strategy=" + strategy +
+                ", quantity=" + quantity +
+                ", price=" + price +
+                ", profit=" + profit +
+                '}';
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 7:02 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+
+package com.balch.mocktrade.backtest;
+
+import com.balch.android.app.framework.types.Money;
+import com.balch.mocktrade.account.strategies.BaseStrategy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Backtests a strategy once for every combination of a grid of parameters and
+ * ranks the runs.
+ *
+ * The runs are spread over a ForkJoinPool. Each run builds its own clock,
+ * quote book, portfolio and strategy, and only the read-only {@link PriceData}
+ * is shared, so a run gives the same result no matter which worker runs it or
+ * how many workers there are. Ties in the ranking are broken by the order of
+ * the combinations, which keeps the ranking reproducible too.
+ */
+public class ParameterSweep {
+
+    /**
+     * One backtest of the sweep
+     */
+    public static class Run {
+        private final int index;
+        private final Map<String, String> parameters;
+        private final BacktestResult result;
+
+        Run(int index, Map<String, String> parameters, BacktestResult result) {
+            this.index = index;
+            this.parameters = parameters;
+            this.result = result;
+        }
+
+        /**
+         * Returns the position of the parameter combination in the grid
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        public Map<String, String> getParameters() {
+            return parameters;
+        }
+
+        public BacktestResult getResult() {
+            return result;
+        }
+    }
+
+    private final Backtest backtest;
+    private final Class<? extends BaseStrategy> strategyClazz;
+    private final Money initialBalance;
+    private final Map<String, List<String>> grid = new LinkedHashMap<>();
+
+    public ParameterSweep(Backtest backtest, Class<? extends BaseStrategy> strategyClazz,
+                          Money initialBalance) {
+        this.backtest = backtest;
+        this.strategyClazz = strategyClazz;
+        this.initialBalance = initialBalance;
+    }
+
+    public ParameterSweep addParameter(String name, String... values) {
+        if (values.length == 0) {
+            throw new IllegalArgumentException("No values for parameter: " + name);
+        }
+        grid.put(name, Arrays.asList(values));
+        return this;
+    }
+
+    /**
+     * Returns every combination of the parameter values. The first parameter
+     * added changes slowest.
+     */
+    public List<Map<String, String>> getCombinations() {
+        List<Map<String, String>> combinations = new ArrayList<>();
+        combinations.add(new LinkedHashMap<String, String>());
+        for (Map.Entry<String, List<String>> parameter : grid.entrySet()) {
+            List<Map<String, String>> expanded = new ArrayList<>(combinations.size() * parameter.getValue().size());
+            for (Map<String, String> combination : combinations) {
+                for (String value : parameter.getValue()) {
+                    Map<String, String> next = new LinkedHashMap<>(combination);
+                    next.put(parameter.getKey(), value);
+                    expanded.add(next);
+                }
+            }
+            combinations = expanded;
+        }
+        return combinations;
+    }
+
+    /**
+     * Runs the sweep on all the cores
+     */
+    public List<Run> run() {
+        return run(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Runs the sweep with the given number of workers and returns the runs ranked
+     * by total return, then by the smallest drawdown.
+     */
+    public List<Run> run(int parallelism) {
+        List<Map<String, String>> combinations = getCombinations();
+        Run[] runs = new Run[combinations.size()];
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new SweepTask(combinations, runs, 0, runs.length));
+        } finally {
+            pool.shutdown();
+        }
+
+        List<Run> ranked = new ArrayList<>(Arrays.asList(runs));
+        Collections.sort(ranked, (lhs, rhs) -> {
+            int compare = Double.compare(rhs.result.getTotalReturnPercent(), lhs.result.getTotalReturnPercent());
+            if (compare == 0) {
+                compare = Double.compare(lhs.result.getMaxDrawdownPercent(), rhs.result.getMaxDrawdownPercent());
+            }
+            if (compare == 0) {
+                compare = (lhs.index < rhs.index) ? -1 : ((lhs.index == rhs.index) ? 0 : 1);
+            }
+            return compare;
+        });
+        return ranked;
+    }
+
+    /**
+     * Formats ranked runs as a fixed width table, one line per run
+     */
+    public static String formatTable(List<Run> ranked) {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format(Locale.US, "%4s %10s %10s %7s %14s  %s%n",
+                "rank", "return %", "drawdown %", "trades", "final", "parameters"));
+        for (int x = 0; x < ranked.size(); x++) {
+            Run run = ranked.get(x);
+            builder.append(String.format(Locale.US, "%4d %10.2f %10.2f %7d %14s  %s%n",
+                    x + 1, run.result.getTotalReturnPercent(), run.result.getMaxDrawdownPercent(),
+                    run.result.getTrades().size(), run.result.getFinalEquity().getFormatted(),
+                    run.parameters));
+        }
+        return builder.toString();
+    }
+
+    private class SweepTask extends RecursiveAction {
+        private final List<Map<String, String>> combinations;
+        private final Run[] runs;
+        private final int from;
+        private final int to;
+
+        SweepTask(List<Map<String, String>> combinations, Run[] runs, int from, int to) {
+            this.combinations = combinations;
+            this.runs = runs;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                Map<String, String> parameters = combinations.get(from);
+                runs[from] = new Run(from, parameters,
+                        backtest.run(strategyClazz, initialBalance, parameters));
+            } else if (to > from) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new SweepTask(combinations, runs, from, middle),
+                        new SweepTask(combinations, runs, middle, to));
+            }
+        }
+    }
+}
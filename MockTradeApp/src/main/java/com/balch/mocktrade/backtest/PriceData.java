@@ -0,0 +1,231 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 5:02 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+
+package com.balch.mocktrade.backtest;
+
+import com.balch.android.app.framework.types.Money;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Historical prices laid out in columns for the backtest replay. The ticks are
+ * grouped into bars, one bar per distinct timestamp, and kept in parallel
+ * primitive arrays (money in micro cents, times in epoch ms) ordered by bar.
+ * Symbols are interned to an int id in the order they are first seen.
+ *
+ * An instance is never modified after it is built, so one copy can be shared by
+ * any number of backtests running at the same time.
+ */
+public class PriceData {
+
+    private final String[] symbols;
+    private final Map<String, Integer> symbolIds;
+    private final long[] barTimes;
+    private final int[] barStarts;
+    private final int[] tickSymbols;
+    private final long[] tickPrices;
+    private final long[] tickDividends;
+
+    private PriceData(Builder builder) {
+        this.symbols = builder.symbols.toArray(new String[builder.symbols.size()]);
+        this.symbolIds = new HashMap<>(builder.symbolIds);
+        this.barTimes = Arrays.copyOf(builder.barTimes, builder.barCount);
+        this.barStarts = Arrays.copyOf(builder.barStarts, builder.barCount + 1);
+        this.barStarts[builder.barCount] = builder.tickCount;
+        this.tickSymbols = Arrays.copyOf(builder.tickSymbols, builder.tickCount);
+        this.tickPrices = Arrays.copyOf(builder.tickPrices, builder.tickCount);
+        this.tickDividends = Arrays.copyOf(builder.tickDividends, builder.tickCount);
+    }
+
+    /**
+     * Reads ticks in the same format as the replay quote provider
+     *
+     *   epoch_ms,symbol,price[,previous_close[,dividend_per_share]]
+     *
+     * Lines must be ordered by time. Blank lines and lines starting with # are
+     * ignored. The previous close is derived from the prices during the replay so
+     * the column is skipped.
+     */
+    public static PriceData read(Reader reader) throws IOException {
+        Builder builder = new Builder();
+
+        BufferedReader bufferedReader = new BufferedReader(reader);
+        String line;
+        int lineNumber = 0;
+        while ((line = bufferedReader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            String[] cols = line.split(",");
+            if (cols.length < 3) {
+                throw new IOException("Invalid tick on line " + lineNumber + ": " + line);
+            }
+
+            try {
+                double dividendPerShare = (cols.length > 4) ? Double.parseDouble(cols[4].trim()) : 0;
+                builder.add(Long.parseLong(cols[0].trim()), cols[1].trim(),
+                        Double.parseDouble(cols[2].trim()), dividendPerShare);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Invalid tick on line " + lineNumber + ": " + line, e);
+            }
+        }
+
+        return builder.build();
+    }
+
+    public int getSymbolCount() {
+        return symbols.length;
+    }
+
+    public String getSymbol(int symbolId) {
+        return symbols[symbolId];
+    }
+
+    /**
+     * Returns the id of the upper case symbol, or -1 if there are no prices for it
+     */
+    public int indexOf(String symbol) {
+        Integer id = symbolIds.get(symbol);
+        return (id != null) ? id : -1;
+    }
+
+    public int getBarCount() {
+        return barTimes.length;
+    }
+
+    public long getBarTime(int bar) {
+        return barTimes[bar];
+    }
+
+    /**
+     * The ticks of a bar are the range [getTickStart(bar), getTickEnd(bar))
+     */
+    public int getTickStart(int bar) {
+        return barStarts[bar];
+    }
+
+    public int getTickEnd(int bar) {
+        return barStarts[bar + 1];
+    }
+
+    public int getTickCount() {
+        return tickSymbols.length;
+    }
+
+    public int getTickSymbol(int tick) {
+        return tickSymbols[tick];
+    }
+
+    public long getTickPrice(int tick) {
+        return tickPrices[tick];
+    }
+
+    public long getTickDividendPerShare(int tick) {
+        return tickDividends[tick];
+    }
+
+    @Override
+    public String toString() {
+        return "PriceData{" +
+                "symbols=" + symbols.length +
+                ", bars=" + barTimes.length +
+                ", ticks=" + tickSymbols.length +
+                '}';
+    }
+
+    /**
+     * Collects ticks in time order. A tick with the same time as the previous one
+     * is added to the same bar.
+     */
+    public static class Builder {
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private final List<String> symbols = new ArrayList<>();
+        private final Map<String, Integer> symbolIds = new HashMap<>();
+
+        private long[] barTimes = new long[INITIAL_CAPACITY];
+        private int[] barStarts = new int[INITIAL_CAPACITY + 1];
+        private int[] tickSymbols = new int[INITIAL_CAPACITY];
+        private long[] tickPrices = new long[INITIAL_CAPACITY];
+        private long[] tickDividends = new long[INITIAL_CAPACITY];
+        private int barCount = 0;
+        private int tickCount = 0;
+
+        public Builder add(long time, String symbol, double price) {
+            return add(time, symbol, price, 0);
+        }
+
+        public Builder add(long time, String symbol, double price, double dividendPerShare) {
+            if ((barCount > 0) && (time < barTimes[barCount - 1])) {
+                throw new IllegalArgumentException("Ticks must be ordered by time: " + time);
+            }
+
+            if ((barCount == 0) || (time != barTimes[barCount - 1])) {
+                if (barCount == barTimes.length) {
+                    barTimes = Arrays.copyOf(barTimes, barCount * 2);
+                    barStarts = Arrays.copyOf(barStarts, barCount * 2 + 1);
+                }
+                barTimes[barCount] = time;
+                barStarts[barCount] = tickCount;
+                barCount++;
+            }
+
+            if (tickCount == tickSymbols.length) {
+                tickSymbols = Arrays.copyOf(tickSymbols, tickCount * 2);
+                tickPrices = Arrays.copyOf(tickPrices, tickCount * 2);
+                tickDividends = Arrays.copyOf(tickDividends, tickCount * 2);
+            }
+            tickSymbols[tickCount] = intern(symbol.toUpperCase());
+            tickPrices[tickCount] = new Money(price).getMicroCents();
+            tickDividends[tickCount] = new Money(dividendPerShare).getMicroCents();
+            tickCount++;
+
+            return this;
+        }
+
+        private int intern(String symbol) {
+            Integer id = symbolIds.get(symbol);
+            if (id == null) {
+                id = symbols.size();
+                symbols.add(symbol);
+                symbolIds.put(symbol, id);
+            }
+            return id;
+        }
+
+        public PriceData build() {
+            return new PriceData(this);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Author: Balch
+ * Created: 10/19/26 9:10 AM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+
+package com.balch.mocktrade.finance;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import io.reactivex.Observable;
+import io.reactivex.Scheduler;
+import io.reactivex.functions.Function;
+
+/**
+ * Fetches a set of symbols in chunks that fit in a single batch request. The
+ * chunks run in parallel on the scheduler and a failed chunk is retried on its
+ * own. A chunk that still fails is left out of the {@link Result} and its symbols
+ * are reported in {@link Result#getFailedSymbols()}. An error is only returned if
+ * every chunk fails.
+ */
+class ChunkedFetcher {
+
+    interface ChunkRequest<T> {
+        Observable<List<T>> fetch(List<String> chunk) throws Exception;
+    }
+
+    static class Result<T> {
+        private final Map<String, T> items;
+        private final Set<String> failedSymbols;
+
+        Result(Map<String, T> items, Set<String> failedSymbols) {
+            this.items = items;
+            this.failedSymbols = failedSymbols;
+        }
+
+        Map<String, T> getItems() {
+            return items;
+        }
+
+        /**
+         * Symbols of the chunks that failed, they were not fetched at all
+         */
+        Set<String> getFailedSymbols() {
+            return failedSymbols;
+        }
+    }
+
+    private final int chunkSize;
+    private final int maxConcurrency;
+    private final int retryCount;
+    private final Scheduler scheduler;
+
+    ChunkedFetcher(int chunkSize, int maxConcurrency, int retryCount, Scheduler scheduler) {
+        this.chunkSize = chunkSize;
+        this.maxConcurrency = maxConcurrency;
+        this.retryCount = retryCount;
+        this.scheduler = scheduler;
+    }
+
+    <T> Observable<Result<T>> fetch(final Set<String> symbols, final ChunkRequest<T> request,
+                                    final Function<T, String> symbolFromItem) {
+        return Observable.defer(() -> {
+            final List<List<String>> chunks = getChunks(symbols, chunkSize);
+            if (chunks.isEmpty()) {
+                return Observable.just(new Result<>(Collections.<String, T>emptyMap(),
+                        Collections.<String>emptySet()));
+            }
+
+            final List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+            final Set<String> failedSymbols = Collections.synchronizedSet(new HashSet<>());
+
+            return Observable.fromIterable(chunks)
+                    .flatMap(chunk -> request.fetch(chunk)
+                                    .subscribeOn(scheduler)
+                                    .retry(retryCount)
+                                    .onErrorResumeNext(throwable -> {
+                                        errors.add(throwable);
+                                        failedSymbols.addAll(chunk);
+                                        return Observable.empty();
+                                    }),
+                            maxConcurrency)
+                    .collect(() -> new HashMap<String, T>(symbols.size()),
+                            (itemMap, items) -> {
+                                for (T item : items) {
+                                    itemMap.put(symbolFromItem.apply(item), item);
+                                }
+                            })
+                    .toObservable()
+                    .flatMap(itemMap -> (errors.size() == chunks.size()) ?
+                            Observable.<Result<T>>error(errors.get(0)) :
+                            Observable.just(new Result<>(itemMap, new HashSet<>(failedSymbols))));
+        });
+    }
+
+    static List<List<String>> getChunks(Collection<String> symbols, int chunkSize) {
+        List<List<String>> chunks = new ArrayList<>();
+        List<String> chunk = null;
+        for (String symbol : symbols) {
+            if ((chunk == null) || (chunk.size() == chunkSize)) {
+                chunk = new ArrayList<>(Math.min(chunkSize, symbols.size()));
+                chunks.add(chunk);
+            }
+            chunk.add(symbol);
+        }
+        return chunks;
+    }
+}
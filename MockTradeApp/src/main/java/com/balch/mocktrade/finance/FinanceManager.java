@@ -26,13 +26,12 @@ import android.app.AlarmManager;
 import android.app.PendingIntent;
 import android.content.Context;
 import android.content.Intent;
+import android.content.SharedPreferences;
 
 import com.balch.mocktrade.receivers.QuoteReceiver;
 import com.balch.mocktrade.settings.Settings;
 
-import java.util.Calendar;
 import java.util.Date;
-import java.util.GregorianCalendar;
 
 /**
  * This is package-private on purpose!!! It is intended to contain
@@ -44,76 +43,76 @@ class FinanceManager {
 
     private final Settings mSettings;
     private final Context mContext;
+    private final MarketClock mMarketClock;
+
+    // the market clock caches the session until one of its settings changes
+    private final SharedPreferences.OnSharedPreferenceChangeListener mMarketSettingsListener =
+            (sharedPreferences, key) -> {
+                Settings.Key settingKey = Settings.Key.fromKey(key);
+                if ((settingKey == Settings.Key.PREF_MARKET_OPEN_TIME) ||
+                        (settingKey == Settings.Key.PREF_MARKET_CLOSE_TIME) ||
+                        (settingKey == Settings.Key.PREF_MARKET_HOLIDAYS) ||
+                        (settingKey == Settings.Key.PREF_MARKET_HALF_DAYS) ||
+                        (settingKey == Settings.Key.PREF_MARKET_HALF_DAY_CLOSE_TIME)) {
+                    getMarketClock().invalidate();
+                }
+            };
 
     public FinanceManager(Context context, Settings settings) {
+        this(context, settings, MarketClock.SYSTEM_TIME_SOURCE);
+    }
+
+    FinanceManager(Context context, final Settings settings, MarketClock.TimeSource timeSource) {
         this.mContext = context.getApplicationContext();
         this.mSettings = settings;
+        this.mMarketClock = new MarketClock(timeSource, settings.getSavedSettingsTimeZone(),
+                new MarketClock.Configuration() {
+                    @Override
+                    public String getOpenTime() {
+                        return settings.geMarketOpenTime();
+                    }
+
+                    @Override
+                    public String getCloseTime() {
+                        return settings.geMarketCloseTime();
+                    }
+
+                    @Override
+                    public String getHolidays() {
+                        return settings.getMarketHolidays();
+                    }
+
+                    @Override
+                    public String getHalfDays() {
+                        return settings.getMarketHalfDays();
+                    }
+
+                    @Override
+                    public String getHalfDayCloseTime() {
+                        return settings.getMarketHalfDayCloseTime();
+                    }
+                });
+        settings.registerOnChangeListener(mMarketSettingsListener);
     }
 
-    public boolean isMarketOpen() {
-        return (marketOpenCompareValue(false) == 0);
+    public MarketClock getMarketClock() {
+        return mMarketClock;
     }
 
-    public boolean isInPollTime() {
-        return (marketOpenCompareValue(true) == 0);
+    public boolean isMarketOpen() {
+        return mMarketClock.isMarketOpen();
     }
 
-    /**
-     * Returns a value indicating if the market is open, or if it is before market open or after market close.
-     * On Weekends, the returned value is considered after market close
-     * @return  -1 - before market open
-     *           0 - market is open
-     *           1 - after market close
-     */
-    private int marketOpenCompareValue(boolean usePoll) {
-        int val = 0; // assume open
-        Calendar now = new GregorianCalendar(mSettings.getSavedSettingsTimeZone());
-        if ((now.get(Calendar.DAY_OF_WEEK) != Calendar.SATURDAY) &&
-            (now.get(Calendar.DAY_OF_WEEK) != Calendar.SUNDAY)) {
-
-            Calendar startTime = usePoll ? getPollStartTime() : getMarketOpenTime();
-            Calendar endTime = usePoll ? getPollEndTime() : getMarketCloseTime();
-
-            if (now.before(startTime)) {
-                val = -1;
-            } else if (now.after(endTime)) {
-                val = 1;
-            }
-        } else {
-            val = 1;
-        }
-
-        return val;
+    public boolean isInPollTime() {
+        return mMarketClock.isInPollTime();
     }
 
     public Date nextMarketOpen() {
-        return this.nextMarketOpen(false);
+        return new Date(mMarketClock.nextMarketOpen());
     }
 
     public Date nextPollStart() {
-        return this.nextMarketOpen(true);
-    }
-
-    private Date nextMarketOpen(boolean usePoll) {
-        Date nextOpen;
-
-        int comapreVal = marketOpenCompareValue(usePoll);
-        if (comapreVal == 0) {
-            nextOpen = new Date();
-        } else {
-            Calendar startTime = usePoll ? getPollStartTime() : getMarketOpenTime();
-            if (startTime.get(Calendar.DAY_OF_WEEK) == Calendar.SATURDAY) {
-                startTime.add(Calendar.DATE, 1);
-            }
-
-            if (comapreVal == 1) {
-                startTime.add(Calendar.DATE, 1);
-            }
-
-            nextOpen = startTime.getTime();
-
-        }
-        return nextOpen;
+        return new Date(mMarketClock.nextPollStart());
     }
 
     public void setQuoteServiceAlarm(){
@@ -123,42 +122,10 @@ class FinanceManager {
         PendingIntent pendingIntent = PendingIntent.getBroadcast(mContext, 0, intent, PendingIntent.FLAG_UPDATE_CURRENT);
 
         Date startTime = this.nextPollStart();
-        if (startTime == null) {
-            startTime = new Date();
-        }
 
         alarmManager.setRepeating(AlarmManager.RTC_WAKEUP,
                 startTime.getTime(),
                 this.mSettings.getPollInterval() * 1000,
                 pendingIntent);
     }
-
-    private Calendar getPollStartTime() {
-        return getCalendarFromTime(mSettings.geMarketOpenTime(), -15);
-    }
-
-    private Calendar getMarketOpenTime() {
-        return getCalendarFromTime(mSettings.geMarketOpenTime(), 0);
-    }
-
-    private Calendar getPollEndTime() {
-        return getCalendarFromTime(mSettings.geMarketCloseTime(), 15);
-    }
-
-    private Calendar getMarketCloseTime() {
-        return getCalendarFromTime(mSettings.geMarketCloseTime(), 0);
-    }
-
-    private Calendar getCalendarFromTime(String time, int offsetMinutes) {
-        Calendar cal = new GregorianCalendar(mSettings.getSavedSettingsTimeZone());
-        String [] parts = time.split(":");
-        cal.set(Calendar.HOUR_OF_DAY, Integer.parseInt(parts[0]));
-        cal.set(Calendar.MINUTE, Integer.parseInt(parts[1]));
-        cal.set(Calendar.SECOND, 0);
-        cal.set(Calendar.MILLISECOND, 0);
-
-        cal.add(Calendar.MINUTE, offsetMinutes);
-
-        return cal;
-    }
 }
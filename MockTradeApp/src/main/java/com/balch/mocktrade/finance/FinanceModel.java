@@ -26,6 +26,7 @@ import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
+import io.reactivex.Flowable;
 import io.reactivex.Observable;
 
 public interface FinanceModel  {
@@ -34,6 +35,25 @@ public interface FinanceModel  {
 
     Observable<Quote> getQuote(String symbol);
 
+    /**
+     * Hot stream of quotes for the symbols, polled every intervalMs. Subscribers
+     * with the same interval share a single poll for the union of their symbols.
+     * Quotes for the symbols fetched by anyone else are emitted as well, this is
+     * {@link #getQuoteUpdates()} filtered to the symbols plus the poll's ticks,
+     * which may be served from the quote cache.
+     */
+    Flowable<Map<String, Quote>> streamQuotes(List<String> symbols, long intervalMs);
+
+    /**
+     * Hot stream of every batch of quotes fetched from the quote source, no matter
+     * who asked for them, including the polls of {@link #streamQuotes(List, long)}.
+     * Quotes served from the cache are not emitted again. Subscribers are called
+     * on the thread that fetched the quotes.
+     */
+    Observable<Map<String, Quote>> getQuoteUpdates();
+
+    MarketClock getMarketClock();
+
     boolean isMarketOpen();
 
     Date nextMarketOpen();
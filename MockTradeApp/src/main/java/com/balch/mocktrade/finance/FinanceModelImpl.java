@@ -26,15 +26,18 @@ package com.balch.mocktrade.finance;
 import android.content.Context;
 import android.util.Log;
 
+import com.balch.android.app.framework.sql.SqlConnection;
 import com.balch.android.app.framework.types.Money;
 import com.balch.mocktrade.settings.Settings;
 
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
+import org.joda.time.LocalDate;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
@@ -42,22 +45,47 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
 
+import io.reactivex.Flowable;
 import io.reactivex.Observable;
+import io.reactivex.Scheduler;
+import io.reactivex.functions.Function;
+import io.reactivex.schedulers.Schedulers;
 
 public class FinanceModelImpl implements FinanceModel {
     private static final String TAG = FinanceModelImpl.class.getSimpleName();
 
+    // IEX rejects batch requests with more than 100 symbols
+    private static final int MAX_SYMBOLS_PER_REQUEST = 100;
+    private static final int MAX_CONCURRENT_REQUESTS = 4;
+    private static final int CHUNK_RETRY_COUNT = 2;
+
+    private static final Scheduler QUOTE_REQUEST_SCHEDULER =
+            Schedulers.from(Executors.newFixedThreadPool(MAX_CONCURRENT_REQUESTS));
+
+    private static final ChunkedFetcher CHUNKED_FETCHER = new ChunkedFetcher(MAX_SYMBOLS_PER_REQUEST,
+            MAX_CONCURRENT_REQUESTS, CHUNK_RETRY_COUNT, QUOTE_REQUEST_SCHEDULER);
+
     private final IEXFinanceApi financeApi;
     private final FinanceManager mFinanceManager;
+    private final Settings mSettings;
+    private final QuoteCache mQuoteCache = new QuoteCache();
+    private final QuoteStream mQuoteStream =
+            new QuoteStream(symbols -> getQuotes(new ArrayList<>(symbols)));
+    private final FundamentalsSqliteModel mFundamentalsModel;
+    private final Map<String, Fundamentals> mFundamentals = new ConcurrentHashMap<>();
 
     private static final DateTimeFormatter YAHOO_DATE_FORMAT = DateTimeFormat
             .forPattern("MM/dd/yyyy hh:mma")
             .withZone(DateTimeZone.forID("America/New_York"));
 
     public FinanceModelImpl(Context context, IEXFinanceApi financeApi,
-                            Settings settings) {
+                            SqlConnection sqlConnection, Settings settings) {
         this.financeApi = financeApi;
+        this.mSettings = settings;
+        this.mFundamentalsModel = new FundamentalsSqliteModel(sqlConnection);
         this.mFinanceManager = new FinanceManager(context.getApplicationContext(), settings);
     }
 
@@ -71,11 +99,163 @@ public class FinanceModelImpl implements FinanceModel {
     public Observable<Map<String, Quote>> getQuotes(final List<String> symbols) {
 
         final Set<String> uniqueSymbols = getUniqueSymbols(symbols);
-        String symbolString = getDelimitedSymbols(uniqueSymbols);
+        long ttlMs = mSettings.getQuoteCacheTtl() * 1000L;
+
+        return mQuoteCache.getQuotes(uniqueSymbols, ttlMs, this::fetchQuotes)
+                .doOnNext(quoteMap -> Log.d(TAG, "getQuotes " + mQuoteCache));
+    }
+
+    public QuoteCache getQuoteCache() {
+        return mQuoteCache;
+    }
+
+    private Observable<Map<String, Quote>> fetchQuotes(final Set<String> symbols) {
+        return Observable.zip(
+                fetchInChunks(symbols, financeApi::getQuotes, QuoteResult::getQuotes, Quote::getSymbol),
+                getFundamentals(symbols),
+                FinanceModelImpl::mergeFundamentals)
+                .doOnNext(mQuoteStream::publish);
+    }
+
+    /**
+     * Returns the fundamentals for the symbols. Fundamentals only change once a day
+     * so they are served from memory or the fundamentals table, and only symbols
+     * without a value from today are requested from IEX. A symbol IEX has no stats
+     * for is saved with no dividend so it is not requested again until tomorrow.
+     */
+    private Observable<Map<String, Fundamentals>> getFundamentals(final Set<String> symbols) {
+        return Observable.fromCallable(() -> {
+                    Set<String> unknownSymbols = new HashSet<>();
+                    for (String symbol : symbols) {
+                        if (!mFundamentals.containsKey(symbol)) {
+                            unknownSymbols.add(symbol);
+                        }
+                    }
+                    for (Fundamentals fundamentals : mFundamentalsModel.getFundamentals(unknownSymbols)) {
+                        mFundamentals.put(fundamentals.getSymbol(), fundamentals);
+                    }
+
+                    return getStaleSymbols(symbols, mFundamentals, System.currentTimeMillis());
+                })
+                .subscribeOn(Schedulers.io())
+                .flatMap(staleSymbols -> staleSymbols.isEmpty() ?
+                        Observable.just(Collections.<String, Fundamentals>emptyMap()) :
+                        fetchChunks(staleSymbols, financeApi::getFundamentals,
+                                FundamentalsResult::getFundamentals, Fundamentals::getSymbol)
+                                .map(result -> addMissingFundamentals(staleSymbols, result))
+                                .doOnNext(this::saveFundamentals)
+                                .onErrorReturn(throwable -> {
+                                    // stale fundamentals are better than failing the quotes
+                                    Log.e(TAG, "Error fetching fundamentals", throwable);
+                                    return Collections.emptyMap();
+                                }))
+                .map(fetched -> {
+                    Map<String, Fundamentals> fundamentalsMap = new HashMap<>(symbols.size());
+                    for (String symbol : symbols) {
+                        Fundamentals fundamentals = mFundamentals.get(symbol);
+                        if (fundamentals != null) {
+                            fundamentalsMap.put(symbol, fundamentals);
+                        }
+                    }
+                    return fundamentalsMap;
+                });
+    }
+
+    /**
+     * Returns the symbols that do not have fundamentals fetched on the same day as now.
+     */
+    static Set<String> getStaleSymbols(Set<String> symbols, Map<String, Fundamentals> fundamentalsMap,
+                                       long now) {
+        LocalDate today = new LocalDate(now);
+        Set<String> staleSymbols = new HashSet<>();
+        for (String symbol : symbols) {
+            Fundamentals fundamentals = fundamentalsMap.get(symbol);
+            if ((fundamentals == null) || (fundamentals.getUpdateTime() == null) ||
+                    !today.equals(new LocalDate(fundamentals.getUpdateTime().getTime()))) {
+                staleSymbols.add(symbol);
+            }
+        }
+        return staleSymbols;
+    }
+
+    /**
+     * Returns the fetched fundamentals plus an empty entry for each requested symbol
+     * that was fetched but had no stats. Symbols of failed chunks are left out so
+     * they are requested again.
+     */
+    static Map<String, Fundamentals> addMissingFundamentals(Set<String> symbols,
+                                                            ChunkedFetcher.Result<Fundamentals> result) {
+        Map<String, Fundamentals> fundamentalsMap = new HashMap<>(result.getItems());
+        for (String symbol : symbols) {
+            if (!fundamentalsMap.containsKey(symbol) && !result.getFailedSymbols().contains(symbol)) {
+                fundamentalsMap.put(symbol, new Fundamentals(symbol, new Money()));
+            }
+        }
+        return fundamentalsMap;
+    }
+
+    private void saveFundamentals(Map<String, Fundamentals> fundamentalsMap) {
+        long now = System.currentTimeMillis();
+        for (Fundamentals fundamentals : fundamentalsMap.values()) {
+            fundamentals.setUpdateTime(new Date(now));
+            mFundamentals.put(fundamentals.getSymbol(), fundamentals);
+        }
+        mFundamentalsModel.saveFundamentals(new ArrayList<>(fundamentalsMap.values()));
+    }
+
+    static Map<String, Quote> mergeFundamentals(Map<String, Quote> quoteMap,
+                                                Map<String, Fundamentals> fundamentalsMap) {
+        // merged into copies so a quote is never changed once it was handed out
+        Map<String, Quote> merged = new HashMap<>(quoteMap.size());
+        for (Map.Entry<String, Quote> entry : quoteMap.entrySet()) {
+            Quote quote = entry.getValue();
+            Fundamentals fundamentals = fundamentalsMap.get(quote.getSymbol());
+            merged.put(entry.getKey(), (fundamentals != null) ?
+                    quote.withDividendPerShare(fundamentals.getDividendPerShare()) : quote);
+        }
+        return merged;
+    }
+
+    /**
+     * Fetches the symbols in parallel chunks, see {@link ChunkedFetcher}. The symbols
+     * of a chunk that failed are missing from the result, they are logged and the
+     * quote cache requests them again on the next call.
+     */
+    private <R, T> Observable<Map<String, T>> fetchInChunks(final Set<String> symbols,
+                                                           final Function<String, Observable<R>> request,
+                                                           final Function<R, List<T>> itemsFromResult,
+                                                           final Function<T, String> symbolFromItem) {
+        return fetchChunks(symbols, request, itemsFromResult, symbolFromItem)
+                .map(ChunkedFetcher.Result::getItems);
+    }
+
+    private <R, T> Observable<ChunkedFetcher.Result<T>> fetchChunks(final Set<String> symbols,
+                                                                     final Function<String, Observable<R>> request,
+                                                                     final Function<R, List<T>> itemsFromResult,
+                                                                     final Function<T, String> symbolFromItem) {
+        return CHUNKED_FETCHER.fetch(symbols,
+                chunk -> request.apply(getDelimitedSymbols(chunk)).map(itemsFromResult),
+                symbolFromItem)
+                .doOnNext(result -> {
+                    if (!result.getFailedSymbols().isEmpty()) {
+                        Log.e(TAG, "Error fetching symbols: " + result.getFailedSymbols());
+                    }
+                });
+    }
+
+    @Override
+    public Flowable<Map<String, Quote>> streamQuotes(List<String> symbols, long intervalMs) {
+        return mQuoteStream.streamQuotes(getUniqueSymbols(symbols), intervalMs);
+    }
+
+    @Override
+    public Observable<Map<String, Quote>> getQuoteUpdates() {
+        return mQuoteStream.getUpdates();
+    }
 
-        return financeApi.getQuotes(symbolString)
-                .map(QuoteResult::getQuotes)
-                .map(quotes -> mapSymbolsToQuotes(quotes, uniqueSymbols));
+    @Override
+    public MarketClock getMarketClock() {
+        return mFinanceManager.getMarketClock();
     }
 
     @Override
@@ -100,11 +280,13 @@ public class FinanceModelImpl implements FinanceModel {
 
     private Set<String> getUniqueSymbols(List<String> symbols) {
         Set<String> uniqueSymbols = new HashSet<>(symbols.size());
-        uniqueSymbols.addAll(symbols);
+        for (String symbol : symbols) {
+            uniqueSymbols.add(symbol.toUpperCase());
+        }
         return uniqueSymbols;
     }
 
-    private String getDelimitedSymbols(Set<String> symbols) {
+    private String getDelimitedSymbols(Collection<String> symbols) {
         StringBuilder builder = new StringBuilder();
         boolean isFirst = true;
         for (String s : symbols) {
@@ -190,12 +372,4 @@ public class FinanceModelImpl implements FinanceModel {
             return new Date();
         }
     }
-
-    private Map<String, Quote>  mapSymbolsToQuotes(List<Quote> quotes, Set<String> uniqueSymbols) {
-        Map<String, Quote> quoteMap = new HashMap<>(uniqueSymbols.size());
-        for (Quote quote : quotes) {
-            quoteMap.put(quote.getSymbol(), quote);
-        }
-        return quoteMap;
-    }
 }
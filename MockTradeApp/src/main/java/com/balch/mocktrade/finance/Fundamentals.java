@@ -0,0 +1,62 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 1:12 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+
+package com.balch.mocktrade.finance;
+
+import com.balch.android.app.framework.core.DomainObject;
+import com.balch.android.app.framework.types.Money;
+
+/**
+ * Slow changing per-symbol data that is fetched once a day
+ * and merged into the intraday {@link Quote}s.
+ */
+public class Fundamentals extends DomainObject {
+    private String symbol;
+    private Money dividendPerShare;
+
+    public Fundamentals() {
+        this("", new Money());
+    }
+
+    public Fundamentals(String symbol, Money dividendPerShare) {
+        this.symbol = symbol;
+        this.dividendPerShare = dividendPerShare;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public Money getDividendPerShare() {
+        return dividendPerShare;
+    }
+
+    public void setDividendPerShare(Money dividendPerShare) {
+        this.dividendPerShare = dividendPerShare;
+    }
+}
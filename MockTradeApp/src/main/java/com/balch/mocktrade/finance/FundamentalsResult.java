@@ -0,0 +1,45 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 1:12 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+
+package com.balch.mocktrade.finance;
+
+import java.util.List;
+
+public class FundamentalsResult {
+    private final boolean success;
+    private final List<Fundamentals> fundamentals;
+
+    public FundamentalsResult(boolean success, List<Fundamentals> fundamentals) {
+        this.success = success;
+        this.fundamentals = fundamentals;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public List<Fundamentals> getFundamentals() {
+        return fundamentals;
+    }
+}
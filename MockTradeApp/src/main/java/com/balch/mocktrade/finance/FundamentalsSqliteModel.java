@@ -0,0 +1,131 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 1:12 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+
+package com.balch.mocktrade.finance;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.text.TextUtils;
+
+import com.balch.android.app.framework.sql.RowMapper;
+import com.balch.android.app.framework.sql.SqlConnection;
+import com.balch.android.app.framework.sql.SqlMapper;
+import com.balch.android.app.framework.types.Money;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+public class FundamentalsSqliteModel implements SqlMapper<Fundamentals> {
+
+    private static final String TABLE_NAME = "fundamentals";
+
+    private static final String COLUMN_SYMBOL = "symbol";
+    private static final String COLUMN_DIVIDEND_PER_SHARE = "dividend_per_share";
+
+    private final SqlConnection sqlConnection;
+
+    public FundamentalsSqliteModel(SqlConnection sqlConnection) {
+        this.sqlConnection = sqlConnection;
+    }
+
+    public List<Fundamentals> getFundamentals(Collection<String> symbols) {
+        if (symbols.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        try {
+            String where = COLUMN_SYMBOL + " IN (" +
+                    TextUtils.join(",", Collections.nCopies(symbols.size(), "?")) + ")";
+            return sqlConnection.query(this, where,
+                    symbols.toArray(new String[symbols.size()]), null);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Replaces the stored fundamentals for each symbol in a single transaction.
+     */
+    public void saveFundamentals(List<Fundamentals> fundamentals) {
+        try {
+            sqlConnection.write(db -> {
+                for (Fundamentals item : fundamentals) {
+                    db.delete(TABLE_NAME, COLUMN_SYMBOL + "=?", new String[]{item.getSymbol()});
+                    sqlConnection.insert(this, item, db);
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public String getTableName() {
+        return TABLE_NAME;
+    }
+
+    @Override
+    public ContentValues getContentValues(Fundamentals fundamentals) {
+        ContentValues values = new ContentValues();
+
+        values.put(COLUMN_SYMBOL, fundamentals.getSymbol());
+        values.put(COLUMN_DIVIDEND_PER_SHARE, fundamentals.getDividendPerShare().getMicroCents());
+
+        return values;
+    }
+
+    @Override
+    public RowMapper<Fundamentals> getRowMapper(Cursor cursor) {
+        return new FundamentalsRowMapper(cursor);
+    }
+
+    private static class FundamentalsRowMapper extends RowMapper<Fundamentals> {
+        private final int idIndex;
+        private final int symbolIndex;
+        private final int dividendPerShareIndex;
+
+        FundamentalsRowMapper(Cursor cursor) {
+            super(cursor);
+            idIndex = cursor.getColumnIndexOrThrow(COLUMN_ID);
+            symbolIndex = cursor.getColumnIndexOrThrow(COLUMN_SYMBOL);
+            dividendPerShareIndex = cursor.getColumnIndexOrThrow(COLUMN_DIVIDEND_PER_SHARE);
+        }
+
+        @Override
+        protected Fundamentals newItem() {
+            return new Fundamentals();
+        }
+
+        @Override
+        protected void populate(Fundamentals fundamentals, Cursor cursor) {
+            fundamentals.setId(cursor.getLong(idIndex));
+            fundamentals.setSymbol(cursor.getString(symbolIndex));
+            fundamentals.setDividendPerShare(new Money(cursor.getLong(dividendPerShareIndex)));
+        }
+    }
+}
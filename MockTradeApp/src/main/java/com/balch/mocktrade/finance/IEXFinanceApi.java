@@ -36,6 +36,17 @@ public interface IEXFinanceApi {
      * @param symbols
      * @return
      */
-    @GET("stock/market/batch?types=quote,stats")
+    @GET("stock/market/batch?types=quote")
     Observable<QuoteResult> getQuotes(@Query("symbols") String symbols);
+
+    /**
+     * Slow changing stats (dividend yield) that only need to be fetched once a day
+     *
+     * https://iextrading.com/developer/docs/#key-stats
+     *
+     * @param symbols
+     * @return
+     */
+    @GET("stock/market/batch?types=stats")
+    Observable<FundamentalsResult> getFundamentals(@Query("symbols") String symbols);
 }
@@ -0,0 +1,113 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 1:12 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+
+package com.balch.mocktrade.finance;
+
+import com.balch.android.app.framework.types.Money;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams the stats section of the IEX batch response. Only
+ * dividendYield is read, every other field is skipped. Writing
+ * produces a stats-only batch that reads back unchanged.
+ */
+public class IEXFundamentalsTypeAdapter extends TypeAdapter<FundamentalsResult> {
+
+    @Override
+    public FundamentalsResult read(JsonReader in) throws IOException {
+        List<Fundamentals> fundamentals = new ArrayList<>();
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String symbol = in.nextName();
+            Fundamentals item = readSymbol(symbol, in);
+            if (item != null) {
+                fundamentals.add(item);
+            }
+        }
+        in.endObject();
+
+        return new FundamentalsResult(true, fundamentals);
+    }
+
+    private Fundamentals readSymbol(String symbol, JsonReader in) throws IOException {
+        Fundamentals fundamentals = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String type = in.nextName();
+            if ("stats".equals(type) && (in.peek() == JsonToken.BEGIN_OBJECT)) {
+                double dividendPerShare = 0;
+                in.beginObject();
+                while (in.hasNext()) {
+                    String field = in.nextName();
+                    if ("dividendYield".equals(field) && (in.peek() != JsonToken.NULL)) {
+                        dividendPerShare = in.nextDouble();
+                    } else {
+                        in.skipValue();
+                    }
+                }
+                in.endObject();
+
+                fundamentals = new Fundamentals(symbol, new Money(dividendPerShare));
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+
+        return fundamentals;
+    }
+
+    @Override
+    public void write(JsonWriter out, FundamentalsResult value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        if (value.getFundamentals() != null) {
+            for (Fundamentals fundamentals : value.getFundamentals()) {
+                out.name(fundamentals.getSymbol());
+                out.beginObject();
+                out.name("stats");
+                out.beginObject();
+                if (fundamentals.getDividendPerShare() != null) {
+                    out.name("dividendYield").value(fundamentals.getDividendPerShare().getDollars());
+                }
+                out.endObject();
+                out.endObject();
+            }
+        }
+        out.endObject();
+    }
+}
@@ -24,44 +24,149 @@
 package com.balch.mocktrade.finance;
 
 import com.balch.android.app.framework.types.Money;
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 
-import java.lang.reflect.Type;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 
-public class IEXQuoteTypeAdapter implements JsonDeserializer<QuoteResult> {
-    @Override
-    public QuoteResult deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
+/**
+ * Streams the IEX batch response and only reads the fields needed
+ * to build a {@link Quote}. Every other field is skipped without
+ * being materialized. Writing produces the same batch shape limited
+ * to those fields, so a written result reads back unchanged.
+ */
+public class IEXQuoteTypeAdapter extends TypeAdapter<QuoteResult> {
 
+    @Override
+    public QuoteResult read(JsonReader in) throws IOException {
         List<Quote> quotes = new ArrayList<>();
 
-        Set<Map.Entry<String, JsonElement>> jsonQuotes = json.getAsJsonObject().entrySet();
-        for (Map.Entry<String, JsonElement> entry: jsonQuotes) {
-            String symbol = entry.getKey();
-            JsonObject jsonQuote = entry.getValue().getAsJsonObject().getAsJsonObject("quote");
+        in.beginObject();
+        while (in.hasNext()) {
+            String symbol = in.nextName();
+            Quote quote = readSymbol(symbol, in);
+            if (quote != null) {
+                quotes.add(quote);
+            }
+        }
+        in.endObject();
+
+        return new QuoteResult(true, quotes);
+    }
+
+    private Quote readSymbol(String symbol, JsonReader in) throws IOException {
+        String name = null;
+        String exchange = null;
+        double price = 0;
+        long lastTradeTime = 0;
+        double previousClose = 0;
+        double dividendPerShare = 0;
+        boolean hasQuote = false;
 
-            String name = jsonQuote.getAsJsonPrimitive("companyName").getAsString();
-            String exchange = jsonQuote.getAsJsonPrimitive("primaryExchange").getAsString();
-            Money price = new Money(jsonQuote.getAsJsonPrimitive("latestPrice").getAsDouble());
-            Date lastTradeTime = new Date(jsonQuote.getAsJsonPrimitive("latestUpdate").getAsLong());
-            Money previousClose = new Money(jsonQuote.getAsJsonPrimitive("previousClose").getAsDouble());
+        in.beginObject();
+        while (in.hasNext()) {
+            String type = in.nextName();
+            if ("quote".equals(type) && (in.peek() == JsonToken.BEGIN_OBJECT)) {
+                hasQuote = true;
+                in.beginObject();
+                while (in.hasNext()) {
+                    String field = in.nextName();
+                    if (in.peek() == JsonToken.NULL) {
+                        in.skipValue();
+                        continue;
+                    }
 
-            JsonObject jsonStats = entry.getValue().getAsJsonObject().getAsJsonObject("stats");
-            Money dividendPerShare = (jsonStats.has("dividendYield") && !jsonStats.get("dividendYield").isJsonNull()) ?
-                    new Money(jsonStats.getAsJsonPrimitive("dividendYield").getAsDouble()) :
-                    new Money();
+                    switch (field) {
+                        case "companyName":
+                            name = in.nextString();
+                            break;
+                        case "primaryExchange":
+                            exchange = in.nextString();
+                            break;
+                        case "latestPrice":
+                            price = in.nextDouble();
+                            break;
+                        case "latestUpdate":
+                            lastTradeTime = in.nextLong();
+                            break;
+                        case "previousClose":
+                            previousClose = in.nextDouble();
+                            break;
+                        default:
+                            in.skipValue();
+                    }
+                }
+                in.endObject();
+            } else if ("stats".equals(type) && (in.peek() == JsonToken.BEGIN_OBJECT)) {
+                in.beginObject();
+                while (in.hasNext()) {
+                    String field = in.nextName();
+                    if ("dividendYield".equals(field) && (in.peek() != JsonToken.NULL)) {
+                        dividendPerShare = in.nextDouble();
+                    } else {
+                        in.skipValue();
+                    }
+                }
+                in.endObject();
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
 
-            quotes.add(new Quote(symbol, name, exchange, price, lastTradeTime, previousClose, dividendPerShare));
+        return hasQuote ?
+                new Quote(symbol, name, exchange, new Money(price), new Date(lastTradeTime),
+                        new Money(previousClose), new Money(dividendPerShare)) :
+                null;
+    }
 
+    @Override
+    public void write(JsonWriter out, QuoteResult value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
         }
-        return new QuoteResult(true, quotes);
+
+        out.beginObject();
+        if (value.getQuotes() != null) {
+            for (Quote quote : value.getQuotes()) {
+                out.name(quote.getSymbol());
+                writeSymbol(out, quote);
+            }
+        }
+        out.endObject();
+    }
+
+    private void writeSymbol(JsonWriter out, Quote quote) throws IOException {
+        out.beginObject();
+
+        out.name("quote");
+        out.beginObject();
+        out.name("companyName").value(quote.getName());
+        out.name("primaryExchange").value(quote.getExchange());
+        if (quote.getPrice() != null) {
+            out.name("latestPrice").value(quote.getPrice().getDollars());
+        }
+        if (quote.getLastTradeTime() != null) {
+            out.name("latestUpdate").value(quote.getLastTradeTime().getTime());
+        }
+        if (quote.getPreviousClose() != null) {
+            out.name("previousClose").value(quote.getPreviousClose().getDollars());
+        }
+        out.endObject();
+
+        if (quote.getDividendPerShare() != null) {
+            out.name("stats");
+            out.beginObject();
+            out.name("dividendYield").value(quote.getDividendPerShare().getDollars());
+            out.endObject();
+        }
+
+        out.endObject();
     }
 }
@@ -0,0 +1,166 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 2:05 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+package com.balch.mocktrade.finance;
+
+import android.content.Context;
+
+import com.balch.mocktrade.settings.Settings;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Flowable;
+import io.reactivex.Observable;
+import io.reactivex.schedulers.Schedulers;
+
+/**
+ * FinanceModel that serves quotes from a {@link LocalQuoteSource} instead of IEX.
+ * Requests can be slowed down and made to fail at a fixed rate to exercise the
+ * QuoteService, OrderService and strategies offline at any tick rate.
+ *
+ * Market hours and alarms behave the same as the live model.
+ */
+public class LocalFinanceModel implements FinanceModel {
+
+    private final LocalQuoteSource mQuoteSource;
+    private final FinanceManager mFinanceManager;
+    private final long mLatencyMs;
+    private final int mErrorRate;
+    private final Random mErrorRandom;
+    private final QuoteStream mQuoteStream =
+            new QuoteStream(symbols -> getQuotes(new ArrayList<>(symbols)));
+
+    /**
+     * Creates a model for one of the local quote providers in {@link Settings}
+     */
+    public static LocalFinanceModel create(Context context, Settings settings) throws IOException {
+        LocalQuoteSource quoteSource;
+        if (Settings.QUOTE_PROVIDER_REPLAY.equals(settings.getQuoteProvider())) {
+            quoteSource = ReplayQuoteSource.fromFile(new File(settings.getQuoteReplayFile()),
+                    MarketClock.SYSTEM_TIME_SOURCE);
+        } else {
+            quoteSource = new RandomWalkQuoteSource(settings.getLocalQuoteSeed(),
+                    MarketClock.SYSTEM_TIME_SOURCE);
+        }
+
+        return new LocalFinanceModel(context, settings, quoteSource,
+                settings.getLocalQuoteLatency(), settings.getLocalQuoteErrorRate(),
+                settings.getLocalQuoteSeed());
+    }
+
+    LocalFinanceModel(Context context, Settings settings, LocalQuoteSource quoteSource,
+                      long latencyMs, int errorRate, long seed) {
+        this.mQuoteSource = quoteSource;
+        this.mFinanceManager = new FinanceManager(context.getApplicationContext(), settings);
+        this.mLatencyMs = latencyMs;
+        this.mErrorRate = errorRate;
+        this.mErrorRandom = new Random(seed);
+    }
+
+    @Override
+    public Observable<Quote> getQuote(final String symbol) {
+        return getQuotes(Collections.singletonList(symbol))
+                .map(quoteMap -> quoteMap.get(symbol.toUpperCase()));
+    }
+
+    @Override
+    public Observable<Map<String, Quote>> getQuotes(List<String> symbols) {
+        final Set<String> uniqueSymbols = getUniqueSymbols(symbols);
+
+        // the source is never run on the caller's thread, like a network request
+        Observable<Map<String, Quote>> observable = Observable.fromCallable(() -> {
+            if (isInjectedError()) {
+                throw new IOException("Injected quote error");
+            }
+            return mQuoteSource.getQuotes(uniqueSymbols);
+        })
+                .subscribeOn(Schedulers.io())
+                .doOnNext(mQuoteStream::publish);
+
+        return (mLatencyMs > 0) ?
+                observable.delaySubscription(mLatencyMs, TimeUnit.MILLISECONDS, Schedulers.io()) :
+                observable;
+    }
+
+    private Set<String> getUniqueSymbols(List<String> symbols) {
+        Set<String> uniqueSymbols = new HashSet<>(symbols.size());
+        for (String symbol : symbols) {
+            uniqueSymbols.add(symbol.toUpperCase());
+        }
+        return uniqueSymbols;
+    }
+
+    private boolean isInjectedError() {
+        if (mErrorRate <= 0) {
+            return false;
+        }
+        synchronized (mErrorRandom) {
+            return (mErrorRandom.nextInt(100) < mErrorRate);
+        }
+    }
+
+    @Override
+    public Flowable<Map<String, Quote>> streamQuotes(List<String> symbols, long intervalMs) {
+        return mQuoteStream.streamQuotes(getUniqueSymbols(symbols), intervalMs);
+    }
+
+    @Override
+    public Observable<Map<String, Quote>> getQuoteUpdates() {
+        return mQuoteStream.getUpdates();
+    }
+
+    @Override
+    public MarketClock getMarketClock() {
+        return mFinanceManager.getMarketClock();
+    }
+
+    @Override
+    public boolean isMarketOpen() {
+        return mFinanceManager.isMarketOpen();
+    }
+
+    @Override
+    public Date nextMarketOpen() {
+        return mFinanceManager.nextMarketOpen();
+    }
+
+    @Override
+    public boolean isInPollTime() {
+        return mFinanceManager.isInPollTime();
+    }
+
+    @Override
+    public void setQuoteServiceAlarm() {
+        mFinanceManager.setQuoteServiceAlarm();
+    }
+}
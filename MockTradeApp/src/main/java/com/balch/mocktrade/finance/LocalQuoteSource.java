@@ -0,0 +1,35 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 2:05 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+package com.balch.mocktrade.finance;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Supplies quotes to the {@link LocalFinanceModel} without going over the network.
+ * Each call is one tick of the simulated market.
+ */
+interface LocalQuoteSource {
+    Map<String, Quote> getQuotes(Set<String> symbols);
+}
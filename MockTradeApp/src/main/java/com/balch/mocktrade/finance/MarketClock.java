@@ -0,0 +1,315 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 6:30 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+package com.balch.mocktrade.finance;
+
+import android.util.Log;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TimeZone;
+
+/**
+ * Answers market session questions (is the market open, are we in poll time,
+ * when is the next open) with epoch ms comparisons.
+ *
+ * The session boundaries of the current day and the next market open are
+ * computed once and reused until the day rolls over or {@link #invalidate()}
+ * is called after the configuration changes. Weekends and the configured
+ * holidays have no session, and half days close at the configured half day
+ * close time. The holidays are read again every time the day rolls over.
+ */
+public class MarketClock {
+    private static final String TAG = MarketClock.class.getSimpleName();
+
+    // polling starts before the open and ends after the close
+    private static final int POLL_OFFSET_MINUTES = 15;
+
+    // enough to get past any weekend plus a run of holidays
+    private static final int MAX_DAYS_TO_NEXT_SESSION = 14;
+
+    public interface TimeSource {
+        long currentTimeMillis();
+    }
+
+    public static final TimeSource SYSTEM_TIME_SOURCE = System::currentTimeMillis;
+
+    /**
+     * Times are in "H:mm" format and dates are comma separated "yyyy-MM-dd"
+     * lists, all in the clock's time zone
+     */
+    public interface Configuration {
+        String getOpenTime();
+        String getCloseTime();
+        String getHolidays();
+        String getHalfDays();
+        String getHalfDayCloseTime();
+    }
+
+    /**
+     * Session boundaries of one day. An instance is never modified so it can be
+     * read without locking.
+     */
+    private static class Session {
+        private final long dayStart;
+        private final long dayEnd;
+        private final boolean isTradingDay;
+        private final long open;
+        private final long close;
+        private final long pollStart;
+        private final long pollEnd;
+        private final long nextOpen;
+        private final long nextPollStart;
+        private final long prevClose;
+
+        Session(long dayStart, long dayEnd, boolean isTradingDay, long open, long close,
+                long nextOpen, long prevClose) {
+            this.dayStart = dayStart;
+            this.dayEnd = dayEnd;
+            this.isTradingDay = isTradingDay;
+            this.open = open;
+            this.close = close;
+            this.pollStart = open - POLL_OFFSET_MINUTES * 60 * 1000L;
+            this.pollEnd = close + POLL_OFFSET_MINUTES * 60 * 1000L;
+            this.nextOpen = nextOpen;
+            this.nextPollStart = nextOpen - POLL_OFFSET_MINUTES * 60 * 1000L;
+            this.prevClose = prevClose;
+        }
+
+        boolean isCurrent(long now) {
+            return (now >= dayStart) && (now < dayEnd);
+        }
+    }
+
+    private final TimeSource timeSource;
+    private final TimeZone timeZone;
+    private final Configuration config;
+
+    private volatile Session session;
+    private int computeCount = 0;
+
+    public MarketClock(TimeSource timeSource, TimeZone timeZone, Configuration config) {
+        this.timeSource = timeSource;
+        this.timeZone = timeZone;
+        this.config = config;
+    }
+
+    public long currentTimeMillis() {
+        return timeSource.currentTimeMillis();
+    }
+
+    public boolean isMarketOpen() {
+        long now = timeSource.currentTimeMillis();
+        Session session = getSession(now);
+        return session.isTradingDay && (now >= session.open) && (now <= session.close);
+    }
+
+    public boolean isInPollTime() {
+        long now = timeSource.currentTimeMillis();
+        Session session = getSession(now);
+        return session.isTradingDay && (now >= session.pollStart) && (now <= session.pollEnd);
+    }
+
+    /**
+     * Returns now if the market is open, otherwise the time of the next open
+     */
+    public long nextMarketOpen() {
+        long now = timeSource.currentTimeMillis();
+        Session session = getSession(now);
+        if (session.isTradingDay && (now <= session.close)) {
+            return Math.max(now, session.open);
+        }
+        return session.nextOpen;
+    }
+
+    /**
+     * Returns now if in poll time, otherwise the time polling starts next
+     */
+    public long nextPollStart() {
+        long now = timeSource.currentTimeMillis();
+        Session session = getSession(now);
+        if (session.isTradingDay && (now <= session.pollEnd)) {
+            return Math.max(now, session.pollStart);
+        }
+        return session.nextPollStart;
+    }
+
+    /**
+     * Returns the close of today's session, or 0 if the market does not open today
+     */
+    public long getMarketCloseTime() {
+        Session session = getSession(timeSource.currentTimeMillis());
+        return session.isTradingDay ? session.close : 0;
+    }
+
+    /**
+     * Returns the close of the most recent session that has ended, today's close
+     * once the market has closed, otherwise the close of the previous trading day
+     */
+    public long lastMarketClose() {
+        long now = timeSource.currentTimeMillis();
+        Session session = getSession(now);
+        if (session.isTradingDay && (now > session.close)) {
+            return session.close;
+        }
+        return session.prevClose;
+    }
+
+    /**
+     * Returns the start of the current day in the clock's time zone
+     */
+    public long getDayStart() {
+        return getSession(timeSource.currentTimeMillis()).dayStart;
+    }
+
+    /**
+     * Returns true if the time falls on the current day in the clock's time zone
+     */
+    public boolean isToday(long time) {
+        Session session = getSession(timeSource.currentTimeMillis());
+        return (time >= session.dayStart) && (time < session.dayEnd);
+    }
+
+    /**
+     * Drops the cached session so the next call recomputes it from the
+     * configuration. Call this when the configuration changes.
+     */
+    public void invalidate() {
+        session = null;
+    }
+
+    int getComputeCount() {
+        return computeCount;
+    }
+
+    private Session getSession(long now) {
+        Session current = session;
+        if ((current == null) || !current.isCurrent(now)) {
+            synchronized (this) {
+                current = session;
+                if ((current == null) || !current.isCurrent(now)) {
+                    current = computeSession(now);
+                    session = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private Session computeSession(long now) {
+        computeCount++;
+
+        String openTime = config.getOpenTime();
+        String closeTime = config.getCloseTime();
+        String holidays = config.getHolidays();
+        String halfDays = config.getHalfDays();
+        String halfDayCloseTime = config.getHalfDayCloseTime();
+
+        Set<Integer> holidaySet = parseDates(holidays);
+        Set<Integer> halfDaySet = parseDates(halfDays);
+        int openMinutes = parseMinutes(openTime);
+        int closeMinutes = parseMinutes(closeTime);
+        int halfDayCloseMinutes = parseMinutes(halfDayCloseTime);
+
+        Calendar cal = new GregorianCalendar(timeZone);
+        cal.setTimeInMillis(now);
+        cal.set(Calendar.HOUR_OF_DAY, 0);
+        cal.set(Calendar.MINUTE, 0);
+        cal.set(Calendar.SECOND, 0);
+        cal.set(Calendar.MILLISECOND, 0);
+
+        long dayStart = cal.getTimeInMillis();
+        boolean isTradingDay = isTradingDay(cal, holidaySet);
+        int dayCloseMinutes = halfDaySet.contains(getDateKey(cal)) ? halfDayCloseMinutes : closeMinutes;
+        long open = getTimeOfDay(cal, openMinutes);
+        long close = getTimeOfDay(cal, dayCloseMinutes);
+
+        cal.add(Calendar.DATE, 1);
+        long dayEnd = cal.getTimeInMillis();
+
+        long nextOpen = 0;
+        for (int x = 0; x < MAX_DAYS_TO_NEXT_SESSION; x++) {
+            if (isTradingDay(cal, holidaySet)) {
+                nextOpen = getTimeOfDay(cal, openMinutes);
+                break;
+            }
+            cal.add(Calendar.DATE, 1);
+        }
+
+        long prevClose = 0;
+        cal.setTimeInMillis(dayStart);
+        for (int x = 0; x < MAX_DAYS_TO_NEXT_SESSION; x++) {
+            cal.add(Calendar.DATE, -1);
+            if (isTradingDay(cal, holidaySet)) {
+                prevClose = getTimeOfDay(cal, halfDaySet.contains(getDateKey(cal)) ?
+                        halfDayCloseMinutes : closeMinutes);
+                break;
+            }
+        }
+
+        return new Session(dayStart, dayEnd, isTradingDay, open, close, nextOpen, prevClose);
+    }
+
+    private static boolean isTradingDay(Calendar cal, Set<Integer> holidays) {
+        int dayOfWeek = cal.get(Calendar.DAY_OF_WEEK);
+        return (dayOfWeek != Calendar.SATURDAY) && (dayOfWeek != Calendar.SUNDAY) &&
+                !holidays.contains(getDateKey(cal));
+    }
+
+    private static long getTimeOfDay(Calendar midnight, int minutes) {
+        Calendar cal = (Calendar) midnight.clone();
+        cal.set(Calendar.HOUR_OF_DAY, minutes / 60);
+        cal.set(Calendar.MINUTE, minutes % 60);
+        return cal.getTimeInMillis();
+    }
+
+    // yyyymmdd
+    private static int getDateKey(Calendar cal) {
+        return cal.get(Calendar.YEAR) * 10000 + (cal.get(Calendar.MONTH) + 1) * 100 +
+                cal.get(Calendar.DAY_OF_MONTH);
+    }
+
+    private static int parseMinutes(String time) {
+        String[] parts = time.split(":");
+        return Integer.parseInt(parts[0].trim()) * 60 + Integer.parseInt(parts[1].trim());
+    }
+
+    private static Set<Integer> parseDates(String dates) {
+        Set<Integer> dateKeys = new HashSet<>();
+        for (String date : dates.split(",")) {
+            date = date.trim();
+            if (!date.isEmpty()) {
+                String[] parts = date.split("-");
+                try {
+                    dateKeys.add(Integer.parseInt(parts[0]) * 10000 +
+                            Integer.parseInt(parts[1]) * 100 + Integer.parseInt(parts[2]));
+                } catch (RuntimeException e) {
+                    Log.e(TAG, "Invalid market calendar date: " + date, e);
+                }
+            }
+        }
+        return dateKeys;
+    }
+}
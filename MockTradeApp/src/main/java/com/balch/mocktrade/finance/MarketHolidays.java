@@ -0,0 +1,189 @@
+/*
+ * Author: Balch
+ * Created: 10/19/26 9:10 AM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+
+package com.balch.mocktrade.finance;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Computes the NYSE holidays and early closes of a year from the exchange's
+ * rules, so the default market calendar never runs out of dates.
+ *
+ * A holiday on a Sunday is observed the Monday after and one on a Saturday the
+ * Friday before, except New Year's Day which is not observed in December. The
+ * market closes early the day after Thanksgiving, and on July 3 and December 24
+ * when they fall on a Monday to Thursday.
+ */
+public final class MarketHolidays {
+
+    private MarketHolidays() {
+    }
+
+    /**
+     * Returns the holidays of the years as comma separated "yyyy-MM-dd" dates
+     */
+    public static String getHolidays(int fromYear, int toYear) {
+        List<String> dates = new ArrayList<>();
+        for (int year = fromYear; year <= toYear; year++) {
+            for (Calendar day : getHolidays(year)) {
+                dates.add(format(day));
+            }
+        }
+        return join(dates);
+    }
+
+    /**
+     * Returns the early closes of the years as comma separated "yyyy-MM-dd" dates
+     */
+    public static String getHalfDays(int fromYear, int toYear) {
+        List<String> dates = new ArrayList<>();
+        for (int year = fromYear; year <= toYear; year++) {
+            for (Calendar day : getHalfDays(year)) {
+                dates.add(format(day));
+            }
+        }
+        return join(dates);
+    }
+
+    static List<Calendar> getHolidays(int year) {
+        List<Calendar> holidays = new ArrayList<>();
+
+        Calendar newYear = date(year, Calendar.JANUARY, 1);
+        if (newYear.get(Calendar.DAY_OF_WEEK) != Calendar.SATURDAY) {
+            holidays.add(observed(newYear));
+        }
+        holidays.add(nthWeekday(year, Calendar.JANUARY, Calendar.MONDAY, 3));
+        holidays.add(nthWeekday(year, Calendar.FEBRUARY, Calendar.MONDAY, 3));
+
+        Calendar goodFriday = getEaster(year);
+        goodFriday.add(Calendar.DAY_OF_MONTH, -2);
+        holidays.add(goodFriday);
+
+        holidays.add(lastWeekday(year, Calendar.MAY, Calendar.MONDAY));
+        holidays.add(observed(date(year, Calendar.JUNE, 19)));
+        holidays.add(observed(date(year, Calendar.JULY, 4)));
+        holidays.add(nthWeekday(year, Calendar.SEPTEMBER, Calendar.MONDAY, 1));
+        holidays.add(nthWeekday(year, Calendar.NOVEMBER, Calendar.THURSDAY, 4));
+        holidays.add(observed(date(year, Calendar.DECEMBER, 25)));
+        return holidays;
+    }
+
+    static List<Calendar> getHalfDays(int year) {
+        List<Calendar> halfDays = new ArrayList<>();
+
+        Calendar julyThird = date(year, Calendar.JULY, 3);
+        if (isMondayToThursday(julyThird)) {
+            halfDays.add(julyThird);
+        }
+
+        Calendar blackFriday = nthWeekday(year, Calendar.NOVEMBER, Calendar.THURSDAY, 4);
+        blackFriday.add(Calendar.DAY_OF_MONTH, 1);
+        halfDays.add(blackFriday);
+
+        Calendar christmasEve = date(year, Calendar.DECEMBER, 24);
+        if (isMondayToThursday(christmasEve)) {
+            halfDays.add(christmasEve);
+        }
+        return halfDays;
+    }
+
+    /**
+     * Easter Sunday by the anonymous Gregorian algorithm
+     */
+    static Calendar getEaster(int year) {
+        int a = year % 19;
+        int b = year / 100;
+        int c = year % 100;
+        int d = b / 4;
+        int e = b % 4;
+        int f = (b + 8) / 25;
+        int g = (b - f + 1) / 3;
+        int h = (19 * a + b - d - g + 15) % 30;
+        int i = c / 4;
+        int k = c % 4;
+        int l = (32 + 2 * e + 2 * i - h - k) % 7;
+        int m = (a + 11 * h + 22 * l) / 451;
+        int month = (h + l - 7 * m + 114) / 31;
+        int day = ((h + l - 7 * m + 114) % 31) + 1;
+        return date(year, month - 1, day);
+    }
+
+    private static Calendar observed(Calendar day) {
+        int dayOfWeek = day.get(Calendar.DAY_OF_WEEK);
+        if (dayOfWeek == Calendar.SATURDAY) {
+            day.add(Calendar.DAY_OF_MONTH, -1);
+        } else if (dayOfWeek == Calendar.SUNDAY) {
+            day.add(Calendar.DAY_OF_MONTH, 1);
+        }
+        return day;
+    }
+
+    private static boolean isMondayToThursday(Calendar day) {
+        int dayOfWeek = day.get(Calendar.DAY_OF_WEEK);
+        return (dayOfWeek >= Calendar.MONDAY) && (dayOfWeek <= Calendar.THURSDAY);
+    }
+
+    private static Calendar nthWeekday(int year, int month, int dayOfWeek, int n) {
+        Calendar day = date(year, month, 1);
+        while (day.get(Calendar.DAY_OF_WEEK) != dayOfWeek) {
+            day.add(Calendar.DAY_OF_MONTH, 1);
+        }
+        day.add(Calendar.DAY_OF_MONTH, (n - 1) * 7);
+        return day;
+    }
+
+    private static Calendar lastWeekday(int year, int month, int dayOfWeek) {
+        Calendar day = date(year, month, 1);
+        day.add(Calendar.MONTH, 1);
+        day.add(Calendar.DAY_OF_MONTH, -1);
+        while (day.get(Calendar.DAY_OF_WEEK) != dayOfWeek) {
+            day.add(Calendar.DAY_OF_MONTH, -1);
+        }
+        return day;
+    }
+
+    private static Calendar date(int year, int month, int day) {
+        return new GregorianCalendar(year, month, day);
+    }
+
+    private static String format(Calendar day) {
+        return String.format(Locale.US, "%04d-%02d-%02d", day.get(Calendar.YEAR),
+                day.get(Calendar.MONTH) + 1, day.get(Calendar.DAY_OF_MONTH));
+    }
+
+    private static String join(List<String> dates) {
+        StringBuilder builder = new StringBuilder();
+        for (String date : dates) {
+            if (builder.length() > 0) {
+                builder.append(',');
+            }
+            builder.append(date);
+        }
+        return builder.toString();
+    }
+}
@@ -83,4 +83,12 @@ public class Quote {
         return this.dividendPerShare;
     }
 
+    /**
+     * Returns a copy of the quote with the dividend, quotes are shared through
+     * the quote cache and stream so they are never changed once created
+     */
+    Quote withDividendPerShare(Money dividendPerShare) {
+        return new Quote(symbol, name, exchange, price, lastTradeTime, previousClose, dividendPerShare);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,192 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 4:20 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+package com.balch.mocktrade.finance;
+
+import com.balch.android.app.framework.types.Money;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Snapshot of the latest quotes laid out for the per-tick path. Each symbol is
+ * interned to an int id that stays the same for the life of the book, and the
+ * quote values are kept in parallel primitive arrays (money in micro cents,
+ * times in epoch ms) that are reused from tick to tick. Reading a quote by id
+ * does not allocate.
+ *
+ * The book is not thread safe, it should be confined to the thread that runs
+ * the tick.
+ */
+public class QuoteBook {
+    private static final int INITIAL_CAPACITY = 64;
+
+    public static final int NO_SYMBOL = -1;
+
+    private final Map<String, Integer> symbolIds = new HashMap<>();
+
+    private String[] symbols = new String[INITIAL_CAPACITY];
+    private String[] names = new String[INITIAL_CAPACITY];
+    private String[] exchanges = new String[INITIAL_CAPACITY];
+    private long[] prices = new long[INITIAL_CAPACITY];
+    private long[] previousCloses = new long[INITIAL_CAPACITY];
+    private long[] lastTradeTimes = new long[INITIAL_CAPACITY];
+    private long[] dividendsPerShare = new long[INITIAL_CAPACITY];
+    private int[] quoteTicks = new int[INITIAL_CAPACITY];
+
+    private int symbolCount = 0;
+    private int tick = 0;
+
+    /**
+     * Starts a new tick and copies the quotes into the book. Symbols missing
+     * from the map keep their previous values but are no longer reported by
+     * {@link #hasQuote(int)}.
+     */
+    public void update(Map<String, Quote> quoteMap) {
+        tick++;
+        for (Quote quote : quoteMap.values()) {
+            int id = intern(quote.getSymbol());
+            names[id] = quote.getName();
+            exchanges[id] = quote.getExchange();
+            prices[id] = getMicroCents(quote.getPrice());
+            previousCloses[id] = getMicroCents(quote.getPreviousClose());
+            lastTradeTimes[id] = (quote.getLastTradeTime() != null) ? quote.getLastTradeTime().getTime() : 0;
+            dividendsPerShare[id] = getMicroCents(quote.getDividendPerShare());
+            quoteTicks[id] = tick;
+        }
+    }
+
+    /**
+     * Starts a new tick that is filled in with {@link #put}. This is the allocation
+     * free alternative to {@link #update(Map)} for callers that already hold the
+     * prices as primitives, like the backtest replay.
+     */
+    public void startTick() {
+        tick++;
+    }
+
+    /**
+     * Sets the quote of an interned symbol for the current tick
+     */
+    public void put(int id, String name, String exchange, long price, long previousClose,
+                    long lastTradeTime, long dividendPerShare) {
+        names[id] = name;
+        exchanges[id] = exchange;
+        prices[id] = price;
+        previousCloses[id] = previousClose;
+        lastTradeTimes[id] = lastTradeTime;
+        dividendsPerShare[id] = dividendPerShare;
+        quoteTicks[id] = tick;
+    }
+
+    /**
+     * Returns the id of the symbol, adding it to the book if it has not been seen.
+     */
+    public int intern(String symbol) {
+        Integer id = symbolIds.get(symbol);
+        if (id == null) {
+            id = symbolCount++;
+            ensureCapacity(symbolCount);
+            symbols[id] = symbol;
+            symbolIds.put(symbol, id);
+        }
+        return id;
+    }
+
+    /**
+     * Returns the id of the symbol or {@link #NO_SYMBOL} if it has not been seen.
+     */
+    public int indexOf(String symbol) {
+        Integer id = symbolIds.get(symbol);
+        return (id != null) ? id : NO_SYMBOL;
+    }
+
+    /**
+     * Returns true if the symbol was quoted by the latest update
+     */
+    public boolean hasQuote(int id) {
+        return (id >= 0) && (id < symbolCount) && (quoteTicks[id] == tick) && (tick > 0);
+    }
+
+    /**
+     * Returns true if the symbol has been quoted by any update. Symbols that were
+     * not refreshed by the latest update keep their last known values.
+     */
+    public boolean hasPrice(int id) {
+        return (id >= 0) && (id < symbolCount) && (quoteTicks[id] > 0);
+    }
+
+    public int getSymbolCount() {
+        return symbolCount;
+    }
+
+    public String getSymbol(int id) {
+        return symbols[id];
+    }
+
+    public long getPrice(int id) {
+        return prices[id];
+    }
+
+    public long getPreviousClose(int id) {
+        return previousCloses[id];
+    }
+
+    public long getLastTradeTime(int id) {
+        return lastTradeTimes[id];
+    }
+
+    public long getDividendPerShare(int id) {
+        return dividendsPerShare[id];
+    }
+
+    /**
+     * Creates a Quote object for the symbol. This allocates, use it when the
+     * tick results in an action (like filling an order) and not to read prices.
+     */
+    public Quote getQuote(int id) {
+        return new Quote(symbols[id], names[id], exchanges[id],
+                new Money(prices[id]), new Date(lastTradeTimes[id]),
+                new Money(previousCloses[id]), new Money(dividendsPerShare[id]));
+    }
+
+    private static long getMicroCents(Money money) {
+        return (money != null) ? money.getMicroCents() : 0;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > symbols.length) {
+            int newCapacity = Math.max(capacity, symbols.length * 2);
+            symbols = Arrays.copyOf(symbols, newCapacity);
+            names = Arrays.copyOf(names, newCapacity);
+            exchanges = Arrays.copyOf(exchanges, newCapacity);
+            prices = Arrays.copyOf(prices, newCapacity);
+            previousCloses = Arrays.copyOf(previousCloses, newCapacity);
+            lastTradeTimes = Arrays.copyOf(lastTradeTimes, newCapacity);
+            dividendsPerShare = Arrays.copyOf(dividendsPerShare, newCapacity);
+            quoteTicks = Arrays.copyOf(quoteTicks, newCapacity);
+        }
+    }
+}
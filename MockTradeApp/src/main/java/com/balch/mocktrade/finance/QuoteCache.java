@@ -0,0 +1,178 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 9:15 AM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+package com.balch.mocktrade.finance;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.reactivex.Observable;
+
+/**
+ * Process-wide cache of the most recent quote for each symbol.
+ *
+ * Quotes younger than the ttl are served from memory. Symbols that are
+ * already being fetched by another caller are attached to that request
+ * instead of going over the wire again, and only the remaining symbols
+ * are handed to the {@link QuoteFetcher}.
+ */
+public class QuoteCache {
+
+    interface QuoteFetcher {
+        Observable<Map<String, Quote>> fetch(Set<String> symbols);
+    }
+
+    private static class CachedQuote {
+        private final Quote quote;
+        private final long fetchTime;
+
+        CachedQuote(Quote quote, long fetchTime) {
+            this.quote = quote;
+            this.fetchTime = fetchTime;
+        }
+    }
+
+    private static class InFlightRequest {
+        private final Set<String> symbols;
+        private Observable<Map<String, Quote>> observable;
+
+        InFlightRequest(Set<String> symbols) {
+            this.symbols = symbols;
+        }
+    }
+
+    private final Map<String, CachedQuote> quotes = new HashMap<>();
+    private final Map<String, InFlightRequest> inFlightRequests = new HashMap<>();
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+
+    /**
+     * Returns quotes for the given upper case symbols. Quotes fetched less than
+     * ttlMs ago are returned from the cache, symbols with a request in flight
+     * share the result of that request, and everything else is passed to
+     * the fetcher as one request.
+     */
+    Observable<Map<String, Quote>> getQuotes(final Set<String> symbols, long ttlMs,
+                                             QuoteFetcher fetcher) {
+        final Map<String, Quote> hits = new HashMap<>(symbols.size());
+        List<Observable<Map<String, Quote>>> pending = new ArrayList<>();
+
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            Set<String> misses = new HashSet<>();
+            for (String symbol : symbols) {
+                CachedQuote cachedQuote = quotes.get(symbol);
+                if ((cachedQuote != null) && (now - cachedQuote.fetchTime < ttlMs)) {
+                    hits.put(symbol, cachedQuote.quote);
+                    hitCount.incrementAndGet();
+                } else {
+                    InFlightRequest request = inFlightRequests.get(symbol);
+                    if (request != null) {
+                        if (!pending.contains(request.observable)) {
+                            pending.add(request.observable);
+                        }
+                        coalescedCount.incrementAndGet();
+                    } else {
+                        misses.add(symbol);
+                        missCount.incrementAndGet();
+                    }
+                }
+            }
+
+            if (!misses.isEmpty()) {
+                final InFlightRequest request = new InFlightRequest(misses);
+                request.observable = fetcher.fetch(misses)
+                        .doOnNext(this::putQuotes)
+                        .doOnTerminate(() -> completeRequest(request))
+                        .cache();
+
+                for (String symbol : misses) {
+                    inFlightRequests.put(symbol, request);
+                }
+                pending.add(request.observable);
+            }
+        }
+
+        if (pending.isEmpty()) {
+            return Observable.just(hits);
+        }
+
+        return Observable.merge(pending)
+                .collectInto(hits, (Map<String, Quote> quoteMap, Map<String, Quote> fetched) -> {
+                    // a shared request can return symbols the caller did not ask for
+                    for (Map.Entry<String, Quote> entry : fetched.entrySet()) {
+                        if (symbols.contains(entry.getKey())) {
+                            quoteMap.put(entry.getKey(), entry.getValue());
+                        }
+                    }
+                })
+                .toObservable();
+    }
+
+    private synchronized void putQuotes(Map<String, Quote> quoteMap) {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, Quote> entry : quoteMap.entrySet()) {
+            quotes.put(entry.getKey(), new CachedQuote(entry.getValue(), now));
+        }
+    }
+
+    private synchronized void completeRequest(InFlightRequest request) {
+        for (String symbol : request.symbols) {
+            if (inFlightRequests.get(symbol) == request) {
+                inFlightRequests.remove(symbol);
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        quotes.clear();
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return "QuoteCache{" +
+                "hits=" + hitCount.get() +
+                ", misses=" + missCount.get() +
+                ", coalesced=" + coalescedCount.get() +
+                '}';
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 7:35 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+package com.balch.mocktrade.finance;
+
+/**
+ * Running totals of the {@link QuotePollPlanner}: how many symbols were asked
+ * for, how many were requested and why the others were skipped. The planner
+ * records from the poll thread, the getters can be read from any thread.
+ */
+public class QuotePollMetrics {
+    private long planCount;
+    private long symbolCount;
+    private long requestedCount;
+    private long backoffSkipCount;
+    private long closedSkipCount;
+    private long changedCount;
+
+    synchronized void recordPlan(int symbols, int requested, int backoffSkips, int closedSkips) {
+        planCount++;
+        symbolCount += symbols;
+        requestedCount += requested;
+        backoffSkipCount += backoffSkips;
+        closedSkipCount += closedSkips;
+    }
+
+    synchronized void recordChanged(int changed) {
+        changedCount += changed;
+    }
+
+    public synchronized long getPlanCount() {
+        return planCount;
+    }
+
+    public synchronized long getSymbolCount() {
+        return symbolCount;
+    }
+
+    public synchronized long getRequestedCount() {
+        return requestedCount;
+    }
+
+    /**
+     * Number of symbols that were not requested because they could not have changed
+     */
+    public synchronized long getSavedCount() {
+        return symbolCount - requestedCount;
+    }
+
+    public synchronized long getBackoffSkipCount() {
+        return backoffSkipCount;
+    }
+
+    public synchronized long getClosedSkipCount() {
+        return closedSkipCount;
+    }
+
+    public synchronized long getChangedCount() {
+        return changedCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "QuotePollMetrics{" +
+                "polls=" + planCount +
+                ", symbols=" + symbolCount +
+                ", requested=" + requestedCount +
+                ", saved=" + getSavedCount() +
+                ", backoffSkips=" + backoffSkipCount +
+                ", closedSkips=" + closedSkipCount +
+                ", changed=" + changedCount +
+                '}';
+    }
+}
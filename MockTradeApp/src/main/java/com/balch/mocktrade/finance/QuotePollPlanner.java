@@ -0,0 +1,180 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 5:40 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+package com.balch.mocktrade.finance;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decides which symbols need to be refreshed on a quote poll.
+ *
+ * While a symbol's market is open a symbol whose last trade time moved is polled
+ * again on the next tick. Every poll that comes back unchanged doubles the
+ * number of ticks the symbol is skipped, up to {@link #MAX_BACKOFF_SHIFT}. Once
+ * the market closes each symbol is fetched one more time to pick up the
+ * closing price and is then skipped until the market opens again. The session
+ * is tracked per exchange, using the exchange of the symbol's last quote.
+ *
+ * The planner is not thread safe, it should be confined to the thread that
+ * runs the poll. Its {@link QuotePollMetrics} can be read from any thread.
+ */
+public class QuotePollPlanner {
+
+    /**
+     * Tells the planner if the market of an exchange is open. The exchange
+     * is null for symbols quoted without one.
+     */
+    public interface MarketSessions {
+        boolean isMarketOpen(String exchange);
+    }
+
+    // a symbol is skipped for at most 2^4 - 1 = 15 poll intervals
+    private static final int MAX_BACKOFF_SHIFT = 4;
+
+    private static class SymbolState {
+        private String exchange;
+        private long lastTradeTime;
+        private long nextPollTime;
+        private int unchangedCount;
+        private boolean isCloseFetched;
+    }
+
+    private final Map<String, SymbolState> states = new HashMap<>();
+    // the session of each exchange seen on the previous poll
+    private final Map<String, Boolean> openExchanges = new HashMap<>();
+    private final QuotePollMetrics metrics = new QuotePollMetrics();
+
+    /**
+     * Returns the symbols that should be requested on this poll
+     *
+     * @param forceAll request every symbol, for example on the first poll of the day
+     */
+    public List<String> plan(Collection<String> symbols, MarketSessions sessions,
+                             long pollIntervalMs, long now, boolean forceAll) {
+        updateSessions(sessions);
+
+        int backoffSkips = 0;
+        int closedSkips = 0;
+        List<String> planned = new ArrayList<>(symbols.size());
+        for (String symbol : symbols) {
+            SymbolState state = states.get(symbol);
+            if (forceAll || (state == null)) {
+                planned.add(symbol);
+            } else if (!isMarketOpen(state.exchange, sessions)) {
+                if (state.isCloseFetched) {
+                    closedSkips++;
+                } else {
+                    planned.add(symbol);
+                }
+            } else if (now >= state.nextPollTime - pollIntervalMs / 2) {
+                // half an interval of slack since alarms are not delivered on the dot
+                planned.add(symbol);
+            } else {
+                backoffSkips++;
+            }
+        }
+
+        metrics.recordPlan(symbols.size(), planned.size(), backoffSkips, closedSkips);
+
+        return planned;
+    }
+
+    /**
+     * Records the result of polling the requested symbols. Symbols missing from
+     * the quote map are treated as unchanged.
+     */
+    public void onQuotes(Collection<String> requested, Map<String, Quote> quoteMap,
+                         MarketSessions sessions, long pollIntervalMs, long now) {
+        int changed = 0;
+        for (String symbol : requested) {
+            SymbolState state = states.get(symbol);
+            if (state == null) {
+                state = new SymbolState();
+                states.put(symbol, state);
+            }
+
+            Quote quote = quoteMap.get(symbol);
+            if (quote != null) {
+                state.exchange = quote.getExchange();
+            }
+
+            long lastTradeTime = ((quote != null) && (quote.getLastTradeTime() != null)) ?
+                    quote.getLastTradeTime().getTime() : 0;
+            if (lastTradeTime > state.lastTradeTime) {
+                state.lastTradeTime = lastTradeTime;
+                state.unchangedCount = 0;
+                changed++;
+            } else {
+                state.unchangedCount++;
+            }
+
+            boolean isMarketOpen = isMarketOpen(state.exchange, sessions);
+            int shift = Math.min(state.unchangedCount, MAX_BACKOFF_SHIFT);
+            state.nextPollTime = now + pollIntervalMs * (1L << shift);
+            state.isCloseFetched = !isMarketOpen;
+        }
+
+        metrics.recordChanged(changed);
+    }
+
+    private void updateSessions(MarketSessions sessions) {
+        for (Map.Entry<String, Boolean> entry : openExchanges.entrySet()) {
+            boolean isMarketOpen = sessions.isMarketOpen(entry.getKey());
+            if (entry.getValue() && !isMarketOpen) {
+                // the market just closed, its symbols get one more fetch for the closing price
+                for (SymbolState state : states.values()) {
+                    if (isSameExchange(entry.getKey(), state.exchange)) {
+                        state.isCloseFetched = false;
+                    }
+                }
+            }
+            entry.setValue(isMarketOpen);
+        }
+    }
+
+    private boolean isMarketOpen(String exchange, MarketSessions sessions) {
+        Boolean isMarketOpen = openExchanges.get(exchange);
+        if (isMarketOpen == null) {
+            isMarketOpen = sessions.isMarketOpen(exchange);
+            openExchanges.put(exchange, isMarketOpen);
+        }
+        return isMarketOpen;
+    }
+
+    private static boolean isSameExchange(String exchange, String other) {
+        return (exchange == null) ? (other == null) : exchange.equals(other);
+    }
+
+    public void clear() {
+        states.clear();
+        openExchanges.clear();
+    }
+
+    public QuotePollMetrics getMetrics() {
+        return metrics;
+    }
+}
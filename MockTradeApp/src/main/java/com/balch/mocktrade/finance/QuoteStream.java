@@ -0,0 +1,194 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 3:10 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+package com.balch.mocktrade.finance;
+
+import android.util.Log;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.BackpressureStrategy;
+import io.reactivex.Flowable;
+import io.reactivex.Observable;
+import io.reactivex.Scheduler;
+import io.reactivex.schedulers.Schedulers;
+import io.reactivex.subjects.PublishSubject;
+import io.reactivex.subjects.Subject;
+
+/**
+ * Hot, shared quote stream. Every batch of quotes the finance model fetches
+ * is published here, no matter who asked for it, and is available as a whole
+ * from {@link #getUpdates()}.
+ *
+ * {@link #streamQuotes(Set, long)} subscribers get the published quotes for
+ * their own symbols. All subscribers using the same interval share one poll
+ * that fetches the union of their symbols, so their symbols are refreshed even
+ * when nobody else asks for them. The poll starts with the first subscriber
+ * and stops when the last one cancels. Every tick of the poll reaches its
+ * subscribers, including ticks served from the quote cache that are never
+ * published, so an interval shorter than the cache ttl still emits.
+ *
+ * A poll tick is skipped while the previous fetch is still running, and slow
+ * subscribers only get the latest quotes instead of queueing every tick.
+ */
+class QuoteStream {
+    private static final String TAG = QuoteStream.class.getSimpleName();
+
+    private final QuoteCache.QuoteFetcher fetcher;
+    private final Scheduler scheduler;
+    private final Map<Long, SharedPoll> polls = new HashMap<>();
+    private final Subject<Map<String, Quote>> updates =
+            PublishSubject.<Map<String, Quote>>create().toSerialized();
+
+    QuoteStream(QuoteCache.QuoteFetcher fetcher) {
+        this(fetcher, Schedulers.computation());
+    }
+
+    QuoteStream(QuoteCache.QuoteFetcher fetcher, Scheduler scheduler) {
+        this.fetcher = fetcher;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Publishes a batch of freshly fetched quotes to the update stream and
+     * to the subscribers of the symbols.
+     */
+    void publish(Map<String, Quote> quoteMap) {
+        updates.onNext(quoteMap);
+    }
+
+    /**
+     * Every batch passed to {@link #publish(Map)}, on the thread that published it.
+     */
+    Observable<Map<String, Quote>> getUpdates() {
+        return updates;
+    }
+
+    /**
+     * Returns a stream of quotes for the upper case symbols. The first item is
+     * emitted right away and may be missing symbols that could not be quoted.
+     * After that an item is emitted for every published batch with quotes for
+     * any of the symbols, whether it was fetched by this stream's poll or not,
+     * and for every poll tick that returns different quotes than the last item.
+     */
+    Flowable<Map<String, Quote>> streamQuotes(final Set<String> symbols, long intervalMs) {
+        final SharedPoll poll = getPoll(intervalMs);
+
+        return Flowable.defer(() -> {
+            poll.addSymbols(symbols);
+            return Flowable.merge(
+                    updates.toFlowable(BackpressureStrategy.LATEST)
+                            .map(quoteMap -> filterQuotes(quoteMap, symbols))
+                            .filter(quoteMap -> !quoteMap.isEmpty()),
+                    fetcher.fetch(symbols)
+                            .toFlowable(BackpressureStrategy.LATEST)
+                            .onErrorReturn(throwable -> {
+                                Log.e(TAG, "Error fetching initial quotes", throwable);
+                                return Collections.emptyMap();
+                            }),
+                    poll.upstream
+                            .map(quoteMap -> filterQuotes(quoteMap, symbols))
+                            .filter(quoteMap -> !quoteMap.isEmpty()))
+                    // a fresh fetch is also published, only emit it once
+                    .distinctUntilChanged()
+                    .doFinally(() -> poll.removeSymbols(symbols));
+        }).onBackpressureLatest();
+    }
+
+    int getSubscribedSymbolCount(long intervalMs) {
+        return getPoll(intervalMs).getSymbols().size();
+    }
+
+    private synchronized SharedPoll getPoll(long intervalMs) {
+        SharedPoll poll = polls.get(intervalMs);
+        if (poll == null) {
+            poll = new SharedPoll(intervalMs);
+            polls.put(intervalMs, poll);
+        }
+        return poll;
+    }
+
+    private static Map<String, Quote> filterQuotes(Map<String, Quote> quoteMap, Set<String> symbols) {
+        Map<String, Quote> filtered = new HashMap<>(symbols.size());
+        for (String symbol : symbols) {
+            Quote quote = quoteMap.get(symbol);
+            if (quote != null) {
+                filtered.put(symbol, quote);
+            }
+        }
+        return filtered;
+    }
+
+    private class SharedPoll {
+        // reference count of each symbol across the subscribers of this poll
+        private final Map<String, Integer> symbolCounts = new HashMap<>();
+        // the quotes of every tick, cache hits included, a fetch that missed the cache
+        // is published as well and reaches the subscribers twice in a row
+        private final Flowable<Map<String, Quote>> upstream;
+
+        SharedPoll(long intervalMs) {
+            upstream = Flowable.interval(intervalMs, intervalMs, TimeUnit.MILLISECONDS, scheduler)
+                    .onBackpressureDrop()
+                    .concatMap(tick -> {
+                        Set<String> symbols = getSymbols();
+                        if (symbols.isEmpty()) {
+                            return Flowable.<Map<String, Quote>>empty();
+                        }
+                        return fetcher.fetch(symbols)
+                                .toFlowable(BackpressureStrategy.LATEST)
+                                .onErrorResumeNext(throwable -> {
+                                    Log.e(TAG, "Error polling quotes", throwable);
+                                    return Flowable.empty();
+                                });
+                    }, 1)
+                    .share();
+        }
+
+        synchronized void addSymbols(Set<String> symbols) {
+            for (String symbol : symbols) {
+                Integer count = symbolCounts.get(symbol);
+                symbolCounts.put(symbol, (count == null) ? 1 : count + 1);
+            }
+        }
+
+        synchronized void removeSymbols(Set<String> symbols) {
+            for (String symbol : symbols) {
+                Integer count = symbolCounts.get(symbol);
+                if ((count == null) || (count <= 1)) {
+                    symbolCounts.remove(symbol);
+                } else {
+                    symbolCounts.put(symbol, count - 1);
+                }
+            }
+        }
+
+        synchronized Set<String> getSymbols() {
+            return new HashSet<>(symbolCounts.keySet());
+        }
+    }
+}
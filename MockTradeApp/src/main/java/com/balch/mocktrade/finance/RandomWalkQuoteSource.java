@@ -0,0 +1,96 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 2:05 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+package com.balch.mocktrade.finance;
+
+import com.balch.android.app.framework.types.Money;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generates quotes with a seeded geometric random walk. Every symbol gets its
+ * own generator derived from the seed and the symbol, so a symbol produces the
+ * same price series no matter which other symbols are requested with it.
+ * Quotes are stamped with the time of the request, moved forward by a
+ * millisecond when requests arrive faster than the clock ticks.
+ */
+class RandomWalkQuoteSource implements LocalQuoteSource {
+
+    private static final double TICK_VOLATILITY = 0.002;
+
+    private static class SymbolState {
+        private final Random random;
+        private final Money previousClose;
+        private final Money dividendPerShare;
+        private long priceCents;
+
+        SymbolState(Random random) {
+            this.random = random;
+            this.priceCents = (10 + random.nextInt(490)) * 100;
+            this.previousClose = new Money(priceCents / 100.0);
+            this.dividendPerShare = new Money(random.nextInt(5) / 4.0);
+        }
+
+        Money nextPrice() {
+            double change = Math.exp(random.nextGaussian() * TICK_VOLATILITY);
+            // keep whole cents, and never let the price reach zero
+            priceCents = Math.max(1, Math.round(priceCents * change));
+            return new Money(priceCents / 100.0);
+        }
+    }
+
+    private final long seed;
+    private final MarketClock.TimeSource timeSource;
+    private final Map<String, SymbolState> states = new HashMap<>();
+    private long tickTime = Long.MIN_VALUE;
+
+    RandomWalkQuoteSource(long seed, MarketClock.TimeSource timeSource) {
+        this.seed = seed;
+        this.timeSource = timeSource;
+    }
+
+    @Override
+    public synchronized Map<String, Quote> getQuotes(Set<String> symbols) {
+        // tick times are strictly increasing but never ahead of the clock
+        // unless requests come in faster than once per millisecond
+        tickTime = Math.max(timeSource.currentTimeMillis(), tickTime + 1);
+
+        Map<String, Quote> quoteMap = new HashMap<>(symbols.size());
+        for (String symbol : symbols) {
+            SymbolState state = states.get(symbol);
+            if (state == null) {
+                state = new SymbolState(new Random(seed * 31 + symbol.hashCode()));
+                states.put(symbol, state);
+            }
+
+            quoteMap.put(symbol, new Quote(symbol, symbol, "LOCAL",
+                    state.nextPrice(), new Date(tickTime),
+                    state.previousClose, state.dividendPerShare));
+        }
+        return quoteMap;
+    }
+}
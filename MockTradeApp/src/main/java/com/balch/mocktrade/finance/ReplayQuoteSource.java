@@ -0,0 +1,155 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 2:05 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+package com.balch.mocktrade.finance;
+
+import com.balch.android.app.framework.types.Money;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Replays a recorded tick file. Each line of the file is
+ *
+ *   epoch_ms,symbol,price[,previous_close[,dividend_per_share]]
+ *
+ * and lines must be ordered by time. Blank lines and lines starting with #
+ * are ignored. Every request advances the replay to the next timestamp in the
+ * file and returns the latest tick seen so far for each requested symbol. The
+ * replay starts over once the end of the file is reached.
+ *
+ * The recorded times are moved onto the clock at the start of every pass,
+ * keeping the gaps between ticks, so a recording from another day is seen as
+ * today's trading and the times keep increasing when the replay starts over.
+ */
+class ReplayQuoteSource implements LocalQuoteSource {
+
+    private final List<Quote> ticks;
+    private final MarketClock.TimeSource timeSource;
+    private final Map<String, Quote> latestQuotes = new HashMap<>();
+    private int position = 0;
+    // added to the recorded times of the current pass
+    private long timeOffset;
+    private long lastTickTime = Long.MIN_VALUE;
+
+    ReplayQuoteSource(Reader reader, MarketClock.TimeSource timeSource) throws IOException {
+        this.ticks = parseTicks(reader);
+        this.timeSource = timeSource;
+    }
+
+    static ReplayQuoteSource fromFile(File file, MarketClock.TimeSource timeSource) throws IOException {
+        try (Reader reader = new FileReader(file)) {
+            return new ReplayQuoteSource(reader, timeSource);
+        }
+    }
+
+    @Override
+    public synchronized Map<String, Quote> getQuotes(Set<String> symbols) {
+        if (!ticks.isEmpty()) {
+            if (position == ticks.size()) {
+                position = 0;
+                latestQuotes.clear();
+            }
+
+            long tickTime = ticks.get(position).getLastTradeTime().getTime();
+            if (position == 0) {
+                long passStart = Math.max(timeSource.currentTimeMillis(), lastTickTime + 1);
+                timeOffset = passStart - tickTime;
+            }
+
+            lastTickTime = tickTime + timeOffset;
+            while ((position < ticks.size()) &&
+                    (ticks.get(position).getLastTradeTime().getTime() == tickTime)) {
+                Quote tick = ticks.get(position++);
+                latestQuotes.put(tick.getSymbol(), new Quote(tick.getSymbol(), tick.getName(),
+                        tick.getExchange(), tick.getPrice(), new Date(lastTickTime),
+                        tick.getPreviousClose(), tick.getDividendPerShare()));
+            }
+        }
+
+        Map<String, Quote> quoteMap = new HashMap<>(symbols.size());
+        for (String symbol : symbols) {
+            Quote quote = latestQuotes.get(symbol);
+            if (quote != null) {
+                quoteMap.put(symbol, quote);
+            }
+        }
+        return quoteMap;
+    }
+
+    private static List<Quote> parseTicks(Reader reader) throws IOException {
+        List<Quote> ticks = new ArrayList<>();
+        Map<String, Money> previousCloses = new HashMap<>();
+
+        BufferedReader bufferedReader = new BufferedReader(reader);
+        String line;
+        int lineNumber = 0;
+        while ((line = bufferedReader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            String[] cols = line.split(",");
+            if (cols.length < 3) {
+                throw new IOException("Invalid tick on line " + lineNumber + ": " + line);
+            }
+
+            try {
+                long time = Long.parseLong(cols[0].trim());
+                String symbol = cols[1].trim().toUpperCase();
+                Money price = new Money(Double.parseDouble(cols[2].trim()));
+
+                // without a recorded previous close, the first tick of the symbol is used
+                Money previousClose = previousCloses.get(symbol);
+                if (cols.length > 3) {
+                    previousClose = new Money(Double.parseDouble(cols[3].trim()));
+                    previousCloses.put(symbol, previousClose);
+                } else if (previousClose == null) {
+                    previousClose = price;
+                    previousCloses.put(symbol, previousClose);
+                }
+
+                Money dividendPerShare = (cols.length > 4) ?
+                        new Money(Double.parseDouble(cols[4].trim())) : new Money(0);
+
+                ticks.add(new Quote(symbol, symbol, "REPLAY", price, new Date(time),
+                        previousClose, dividendPerShare));
+            } catch (NumberFormatException e) {
+                throw new IOException("Invalid tick on line " + lineNumber + ": " + line, e);
+            }
+        }
+
+        return ticks;
+    }
+}
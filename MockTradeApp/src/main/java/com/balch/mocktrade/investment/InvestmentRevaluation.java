@@ -0,0 +1,90 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 8:05 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+
+package com.balch.mocktrade.investment;
+
+import java.util.Arrays;
+
+/**
+ * The investments repriced by a quote poll, as (investment id, price, previous
+ * close, last trade time) rows in parallel primitive arrays. Money is in micro
+ * cents and times are in epoch ms.
+ *
+ * {@link com.balch.mocktrade.portfolio.PortfolioModel#revalueInvestments} writes all the rows in one
+ * transaction. The revaluation is not thread safe and can be reused from poll
+ * to poll with {@link #clear()}.
+ */
+public class InvestmentRevaluation {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private long[] investmentIds = new long[INITIAL_CAPACITY];
+    private long[] prices = new long[INITIAL_CAPACITY];
+    private long[] previousCloses = new long[INITIAL_CAPACITY];
+    private long[] lastTradeTimes = new long[INITIAL_CAPACITY];
+
+    private int size = 0;
+
+    public void add(long investmentId, long price, long previousClose, long lastTradeTime) {
+        ensureCapacity(size + 1);
+        investmentIds[size] = investmentId;
+        prices[size] = price;
+        previousCloses[size] = previousClose;
+        lastTradeTimes[size] = lastTradeTime;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public long getInvestmentId(int row) {
+        return investmentIds[row];
+    }
+
+    public long getPrice(int row) {
+        return prices[row];
+    }
+
+    public long getPreviousClose(int row) {
+        return previousCloses[row];
+    }
+
+    public long getLastTradeTime(int row) {
+        return lastTradeTimes[row];
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > investmentIds.length) {
+            int newCapacity = Math.max(capacity, investmentIds.length * 2);
+            investmentIds = Arrays.copyOf(investmentIds, newCapacity);
+            prices = Arrays.copyOf(prices, newCapacity);
+            previousCloses = Arrays.copyOf(previousCloses, newCapacity);
+            lastTradeTimes = Arrays.copyOf(lastTradeTimes, newCapacity);
+        }
+    }
+}
@@ -24,17 +24,18 @@ package com.balch.mocktrade.investment;
 
 import android.content.ContentValues;
 import android.database.Cursor;
+import android.database.sqlite.SQLiteStatement;
 
+import com.balch.android.app.framework.sql.RowMapper;
 import com.balch.android.app.framework.sql.SqlConnection;
-import com.balch.android.app.framework.sql.SqlMapper;
+import com.balch.android.app.framework.sql.StatementMapper;
 import com.balch.android.app.framework.types.Money;
 import com.balch.mocktrade.account.Account;
 
 import java.util.Date;
 import java.util.List;
-import java.util.Map;
 
-public class InvestmentSqliteModel implements SqlMapper<Investment> {
+public class InvestmentSqliteModel implements StatementMapper<Investment> {
 
     private static final String TAG = Investment.class.getSimpleName();
 
@@ -51,9 +52,30 @@ public class InvestmentSqliteModel implements SqlMapper<Investment> {
     private static final String COLUMN_PREV_DAY_CLOSE = "prev_day_close";
     private static final String COLUMN_QUANTITY = "quantity";
 
+    private static final String[] COLUMNS = {
+            COLUMN_ACCOUNT_ID,
+            COLUMN_SYMBOL,
+            COLUMN_STATUS,
+            COLUMN_DESCRIPTION,
+            COLUMN_EXCHANGE,
+            COLUMN_COST_BASIS,
+            COLUMN_PRICE,
+            COLUMN_LAST_TRADE_TIME,
+            COLUMN_PREV_DAY_CLOSE,
+            COLUMN_QUANTITY
+    };
+
     private static final String SQL_LAST_TRADE_TIME =
             "SELECT MAX(" + COLUMN_LAST_TRADE_TIME + ") FROM "+TABLE_NAME;
 
+    // a row that already holds a newer trade, written by a fill, is left alone
+    private static final String SQL_REVALUE =
+            "UPDATE " + TABLE_NAME +
+            " SET " + COLUMN_PRICE + "=?, " + COLUMN_PREV_DAY_CLOSE + "=?, " +
+            COLUMN_LAST_TRADE_TIME + "=?, " + COLUMN_UPDATE_TIME + "=?" +
+            " WHERE " + COLUMN_ID + "=?" +
+            " AND " + COLUMN_LAST_TRADE_TIME + "<?";
+
     private static final String SQL_WHERE_BY_ACCOUNT_AND_SYMBOL =
              COLUMN_SYMBOL + " = ? AND " + COLUMN_ACCOUNT_ID + " = ?";
 
@@ -71,7 +93,7 @@ public class InvestmentSqliteModel implements SqlMapper<Investment> {
                 where = COLUMN_ACCOUNT_ID + " = ?";
                 whereArgs = new String[]{accountId.toString()};
             }
-            return sqlConnection.query(this, Investment.class, where, whereArgs, COLUMN_SYMBOL + " COLLATE NOCASE");
+            return sqlConnection.query(this, where, whereArgs, COLUMN_SYMBOL + " COLLATE NOCASE");
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -84,7 +106,7 @@ public class InvestmentSqliteModel implements SqlMapper<Investment> {
     public Investment getInvestmentBySymbol(String symbol, Long accountId) {
         try {
             String [] whereArgs = new String[]{symbol, accountId.toString()};
-            List<Investment> investments = sqlConnection.query(this, Investment.class,
+            List<Investment> investments = sqlConnection.query(this,
                     SQL_WHERE_BY_ACCOUNT_AND_SYMBOL, whereArgs, null);
 
             return (investments.size() == 1) ? investments.get(0) : null;
@@ -102,6 +124,33 @@ public class InvestmentSqliteModel implements SqlMapper<Investment> {
         }
     }
 
+    /**
+     * Writes the price, previous close and last trade time of every row of the
+     * revaluation in one transaction. The other columns are not touched.
+     * Returns the number of investments updated.
+     */
+    public int revalueInvestments(final InvestmentRevaluation revaluation) {
+        return sqlConnection.write(db -> {
+            int updatedCount = 0;
+            SQLiteStatement statement = db.compileStatement(SQL_REVALUE);
+            try {
+                long now = System.currentTimeMillis();
+                for (int row = 0; row < revaluation.size(); row++) {
+                    statement.bindLong(1, revaluation.getPrice(row));
+                    statement.bindLong(2, revaluation.getPreviousClose(row));
+                    statement.bindLong(3, revaluation.getLastTradeTime(row));
+                    statement.bindLong(4, now);
+                    statement.bindLong(5, revaluation.getInvestmentId(row));
+                    statement.bindLong(6, revaluation.getLastTradeTime(row));
+                    updatedCount += statement.executeUpdateDelete();
+                }
+            } finally {
+                statement.close();
+            }
+            return updatedCount;
+        });
+    }
+
     @Override
     public String getTableName() {
         return TABLE_NAME;
@@ -126,20 +175,78 @@ public class InvestmentSqliteModel implements SqlMapper<Investment> {
     }
 
     @Override
-    public void populate(Investment investment, Cursor cursor, Map<String, Integer> columnMap) {
-        investment.setId(cursor.getLong(columnMap.get(COLUMN_ID)));
-
-        Account account = new Account();
-        account.setId(cursor.getLong(columnMap.get(COLUMN_ACCOUNT_ID)));
-        investment.setAccount(account);
-        investment.setSymbol(cursor.getString(columnMap.get(COLUMN_SYMBOL)));
-        investment.setStatus(Investment.InvestmentStatus.valueOf(cursor.getString(columnMap.get(COLUMN_STATUS))));
-        investment.setDescription(cursor.getString(columnMap.get(COLUMN_DESCRIPTION)));
-        investment.setExchange(cursor.getString(columnMap.get(COLUMN_EXCHANGE)));
-        investment.setCostBasis(new Money(cursor.getLong(columnMap.get(COLUMN_COST_BASIS))));
-        investment.setPrice(new Money(cursor.getLong(columnMap.get(COLUMN_PRICE))), new Date(cursor.getLong(columnMap.get(COLUMN_LAST_TRADE_TIME))));
-        investment.setPrevDayClose(new Money(cursor.getLong(columnMap.get(COLUMN_PREV_DAY_CLOSE))));
-        investment.setQuantity(cursor.getLong(columnMap.get(COLUMN_QUANTITY)));
+    public String[] getColumnNames() {
+        return COLUMNS;
+    }
+
+    @Override
+    public void bind(SQLiteStatement statement, Investment investment) {
+        statement.bindLong(1, investment.getAccount().getId());
+        statement.bindString(2, investment.getSymbol());
+        statement.bindString(3, investment.getStatus().name());
+        SqlConnection.bindString(statement, 4, investment.getDescription());
+        SqlConnection.bindString(statement, 5, investment.getExchange());
+        statement.bindLong(6, investment.getCostBasis().getMicroCents());
+        statement.bindLong(7, investment.getPrice().getMicroCents());
+        statement.bindLong(8, investment.getLastTradeTime().getTime());
+        statement.bindLong(9, investment.getPrevDayClose().getMicroCents());
+        statement.bindLong(10, investment.getQuantity());
+    }
+
+    @Override
+    public RowMapper<Investment> getRowMapper(Cursor cursor) {
+        return new InvestmentRowMapper(cursor);
+    }
+
+    private static class InvestmentRowMapper extends RowMapper<Investment> {
+        private final int idIndex;
+        private final int accountIdIndex;
+        private final int symbolIndex;
+        private final int statusIndex;
+        private final int descriptionIndex;
+        private final int exchangeIndex;
+        private final int costBasisIndex;
+        private final int priceIndex;
+        private final int lastTradeTimeIndex;
+        private final int prevDayCloseIndex;
+        private final int quantityIndex;
+
+        InvestmentRowMapper(Cursor cursor) {
+            super(cursor);
+            idIndex = cursor.getColumnIndexOrThrow(COLUMN_ID);
+            accountIdIndex = cursor.getColumnIndexOrThrow(COLUMN_ACCOUNT_ID);
+            symbolIndex = cursor.getColumnIndexOrThrow(COLUMN_SYMBOL);
+            statusIndex = cursor.getColumnIndexOrThrow(COLUMN_STATUS);
+            descriptionIndex = cursor.getColumnIndexOrThrow(COLUMN_DESCRIPTION);
+            exchangeIndex = cursor.getColumnIndexOrThrow(COLUMN_EXCHANGE);
+            costBasisIndex = cursor.getColumnIndexOrThrow(COLUMN_COST_BASIS);
+            priceIndex = cursor.getColumnIndexOrThrow(COLUMN_PRICE);
+            lastTradeTimeIndex = cursor.getColumnIndexOrThrow(COLUMN_LAST_TRADE_TIME);
+            prevDayCloseIndex = cursor.getColumnIndexOrThrow(COLUMN_PREV_DAY_CLOSE);
+            quantityIndex = cursor.getColumnIndexOrThrow(COLUMN_QUANTITY);
+        }
+
+        @Override
+        protected Investment newItem() {
+            return new Investment();
+        }
+
+        @Override
+        protected void populate(Investment investment, Cursor cursor) {
+            investment.setId(cursor.getLong(idIndex));
+
+            Account account = new Account();
+            account.setId(cursor.getLong(accountIdIndex));
+            investment.setAccount(account);
+            investment.setSymbol(cursor.getString(symbolIndex));
+            investment.setStatus(Investment.InvestmentStatus.valueOf(cursor.getString(statusIndex)));
+            investment.setDescription(cursor.getString(descriptionIndex));
+            investment.setExchange(cursor.getString(exchangeIndex));
+            investment.setCostBasis(new Money(cursor.getLong(costBasisIndex)));
+            investment.setPrice(new Money(cursor.getLong(priceIndex)), new Date(cursor.getLong(lastTradeTimeIndex)));
+            investment.setPrevDayClose(new Money(cursor.getLong(prevDayCloseIndex)));
+            investment.setQuantity(cursor.getLong(quantityIndex));
+        }
     }
 
     public Date getLastTradeTime() {
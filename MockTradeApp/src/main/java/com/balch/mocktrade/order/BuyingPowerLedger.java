@@ -0,0 +1,225 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 9:52 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+
+package com.balch.mocktrade.order;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory buying power of each account.
+ *
+ * The ledger mirrors the cash of an account and holds a reservation for
+ * every open BUY order, so checking an order against the funds it may use is
+ * a lookup instead of a read of the account. Funds are reserved when an order
+ * is created, released when it is canceled, fails or expires, and settled
+ * when it fills. An order that does not fit in the unreserved cash is
+ * rejected when it is created.
+ *
+ * An order is reserved at its limit price. A market order does not have a
+ * price until it fills so nothing is reserved for it, it is checked against
+ * the unreserved cash at the fill like every other order.
+ *
+ * An account is loaded from the database the first time it is used. The
+ * ledger is only told about changes that were committed, and the changes of
+ * an account are made on its lane, so the cash always matches the account row.
+ */
+public class BuyingPowerLedger {
+
+    /**
+     * Reads an account's funds and open orders the first time it is used
+     */
+    public interface Loader {
+        long getAvailableFunds(long accountId);
+        List<Order> getOpenOrders(Long accountId);
+    }
+
+    private static class AccountFunds {
+        // micro cents
+        private long cash;
+        private long reserved;
+    }
+
+    private static class Reservation {
+        private final long accountId;
+        private final long amount;
+
+        Reservation(long accountId, long amount) {
+            this.accountId = accountId;
+            this.amount = amount;
+        }
+    }
+
+    private final Loader loader;
+    private final Map<Long, AccountFunds> accounts = new HashMap<>();
+    private final Map<Long, Reservation> reservations = new HashMap<>();
+
+    public BuyingPowerLedger(Loader loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Returns the funds a BUY order reserves, in micro cents
+     */
+    public static long getReservation(Order order) {
+        if ((order.getAction() != Order.OrderAction.BUY) || (order.getLimitPrice() == null) ||
+                (order.getStrategy() == Order.OrderStrategy.MARKET)) {
+            return 0;
+        }
+        return order.getLimitPrice().getMicroCents() * order.getQuantity();
+    }
+
+    /**
+     * Reserves the funds of a new order, which must have an id. An order that
+     * is already reserved is reserved again with its current price and quantity.
+     *
+     * @throws OrderRejectedException if the account does not have the unreserved funds
+     */
+    public synchronized void reserve(Order order) throws OrderRejectedException {
+        long accountId = order.getAccount().getId();
+        AccountFunds funds = getFunds(accountId);
+
+        // the order may already be reserved if loading the account saw it
+        release(order.getId());
+
+        long amount = getReservation(order);
+        if (amount == 0) {
+            return;
+        }
+
+        if (amount > funds.cash - funds.reserved) {
+            throw new OrderRejectedException("Insufficient funds");
+        }
+
+        funds.reserved += amount;
+        reservations.put(order.getId(), new Reservation(accountId, amount));
+    }
+
+    /**
+     * Releases the funds reserved for the order, if any
+     */
+    public synchronized void release(long orderId) {
+        Reservation reservation = reservations.remove(orderId);
+        if (reservation != null) {
+            AccountFunds funds = accounts.get(reservation.accountId);
+            if (funds != null) {
+                funds.reserved -= reservation.amount;
+            }
+        }
+    }
+
+    /**
+     * Returns the funds the order can spend in micro cents: the cash that is not
+     * reserved by other orders of the account.
+     */
+    public synchronized long getBuyingPower(Order order) {
+        AccountFunds funds = getFunds(order.getAccount().getId());
+        Reservation reservation = (order.getId() != null) ? reservations.get(order.getId()) : null;
+        return funds.cash - funds.reserved + ((reservation != null) ? reservation.amount : 0);
+    }
+
+    /**
+     * Applies a committed fill: the reservation of the order is released and the
+     * cash of the account changes by cashDelta micro cents, negative for a BUY.
+     */
+    public synchronized void settle(Order order, long cashDelta) {
+        AccountFunds funds = getFunds(order.getAccount().getId());
+        release(order.getId());
+        funds.cash += cashDelta;
+    }
+
+    /**
+     * Forgets an account that has been deleted
+     */
+    public synchronized void removeAccount(long accountId) {
+        if (accounts.remove(accountId) != null) {
+            List<Long> orderIds = new ArrayList<>();
+            for (Map.Entry<Long, Reservation> entry : reservations.entrySet()) {
+                if (entry.getValue().accountId == accountId) {
+                    orderIds.add(entry.getKey());
+                }
+            }
+            for (Long orderId : orderIds) {
+                reservations.remove(orderId);
+            }
+        }
+    }
+
+    /**
+     * Forgets every account so each one is loaded again the next time it is
+     * used. This is called when the database is replaced.
+     */
+    public synchronized void clear() {
+        accounts.clear();
+        reservations.clear();
+    }
+
+    /**
+     * Returns the cash of the account that is not reserved, in micro cents
+     */
+    public synchronized long getUnreservedFunds(long accountId) {
+        AccountFunds funds = getFunds(accountId);
+        return funds.cash - funds.reserved;
+    }
+
+    public synchronized long getReservedFunds(long accountId) {
+        return getFunds(accountId).reserved;
+    }
+
+    /**
+     * Returns the funds reserved for the order, in micro cents
+     */
+    public synchronized long getReservedFunds(Order order) {
+        Reservation reservation = (order.getId() != null) ? reservations.get(order.getId()) : null;
+        return (reservation != null) ? reservation.amount : 0;
+    }
+
+    private AccountFunds getFunds(long accountId) {
+        AccountFunds funds = accounts.get(accountId);
+        if (funds == null) {
+            funds = new AccountFunds();
+            funds.cash = loader.getAvailableFunds(accountId);
+            accounts.put(accountId, funds);
+
+            for (Order order : loader.getOpenOrders(accountId)) {
+                long amount = getReservation(order);
+                if (amount > 0) {
+                    funds.reserved += amount;
+                    reservations.put(order.getId(), new Reservation(accountId, amount));
+                }
+            }
+        }
+        return funds;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "BuyingPowerLedger{" +
+                "accounts=" + accounts.size() +
+                ", reservations=" + reservations.size() +
+                '}';
+    }
+}
@@ -293,7 +293,7 @@ public class Order extends DomainObject implements Parcelable {
 
     }
 
-    enum OrderDuration implements MetadataUtils.EnumResource {
+    public enum OrderDuration implements MetadataUtils.EnumResource {
         GOOD_TIL_CANCELED,
         DAY;
 
@@ -0,0 +1,405 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 2:45 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+
+package com.balch.mocktrade.order;
+
+
+import com.balch.android.app.framework.sql.SqlConnection;
+import com.balch.android.app.framework.types.Money;
+import com.balch.mocktrade.account.Account;
+import com.balch.mocktrade.account.AccountSqliteModel;
+import com.balch.mocktrade.account.Transaction;
+import com.balch.mocktrade.finance.Quote;
+import com.balch.mocktrade.investment.Investment;
+import com.balch.mocktrade.investment.InvestmentSqliteModel;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This is package-private on purpose!!!
+ *
+ * Collects the fills of one order evaluation pass and writes them in a single
+ * database transaction. It is handed to an {@link OrderManager} as the listener
+ * so fills are staged here instead of being written one at a time.
+ *
+ * Each investment is read once and the position changes are applied to those
+ * copies, and the cash each account gains or spends is staged, so later orders
+ * in the batch see the effect of earlier ones. The funds of a BUY are checked
+ * with the {@link BuyingPowerLedger}, the account is only read when there is
+ * no ledger. An order is fully validated before anything is changed, so an
+ * order that fails leaves the rest of the batch untouched.
+ *
+ * If the transaction fails the batch is staged again one fill at a time and
+ * each fill is committed on its own, so a row that can not be written only
+ * holds back its own order.
+ */
+class OrderBatch implements OrderManager.OrderManagerListener {
+
+    private static class Fill {
+        private final Order order;
+        private final Quote quote;
+        private final Transaction transaction;
+        private final Money price;
+        private final Money cost;
+        private final Money profit;
+
+        Fill(Order order, Quote quote, Transaction transaction, Money price, Money cost, Money profit) {
+            this.order = order;
+            this.quote = quote;
+            this.transaction = transaction;
+            this.price = price;
+            this.cost = cost;
+            this.profit = profit;
+        }
+    }
+
+    private static final OrderResult STAGED = new OrderResult(true, null, null, null, 0);
+
+    private final SqlConnection sqlConnection;
+    private final AccountSqliteModel accountModel;
+    private final InvestmentSqliteModel investmentModel;
+    private final OrderSqliteModel orderModel;
+    private final TrailingStopMarks trailingStopMarks;
+    private final BuyingPowerLedger buyingPowerLedger;
+
+    private final Map<Long, Account> accounts = new HashMap<>();
+    // account id -> staged change of the available funds in micro cents
+    private final Map<Long, Long> cashChanges = new LinkedHashMap<>();
+    // account id -> reservations of the staged fills in micro cents
+    private final Map<Long, Long> stagedReleases = new HashMap<>();
+    private final Map<String, Investment> investments = new HashMap<>();
+    private final Set<String> newInvestments = new HashSet<>();
+    private final Set<String> changedInvestments = new LinkedHashSet<>();
+    private final Map<Long, Fill> fills = new LinkedHashMap<>();
+    private final Map<Long, Order> changedOrders = new LinkedHashMap<>();
+    private final Map<Order, Exception> errors = new LinkedHashMap<>();
+
+    OrderBatch(SqlConnection sqlConnection, AccountSqliteModel accountModel,
+               InvestmentSqliteModel investmentModel, OrderSqliteModel orderModel,
+               TrailingStopMarks trailingStopMarks, BuyingPowerLedger buyingPowerLedger) {
+        this.sqlConnection = sqlConnection;
+        this.accountModel = accountModel;
+        this.investmentModel = investmentModel;
+        this.orderModel = orderModel;
+        this.trailingStopMarks = trailingStopMarks;
+        this.buyingPowerLedger = buyingPowerLedger;
+    }
+
+    @Override
+    public OrderResult executeOrder(Order order, Quote quote, Money price) throws IllegalAccessException {
+        Account account = order.getAccount();
+        Investment investment = getInvestmentBySymbol(order.getSymbol(), account.getId());
+
+        Money cost = order.getCost(price);
+        Long cashChange = cashChanges.get(account.getId());
+        long stagedCash = (cashChange != null) ? cashChange : 0;
+        Long releasedFunds = stagedReleases.get(account.getId());
+        long stagedRelease = (releasedFunds != null) ? releasedFunds : 0;
+
+        // validate everything before touching the staged state
+        if (order.getAction() == Order.OrderAction.BUY) {
+            if (getBuyingPower(order) + stagedCash + stagedRelease < cost.getMicroCents()) {
+                throw new IllegalAccessException("Insufficient funds");
+            }
+        } else {
+            if (investment == null) {
+                throw new IllegalAccessException("Can't sell and investment you don't own");
+            }
+            if (order.getQuantity() > investment.getQuantity()) {
+                throw new IllegalAccessException("Selling too many shares");
+            }
+        }
+
+        Money transactionCost = Money.multiply(cost, -1);
+        Transaction.TransactionType transactionType = (order.getAction() == Order.OrderAction.BUY) ?
+                Transaction.TransactionType.WITHDRAWAL : Transaction.TransactionType.DEPOSIT;
+        Transaction transaction = new Transaction(account, transactionCost, transactionType, "Order Id=" + order.getId());
+
+        cashChanges.put(account.getId(), stagedCash + transactionCost.getMicroCents());
+        if (buyingPowerLedger != null) {
+            // the cost of the fill is in the staged cash, so its reservation no longer
+            // holds funds even though the ledger only releases it after the commit
+            stagedReleases.put(account.getId(), stagedRelease + buyingPowerLedger.getReservedFunds(order));
+        }
+
+        Money profit = new Money(0);
+        String key = getInvestmentKey(order.getSymbol(), account.getId());
+        if (investment == null) {
+            investment = new Investment(account, quote.getSymbol(),
+                    Investment.InvestmentStatus.OPEN, quote.getName(), quote.getExchange(),
+                    cost, price, new Date(0), order.getQuantity());
+            investments.put(key, investment);
+            newInvestments.add(key);
+        } else {
+            if (order.getAction() == Order.OrderAction.SELL) {
+                profit = Money.subtract(transactionCost, investment.getCostBasis());
+            }
+            investment.aggregateOrder(order, price);
+        }
+        changedInvestments.add(key);
+
+        order.setStatus(Order.OrderStatus.FULFILLED);
+        changedOrders.put(order.getId(), order);
+        fills.put(order.getId(), new Fill(order, quote, transaction, price, cost, profit));
+
+        // the confirmation id is not known until the batch is committed
+        return STAGED;
+    }
+
+    @Override
+    public Investment getInvestmentBySymbol(String symbol, Long accountId) {
+        String key = getInvestmentKey(symbol, accountId);
+        if (!investments.containsKey(key)) {
+            investments.put(key, investmentModel.getInvestmentBySymbol(symbol, accountId));
+        }
+        return investments.get(key);
+    }
+
+    @Override
+    public boolean updateOrder(Order order) {
+        if (trailingStopMarks != null) {
+            trailingStopMarks.record(order);
+        } else {
+            changedOrders.put(order.getId(), order);
+        }
+        return true;
+    }
+
+    /**
+     * Records an order that could not be executed. It is saved with
+     * the ERROR status as part of the batch.
+     */
+    void fail(Order order, Exception error) {
+        order.setStatus(Order.OrderStatus.ERROR);
+        changedOrders.put(order.getId(), order);
+        errors.put(order, error);
+    }
+
+    /**
+     * Writes all the staged changes in one transaction and returns an execution for
+     * every filled or failed order. If the transaction fails each fill is staged and
+     * committed again on its own. An order whose own transaction fails is left OPEN,
+     * so it is tried again, and is reported with the error.
+     */
+    List<OrderExecution> commit() {
+        List<OrderExecution> executions = new ArrayList<>(fills.size() + errors.size());
+        if (changedOrders.isEmpty()) {
+            return executions;
+        }
+
+        try {
+            addExecutions(write(), executions);
+            return executions;
+        } catch (Exception ex) {
+            if (changedOrders.size() == 1) {
+                putBack(ex, executions);
+                return executions;
+            }
+        }
+
+        // a row failed, commit the fills one at a time so only its own order is held back
+        List<Fill> batchFills = new ArrayList<>(fills.values());
+        Map<Order, Exception> batchErrors = new LinkedHashMap<>(errors);
+        List<Order> otherOrders = new ArrayList<>();
+        for (Order order : changedOrders.values()) {
+            if (!fills.containsKey(order.getId())) {
+                otherOrders.add(order);
+            }
+        }
+
+        for (Fill fill : batchFills) {
+            // staged again from the database so it only builds on the fills that committed
+            reset();
+            fill.order.setStatus(Order.OrderStatus.OPEN);
+            try {
+                executeOrder(fill.order, fill.quote, fill.price);
+            } catch (Exception ex) {
+                fail(fill.order, ex);
+            }
+            commitStaged(executions);
+        }
+
+        reset();
+        for (Order order : otherOrders) {
+            changedOrders.put(order.getId(), order);
+        }
+        errors.putAll(batchErrors);
+        if (!changedOrders.isEmpty()) {
+            commitStaged(executions);
+        }
+        return executions;
+    }
+
+    private void commitStaged(List<OrderExecution> executions) {
+        try {
+            addExecutions(write(), executions);
+        } catch (Exception ex) {
+            putBack(ex, executions);
+        }
+    }
+
+    /**
+     * Writes the staged changes in one transaction and returns the transaction id of
+     * each fill. If the transaction does not commit the flushed trailing stop marks
+     * are handed back.
+     */
+    private Map<Long, Long> write() throws Exception {
+        // the marks flushed into the transaction, handed back if it does not commit
+        final Map<Long, Long> flushedMarks = new HashMap<>();
+        try {
+            return sqlConnection.write(db -> {
+                Map<Long, Long> ids = new HashMap<>(fills.size());
+                for (Fill fill : fills.values()) {
+                    ids.put(fill.order.getId(),
+                            sqlConnection.insert(fill.transaction, fill.transaction, db));
+                }
+
+                for (Map.Entry<Long, Long> entry : cashChanges.entrySet()) {
+                    if (!accountModel.addAvailableFunds(entry.getKey(), new Money(entry.getValue()), db)) {
+                        throw new IllegalAccessException("Error updating account");
+                    }
+                }
+
+                for (String key : changedInvestments) {
+                    Investment investment = investments.get(key);
+                    if (newInvestments.contains(key)) {
+                        if (investment.getQuantity() > 0) {
+                            sqlConnection.insert(investmentModel, investment, db);
+                        }
+                    } else if (investment.getQuantity() > 0) {
+                        if (!sqlConnection.update(investmentModel, investment, db)) {
+                            throw new IllegalAccessException("Error updating investment");
+                        }
+                    } else {
+                        // delete the investment if we sold everything
+                        if (!sqlConnection.delete(investmentModel, investment, db)) {
+                            throw new IllegalAccessException("Error updating investment");
+                        }
+                    }
+                }
+
+                // an order canceled since it was triggered is never overwritten
+                for (Order order : changedOrders.values()) {
+                    if (!sqlConnection.update(orderModel, order, OrderSqliteModel.WHERE_STATUS_OPEN,
+                            OrderSqliteModel.WHERE_STATUS_OPEN_ARGS, db) && fills.containsKey(order.getId())) {
+                        throw new IllegalAccessException("Order is no longer open");
+                    }
+                }
+
+                // the pending trailing stop marks are written with the fills
+                if (trailingStopMarks != null) {
+                    flushedMarks.putAll(trailingStopMarks.flush(db));
+                }
+
+                return ids;
+            });
+        } catch (Exception ex) {
+            if (!flushedMarks.isEmpty()) {
+                trailingStopMarks.restorePendingMarks(flushedMarks);
+            }
+            throw ex;
+        }
+    }
+
+    private void addExecutions(Map<Long, Long> transactionIds, List<OrderExecution> executions) {
+        if (buyingPowerLedger != null) {
+            for (Fill fill : fills.values()) {
+                buyingPowerLedger.settle(fill.order, fill.transaction.getAmount().getMicroCents());
+            }
+        }
+
+        for (Fill fill : fills.values()) {
+            executions.add(new OrderExecution(fill.order,
+                    new OrderResult(true, fill.price, fill.cost, fill.profit,
+                            transactionIds.get(fill.order.getId())), null));
+        }
+        for (Map.Entry<Order, Exception> entry : errors.entrySet()) {
+            executions.add(new OrderExecution(entry.getKey(), null, entry.getValue()));
+        }
+    }
+
+    /**
+     * Nothing was written, puts the orders back so they are tried again
+     */
+    private void putBack(Exception ex, List<OrderExecution> executions) {
+        for (Fill fill : fills.values()) {
+            fill.order.setStatus(Order.OrderStatus.OPEN);
+            executions.add(new OrderExecution(fill.order, null, ex));
+        }
+        for (Order order : errors.keySet()) {
+            order.setStatus(Order.OrderStatus.OPEN);
+            executions.add(new OrderExecution(order, null, ex));
+        }
+    }
+
+    private void reset() {
+        accounts.clear();
+        cashChanges.clear();
+        stagedReleases.clear();
+        investments.clear();
+        newInvestments.clear();
+        changedInvestments.clear();
+        fills.clear();
+        changedOrders.clear();
+        errors.clear();
+    }
+
+    /**
+     * Returns the funds the order can spend before this batch, in micro cents
+     */
+    private long getBuyingPower(Order order) throws IllegalAccessException {
+        if (buyingPowerLedger != null) {
+            return buyingPowerLedger.getBuyingPower(order);
+        }
+        return getAccount(order.getAccount().getId()).getAvailableFunds().getMicroCents();
+    }
+
+    private Account getAccount(long accountId) throws IllegalAccessException {
+        Account account = accounts.get(accountId);
+        if (account == null) {
+            try {
+                account = sqlConnection.queryById(accountModel, accountId);
+            } catch (Exception ex) {
+                throw new RuntimeException(ex);
+            }
+            if (account == null) {
+                throw new IllegalAccessException("Account not found");
+            }
+            accounts.put(accountId, account);
+        }
+        return account;
+    }
+
+    private static String getInvestmentKey(String symbol, long accountId) {
+        return accountId + ":" + symbol;
+    }
+}
@@ -0,0 +1,345 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 1:30 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+
+package com.balch.mocktrade.order;
+
+import com.balch.android.app.framework.types.Money;
+import com.balch.mocktrade.finance.QuoteBook;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * In-memory index of the open orders, keyed by symbol.
+ *
+ * Buy limits, sell limits and stop losses are kept sorted by their trigger
+ * price so a new quote only walks the orders it actually crosses. Trailing
+ * stops move their trigger with the high water mark, they are also kept in a
+ * {@link TrailingStopBook} so a whole tick can be checked in one pass. Market
+ * and manual orders execute on any price, so those are returned for every quote.
+ *
+ * The book is loaded from the open orders in the database at startup and
+ * kept in sync by {@link OrderSqliteModel} as orders are created, canceled
+ * and executed.
+ */
+public class OrderBook {
+
+    // ties on the trigger price are broken by id so orders with the
+    // same price can live in the same set
+    private static final Comparator<Entry> ASCENDING = (lhs, rhs) -> {
+        int compare = (lhs.trigger < rhs.trigger) ? -1 : ((lhs.trigger == rhs.trigger) ? 0 : 1);
+        return (compare != 0) ? compare : (lhs.orderId < rhs.orderId ? -1 : (lhs.orderId == rhs.orderId ? 0 : 1));
+    };
+
+    private static final Comparator<Entry> DESCENDING = (lhs, rhs) -> ASCENDING.compare(rhs, lhs);
+
+    private static class Entry {
+        private final long orderId;
+        private final long trigger;
+        private final Order order;
+        private final Collection<Entry> container;
+
+        Entry(Order order, long trigger, Collection<Entry> container) {
+            this.orderId = order.getId();
+            this.trigger = trigger;
+            this.order = order;
+            this.container = container;
+        }
+    }
+
+    private static class SymbolOrders {
+        // triggered while limit >= price
+        private final TreeSet<Entry> buyLimits = new TreeSet<>(DESCENDING);
+        // triggered while limit <= price
+        private final TreeSet<Entry> sellLimits = new TreeSet<>(ASCENDING);
+        // triggered while stop >= price
+        private final TreeSet<Entry> stops = new TreeSet<>(DESCENDING);
+        // evaluated on every quote
+        private final List<Entry> always = new ArrayList<>();
+        // evaluated on every quote by symbol, by the TrailingStopBook by tick
+        private final List<Entry> trailingStops = new ArrayList<>();
+
+        boolean isEmpty() {
+            return buyLimits.isEmpty() && sellLimits.isEmpty() && stops.isEmpty() &&
+                    always.isEmpty() && trailingStops.isEmpty();
+        }
+    }
+
+    private final Map<String, SymbolOrders> symbolOrders = new HashMap<>();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final TrailingStopBook trailingStopBook = new TrailingStopBook();
+
+    /**
+     * Replaces the contents of the book with the given open orders.
+     */
+    public synchronized void rebuild(List<Order> openOrders) {
+        symbolOrders.clear();
+        entries.clear();
+        trailingStopBook.clear();
+        for (Order order : openOrders) {
+            add(order);
+        }
+    }
+
+    /**
+     * Adds an open order to the book. Orders that are not open are ignored
+     * and an order already in the book is replaced.
+     */
+    public synchronized void add(Order order) {
+        if ((order.getId() == null) || (order.getStatus() != Order.OrderStatus.OPEN)) {
+            return;
+        }
+
+        remove(order.getId());
+
+        String symbol = order.getSymbol().toUpperCase();
+        SymbolOrders orders = symbolOrders.get(symbol);
+        if (orders == null) {
+            orders = new SymbolOrders();
+            symbolOrders.put(symbol, orders);
+        }
+
+        Entry entry;
+        switch (order.getStrategy()) {
+            case LIMIT:
+                long limit = order.getLimitPrice().getMicroCents();
+                entry = (order.getAction() == Order.OrderAction.BUY) ?
+                        new Entry(order, limit, orders.buyLimits) :
+                        new Entry(order, limit, orders.sellLimits);
+                break;
+
+            case STOP_LOSS:
+                entry = new Entry(order, order.getLimitPrice().getMicroCents(), orders.stops);
+                break;
+
+            case TRAILING_STOP_AMOUNT_CHANGE:
+            case TRAILING_STOP_PERCENT_CHANGE:
+                entry = new Entry(order, 0, orders.trailingStops);
+                trailingStopBook.add(order);
+                break;
+
+            default:
+                entry = new Entry(order, 0, orders.always);
+        }
+
+        entry.container.add(entry);
+        entries.put(entry.orderId, entry);
+    }
+
+    /**
+     * Removes the order from the book, returns false if it was not in the book.
+     */
+    public synchronized boolean remove(Order order) {
+        return (order.getId() != null) && remove(order.getId());
+    }
+
+    public synchronized boolean remove(long orderId) {
+        Entry entry = entries.remove(orderId);
+        if (entry == null) {
+            return false;
+        }
+
+        entry.container.remove(entry);
+        trailingStopBook.remove(orderId);
+
+        String symbol = entry.order.getSymbol().toUpperCase();
+        SymbolOrders orders = symbolOrders.get(symbol);
+        if ((orders != null) && orders.isEmpty()) {
+            symbolOrders.remove(symbol);
+        }
+        return true;
+    }
+
+    /**
+     * Removes a batch of orders in one call, returns the number that were in the book.
+     */
+    public synchronized int removeAll(Collection<Long> orderIds) {
+        int count = 0;
+        for (Long orderId : orderIds) {
+            if (remove(orderId)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Removes all the orders that belong to the account.
+     */
+    public synchronized int removeAccount(long accountId) {
+        List<Long> orderIds = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            if (entry.order.getAccount().getId() == accountId) {
+                orderIds.add(entry.orderId);
+            }
+        }
+
+        for (Long orderId : orderIds) {
+            remove(orderId);
+        }
+        return orderIds.size();
+    }
+
+    /**
+     * Returns the orders for the symbol that the price can execute or change.
+     * Only the prefix of each sorted set whose trigger is crossed is visited.
+     *
+     * @param price price in micro cents
+     */
+    public synchronized List<Order> getTriggeredOrders(String symbol, long price) {
+        SymbolOrders orders = symbolOrders.get(symbol.toUpperCase());
+        if (orders == null) {
+            return new ArrayList<>(0);
+        }
+
+        List<Order> triggered = new ArrayList<>();
+        for (Entry entry : orders.trailingStops) {
+            triggered.add(entry.order);
+        }
+        for (Entry entry : orders.always) {
+            triggered.add(entry.order);
+        }
+
+        addWhile(orders.buyLimits.iterator(), price, false, triggered);
+        addWhile(orders.sellLimits.iterator(), price, true, triggered);
+        addWhile(orders.stops.iterator(), price, false, triggered);
+
+        return triggered;
+    }
+
+    /**
+     * Returns the orders that the quotes in the current tick of the book can
+     * execute or change. The trailing stops are checked in one pass over the
+     * {@link TrailingStopBook}, which raises their marks as it goes and only
+     * returns the stops that may execute. Trailing stops ignore quotes that
+     * traded before validSince.
+     *
+     * The orders returned carry the latest mark. Other orders in the book
+     * can have an older mark than the one kept by the TrailingStopBook.
+     *
+     * @param listener receives the raised marks, may be null
+     */
+    public synchronized List<Order> getTriggeredOrders(QuoteBook quoteBook, long validSince,
+                                                       TrailingStopBook.MarkListener listener) {
+        List<Order> triggered = new ArrayList<>();
+
+        // stops first, a sell can free the cash a buy on the same tick needs
+        int count = trailingStopBook.evaluate(quoteBook, validSince, listener);
+        for (int x = 0; x < count; x++) {
+            int row = trailingStopBook.getTriggeredRow(x);
+            Order order = trailingStopBook.getOrder(row);
+            long highestPrice = trailingStopBook.getHighestPrice(row);
+            if (order.getHighestPrice().getMicroCents() != highestPrice) {
+                order.setHighestPrice(new Money(highestPrice));
+            }
+            triggered.add(order);
+        }
+
+        for (Map.Entry<String, SymbolOrders> entry : symbolOrders.entrySet()) {
+            int symbolId = quoteBook.indexOf(entry.getKey());
+            if (!quoteBook.hasQuote(symbolId)) {
+                continue;
+            }
+
+            SymbolOrders orders = entry.getValue();
+            long price = quoteBook.getPrice(symbolId);
+            for (Entry always : orders.always) {
+                triggered.add(always.order);
+            }
+            addWhile(orders.buyLimits.iterator(), price, false, triggered);
+            addWhile(orders.sellLimits.iterator(), price, true, triggered);
+            addWhile(orders.stops.iterator(), price, false, triggered);
+        }
+
+        return triggered;
+    }
+
+    /**
+     * Raises the mark the book keeps for a trailing stop to the highest price of
+     * the order. Called after the order was evaluated, the first mark of a stop
+     * is set by OrderManager.
+     */
+    public synchronized boolean raiseHighestPrice(Order order) {
+        return trailingStopBook.raiseHighestPrice(order);
+    }
+
+    /**
+     * Returns true if the book has at least one trailing stop
+     */
+    public synchronized boolean hasTrailingStops() {
+        return trailingStopBook.size() > 0;
+    }
+
+    private static void addWhile(Iterator<Entry> iterator, long price, boolean ascending,
+                                 List<Order> triggered) {
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (ascending ? (entry.trigger > price) : (entry.trigger < price)) {
+                break;
+            }
+            triggered.add(entry.order);
+        }
+    }
+
+    /**
+     * Returns the symbols that have at least one open order.
+     */
+    public synchronized List<String> getSymbols() {
+        return new ArrayList<>(symbolOrders.keySet());
+    }
+
+    public synchronized List<Order> getOrders() {
+        List<Order> orders = new ArrayList<>(entries.size());
+        for (Entry entry : entries.values()) {
+            orders.add(entry.order);
+        }
+        return orders;
+    }
+
+    public synchronized boolean contains(long orderId) {
+        return entries.containsKey(orderId);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "OrderBook{" +
+                "orders=" + entries.size() +
+                ", symbols=" + symbolOrders.size() +
+                '}';
+    }
+}
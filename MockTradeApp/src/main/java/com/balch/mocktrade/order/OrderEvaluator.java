@@ -0,0 +1,82 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 4:48 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+
+package com.balch.mocktrade.order;
+
+import com.balch.android.app.framework.types.Money;
+import com.balch.mocktrade.finance.FinanceModel;
+import com.balch.mocktrade.finance.Quote;
+import com.balch.mocktrade.finance.QuoteBook;
+import com.balch.mocktrade.investment.Investment;
+
+/**
+ * Applies the {@link OrderManager} trigger rules to orders that are not backed
+ * by the database, like the in-memory portfolio of a backtest. The listener
+ * fills the orders and looks up the investments the same way the OrderModel
+ * implementations do.
+ */
+public class OrderEvaluator {
+
+    public interface Listener {
+        OrderResult executeOrder(Order order, Quote quote, Money price) throws IllegalAccessException;
+        Investment getInvestmentBySymbol(String symbol, Long accountId);
+        boolean updateOrder(Order order);
+    }
+
+    private final OrderManager orderManager;
+
+    public OrderEvaluator(FinanceModel financeModel, final Listener listener) {
+        this.orderManager = new OrderManager(null, financeModel, null, new OrderManager.OrderManagerListener() {
+            @Override
+            public OrderResult executeOrder(Order order, Quote quote, Money price) throws IllegalAccessException {
+                return listener.executeOrder(order, quote, price);
+            }
+
+            @Override
+            public Investment getInvestmentBySymbol(String symbol, Long accountId) {
+                return listener.getInvestmentBySymbol(symbol, accountId);
+            }
+
+            @Override
+            public boolean updateOrder(Order order) {
+                return listener.updateOrder(order);
+            }
+        });
+    }
+
+    public OrderResult attemptExecuteOrder(Order order, Quote quote) throws Exception {
+        return orderManager.attemptExecuteOrder(order, quote);
+    }
+
+    public OrderResult attemptExecuteOrder(Order order, QuoteBook quoteBook, int symbolId) throws Exception {
+        return orderManager.attemptExecuteOrder(order, quoteBook, symbolId);
+    }
+
+    /**
+     * Returns false if the price can not trigger the order or change its state.
+     */
+    public boolean mayExecute(Order order, long price) {
+        return orderManager.mayExecute(order, price);
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 2:40 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+
+package com.balch.mocktrade.order;
+
+/**
+ * Outcome of one order in a batch passed to
+ * {@link com.balch.mocktrade.portfolio.PortfolioModel#attemptExecuteOrders}.
+ * Either the result or the error is set.
+ */
+public class OrderExecution {
+    private final Order order;
+    private final OrderResult result;
+    private final Exception error;
+
+    public OrderExecution(Order order, OrderResult result, Exception error) {
+        this.order = order;
+        this.result = result;
+        this.error = error;
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    public OrderResult getResult() {
+        return result;
+    }
+
+    public Exception getError() {
+        return error;
+    }
+
+    public boolean isSuccess() {
+        return (result != null) && result.isSuccess();
+    }
+}
@@ -26,11 +26,12 @@ import android.app.AlarmManager;
 import android.app.PendingIntent;
 import android.content.Context;
 import android.content.Intent;
-import android.text.format.DateUtils;
 
 import com.balch.android.app.framework.types.Money;
 import com.balch.mocktrade.finance.FinanceModel;
+import com.balch.mocktrade.finance.MarketClock;
 import com.balch.mocktrade.finance.Quote;
+import com.balch.mocktrade.finance.QuoteBook;
 import com.balch.mocktrade.investment.Investment;
 import com.balch.mocktrade.receivers.OrderReceiver;
 import com.balch.mocktrade.settings.Settings;
@@ -52,6 +53,8 @@ class OrderManager {
         boolean updateOrder(Order order) throws IllegalAccessException;
     }
 
+    private static final OrderResult NOT_EXECUTED = new OrderResult(false, null, null, null, 0);
+
     private final FinanceModel financeModel;
     private final Context appContext;
     private final Settings settings;
@@ -60,7 +63,9 @@ class OrderManager {
     public OrderManager(Context context, FinanceModel financeModel, Settings settings,
                         OrderManagerListener listener) {
         this.settings = settings;
-        this.appContext = context.getApplicationContext();
+        // there is no context when the orders are evaluated headless, like in a backtest,
+        // which never schedules the alarm
+        this.appContext = (context != null) ? context.getApplicationContext() : null;
         this.financeModel = financeModel;
         this.orderManagerListener = listener;
     }
@@ -119,13 +124,75 @@ class OrderManager {
         return result;
     }
 
-    boolean isQuoteValid(Quote quote)  {
-        Date tradeDate = quote.getLastTradeTime();
-        return (financeModel.isMarketOpen() && isToday(tradeDate));
+    /**
+     * Tick path version of {@link #attemptExecuteOrder(Order, Quote)}. The order is
+     * checked against the primitive price in the QuoteBook first and a Quote is
+     * only created when the order could execute or needs to be updated, so the
+     * common case of an order that does not trigger does not allocate.
+     */
+    public OrderResult attemptExecuteOrder(Order order, QuoteBook quoteBook, int symbolId) throws InvocationTargetException, SQLException, InstantiationException, IllegalAccessException, NoSuchMethodException {
+        if (order == null) {
+            throw new IllegalArgumentException("Order not found");
+        }
+
+        if (!quoteBook.hasQuote(symbolId)) {
+            throw new IllegalArgumentException("Quote not found");
+        }
+
+        if (!mayExecute(order, quoteBook.getPrice(symbolId))) {
+            return NOT_EXECUTED;
+        }
+
+        return attemptExecuteOrder(order, quoteBook.getQuote(symbolId));
+    }
+
+    /**
+     * Returns false if the price can not trigger the order (or change its state).
+     * This mirrors the price checks in the execute methods below. Orders the execute
+     * methods reject, like a BUY stop loss, return true so the tick path raises the
+     * same error as the Quote path.
+     */
+    boolean mayExecute(Order order, long price) {
+        boolean mayExecute;
+        switch (order.getStrategy()) {
+            case LIMIT:
+                long limit = order.getLimitPrice().getMicroCents();
+                mayExecute = (order.getAction() == Order.OrderAction.BUY) ? (price <= limit) : (price >= limit);
+                break;
+
+            case STOP_LOSS:
+                mayExecute = (order.getAction() == Order.OrderAction.BUY) ||
+                        (price <= order.getLimitPrice().getMicroCents());
+                break;
+
+            case TRAILING_STOP_AMOUNT_CHANGE:
+            case TRAILING_STOP_PERCENT_CHANGE:
+                if (order.getAction() == Order.OrderAction.BUY) {
+                    mayExecute = true;
+                    break;
+                }
+
+                long highestPrice = order.getHighestPrice().getMicroCents();
+                if ((highestPrice == 0) || (price > highestPrice)) {
+                    mayExecute = true;
+                } else if (order.getStrategy() == Order.OrderStrategy.TRAILING_STOP_AMOUNT_CHANGE) {
+                    mayExecute = (highestPrice - price >= order.getStopPrice().getMicroCents());
+                } else {
+                    double percent = (highestPrice - price) * 100f / (double) highestPrice;
+                    mayExecute = percent >= order.getStopPercent();
+                }
+                break;
+
+            default:
+                mayExecute = true;
+        }
+
+        return mayExecute;
     }
 
-    private boolean isToday(Date date) {
-        return DateUtils.isToday(date.getTime());
+    boolean isQuoteValid(Quote quote)  {
+        MarketClock marketClock = financeModel.getMarketClock();
+        return (marketClock.isMarketOpen() && marketClock.isToday(quote.getLastTradeTime().getTime()));
     }
 
     private OrderResult executeLimitOrder(Order order, Quote quote) throws InvocationTargetException, SQLException, InstantiationException, IllegalAccessException, NoSuchMethodException {
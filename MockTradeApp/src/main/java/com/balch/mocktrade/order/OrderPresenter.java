@@ -36,6 +36,11 @@ import com.balch.mocktrade.TradeModelProvider;
 
 import java.util.List;
 
+import io.reactivex.Observable;
+import io.reactivex.android.schedulers.AndroidSchedulers;
+import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.schedulers.Schedulers;
+
 public class OrderPresenter extends BasePresenter<OrderListView> {
 
     private static final String TAG = OrderListActivity.class.getSimpleName();
@@ -49,6 +54,7 @@ public class OrderPresenter extends BasePresenter<OrderListView> {
     private OrderModel orderModel;
     private long accountId;
     private ActivityBridge listener;
+    private final CompositeDisposable disposableCancelOrders = new CompositeDisposable();
 
     public OrderPresenter(TradeModelProvider modelProvider, OrderViewModel orderViewModel,
                           long accountId, final LifecycleOwner lifecycleOwner,
@@ -74,15 +80,7 @@ public class OrderPresenter extends BasePresenter<OrderListView> {
                     .setTitle(R.string.order_cancel_dlg_title)
                     .setMessage(context.getString(R.string.order_cancel_dlg_message_format, order.getId(), order.getSymbol()))
                     .setIcon(android.R.drawable.ic_dialog_alert)
-                    .setPositiveButton(android.R.string.yes, (dialog, whichButton) -> {
-                        try {
-                            orderModel.cancelOrder(order);
-                            reload(true);
-                        } catch (Exception ex) {
-                            Log.e(TAG, "Error Canceling Order", ex);
-                            Toast.makeText(context, "Error Canceling Order", Toast.LENGTH_LONG).show();
-                        }
-                    })
+                    .setPositiveButton(android.R.string.yes, (dialog, whichButton) -> cancelOrderAsync(context, order))
                     .setNegativeButton(android.R.string.no, null).show();
             return true;
         });
@@ -91,6 +89,25 @@ public class OrderPresenter extends BasePresenter<OrderListView> {
 
     }
 
+    private void cancelOrderAsync(final Context context, final Order order) {
+        listener.showProgress(true);
+
+        // canceling waits for the account lane and the writer
+        disposableCancelOrders.add(Observable.just(true)
+                .subscribeOn(Schedulers.io())
+                .map(aBoolean -> {
+                    orderModel.cancelOrder(order);
+                    return true;
+                })
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(aBoolean -> reload(true),
+                        throwable -> {
+                            listener.showProgress(false);
+                            Log.e(TAG, "Error Canceling Order", throwable);
+                            Toast.makeText(context, "Error Canceling Order", Toast.LENGTH_LONG).show();
+                        }));
+    }
+
     public void reload(boolean showProgress) {
         if (showProgress) {
             listener.showProgress(true);
@@ -112,6 +129,7 @@ public class OrderPresenter extends BasePresenter<OrderListView> {
 
     @Override
     protected void cleanup() {
+        disposableCancelOrders.clear();
 
         if (orderViewModel != null) {
             orderViewModel.getOrders().removeObserver(orderDataObserver);
@@ -0,0 +1,38 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 9:40 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+
+package com.balch.mocktrade.order;
+
+public class OrderRejectedException extends Exception {
+    private static final String TAG = OrderRejectedException.class.getSimpleName();
+
+    public OrderRejectedException() {
+        super();
+    }
+
+    public OrderRejectedException(String message) {
+        super(message);
+    }
+
+}
@@ -25,17 +25,22 @@ package com.balch.mocktrade.order;
 import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
-import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
 import android.util.Log;
 
+import com.balch.android.app.framework.sql.RowMapper;
 import com.balch.android.app.framework.sql.SqlConnection;
 import com.balch.android.app.framework.sql.SqlMapper;
+import com.balch.android.app.framework.sql.StatementMapper;
 import com.balch.android.app.framework.types.Money;
+import com.balch.mocktrade.TradeModelProvider;
 import com.balch.mocktrade.account.Account;
+import com.balch.mocktrade.account.AccountExecutor;
 import com.balch.mocktrade.account.AccountSqliteModel;
 import com.balch.mocktrade.account.Transaction;
 import com.balch.mocktrade.finance.FinanceModel;
 import com.balch.mocktrade.finance.Quote;
+import com.balch.mocktrade.finance.QuoteBook;
 import com.balch.mocktrade.investment.Investment;
 import com.balch.mocktrade.investment.InvestmentSqliteModel;
 import com.balch.mocktrade.settings.Settings;
@@ -44,17 +49,23 @@ import java.lang.reflect.InvocationTargetException;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
-public class OrderSqliteModel implements SqlMapper<Order>, OrderModel, OrderManager.OrderManagerListener {
+public class OrderSqliteModel implements StatementMapper<Order>, OrderModel, OrderManager.OrderManagerListener,
+        BuyingPowerLedger.Loader {
     private static final String TAG = OrderSqliteModel.class.getSimpleName();
 
-    private static final String TABLE_NAME = "[order]";
+    static final String TABLE_NAME = "[order]";
 
     private static final String COLUMN_ACCOUNT_ID = "account_id";
     private static final String COLUMN_SYMBOL = "symbol";
-    private static final String COLUMN_STATUS = "status";
+    static final String COLUMN_STATUS = "status";
     private static final String COLUMN_ACTION = "action";
     private static final String COLUMN_STRATEGY = "strategy";
     private static final String COLUMN_DURATION = "duration";
@@ -62,15 +73,38 @@ public class OrderSqliteModel implements SqlMapper<Order>, OrderModel, OrderMana
     private static final String COLUMN_STOP_PRICE = "stop_price";
     private static final String COLUMN_STOP_PERCENT = "stop_percent";
     private static final String COLUMN_QUANTITY = "quantity";
-    private static final String COLUMN_HIGHEST_PRICE = "highest_price";
+    static final String COLUMN_HIGHEST_PRICE = "highest_price";
+
+    private static final String[] COLUMNS = {
+            COLUMN_ACCOUNT_ID,
+            COLUMN_SYMBOL,
+            COLUMN_STATUS,
+            COLUMN_ACTION,
+            COLUMN_STRATEGY,
+            COLUMN_DURATION,
+            COLUMN_LIMIT_PRICE,
+            COLUMN_STOP_PRICE,
+            COLUMN_STOP_PERCENT,
+            COLUMN_QUANTITY,
+            COLUMN_HIGHEST_PRICE
+    };
+
+    static final String WHERE_STATUS_OPEN = " AND " + COLUMN_STATUS + "=?";
+    static final String[] WHERE_STATUS_OPEN_ARGS = new String[]{Order.OrderStatus.OPEN.name()};
 
     private final InvestmentSqliteModel mInvestmentModel;
     private final AccountSqliteModel mAccountModel;
     private final OrderManager mOrderManager;
     private final SqlConnection sqlConnection;
+    private final Context context;
+    private final FinanceModel financeModel;
+    private final Settings settings;
 
     public OrderSqliteModel(Context context, FinanceModel financeModel,
                             SqlConnection sqlConnection, Settings settings) {
+        this.context = context;
+        this.financeModel = financeModel;
+        this.settings = settings;
         this.sqlConnection = sqlConnection;
         this.mInvestmentModel = new InvestmentSqliteModel(sqlConnection);
         this.mAccountModel = new AccountSqliteModel(context, financeModel,
@@ -100,7 +134,7 @@ public class OrderSqliteModel implements SqlMapper<Order>, OrderModel, OrderMana
                 whereArgs.add(String.valueOf(accountId));
             }
 
-            return sqlConnection.query(this, Order.class, where.toString(),
+            return sqlConnection.query(this, where.toString(),
                     whereArgs.toArray(new String[whereArgs.size()]), null);
         } catch (Exception e) {
             Log.e(TAG, "Error in getOpenOrders", e);
@@ -108,21 +142,123 @@ public class OrderSqliteModel implements SqlMapper<Order>, OrderModel, OrderMana
         }
     }
 
-    @Override
-    public void cancelOrder(Order order) throws OrderCancelException {
+    /**
+     * Cancels every open DAY order placed before the session close and drops them
+     * from the order book. The orders of each account are expired on its lane with
+     * one UPDATE, like a cancel, so an order triggered on the same lane is either
+     * filled or expired, never both. Returns the number of orders that expired.
+     */
+    public int expireDayOrders(final long sessionClose) {
+        String where = COLUMN_STATUS + "=? AND " + COLUMN_DURATION + "=? AND " +
+                SqlMapper.COLUMN_CREATE_TIME + "<?";
+        String[] whereArgs = new String[]{Order.OrderStatus.OPEN.name(),
+                Order.OrderDuration.DAY.name(), String.valueOf(sessionClose)};
+
+        List<Long> accountIds = new ArrayList<>();
+        Cursor cursor = sqlConnection.rawQuery("SELECT DISTINCT " + COLUMN_ACCOUNT_ID +
+                " FROM " + TABLE_NAME + " WHERE " + where, whereArgs);
         try {
-            order.setStatus(Order.OrderStatus.CANCELED);
+            while (cursor.moveToNext()) {
+                accountIds.add(cursor.getLong(0));
+            }
+        } finally {
+            cursor.close();
+        }
 
-            // only update the order if the status is still open
-            // still may need some locking to make sure the order
-            // is not executed after is has been canceled
-            String where = " AND "+COLUMN_STATUS+"=?";
-            String [] whereArgs = new String[]{Order.OrderStatus.OPEN.name()};
+        AccountExecutor accountExecutor = getAccountExecutor();
+        Map<Long, Future<Integer>> futures = new LinkedHashMap<>();
+        for (final Long accountId : accountIds) {
+            Callable<Integer> task = () -> expireAccountDayOrders(accountId, sessionClose);
+            if (accountExecutor != null) {
+                futures.put(accountId, accountExecutor.submit(accountId, task));
+            } else {
+                FutureTask<Integer> futureTask = new FutureTask<>(task);
+                futureTask.run();
+                futures.put(accountId, futureTask);
+            }
+        }
 
-            if (!sqlConnection.update(this, order, where, whereArgs,
-                    sqlConnection.getWritableDatabase())) {
-                throw new OrderCancelException("Order cannot be canceled");
+        int expiredCount = 0;
+        for (Map.Entry<Long, Future<Integer>> entry : futures.entrySet()) {
+            try {
+                expiredCount += AccountExecutor.getResult(entry.getValue());
+            } catch (Exception ex) {
+                Log.e(TAG, "Error expiring DAY orders for account: " + entry.getKey(), ex);
             }
+        }
+        return expiredCount;
+    }
+
+    private int expireAccountDayOrders(long accountId, long sessionClose) {
+        String where = COLUMN_STATUS + "=? AND " + COLUMN_DURATION + "=? AND " +
+                SqlMapper.COLUMN_CREATE_TIME + "<? AND " + COLUMN_ACCOUNT_ID + "=?";
+        String[] whereArgs = new String[]{Order.OrderStatus.OPEN.name(),
+                Order.OrderDuration.DAY.name(), String.valueOf(sessionClose),
+                String.valueOf(accountId)};
+
+        List<Long> orderIds = sqlConnection.write(db -> {
+            // the ids are read in the same transaction so they match the rows updated
+            List<Long> ids = new ArrayList<>();
+            Cursor cursor = db.query(TABLE_NAME, new String[]{SqlMapper.COLUMN_ID},
+                    where, whereArgs, null, null, null);
+            try {
+                while (cursor.moveToNext()) {
+                    ids.add(cursor.getLong(0));
+                }
+            } finally {
+                cursor.close();
+            }
+
+            if (!ids.isEmpty()) {
+                ContentValues values = new ContentValues();
+                values.put(COLUMN_STATUS, Order.OrderStatus.CANCELED.name());
+                values.put(SqlMapper.COLUMN_UPDATE_TIME, System.currentTimeMillis());
+                db.update(TABLE_NAME, values, where, whereArgs);
+            }
+            return ids;
+        });
+
+        if (!orderIds.isEmpty()) {
+            OrderBook orderBook = getOrderBook();
+            if (orderBook != null) {
+                orderBook.removeAll(orderIds);
+            }
+
+            TrailingStopMarks trailingStopMarks = getTrailingStopMarks();
+            if (trailingStopMarks != null) {
+                for (Long orderId : orderIds) {
+                    trailingStopMarks.remove(orderId);
+                }
+            }
+
+            BuyingPowerLedger buyingPowerLedger = getBuyingPowerLedger();
+            if (buyingPowerLedger != null) {
+                for (Long orderId : orderIds) {
+                    buyingPowerLedger.release(orderId);
+                }
+            }
+        }
+
+        return orderIds.size();
+    }
+
+    @Override
+    public void cancelOrder(final Order order) throws OrderCancelException {
+        try {
+            // cancels and fills of an account run on the same lane, so the order is
+            // either still open here or its fill has already been committed
+            runOnAccountLane(order.getAccount().getId(), () -> {
+                order.setStatus(Order.OrderStatus.CANCELED);
+
+                // only update the order if the status is still open
+                if (!sqlConnection.write(db -> sqlConnection.update(this, order,
+                        WHERE_STATUS_OPEN, WHERE_STATUS_OPEN_ARGS, db))) {
+                    throw new OrderCancelException("Order cannot be canceled");
+                }
+
+                removeFromOrderBook(order);
+                return null;
+            });
         } catch (OrderCancelException ex) {
             throw ex;
         } catch (Exception ex) {
@@ -131,97 +267,344 @@ public class OrderSqliteModel implements SqlMapper<Order>, OrderModel, OrderMana
         }
     }
 
-    public void createOrder(Order order) {
+    /**
+     * Saves a new order and reserves the funds of a BUY in the buying power ledger.
+     *
+     * @throws OrderRejectedException if the account can not cover the order, it is not saved
+     */
+    public void createOrder(final Order order) throws OrderRejectedException {
         try {
-            sqlConnection.insert(this, order);
+            runOnAccountLane(order.getAccount().getId(), () -> {
+                BuyingPowerLedger buyingPowerLedger = getBuyingPowerLedger();
+                try {
+                    sqlConnection.write(db -> {
+                        sqlConnection.insert(this, order, db);
+                        if (buyingPowerLedger != null) {
+                            buyingPowerLedger.reserve(order);
+                        }
+                        return null;
+                    });
+                } catch (OrderRejectedException ex) {
+                    // the insert is rolled back
+                    order.setId(null);
+                    throw ex;
+                }
+
+                OrderBook orderBook = getOrderBook();
+                if (orderBook != null) {
+                    orderBook.add(order);
+                }
+                return null;
+            });
+        } catch (OrderRejectedException ex) {
+            throw ex;
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
     }
 
 
-    public OrderResult attemptExecuteOrder(Order order, Quote quote) throws OrderExecutionException {
+    public OrderResult attemptExecuteOrder(final Order order, final Quote quote) throws OrderExecutionException {
+        return attemptExecuteOrder(order, () -> mOrderManager.attemptExecuteOrder(order, quote));
+    }
+
+    public OrderResult attemptExecuteOrder(final Order order, final QuoteBook quoteBook, final int symbolId) throws OrderExecutionException {
+        return attemptExecuteOrder(order, () -> mOrderManager.attemptExecuteOrder(order, quoteBook, symbolId));
+    }
+
+    private OrderResult attemptExecuteOrder(final Order order, final Callable<OrderResult> attempt) throws OrderExecutionException {
+        if (order == null) {
+            throw new OrderExecutionException(new IllegalArgumentException("Order not found"));
+        }
+
         try {
-            return mOrderManager.attemptExecuteOrder(order, quote);
+            return runOnAccountLane(order.getAccount().getId(), () -> {
+                try {
+                    return attempt.call();
+                } catch (Exception ex) {
+                    // a canceled order stays canceled
+                    order.setStatus(Order.OrderStatus.ERROR);
+                    sqlConnection.write(db -> sqlConnection.update(this, order,
+                            WHERE_STATUS_OPEN, WHERE_STATUS_OPEN_ARGS, db));
+                    removeFromOrderBook(order);
+                    throw new OrderExecutionException(ex);
+                }
+            });
+        } catch (OrderExecutionException ex) {
+            throw ex;
         } catch (Exception ex) {
-            if (order != null) {
-                order.setStatus(Order.OrderStatus.ERROR);
-                sqlConnection.update(this, order);
-            }
             throw new OrderExecutionException(ex);
         }
     }
 
-    public OrderResult executeOrder(Order order, Quote quote, Money price) throws SQLException, NoSuchMethodException, InstantiationException, IllegalAccessException, InvocationTargetException {
-        SQLiteDatabase db = sqlConnection.getWritableDatabase();
-        db.beginTransaction();
-        try {
-            Money cost = order.getCost(price);
-            Money profit = new Money(0);
+    /**
+     * Evaluates all the orders triggered by a tick. The orders are grouped by
+     * account and each account's orders run on its lane, so accounts are
+     * processed in parallel and each account is read once and written in one
+     * transaction. An order that fails is marked as ERROR without affecting
+     * the other orders in the batch.
+     */
+    public List<OrderExecution> attemptExecuteOrders(List<Order> orders, final QuoteBook quoteBook) {
+        Map<Long, List<Order>> accountOrders = new LinkedHashMap<>();
+        for (Order order : orders) {
+            List<Order> list = accountOrders.get(order.getAccount().getId());
+            if (list == null) {
+                list = new ArrayList<>();
+                accountOrders.put(order.getAccount().getId(), list);
+            }
+            list.add(order);
+        }
 
-            Account account = sqlConnection.queryById(mAccountModel, Account.class, order.getAccount().getId());
+        AccountExecutor accountExecutor = getAccountExecutor();
+        Map<Long, Future<List<OrderExecution>>> futures = new LinkedHashMap<>();
+        for (final Map.Entry<Long, List<Order>> entry : accountOrders.entrySet()) {
+            Callable<List<OrderExecution>> task = () -> executeAccountOrders(entry.getValue(), quoteBook);
+            if (accountExecutor != null) {
+                futures.put(entry.getKey(), accountExecutor.submit(entry.getKey(), task));
+            } else {
+                FutureTask<List<OrderExecution>> futureTask = new FutureTask<>(task);
+                futureTask.run();
+                futures.put(entry.getKey(), futureTask);
+            }
+        }
 
-            Money transactionCost;
-            Transaction.TransactionType transactionType;
-            if (order.getAction() == Order.OrderAction.BUY) {
-                if (account.getAvailableFunds().getDollars() < cost.getDollars()) {
-                    throw new IllegalAccessException("Insufficient funds");
+        List<OrderExecution> executions = new ArrayList<>(orders.size());
+        for (Map.Entry<Long, Future<List<OrderExecution>>> entry : futures.entrySet()) {
+            try {
+                executions.addAll(AccountExecutor.getResult(entry.getValue()));
+            } catch (Exception ex) {
+                Log.e(TAG, "Error executing orders for account: " + entry.getKey(), ex);
+                for (Order order : accountOrders.get(entry.getKey())) {
+                    executions.add(new OrderExecution(order, null, ex));
                 }
-                transactionType = Transaction.TransactionType.WITHDRAWAL;
-            } else {
-                transactionType = Transaction.TransactionType.DEPOSIT;
             }
-            transactionCost = Money.multiply(cost, -1);
-            Transaction transaction = new Transaction(account, transactionCost, transactionType, "Order Id=" + order.getId());
-            long transactionId = sqlConnection.insert(transaction, transaction, db);
+        }
+        return executions;
+    }
 
-            account.getAvailableFunds().add(transactionCost);
-            if (!sqlConnection.update(mAccountModel, account, db)) {
-                throw new IllegalAccessException("Error updating account");
+    private List<OrderExecution> executeAccountOrders(List<Order> orders, QuoteBook quoteBook) {
+        OrderBook orderBook = getOrderBook();
+        OrderBatch batch = new OrderBatch(sqlConnection, mAccountModel, mInvestmentModel, this,
+                getTrailingStopMarks(), getBuyingPowerLedger());
+        OrderManager batchManager = new OrderManager(context, financeModel, settings, batch);
+        for (Order order : orders) {
+            // canceled or filled after it was triggered
+            if ((orderBook != null) && !orderBook.contains(order.getId())) {
+                continue;
             }
 
-            Investment investment = mInvestmentModel.getInvestmentBySymbol(order.getSymbol(), order.getAccount().getId());
-            if (investment == null) {
-                if (order.getAction() == Order.OrderAction.SELL) {
-                    throw new IllegalAccessException("Can't sell and investment you don't own");
+            try {
+                batchManager.attemptExecuteOrder(order, quoteBook, quoteBook.indexOf(order.getSymbol()));
+                if (orderBook != null) {
+                    orderBook.raiseHighestPrice(order);
                 }
-                investment = new Investment(account, quote.getSymbol(),
-                        Investment.InvestmentStatus.OPEN, quote.getName(), quote.getExchange(),
-                        cost, price, new Date(0), order.getQuantity());
-                sqlConnection.insert(mInvestmentModel, investment, db);
-            } else {
-                if (order.getAction() == Order.OrderAction.SELL) {
-                    if (order.getQuantity() > investment.getQuantity()) {
-                        throw new IllegalAccessException("Selling too many shares");
+            } catch (Exception ex) {
+                Log.e(TAG, "Error executing order: " + order.getId(), ex);
+                batch.fail(order, ex);
+            }
+        }
+
+        List<OrderExecution> executions = batch.commit();
+        for (OrderExecution execution : executions) {
+            if (execution.getOrder().getStatus() != Order.OrderStatus.OPEN) {
+                removeFromOrderBook(execution.getOrder());
+            }
+        }
+        return executions;
+    }
+
+    public OrderResult executeOrder(Order order, Quote quote, Money price) throws SQLException, NoSuchMethodException, InstantiationException, IllegalAccessException, InvocationTargetException {
+        TrailingStopMarks trailingStopMarks = getTrailingStopMarks();
+        BuyingPowerLedger buyingPowerLedger = getBuyingPowerLedger();
+        // the marks flushed into the transaction, handed back if it does not commit
+        final Map<Long, Long> flushedMarks = new HashMap<>();
+        boolean committed = false;
+        OrderResult orderResult;
+        try {
+            orderResult = sqlConnection.write(db -> {
+                Money cost = order.getCost(price);
+                Money profit = new Money(0);
+
+                Account account = order.getAccount();
+
+                Money transactionCost;
+                Transaction.TransactionType transactionType;
+                if (order.getAction() == Order.OrderAction.BUY) {
+                    if (getBuyingPower(order, buyingPowerLedger) < cost.getMicroCents()) {
+                        throw new IllegalAccessException("Insufficient funds");
                     }
+                    transactionType = Transaction.TransactionType.WITHDRAWAL;
+                } else {
+                    transactionType = Transaction.TransactionType.DEPOSIT;
+                }
+                transactionCost = Money.multiply(cost, -1);
+                Transaction transaction = new Transaction(account, transactionCost, transactionType, "Order Id=" + order.getId());
+                long transactionId = sqlConnection.insert(transaction, transaction, db);
 
-                    profit = Money.subtract(transactionCost, investment.getCostBasis());
+                if (!mAccountModel.addAvailableFunds(account.getId(), transactionCost, db)) {
+                    throw new IllegalAccessException("Error updating account");
                 }
 
-                investment.aggregateOrder(order, price);
-                if (investment.getQuantity() > 0) {
-                    if (!sqlConnection.update(mInvestmentModel, investment, db)) {
-                        throw new IllegalAccessException("Error updating investment");
+                Investment investment = mInvestmentModel.getInvestmentBySymbol(order.getSymbol(), order.getAccount().getId());
+                if (investment == null) {
+                    if (order.getAction() == Order.OrderAction.SELL) {
+                        throw new IllegalAccessException("Can't sell and investment you don't own");
                     }
+                    investment = new Investment(account, quote.getSymbol(),
+                            Investment.InvestmentStatus.OPEN, quote.getName(), quote.getExchange(),
+                            cost, price, new Date(0), order.getQuantity());
+                    sqlConnection.insert(mInvestmentModel, investment, db);
                 } else {
-                    // delete the investment if we sold everything
-                    if (!sqlConnection.delete(mInvestmentModel, investment, db)) {
-                        throw new IllegalAccessException("Error updating investment");
+                    if (order.getAction() == Order.OrderAction.SELL) {
+                        if (order.getQuantity() > investment.getQuantity()) {
+                            throw new IllegalAccessException("Selling too many shares");
+                        }
+
+                        profit = Money.subtract(transactionCost, investment.getCostBasis());
+                    }
+
+                    investment.aggregateOrder(order, price);
+                    if (investment.getQuantity() > 0) {
+                        if (!sqlConnection.update(mInvestmentModel, investment, db)) {
+                            throw new IllegalAccessException("Error updating investment");
+                        }
+                    } else {
+                        // delete the investment if we sold everything
+                        if (!sqlConnection.delete(mInvestmentModel, investment, db)) {
+                            throw new IllegalAccessException("Error updating investment");
+                        }
                     }
                 }
-            }
 
-            order.setStatus(Order.OrderStatus.FULFILLED);
-            if (!sqlConnection.update(this, order, db)) {
-                throw new IllegalAccessException("Error updating order");
-            }
+                order.setStatus(Order.OrderStatus.FULFILLED);
+                if (!sqlConnection.update(this, order, WHERE_STATUS_OPEN, WHERE_STATUS_OPEN_ARGS, db)) {
+                    throw new IllegalAccessException("Order is no longer open");
+                }
 
-            db.setTransactionSuccessful();
+                // the pending trailing stop marks are written with the fill
+                if (trailingStopMarks != null) {
+                    flushedMarks.putAll(trailingStopMarks.flush(db));
+                }
 
-            return new OrderResult(true, price, cost, profit, transactionId);
+                return new OrderResult(true, price, cost, profit, transactionId);
+            });
+            committed = true;
+        } catch (SQLException | IllegalAccessException | RuntimeException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
         } finally {
-            db.endTransaction();
+            if (!committed && !flushedMarks.isEmpty()) {
+                trailingStopMarks.restorePendingMarks(flushedMarks);
+            }
+        }
+
+        if (buyingPowerLedger != null) {
+            // the cash change of the fill is the negated order cost
+            buyingPowerLedger.settle(order, -orderResult.getCost().getMicroCents());
+        }
+
+        // only drop the order from the book once the fill is committed
+        removeFromOrderBook(order);
+
+        return orderResult;
+    }
+
+    /**
+     * Removes the orders of a deleted account from the order book. The rows
+     * themselves are removed by the cascade on the account table.
+     */
+    public void onAccountDeleted(Account account) {
+        OrderBook orderBook = getOrderBook();
+        if (orderBook != null) {
+            orderBook.removeAccount(account.getId());
+        }
+
+        BuyingPowerLedger buyingPowerLedger = getBuyingPowerLedger();
+        if (buyingPowerLedger != null) {
+            buyingPowerLedger.removeAccount(account.getId());
+        }
+    }
+
+    private void removeFromOrderBook(Order order) {
+        OrderBook orderBook = getOrderBook();
+        if (orderBook != null) {
+            orderBook.remove(order);
+        }
+
+        TrailingStopMarks trailingStopMarks = getTrailingStopMarks();
+        if ((trailingStopMarks != null) && (order.getId() != null)) {
+            trailingStopMarks.remove(order.getId());
+        }
+
+        // a filled order was settled already, anything else gives its funds back
+        BuyingPowerLedger buyingPowerLedger = getBuyingPowerLedger();
+        if ((buyingPowerLedger != null) && (order.getId() != null)) {
+            buyingPowerLedger.release(order.getId());
+        }
+    }
+
+    /**
+     * The book is looked up on use instead of in the constructor because
+     * the application builds it with an instance of this class.
+     */
+    private OrderBook getOrderBook() {
+        TradeModelProvider modelProvider = getModelProvider();
+        return (modelProvider != null) ? modelProvider.getOrderBook() : null;
+    }
+
+    private TrailingStopMarks getTrailingStopMarks() {
+        TradeModelProvider modelProvider = getModelProvider();
+        return (modelProvider != null) ? modelProvider.getTrailingStopMarks() : null;
+    }
+
+    private BuyingPowerLedger getBuyingPowerLedger() {
+        TradeModelProvider modelProvider = getModelProvider();
+        return (modelProvider != null) ? modelProvider.getBuyingPowerLedger() : null;
+    }
+
+    /**
+     * Returns the funds the order can spend in micro cents, from the ledger when
+     * there is one, otherwise from the account row.
+     */
+    private long getBuyingPower(Order order, BuyingPowerLedger buyingPowerLedger) throws IllegalAccessException {
+        if (buyingPowerLedger != null) {
+            return buyingPowerLedger.getBuyingPower(order);
+        }
+
+        Account account = sqlConnection.queryById(mAccountModel, order.getAccount().getId());
+        if (account == null) {
+            throw new IllegalAccessException("Account not found");
         }
+        return account.getAvailableFunds().getMicroCents();
+    }
+
+    @Override
+    public long getAvailableFunds(long accountId) {
+        Account account = mAccountModel.getAccount(accountId);
+        if (account == null) {
+            throw new IllegalArgumentException("Account not found: " + accountId);
+        }
+        return account.getAvailableFunds().getMicroCents();
+    }
+
+    private AccountExecutor getAccountExecutor() {
+        TradeModelProvider modelProvider = getModelProvider();
+        return (modelProvider != null) ? modelProvider.getAccountExecutor() : null;
+    }
+
+    /**
+     * Runs the task on the account's lane, or inline when there is no
+     * application to provide the lanes.
+     */
+    private <T> T runOnAccountLane(long accountId, Callable<T> task) throws Exception {
+        AccountExecutor accountExecutor = getAccountExecutor();
+        return (accountExecutor != null) ? accountExecutor.execute(accountId, task) : task.call();
+    }
+
+    private TradeModelProvider getModelProvider() {
+        Context appContext = (context != null) ? context.getApplicationContext() : null;
+        return (appContext instanceof TradeModelProvider) ? (TradeModelProvider) appContext : null;
     }
 
     @Override
@@ -231,6 +614,13 @@ public class OrderSqliteModel implements SqlMapper<Order>, OrderModel, OrderMana
 
     @Override
     public boolean updateOrder(Order order) throws IllegalAccessException {
+        // the only update while an order is open is a new trailing stop mark,
+        // those are buffered and written in batches
+        TrailingStopMarks trailingStopMarks = getTrailingStopMarks();
+        if (trailingStopMarks != null) {
+            trailingStopMarks.record(order);
+            return true;
+        }
         return sqlConnection.update(this, order);
     }
 
@@ -258,21 +648,82 @@ public class OrderSqliteModel implements SqlMapper<Order>, OrderModel, OrderMana
     }
 
     @Override
-    public void populate(Order order, Cursor cursor, Map<String, Integer> columnMap) {
-        order.setId(cursor.getLong(columnMap.get(COLUMN_ID)));
-        Account account = new Account();
-        account.setId(cursor.getLong(columnMap.get(COLUMN_ACCOUNT_ID)));
-        order.setAccount(account);
-        order.setSymbol(cursor.getString(columnMap.get(COLUMN_SYMBOL)));
-        order.setStatus(Order.OrderStatus.valueOf(cursor.getString(columnMap.get(COLUMN_STATUS))));
-        order.setAction(Order.OrderAction.valueOf(cursor.getString(columnMap.get(COLUMN_ACTION))));
-        order.setStrategy(Order.OrderStrategy.valueOf(cursor.getString(columnMap.get(COLUMN_STRATEGY))));
-        order.setDuration(Order.OrderDuration.valueOf(cursor.getString(columnMap.get(COLUMN_DURATION))));
-        order.setLimitPrice(new Money(cursor.getLong(columnMap.get(COLUMN_LIMIT_PRICE))));
-        order.setStopPrice(new Money(cursor.getLong(columnMap.get(COLUMN_STOP_PRICE))));
-        order.setStopPercent(cursor.getDouble(columnMap.get(COLUMN_STOP_PERCENT)));
-        order.setQuantity(cursor.getLong(columnMap.get(COLUMN_QUANTITY)));
-        order.setHighestPrice(new Money(cursor.getLong(columnMap.get(COLUMN_HIGHEST_PRICE))));
+    public String[] getColumnNames() {
+        return COLUMNS;
+    }
+
+    @Override
+    public void bind(SQLiteStatement statement, Order order) {
+        statement.bindLong(1, order.getAccount().getId());
+        statement.bindString(2, order.getSymbol());
+        statement.bindString(3, order.getStatus().name());
+        statement.bindString(4, order.getAction().name());
+        statement.bindString(5, order.getStrategy().name());
+        statement.bindString(6, order.getDuration().name());
+        statement.bindLong(7, order.getLimitPrice().getMicroCents());
+        statement.bindLong(8, order.getStopPrice().getMicroCents());
+        statement.bindDouble(9, order.getStopPercent());
+        statement.bindLong(10, order.getQuantity());
+        statement.bindLong(11, order.getHighestPrice().getMicroCents());
+    }
+
+    @Override
+    public RowMapper<Order> getRowMapper(Cursor cursor) {
+        return new OrderRowMapper(cursor);
+    }
+
+    private static class OrderRowMapper extends RowMapper<Order> {
+        private final int idIndex;
+        private final int accountIdIndex;
+        private final int symbolIndex;
+        private final int statusIndex;
+        private final int actionIndex;
+        private final int strategyIndex;
+        private final int durationIndex;
+        private final int limitPriceIndex;
+        private final int stopPriceIndex;
+        private final int stopPercentIndex;
+        private final int quantityIndex;
+        private final int highestPriceIndex;
+
+        OrderRowMapper(Cursor cursor) {
+            super(cursor);
+            idIndex = cursor.getColumnIndexOrThrow(COLUMN_ID);
+            accountIdIndex = cursor.getColumnIndexOrThrow(COLUMN_ACCOUNT_ID);
+            symbolIndex = cursor.getColumnIndexOrThrow(COLUMN_SYMBOL);
+            statusIndex = cursor.getColumnIndexOrThrow(COLUMN_STATUS);
+            actionIndex = cursor.getColumnIndexOrThrow(COLUMN_ACTION);
+            strategyIndex = cursor.getColumnIndexOrThrow(COLUMN_STRATEGY);
+            durationIndex = cursor.getColumnIndexOrThrow(COLUMN_DURATION);
+            limitPriceIndex = cursor.getColumnIndexOrThrow(COLUMN_LIMIT_PRICE);
+            stopPriceIndex = cursor.getColumnIndexOrThrow(COLUMN_STOP_PRICE);
+            stopPercentIndex = cursor.getColumnIndexOrThrow(COLUMN_STOP_PERCENT);
+            quantityIndex = cursor.getColumnIndexOrThrow(COLUMN_QUANTITY);
+            highestPriceIndex = cursor.getColumnIndexOrThrow(COLUMN_HIGHEST_PRICE);
+        }
+
+        @Override
+        protected Order newItem() {
+            return new Order();
+        }
+
+        @Override
+        protected void populate(Order order, Cursor cursor) {
+            order.setId(cursor.getLong(idIndex));
+            Account account = new Account();
+            account.setId(cursor.getLong(accountIdIndex));
+            order.setAccount(account);
+            order.setSymbol(cursor.getString(symbolIndex));
+            order.setStatus(Order.OrderStatus.valueOf(cursor.getString(statusIndex)));
+            order.setAction(Order.OrderAction.valueOf(cursor.getString(actionIndex)));
+            order.setStrategy(Order.OrderStrategy.valueOf(cursor.getString(strategyIndex)));
+            order.setDuration(Order.OrderDuration.valueOf(cursor.getString(durationIndex)));
+            order.setLimitPrice(new Money(cursor.getLong(limitPriceIndex)));
+            order.setStopPrice(new Money(cursor.getLong(stopPriceIndex)));
+            order.setStopPercent(cursor.getDouble(stopPercentIndex));
+            order.setQuantity(cursor.getLong(quantityIndex));
+            order.setHighestPrice(new Money(cursor.getLong(highestPriceIndex)));
+        }
     }
 
 }
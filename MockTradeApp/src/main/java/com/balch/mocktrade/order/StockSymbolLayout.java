@@ -46,13 +46,14 @@ import com.balch.android.app.framework.types.Money;
 import com.balch.mocktrade.R;
 import com.balch.mocktrade.TradeModelProvider;
 import com.balch.mocktrade.finance.FinanceModel;
+import com.balch.mocktrade.finance.Quote;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import io.reactivex.android.schedulers.AndroidSchedulers;
 import io.reactivex.disposables.Disposable;
-import io.reactivex.schedulers.Schedulers;
 
 public class StockSymbolLayout extends LinearLayout implements EditLayout, TextWatcher {
     private static final String TAG = StockSymbolLayout.class.getSimpleName();
@@ -67,6 +68,7 @@ public class StockSymbolLayout extends LinearLayout implements EditLayout, TextW
     private EditLayoutListener editLayoutListener;
 
     private FinanceModel financeModel;
+    private long previewIntervalMs;
 
     private boolean allowEmpty;
 
@@ -113,6 +115,7 @@ public class StockSymbolLayout extends LinearLayout implements EditLayout, TextW
 
         TradeModelProvider modelProvider = (TradeModelProvider)this.getContext().getApplicationContext();
         financeModel = modelProvider.getFinanceModel();
+        previewIntervalMs = modelProvider.getSettings().getPollOrderInterval() * 1000L;
 
         symbolValue.setHint(R.string.order_symbol_hint);
     }
@@ -277,23 +280,25 @@ public class StockSymbolLayout extends LinearLayout implements EditLayout, TextW
         }
     }
 
-    private void getQuoteAsync(String symbol) {
+    private void getQuoteAsync(final String symbol) {
         disposeGetQuote();
-        disposableGetQuote = financeModel.getQuote(symbol)
-                .subscribeOn(Schedulers.io())
+        // stream the quote so the preview price stays current while the order is edited
+        disposableGetQuote = financeModel.streamQuotes(Collections.singletonList(symbol), previewIntervalMs)
                 .observeOn(AndroidSchedulers.mainThread())
-                .subscribe(quote -> {
-                    setInvestmentData(quote.getName(), quote.getPrice());
-                    symbolValue.setError(null);
-                    callListenerOnChanged(false);
+                .subscribe(quoteMap -> {
+                    Quote quote = quoteMap.get(symbol.toUpperCase());
+                    if (quote != null) {
+                        setInvestmentData(quote.getName(), quote.getPrice());
+                        symbolValue.setError(null);
+                        callListenerOnChanged(false);
+                    } else {
+                        setInvestmentData("", null);
+                        String message = getResources().getString(R.string.error_invalid_symbol);
+                        symbolValue.setError(message);
+                        callListenerOnChanged(true);
+                    }
                 },
-                throwable -> {
-                    Log.e(TAG, "getQuoteAsync exception", throwable );
-                    setInvestmentData("", null);
-                    String message = getResources().getString(R.string.error_invalid_symbol);
-                    symbolValue.setError(message);
-                    callListenerOnChanged(true);
-                });
+                throwable -> Log.e(TAG, "getQuoteAsync exception", throwable));
     }
 
     @Override
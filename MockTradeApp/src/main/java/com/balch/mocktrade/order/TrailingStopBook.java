@@ -0,0 +1,277 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 8:05 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+
+package com.balch.mocktrade.order;
+
+import com.balch.mocktrade.finance.QuoteBook;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Columnar store of the open trailing stop orders for the tick path.
+ *
+ * Each stop is a row of parallel primitive arrays: the symbol id in the
+ * QuoteBook, the high water mark, the stop amount or percent and the trigger
+ * price derived from them, money in micro cents. {@link #evaluate} walks the
+ * rows once per tick, raises the marks the new prices exceed and collects the
+ * stops whose trigger price is crossed. A stop that neither moves nor
+ * triggers costs one compare, and nothing is allocated.
+ *
+ * The trigger price of a percent stop is rounded so a stop may be reported a
+ * micro cent early, never late. The reported orders are confirmed by the exact
+ * checks in OrderManager before they execute.
+ *
+ * The book is not thread safe, {@link OrderBook} keeps it under its own lock.
+ */
+public class TrailingStopBook {
+    private static final int INITIAL_CAPACITY = 64;
+
+    // stop amount of a percent stop
+    private static final long NO_STOP_AMOUNT = -1;
+
+    /**
+     * Receives the stops whose high water marks were raised by a tick
+     */
+    public interface MarkListener {
+        /**
+         * Called once per tick with the rows whose marks were raised, the order
+         * ids and marks are read with {@link #getOrderId(int)} and
+         * {@link #getHighestPrice(int)}.
+         */
+        void onMarksRaised(TrailingStopBook book, int[] rows, int count);
+    }
+
+    private final Map<Long, Integer> rows = new HashMap<>();
+
+    private Order[] orders = new Order[INITIAL_CAPACITY];
+    private long[] orderIds = new long[INITIAL_CAPACITY];
+    private String[] symbols = new String[INITIAL_CAPACITY];
+    private int[] symbolIds = new int[INITIAL_CAPACITY];
+    private long[] highestPrices = new long[INITIAL_CAPACITY];
+    private long[] stopAmounts = new long[INITIAL_CAPACITY];
+    private double[] stopPercents = new double[INITIAL_CAPACITY];
+    private long[] triggerPrices = new long[INITIAL_CAPACITY];
+
+    // scratch space for evaluate, reused from tick to tick
+    private int[] triggeredRows = new int[INITIAL_CAPACITY];
+    private int[] raisedRows = new int[INITIAL_CAPACITY];
+    private int triggeredCount = 0;
+
+    // the book the symbol ids were looked up in
+    private QuoteBook quoteBook;
+    private int size = 0;
+
+    /**
+     * Adds a trailing stop, an order already in the book is replaced.
+     */
+    public void add(Order order) {
+        remove(order.getId());
+
+        if (size == orders.length) {
+            grow();
+        }
+
+        int row = size++;
+        orders[row] = order;
+        orderIds[row] = order.getId();
+        symbols[row] = order.getSymbol().toUpperCase();
+        symbolIds[row] = (quoteBook != null) ? quoteBook.indexOf(symbols[row]) : QuoteBook.NO_SYMBOL;
+        if (order.getStrategy() == Order.OrderStrategy.TRAILING_STOP_AMOUNT_CHANGE) {
+            stopAmounts[row] = order.getStopPrice().getMicroCents();
+            stopPercents[row] = 0;
+        } else {
+            stopAmounts[row] = NO_STOP_AMOUNT;
+            stopPercents[row] = order.getStopPercent();
+        }
+        setHighestPrice(row, (order.getHighestPrice() != null) ? order.getHighestPrice().getMicroCents() : 0);
+        rows.put(order.getId(), row);
+    }
+
+    /**
+     * Removes the stop, the last row is moved into its place.
+     */
+    public boolean remove(long orderId) {
+        Integer row = rows.remove(orderId);
+        if (row == null) {
+            return false;
+        }
+
+        int last = --size;
+        if (row != last) {
+            orders[row] = orders[last];
+            orderIds[row] = orderIds[last];
+            symbols[row] = symbols[last];
+            symbolIds[row] = symbolIds[last];
+            highestPrices[row] = highestPrices[last];
+            stopAmounts[row] = stopAmounts[last];
+            stopPercents[row] = stopPercents[last];
+            triggerPrices[row] = triggerPrices[last];
+            rows.put(orderIds[row], row);
+        }
+        orders[last] = null;
+        symbols[last] = null;
+        return true;
+    }
+
+    public void clear() {
+        rows.clear();
+        Arrays.fill(orders, 0, size, null);
+        Arrays.fill(symbols, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Raises the mark of the stop to the highest price of the order, used after
+     * OrderManager set the mark of an order it evaluated.
+     */
+    public boolean raiseHighestPrice(Order order) {
+        Integer row = (order.getId() != null) ? rows.get(order.getId()) : null;
+        if ((row == null) || (order.getHighestPrice() == null)) {
+            return false;
+        }
+
+        long highestPrice = order.getHighestPrice().getMicroCents();
+        if (highestPrice <= highestPrices[row]) {
+            return false;
+        }
+        setHighestPrice(row, highestPrice);
+        return true;
+    }
+
+    /**
+     * Evaluates every stop against the book in one pass. Only quotes of the
+     * current tick that traded at or after validSince are used. Marks the
+     * prices exceed are raised and passed to the listener, which may be null,
+     * and the stops whose trigger is crossed, or that do not have a mark yet,
+     * are returned by {@link #getTriggeredRow(int)}.
+     *
+     * @return the number of stops triggered
+     */
+    public int evaluate(QuoteBook quoteBook, long validSince, MarkListener listener) {
+        if (quoteBook != this.quoteBook) {
+            this.quoteBook = quoteBook;
+            Arrays.fill(symbolIds, 0, size, QuoteBook.NO_SYMBOL);
+        }
+
+        int triggered = 0;
+        int raised = 0;
+        for (int row = 0; row < size; row++) {
+            int symbolId = symbolIds[row];
+            if (symbolId == QuoteBook.NO_SYMBOL) {
+                // the symbol has not been quoted yet
+                symbolId = quoteBook.indexOf(symbols[row]);
+                symbolIds[row] = symbolId;
+            }
+
+            if (!quoteBook.hasQuote(symbolId) || (quoteBook.getLastTradeTime(symbolId) < validSince)) {
+                continue;
+            }
+
+            long price = quoteBook.getPrice(symbolId);
+            if (price <= triggerPrices[row]) {
+                triggeredRows[triggered++] = row;
+            } else if (price > highestPrices[row]) {
+                setHighestPrice(row, price);
+                raisedRows[raised++] = row;
+            }
+        }
+
+        triggeredCount = triggered;
+        if ((raised > 0) && (listener != null)) {
+            listener.onMarksRaised(this, raisedRows, raised);
+        }
+        return triggered;
+    }
+
+    /**
+     * Returns the row of the n-th stop triggered by the last {@link #evaluate}
+     */
+    public int getTriggeredRow(int n) {
+        if (n >= triggeredCount) {
+            throw new IndexOutOfBoundsException("Triggered: " + triggeredCount + " n:" + n);
+        }
+        return triggeredRows[n];
+    }
+
+    public Order getOrder(int row) {
+        return orders[row];
+    }
+
+    public long getOrderId(int row) {
+        return orderIds[row];
+    }
+
+    public long getHighestPrice(int row) {
+        return highestPrices[row];
+    }
+
+    public long getTriggerPrice(int row) {
+        return triggerPrices[row];
+    }
+
+    public boolean contains(long orderId) {
+        return rows.containsKey(orderId);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void setHighestPrice(int row, long highestPrice) {
+        highestPrices[row] = highestPrice;
+        if (highestPrice == 0) {
+            // reported on every quote until OrderManager sets the first mark
+            triggerPrices[row] = Long.MAX_VALUE;
+        } else if (stopAmounts[row] != NO_STOP_AMOUNT) {
+            triggerPrices[row] = highestPrice - stopAmounts[row];
+        } else {
+            // one micro cent of slack for the rounding of the percent math
+            triggerPrices[row] = highestPrice - (long) (highestPrice * stopPercents[row] / 100.0) + 1;
+        }
+    }
+
+    private void grow() {
+        int capacity = orders.length * 2;
+        orders = Arrays.copyOf(orders, capacity);
+        orderIds = Arrays.copyOf(orderIds, capacity);
+        symbols = Arrays.copyOf(symbols, capacity);
+        symbolIds = Arrays.copyOf(symbolIds, capacity);
+        highestPrices = Arrays.copyOf(highestPrices, capacity);
+        stopAmounts = Arrays.copyOf(stopAmounts, capacity);
+        stopPercents = Arrays.copyOf(stopPercents, capacity);
+        triggerPrices = Arrays.copyOf(triggerPrices, capacity);
+        triggeredRows = new int[capacity];
+        raisedRows = new int[capacity];
+        triggeredCount = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "TrailingStopBook{" +
+                "stops=" + size +
+                '}';
+    }
+}
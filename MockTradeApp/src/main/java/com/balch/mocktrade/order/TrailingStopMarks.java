@@ -0,0 +1,199 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 5:20 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+
+package com.balch.mocktrade.order;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.util.Log;
+
+import com.balch.android.app.framework.sql.SqlConnection;
+import com.balch.android.app.framework.sql.SqlMapper;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Completable;
+import io.reactivex.Scheduler;
+
+/**
+ * Write-behind buffer for the high water mark of trailing stop orders.
+ *
+ * A rising market moves the mark of every trailing stop on every tick, so
+ * instead of updating the order row each time the newest mark is kept here
+ * and all the pending marks are written together: a short while after the
+ * first change, inside the transaction of the next fill, and when the app
+ * is being shut down.
+ *
+ * A mark is only written if it is higher than the stored one, so a flush
+ * can never lower a value that was already persisted. After a crash the
+ * order starts from the last flushed mark, which is never below any value
+ * persisted before.
+ */
+public class TrailingStopMarks implements TrailingStopBook.MarkListener {
+    private static final String TAG = TrailingStopMarks.class.getSimpleName();
+
+    private static final String SQL_UPDATE_HIGHEST_PRICE =
+            "UPDATE " + OrderSqliteModel.TABLE_NAME +
+            " SET " + OrderSqliteModel.COLUMN_HIGHEST_PRICE + "=?, " + SqlMapper.COLUMN_UPDATE_TIME + "=?" +
+            " WHERE " + SqlMapper.COLUMN_ID + "=?" +
+            " AND " + OrderSqliteModel.COLUMN_STATUS + "='" + Order.OrderStatus.OPEN.name() + "'" +
+            " AND " + OrderSqliteModel.COLUMN_HIGHEST_PRICE + "<?";
+
+    private final SqlConnection sqlConnection;
+    private final long flushDelayMs;
+    private final Scheduler scheduler;
+
+    // order id -> highest price in micro cents
+    private Map<Long, Long> pendingMarks = new HashMap<>();
+    private boolean flushScheduled;
+
+    public TrailingStopMarks(SqlConnection sqlConnection, long flushDelayMs, Scheduler scheduler) {
+        this.sqlConnection = sqlConnection;
+        this.flushDelayMs = flushDelayMs;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Keeps the highest price of the order until the next flush. Lower values
+     * than one already pending are ignored.
+     */
+    public synchronized void record(Order order) {
+        recordMark(order.getId(), order.getHighestPrice().getMicroCents());
+        scheduleFlush();
+    }
+
+    /**
+     * Keeps the marks raised by a tick of the {@link TrailingStopBook}
+     */
+    @Override
+    public synchronized void onMarksRaised(TrailingStopBook book, int[] rows, int count) {
+        for (int x = 0; x < count; x++) {
+            recordMark(book.getOrderId(rows[x]), book.getHighestPrice(rows[x]));
+        }
+        scheduleFlush();
+    }
+
+    private void recordMark(long orderId, long highestPrice) {
+        Long pending = pendingMarks.get(orderId);
+        if ((pending == null) || (highestPrice > pending)) {
+            pendingMarks.put(orderId, highestPrice);
+        }
+    }
+
+    private void scheduleFlush() {
+        if (!flushScheduled) {
+            flushScheduled = true;
+            Completable.timer(flushDelayMs, TimeUnit.MILLISECONDS, scheduler)
+                    .subscribe(this::flush, throwable -> Log.e(TAG, "flush timer", throwable));
+        }
+    }
+
+    /**
+     * Drops the pending mark of an order that is no longer open, the row
+     * written for the fill or cancel already carries its state.
+     */
+    public synchronized void remove(long orderId) {
+        pendingMarks.remove(orderId);
+    }
+
+    /**
+     * Drops all pending marks without writing them. The database is about to
+     * be replaced and the marks belong to orders of the old one.
+     */
+    public void clear() {
+        takePendingMarks();
+    }
+
+    public synchronized int getPendingCount() {
+        return pendingMarks.size();
+    }
+
+    /**
+     * Writes all pending marks in their own transaction.
+     */
+    public void flush() {
+        Map<Long, Long> marks = takePendingMarks();
+        if (marks.isEmpty()) {
+            return;
+        }
+
+        try {
+            sqlConnection.write(db -> {
+                write(marks, db);
+                return null;
+            });
+        } catch (Exception ex) {
+            Log.e(TAG, "Error flushing trailing stop marks", ex);
+            restorePendingMarks(marks);
+        }
+    }
+
+    /**
+     * Writes all pending marks as part of the caller's transaction. If the
+     * caller's transaction fails the marks have to be handed back with
+     * {@link #restorePendingMarks(Map)}.
+     */
+    Map<Long, Long> flush(SQLiteDatabase db) {
+        Map<Long, Long> marks = takePendingMarks();
+        if (!marks.isEmpty()) {
+            write(marks, db);
+        }
+        return marks;
+    }
+
+    synchronized void restorePendingMarks(Map<Long, Long> marks) {
+        for (Map.Entry<Long, Long> entry : marks.entrySet()) {
+            Long pending = pendingMarks.get(entry.getKey());
+            if ((pending == null) || (entry.getValue() > pending)) {
+                pendingMarks.put(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private synchronized Map<Long, Long> takePendingMarks() {
+        Map<Long, Long> marks = pendingMarks;
+        pendingMarks = new HashMap<>();
+        flushScheduled = false;
+        return marks;
+    }
+
+    private static void write(Map<Long, Long> marks, SQLiteDatabase db) {
+        long now = System.currentTimeMillis();
+        SQLiteStatement statement = db.compileStatement(SQL_UPDATE_HIGHEST_PRICE);
+        try {
+            for (Map.Entry<Long, Long> entry : marks.entrySet()) {
+                statement.clearBindings();
+                statement.bindLong(1, entry.getValue());
+                statement.bindLong(2, now);
+                statement.bindLong(3, entry.getKey());
+                statement.bindLong(4, entry.getValue());
+                statement.executeUpdateDelete();
+            }
+        } finally {
+            statement.close();
+        }
+    }
+}
@@ -27,9 +27,13 @@ import android.util.LongSparseArray;
 
 import com.balch.mocktrade.account.Account;
 import com.balch.mocktrade.finance.Quote;
+import com.balch.mocktrade.finance.QuoteBook;
 import com.balch.mocktrade.investment.Investment;
+import com.balch.mocktrade.investment.InvestmentRevaluation;
 import com.balch.mocktrade.order.Order;
+import com.balch.mocktrade.order.OrderExecution;
 import com.balch.mocktrade.order.OrderExecutionException;
+import com.balch.mocktrade.order.OrderRejectedException;
 import com.balch.mocktrade.order.OrderResult;
 import com.balch.mocktrade.shared.PerformanceItem;
 
@@ -50,14 +54,22 @@ public interface PortfolioModel {
 
     List<Investment> getInvestments(Long accountId);
 
-    void createOrder(Order order);
+    void createOrder(Order order) throws OrderRejectedException;
 
     List<Order> getOpenOrders();
 
     OrderResult attemptExecuteOrder(final Order order, Quote quote) throws IllegalAccessException, OrderExecutionException;
 
+    OrderResult attemptExecuteOrder(final Order order, QuoteBook quoteBook, int symbolId) throws OrderExecutionException;
+
+    List<OrderExecution> attemptExecuteOrders(List<Order> orders, QuoteBook quoteBook);
+
+    int expireDayOrders(long sessionClose);
+
     boolean updateInvestment(Investment investment);
 
+    RevaluationMetrics revalueInvestments(InvestmentRevaluation revaluation);
+
     void processOrders(Context context, boolean forceExecution);
 
     void scheduleOrderServiceAlarm();
@@ -23,7 +23,6 @@
 package com.balch.mocktrade.portfolio;
 
 import android.content.Context;
-import android.database.sqlite.SQLiteDatabase;
 import android.util.LongSparseArray;
 
 import com.balch.android.app.framework.sql.SqlConnection;
@@ -31,10 +30,14 @@ import com.balch.mocktrade.account.Account;
 import com.balch.mocktrade.account.AccountSqliteModel;
 import com.balch.mocktrade.finance.FinanceModel;
 import com.balch.mocktrade.finance.Quote;
+import com.balch.mocktrade.finance.QuoteBook;
 import com.balch.mocktrade.investment.Investment;
+import com.balch.mocktrade.investment.InvestmentRevaluation;
 import com.balch.mocktrade.investment.InvestmentSqliteModel;
 import com.balch.mocktrade.order.Order;
+import com.balch.mocktrade.order.OrderExecution;
 import com.balch.mocktrade.order.OrderExecutionException;
+import com.balch.mocktrade.order.OrderRejectedException;
 import com.balch.mocktrade.order.OrderResult;
 import com.balch.mocktrade.order.OrderSqliteModel;
 import com.balch.mocktrade.services.OrderService;
@@ -84,6 +87,7 @@ public class PortfolioSqliteModel implements PortfolioModel {
     @Override
     public void deleteAccount(Account account) {
         accountModel.deleteAccount(account);
+        orderModel.onAccountDeleted(account);
     }
 
     @Override
@@ -97,7 +101,7 @@ public class PortfolioSqliteModel implements PortfolioModel {
     }
 
     @Override
-    public void createOrder(Order order) {
+    public void createOrder(Order order) throws OrderRejectedException {
         orderModel.createOrder(order);
     }
 
@@ -110,10 +114,18 @@ public class PortfolioSqliteModel implements PortfolioModel {
         return investmentModel.updateInvestment(investment);
     }
 
+    @Override
+    public RevaluationMetrics revalueInvestments(InvestmentRevaluation revaluation) {
+        long startNanos = System.nanoTime();
+        int updatedCount = investmentModel.revalueInvestments(revaluation);
+        return new RevaluationMetrics(revaluation.size(), updatedCount, 1,
+                System.nanoTime() - startNanos);
+    }
+
     @Override
     public void processOrders(Context context, boolean forceExecution) {
         if (forceExecution || this.financeModel.isMarketOpen()) {
-            context.startService(OrderService.getIntent(context));
+            context.startService(OrderService.getIntent(context, true));
         } else {
             this.orderModel.scheduleOrderServiceAlarm(this.financeModel.isMarketOpen());
         }
@@ -169,20 +181,17 @@ public class PortfolioSqliteModel implements PortfolioModel {
 
         // if there is any change all accounts have to be inserted with this timestamp
         if (isChanged) {
-            SQLiteDatabase db = sqlConnection.getWritableDatabase();
-            db.beginTransaction();
             try {
-
-                SnapshotMapper snapshotMapper = new SnapshotMapper(true);
-                for (PerformanceItem performanceItem : performanceItems) {
-                    sqlConnection.insert(snapshotMapper, performanceItem, db);
-                }
-                db.setTransactionSuccessful();
-
+                sqlConnection.write(db -> {
+                    SnapshotMapper snapshotMapper = new SnapshotMapper(true);
+                    for (PerformanceItem performanceItem : performanceItems) {
+                        sqlConnection.insert(snapshotMapper, performanceItem, db);
+                    }
+                    snapshotTotalsModel.updateDailySnapshots(performanceItems, db);
+                    return null;
+                });
             } catch (SQLException e) {
                 throw new RuntimeException(e);
-            } finally {
-                db.endTransaction();
             }
         }
     }
@@ -217,5 +226,20 @@ public class PortfolioSqliteModel implements PortfolioModel {
         return orderModel.attemptExecuteOrder(order, quote);
     }
 
+    @Override
+    public OrderResult attemptExecuteOrder(Order order, QuoteBook quoteBook, int symbolId) throws OrderExecutionException {
+        return orderModel.attemptExecuteOrder(order, quoteBook, symbolId);
+    }
+
+    @Override
+    public List<OrderExecution> attemptExecuteOrders(List<Order> orders, QuoteBook quoteBook) {
+        return orderModel.attemptExecuteOrders(orders, quoteBook);
+    }
+
+    @Override
+    public int expireDayOrders(long sessionClose) {
+        return orderModel.expireDayOrders(sessionClose);
+    }
+
 
 }
@@ -0,0 +1,72 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 8:10 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+
+package com.balch.mocktrade.portfolio;
+
+import java.util.Locale;
+
+/**
+ * What one poll's {@link PortfolioModel#revalueInvestments} wrote: the rows
+ * asked for, the rows the database changed, the transactions committed and
+ * how long the write took.
+ */
+public class RevaluationMetrics {
+    private final int requestedCount;
+    private final int updatedCount;
+    private final int commitCount;
+    private final long elapsedNanos;
+
+    public RevaluationMetrics(int requestedCount, int updatedCount, int commitCount, long elapsedNanos) {
+        this.requestedCount = requestedCount;
+        this.updatedCount = updatedCount;
+        this.commitCount = commitCount;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int getRequestedCount() {
+        return requestedCount;
+    }
+
+    /**
+     * Returns the number of rows written. Rows can be skipped if the investment
+     * was sold or already holds a newer trade.
+     */
+    public int getUpdatedCount() {
+        return updatedCount;
+    }
+
+    public int getCommitCount() {
+        return commitCount;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "Revaluation: requested=%d updated=%d commits=%d elapsed=%.3fms",
+                requestedCount, updatedCount, commitCount, elapsedNanos / 1e6);
+    }
+}
@@ -25,15 +25,16 @@ package com.balch.mocktrade.portfolio;
 
 import android.content.ContentValues;
 import android.database.Cursor;
+import android.database.sqlite.SQLiteStatement;
 
-import com.balch.android.app.framework.sql.SqlMapper;
+import com.balch.android.app.framework.sql.RowMapper;
+import com.balch.android.app.framework.sql.StatementMapper;
 import com.balch.android.app.framework.types.Money;
 import com.balch.mocktrade.shared.PerformanceItem;
 
 import java.util.Date;
-import java.util.Map;
 
-public class SnapshotMapper implements SqlMapper<PerformanceItem> {
+public class SnapshotMapper implements StatementMapper<PerformanceItem> {
     private static final String TAG = SnapshotMapper.class.getSimpleName();
     private final boolean mHourly;
 
@@ -47,6 +48,17 @@ public class SnapshotMapper implements SqlMapper<PerformanceItem> {
     public static final String COLUMN_COST_BASIS = "cost_basis";
     public static final String COLUMN_TODAY_CHANGE = "today_change";
 
+    // UTC day number of the snapshot_time, only in the daily table
+    public static final String COLUMN_SNAPSHOT_DAY = "snapshot_day";
+
+    private static final String[] COLUMNS = {
+            COLUMN_ACCOUNT_ID,
+            COLUMN_SNAPSHOT_TIME,
+            COLUMN_COST_BASIS,
+            COLUMN_TOTAL_VALUE,
+            COLUMN_TODAY_CHANGE
+    };
+
     public SnapshotMapper(boolean hourly) {
         this.mHourly = hourly;
     }
@@ -70,12 +82,53 @@ public class SnapshotMapper implements SqlMapper<PerformanceItem> {
     }
 
     @Override
-    public void populate(PerformanceItem performanceItem, Cursor cursor, Map<String, Integer> columnMap) {
-        performanceItem.setAccountId(cursor.getLong(columnMap.get(COLUMN_ACCOUNT_ID)));
-        performanceItem.setTimestamp(new Date(cursor.getLong(columnMap.get(COLUMN_SNAPSHOT_TIME))));
-        performanceItem.setCostBasis(new Money(cursor.getLong(columnMap.get(COLUMN_COST_BASIS))));
-        performanceItem.setValue(new Money(cursor.getLong(columnMap.get(COLUMN_TOTAL_VALUE))));
-        performanceItem.setTodayChange(new Money(cursor.getLong(columnMap.get(COLUMN_TODAY_CHANGE))));
+    public String[] getColumnNames() {
+        return COLUMNS;
+    }
+
+    @Override
+    public void bind(SQLiteStatement statement, PerformanceItem performanceItem) {
+        statement.bindLong(1, performanceItem.getAccountId());
+        statement.bindLong(2, performanceItem.getTimestamp().getTime());
+        statement.bindLong(3, performanceItem.getCostBasis().getMicroCents());
+        statement.bindLong(4, performanceItem.getValue().getMicroCents());
+        statement.bindLong(5, performanceItem.getTodayChange().getMicroCents());
+    }
+
+    @Override
+    public RowMapper<PerformanceItem> getRowMapper(Cursor cursor) {
+        return new SnapshotRowMapper(cursor);
+    }
+
+    private static class SnapshotRowMapper extends RowMapper<PerformanceItem> {
+        private final int accountIdIndex;
+        private final int snapshotTimeIndex;
+        private final int costBasisIndex;
+        private final int totalValueIndex;
+        private final int todayChangeIndex;
+
+        SnapshotRowMapper(Cursor cursor) {
+            super(cursor);
+            accountIdIndex = cursor.getColumnIndexOrThrow(COLUMN_ACCOUNT_ID);
+            snapshotTimeIndex = cursor.getColumnIndexOrThrow(COLUMN_SNAPSHOT_TIME);
+            costBasisIndex = cursor.getColumnIndexOrThrow(COLUMN_COST_BASIS);
+            totalValueIndex = cursor.getColumnIndexOrThrow(COLUMN_TOTAL_VALUE);
+            todayChangeIndex = cursor.getColumnIndexOrThrow(COLUMN_TODAY_CHANGE);
+        }
+
+        @Override
+        protected PerformanceItem newItem() {
+            return new PerformanceItem();
+        }
+
+        @Override
+        protected void populate(PerformanceItem performanceItem, Cursor cursor) {
+            performanceItem.setAccountId(cursor.getLong(accountIdIndex));
+            performanceItem.setTimestamp(new Date(cursor.getLong(snapshotTimeIndex)));
+            performanceItem.setCostBasis(new Money(cursor.getLong(costBasisIndex)));
+            performanceItem.setValue(new Money(cursor.getLong(totalValueIndex)));
+            performanceItem.setTodayChange(new Money(cursor.getLong(todayChangeIndex)));
+        }
     }
 
 }
@@ -25,6 +25,7 @@ package com.balch.mocktrade.portfolio;
 
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
 import android.util.Log;
 
 import com.balch.android.app.framework.sql.SqlConnection;
@@ -36,6 +37,7 @@ import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.GregorianCalendar;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 public class SnapshotTotalsSqliteModel {
     public static final String TAG = SnapshotTotalsSqliteModel.class.getSimpleName();
@@ -74,6 +76,32 @@ public class SnapshotTotalsSqliteModel {
                     SnapshotMapper.COLUMN_SNAPSHOT_TIME + " >= ? AND " +
                     SnapshotMapper.COLUMN_SNAPSHOT_TIME + " < ?";
 
+    private static final long DAY_MS = TimeUnit.DAYS.toMillis(1);
+
+    // the row of the day is only replaced by a snapshot that is at least as new
+    private static final String SQL_UPDATE_DAILY =
+            "UPDATE " + SnapshotMapper.TABLE_NAME_SNAPSHOT_DAILY +
+                    " SET " + SnapshotMapper.COLUMN_SNAPSHOT_TIME + "=?, " +
+                    SnapshotMapper.COLUMN_COST_BASIS + "=?, " +
+                    SnapshotMapper.COLUMN_TOTAL_VALUE + "=?, " +
+                    SnapshotMapper.COLUMN_TODAY_CHANGE + "=?, " +
+                    SqlMapper.COLUMN_UPDATE_TIME + "=?" +
+                    " WHERE " + SnapshotMapper.COLUMN_ACCOUNT_ID + "=?" +
+                    " AND " + SnapshotMapper.COLUMN_SNAPSHOT_DAY + "=?" +
+                    " AND " + SnapshotMapper.COLUMN_SNAPSHOT_TIME + "<=?";
+
+    // ignored when the day already has a newer row
+    private static final String SQL_INSERT_DAILY =
+            "INSERT OR IGNORE INTO " + SnapshotMapper.TABLE_NAME_SNAPSHOT_DAILY + " (" +
+                    SnapshotMapper.COLUMN_ACCOUNT_ID + ", " +
+                    SnapshotMapper.COLUMN_SNAPSHOT_DAY + ", " +
+                    SnapshotMapper.COLUMN_SNAPSHOT_TIME + ", " +
+                    SnapshotMapper.COLUMN_COST_BASIS + ", " +
+                    SnapshotMapper.COLUMN_TOTAL_VALUE + ", " +
+                    SnapshotMapper.COLUMN_TODAY_CHANGE + ", " +
+                    SqlMapper.COLUMN_CREATE_TIME + ", " +
+                    SqlMapper.COLUMN_UPDATE_TIME + ") VALUES (?,?,?,?,?,?,?,?)";
+
     private final SqlConnection sqlConnection;
     private final Settings settings;
 
@@ -89,7 +117,7 @@ public class SnapshotTotalsSqliteModel {
         PerformanceItem performanceItem = null;
         try {
             List<PerformanceItem> performanceItems =
-                    sqlConnection.query(new SnapshotMapper(true), PerformanceItem.class, where, whereArgs,
+                    sqlConnection.query(new SnapshotMapper(true), where, whereArgs,
                             SnapshotMapper.COLUMN_SNAPSHOT_TIME + " DESC LIMIT 1");
             if ((performanceItems != null) && (performanceItems.size() > 0)) {
                 performanceItem = performanceItems.get(0);
@@ -117,7 +145,7 @@ public class SnapshotTotalsSqliteModel {
         List<PerformanceItem> performanceItems;
         try {
             performanceItems =
-                    sqlConnection.query(new SnapshotMapper(true), PerformanceItem.class, SQL_WHERE_SNAPSHOTS_BY_ACCOUNT_ID,
+                    sqlConnection.query(new SnapshotMapper(true), SQL_WHERE_SNAPSHOTS_BY_ACCOUNT_ID,
                             whereArgs, SnapshotMapper.COLUMN_SNAPSHOT_TIME + " ASC");
         } catch (Exception e) {
             Log.e(TAG, "Error in getSnapshots(accountId)", e);
@@ -142,7 +170,7 @@ public class SnapshotTotalsSqliteModel {
         List<PerformanceItem> performanceItems;
         try {
             performanceItems =
-                    sqlConnection.query(new SnapshotMapper(false), PerformanceItem.class, SQL_WHERE_SNAPSHOTS_BY_ACCOUNT_ID,
+                    sqlConnection.query(new SnapshotMapper(false), SQL_WHERE_SNAPSHOTS_BY_ACCOUNT_ID,
                             whereArgs, SnapshotMapper.COLUMN_SNAPSHOT_TIME + " ASC");
         } catch (Exception e) {
             Log.e(TAG, "Error in getSnapshots(accountId)", e);
@@ -166,7 +194,7 @@ public class SnapshotTotalsSqliteModel {
 
             cursor = sqlConnection.rawQuery(
                     String.format(SQL_ACCOUNTS_INCLUDED_TOTALS, SnapshotMapper.TABLE_NAME), whereArgs);
-            sqlConnection.processCursor(new SnapshotMapper(true), cursor, PerformanceItem.class, performanceItems);
+            sqlConnection.processCursor(new SnapshotMapper(true), cursor, performanceItems);
 
         } catch (Exception e) {
             Log.e(TAG, "Error in getSnapshots()", e);
@@ -194,7 +222,7 @@ public class SnapshotTotalsSqliteModel {
 
             cursor = sqlConnection.rawQuery(
                     String.format(SQL_ACCOUNTS_INCLUDED_TOTALS, SnapshotMapper.TABLE_NAME_SNAPSHOT_DAILY), whereArgs);
-            sqlConnection.processCursor(new SnapshotMapper(false), cursor, PerformanceItem.class, performanceItems);
+            sqlConnection.processCursor(new SnapshotMapper(false), cursor, performanceItems);
 
         } catch (Exception e) {
             Log.e(TAG, "Error in getSnapshotsByDay()", e);
@@ -236,13 +264,71 @@ public class SnapshotTotalsSqliteModel {
     }
 
     public int purgeSnapshotTable(int days) {
-        SQLiteDatabase db = sqlConnection.getWritableDatabase();
-
         Calendar cal = Calendar.getInstance();
         cal.add(Calendar.DAY_OF_YEAR, -days);
         long timestamp = cal.getTimeInMillis();
 
-        return db.delete(SnapshotMapper.TABLE_NAME, SnapshotMapper.COLUMN_SNAPSHOT_TIME + "<=?", new String[]{String.valueOf(timestamp)});
+        String where = SnapshotMapper.COLUMN_SNAPSHOT_TIME + "<=?";
+        String[] whereArgs = new String[]{String.valueOf(timestamp)};
+        return sqlConnection.write(db -> {
+            db.delete(SnapshotMapper.TABLE_NAME_SNAPSHOT_DAILY, where, whereArgs);
+            return db.delete(SnapshotMapper.TABLE_NAME, where, whereArgs);
+        });
+    }
+
+    /**
+     * Keeps snapshot_totals_daily up to date with snapshots inserted in the
+     * caller's transaction. Each account has one row per UTC weekday, the
+     * latest snapshot of that day, so reading days of history is a range scan
+     * of the daily table instead of grouping all the intraday snapshots.
+     */
+    void updateDailySnapshots(List<PerformanceItem> performanceItems, SQLiteDatabase db) {
+        long now = System.currentTimeMillis();
+        SQLiteStatement update = db.compileStatement(SQL_UPDATE_DAILY);
+        SQLiteStatement insert = db.compileStatement(SQL_INSERT_DAILY);
+        try {
+            for (PerformanceItem performanceItem : performanceItems) {
+                long snapshotTime = performanceItem.getTimestamp().getTime();
+                long snapshotDay = snapshotTime / DAY_MS;
+                if (isWeekend(snapshotDay)) {
+                    continue;
+                }
+
+                update.clearBindings();
+                update.bindLong(1, snapshotTime);
+                update.bindLong(2, performanceItem.getCostBasis().getMicroCents());
+                update.bindLong(3, performanceItem.getValue().getMicroCents());
+                update.bindLong(4, performanceItem.getTodayChange().getMicroCents());
+                update.bindLong(5, now);
+                update.bindLong(6, performanceItem.getAccountId());
+                update.bindLong(7, snapshotDay);
+                update.bindLong(8, snapshotTime);
+                if (update.executeUpdateDelete() == 0) {
+                    insert.clearBindings();
+                    insert.bindLong(1, performanceItem.getAccountId());
+                    insert.bindLong(2, snapshotDay);
+                    insert.bindLong(3, snapshotTime);
+                    insert.bindLong(4, performanceItem.getCostBasis().getMicroCents());
+                    insert.bindLong(5, performanceItem.getValue().getMicroCents());
+                    insert.bindLong(6, performanceItem.getTodayChange().getMicroCents());
+                    insert.bindLong(7, now);
+                    insert.bindLong(8, now);
+                    insert.executeInsert();
+                }
+            }
+        } finally {
+            update.close();
+            insert.close();
+        }
+    }
+
+    /**
+     * Day 0, 1/1/1970, was a Thursday. Matches strftime('%w') in UTC, which the
+     * daily view used to filter on.
+     */
+    static boolean isWeekend(long snapshotDay) {
+        int dayOfWeek = (int) ((snapshotDay + 4) % 7);
+        return (dayOfWeek == 0) || (dayOfWeek == 6);
     }
 
     public List<PerformanceItem> getCurrentSnapshot() {
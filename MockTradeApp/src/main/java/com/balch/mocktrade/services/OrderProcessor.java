@@ -0,0 +1,245 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 4:10 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+
+package com.balch.mocktrade.services;
+
+import android.app.Notification;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.util.Log;
+
+import com.balch.mocktrade.MainActivity;
+import com.balch.mocktrade.R;
+import com.balch.mocktrade.TradeModelProvider;
+import com.balch.mocktrade.finance.FinanceModel;
+import com.balch.mocktrade.finance.MarketClock;
+import com.balch.mocktrade.finance.Quote;
+import com.balch.mocktrade.finance.QuoteBook;
+import com.balch.mocktrade.order.Order;
+import com.balch.mocktrade.order.OrderBook;
+import com.balch.mocktrade.order.OrderExecution;
+import com.balch.mocktrade.order.OrderResult;
+import com.balch.mocktrade.portfolio.PortfolioModel;
+import com.balch.mocktrade.portfolio.PortfolioSqliteModel;
+import com.balch.mocktrade.portfolio.PortfolioUpdateBroadcaster;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.reactivex.Completable;
+import io.reactivex.Scheduler;
+import io.reactivex.disposables.Disposable;
+
+/**
+ * Evaluates the open orders whenever fresh quotes are fetched, by anyone. It
+ * subscribes to {@link FinanceModel#getQuoteUpdates()} so the quotes the
+ * QuoteService fetches for the investments also drive the orders on the same
+ * symbols, without the OrderService waking up and fetching them again.
+ *
+ * It also remembers when each symbol was last quoted, so the OrderService
+ * alarm is only needed as a fallback for symbols that nobody else polls.
+ */
+public class OrderProcessor {
+    private static final String TAG = OrderProcessor.class.getSimpleName();
+
+    private final TradeModelProvider modelProvider;
+    private final Scheduler scheduler;
+    private final QuoteBook quoteBook = new QuoteBook();
+    private final Map<String, Long> lastQuoteTimes = new HashMap<>();
+
+    private volatile boolean fallbackScheduled;
+    private final AtomicReference<Disposable> quoteUpdatesDisposable = new AtomicReference<>();
+
+    /**
+     * The quotes are processed on the scheduler, which should be single threaded.
+     * The fetch thread may be running an account's strategy on that account's lane,
+     * and processing the orders waits on the lanes, so it must not happen there.
+     */
+    public OrderProcessor(TradeModelProvider modelProvider, Scheduler scheduler) {
+        this.modelProvider = modelProvider;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Evaluates the orders on every batch of quotes fetched by the finance model.
+     * A previous subscription, to a model that has been replaced, is disposed.
+     * This does not take the processor lock because it is called while the
+     * application is creating the finance model.
+     */
+    public void subscribe(FinanceModel financeModel) {
+        Disposable disposable = financeModel.getQuoteUpdates()
+                .observeOn(scheduler)
+                .subscribe(quoteMap -> {
+                    try {
+                        processQuotes(quoteMap);
+                    } catch (Exception ex) {
+                        Log.e(TAG, "processQuotes exception", ex);
+                    }
+                }, throwable -> Log.e(TAG, "getQuoteUpdates exception", throwable));
+
+        Disposable previous = quoteUpdatesDisposable.getAndSet(disposable);
+        if (previous != null) {
+            previous.dispose();
+        }
+    }
+
+    /**
+     * Waits until the quotes published so far have been processed, so a wakeful
+     * caller can hold its wake lock until the orders have been executed.
+     */
+    public void awaitIdle() {
+        Completable.complete()
+                .subscribeOn(scheduler)
+                .blockingAwait();
+    }
+
+    /**
+     * Executes the open orders whose trigger is crossed by the quotes. The
+     * orders of each account are executed on the account's lane.
+     */
+    public synchronized void processQuotes(Map<String, Quote> quoteMap) {
+        long now = System.currentTimeMillis();
+        for (String symbol : quoteMap.keySet()) {
+            lastQuoteTimes.put(symbol.toUpperCase(), now);
+        }
+
+        OrderBook orderBook = modelProvider.getOrderBook();
+        if (orderBook.isEmpty()) {
+            return;
+        }
+
+        quoteBook.update(quoteMap);
+
+        // trailing stops only move on today's quotes while the market is open
+        long validSince = Long.MAX_VALUE;
+        if (orderBook.hasTrailingStops()) {
+            MarketClock marketClock = modelProvider.getFinanceModel().getMarketClock();
+            if (marketClock.isMarketOpen()) {
+                validSince = marketClock.getDayStart();
+            }
+        }
+
+        // only the orders these prices can trigger are evaluated
+        List<Order> orders = orderBook.getTriggeredOrders(quoteBook, validSince,
+                modelProvider.getTrailingStopMarks());
+
+        if (orders.isEmpty()) {
+            return;
+        }
+
+        PortfolioModel portfolioModel = new PortfolioSqliteModel(modelProvider.getContext(),
+                modelProvider.getSqlConnection(),
+                modelProvider.getFinanceModel(),
+                modelProvider.getSettings());
+
+        // the fills of each account are written in one transaction
+        Context context = modelProvider.getContext();
+        boolean updateView = false;
+        for (OrderExecution execution : portfolioModel.attemptExecuteOrders(orders, quoteBook)) {
+            Order o = execution.getOrder();
+            if (execution.isSuccess()) {
+                OrderResult orderResult = execution.getResult();
+                String msg = (o.getAction() == Order.OrderAction.BUY) ?
+                        context.getString(R.string.notification_order_buy_success_format,
+                                o.getSymbol(), o.getQuantity(),
+                                orderResult.getPrice().getFormatted(),
+                                orderResult.getCost().getFormatted()) :
+                        context.getString(R.string.notification_order_sell_success_format,
+                                o.getSymbol(), o.getQuantity(),
+                                orderResult.getPrice().getFormatted(),
+                                orderResult.getValue().getFormatted(),
+                                orderResult.getProfit().getFormatted());
+
+                sendNotification(context, o, msg);
+                updateView = true;
+            } else if (execution.getError() != null) {
+                Exception ex = execution.getError();
+                Log.e(TAG, "attemptExecuteOrder exception", ex);
+                // an order that is still open was not changed and is tried again on the next quote
+                if (o.getStatus() != Order.OrderStatus.OPEN) {
+                    sendNotification(context, o, String.format(context.getString(R.string.notification_order_error_format),
+                            o.getId(), o.getSymbol(), ex.getMessage()));
+                }
+            }
+        }
+
+        if (updateView) {
+            PortfolioUpdateBroadcaster.broadcast(context);
+        }
+    }
+
+    /**
+     * Returns the symbols with open orders that have not been quoted in the last maxAgeMs.
+     */
+    public synchronized List<String> getUncoveredSymbols(long now, long maxAgeMs) {
+        List<String> symbols = new ArrayList<>();
+        for (String symbol : modelProvider.getOrderBook().getSymbols()) {
+            Long lastQuoteTime = lastQuoteTimes.get(symbol);
+            if ((lastQuoteTime == null) || (now - lastQuoteTime >= maxAgeMs)) {
+                symbols.add(symbol);
+            }
+        }
+        return symbols;
+    }
+
+    /**
+     * Called after another service polled quotes. Schedules the OrderService alarm
+     * if it is not already pending and some open orders are on symbols that are not
+     * being quoted.
+     */
+    public void scheduleFallbackIfNeeded(PortfolioModel portfolioModel, long maxAgeMs) {
+        if (!fallbackScheduled &&
+                !getUncoveredSymbols(System.currentTimeMillis(), maxAgeMs).isEmpty()) {
+            fallbackScheduled = true;
+            portfolioModel.scheduleOrderServiceAlarm();
+        }
+    }
+
+    public void setFallbackScheduled(boolean fallbackScheduled) {
+        this.fallbackScheduled = fallbackScheduled;
+    }
+
+    private static void sendNotification(Context context, Order order, String msg) {
+        Notification.Builder builder =
+                new Notification.Builder(context)
+                        .setSmallIcon(R.drawable.ic_launcher)
+                        .setContentTitle(context.getString(R.string.notification_order_title))
+                        .setStyle(new Notification.BigTextStyle().bigText(msg))
+                        .setContentText(msg);
+
+        Intent clickIntent = new Intent(context, MainActivity.class);
+
+        PendingIntent pendingClickIntent =
+                PendingIntent.getActivity(context, 0 , clickIntent, PendingIntent.FLAG_UPDATE_CURRENT);
+        builder.setContentIntent(pendingClickIntent);
+        NotificationManager notificationManager = (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
+        int id = (int)(order.getId() % Integer.MAX_VALUE);
+        notificationManager.notify(id, builder.build());
+    }
+}
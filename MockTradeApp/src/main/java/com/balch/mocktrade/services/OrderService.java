@@ -23,32 +23,32 @@
 package com.balch.mocktrade.services;
 
 import android.app.IntentService;
-import android.app.Notification;
-import android.app.NotificationManager;
-import android.app.PendingIntent;
 import android.content.Context;
 import android.content.Intent;
 import android.util.Log;
 
-import com.balch.mocktrade.MainActivity;
 import com.balch.mocktrade.TradeModelProvider;
-import com.balch.mocktrade.R;
 import com.balch.mocktrade.finance.FinanceModel;
 import com.balch.mocktrade.finance.Quote;
-import com.balch.mocktrade.order.Order;
-import com.balch.mocktrade.order.OrderResult;
+import com.balch.mocktrade.order.OrderBook;
 import com.balch.mocktrade.portfolio.PortfolioModel;
 import com.balch.mocktrade.portfolio.PortfolioSqliteModel;
-import com.balch.mocktrade.portfolio.PortfolioUpdateBroadcaster;
 import com.balch.mocktrade.receivers.OrderReceiver;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Orders are normally evaluated by the {@link OrderProcessor} as soon as any
+ * service fetches a quote for their symbol. This service is the fallback: on
+ * the alarm it only fetches the symbols with open orders that nobody else has
+ * quoted recently, and it evaluates everything when orders were just created.
+ */
 public class OrderService extends IntentService {
     private static final String TAG = OrderService.class.getSimpleName();
 
+    private static final String EXTRA_EVALUATE_ALL = "extra_evaluate_all";
+
     public OrderService() {
         super(OrderService.class.getName());
     }
@@ -63,57 +63,36 @@ public class OrderService extends IntentService {
                     modelProvider.getSqlConnection(),
                     financeModel,
                     modelProvider.getSettings());
-            final List<Order> orders = portfolioModel.getOpenOrders();
-
-            if (orders.size() > 0) {
-                List<String> symbols = new ArrayList<>(orders.size());
-                for (Order o : orders) {
-                    symbols.add(o.getSymbol());
-                }
-
-                Map<String, Quote> quoteMap = financeModel.getQuotes(symbols).blockingFirst();
-                boolean updateView = false;
-                boolean reschedule = (quoteMap == null);
-                if (quoteMap != null) {
-                    for (Order o : orders) {
-                        try {
-                            Quote quote = quoteMap.get(o.getSymbol());
-                            OrderResult orderResult = portfolioModel.attemptExecuteOrder(o, quote);
-                            if (orderResult.isSuccess()) {
-
-                                String msg = (o.getAction() == Order.OrderAction.BUY) ?
-                                        getString(R.string.notification_order_buy_success_format,
-                                                o.getSymbol(), o.getQuantity(),
-                                                orderResult.getPrice().getFormatted(),
-                                                orderResult.getCost().getFormatted()) :
-                                        getString(R.string.notification_order_sell_success_format,
-                                                o.getSymbol(), o.getQuantity(),
-                                                orderResult.getPrice().getFormatted(),
-                                                orderResult.getValue().getFormatted(),
-                                                orderResult.getProfit().getFormatted());
-
-
-                                sendNotification(o, msg);
-                                updateView = true;
-                            } else {
-                                reschedule = true;
-                            }
-
-                        } catch (Exception ex) {
-                            Log.e(TAG, "attemptExecuteOrder exception", ex);
-                            sendNotification(o, String.format(getString(R.string.notification_order_error_format),
-                                    o.getId(), o.getSymbol(), ex.getMessage()));
-                        }
+            final OrderBook orderBook = modelProvider.getOrderBook();
+            final OrderProcessor orderProcessor = modelProvider.getOrderProcessor();
+            boolean evaluateAll = intent.getBooleanExtra(EXTRA_EVALUATE_ALL, false);
+
+            boolean reschedule = false;
+            if (!orderBook.isEmpty()) {
+                long maxAgeMs = modelProvider.getSettings().getPollOrderInterval() * 1000L;
+                List<String> symbols = evaluateAll ?
+                        orderBook.getSymbols() :
+                        orderProcessor.getUncoveredSymbols(System.currentTimeMillis(), maxAgeMs);
+
+                if (!symbols.isEmpty()) {
+                    // keep the fallback alive while these symbols are not polled by anyone else
+                    reschedule = true;
+
+                    // quotes fetched over the wire are processed by the OrderProcessor, cached
+                    // quotes are not published so new orders are evaluated against them here
+                    Map<String, Quote> quoteMap = financeModel.getQuotes(symbols).blockingFirst();
+                    if ((quoteMap != null) && evaluateAll) {
+                        orderProcessor.processQuotes(quoteMap);
                     }
-                }
 
-                if (updateView) {
-                    PortfolioUpdateBroadcaster.broadcast(OrderService.this);
+                    // hold the wake lock until the published quotes have been processed
+                    orderProcessor.awaitIdle();
                 }
+            }
 
-                if (reschedule) {
-                    portfolioModel.scheduleOrderServiceAlarm();
-                }
+            orderProcessor.setFallbackScheduled(reschedule);
+            if (reschedule) {
+                portfolioModel.scheduleOrderServiceAlarm();
             }
         } catch (Exception ex) {
             Log.e(TAG, "OrderService Exception", ex);
@@ -122,26 +101,14 @@ public class OrderService extends IntentService {
         }
     }
 
-    private void sendNotification(Order order, String msg) {
-        Notification.Builder builder =
-                new Notification.Builder(this)
-                        .setSmallIcon(R.drawable.ic_launcher)
-                        .setContentTitle(this.getString(R.string.notification_order_title))
-                        .setStyle(new Notification.BigTextStyle().bigText(msg))
-                        .setContentText(msg);
-
-        Intent clickIntent = new Intent(this, MainActivity.class);
-
-        PendingIntent pendingClickIntent =
-                PendingIntent.getActivity(this, 0 , clickIntent, PendingIntent.FLAG_UPDATE_CURRENT);
-        builder.setContentIntent(pendingClickIntent);
-        NotificationManager notificationManager = (NotificationManager) getSystemService(NOTIFICATION_SERVICE);
-        int id = (int)(order.getId() % Integer.MAX_VALUE);
-        notificationManager.notify(id, builder.build());
+    public static Intent getIntent(Context context) {
+        return getIntent(context, false);
     }
 
-    public static Intent getIntent(Context context) {
-        return new Intent(context, OrderService.class);
+    public static Intent getIntent(Context context, boolean evaluateAll) {
+        Intent intent = new Intent(context, OrderService.class);
+        intent.putExtra(EXTRA_EVALUATE_ALL, evaluateAll);
+        return intent;
     }
 
-}
\ No newline at end of file
+}
@@ -29,13 +29,18 @@ import android.text.format.DateUtils;
 import android.util.Log;
 import android.util.LongSparseArray;
 
+import com.balch.android.app.framework.types.Money;
 import com.balch.mocktrade.TradeModelProvider;
 import com.balch.mocktrade.TradeApplication;
 import com.balch.mocktrade.account.Account;
+import com.balch.mocktrade.account.AccountExecutor;
 import com.balch.mocktrade.account.strategies.BaseStrategy;
 import com.balch.mocktrade.finance.FinanceModel;
 import com.balch.mocktrade.finance.Quote;
+import com.balch.mocktrade.finance.QuoteBook;
+import com.balch.mocktrade.finance.QuotePollPlanner;
 import com.balch.mocktrade.investment.Investment;
+import com.balch.mocktrade.investment.InvestmentRevaluation;
 import com.balch.mocktrade.portfolio.PortfolioModel;
 import com.balch.mocktrade.portfolio.PortfolioSqliteModel;
 import com.balch.mocktrade.portfolio.PortfolioUpdateBroadcaster;
@@ -43,14 +48,24 @@ import com.balch.mocktrade.receivers.QuoteReceiver;
 import com.balch.mocktrade.settings.Settings;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Future;
 
 public class QuoteService extends IntentService {
     private static final String TAG = QuoteService.class.getSimpleName();
 
     public static final int SNAPSHOT_DAYS_TO_KEEP = 3650;
 
+    // reused across ticks, intents are handled one at a time so it is only
+    // touched by one thread at a time
+    private static final QuoteBook QUOTE_BOOK = new QuoteBook();
+    private static final InvestmentRevaluation REVALUATION = new InvestmentRevaluation();
+
     public QuoteService() {
         super(QuoteService.class.getName());
     }
@@ -75,7 +90,7 @@ public class QuoteService extends IntentService {
                 final List<Account> accounts = portfolioModel.getAccounts(true);
 
                 final LongSparseArray<List<Investment>> accountIdToInvestmentMap = new LongSparseArray<>(accounts.size());
-                List<String> symbols = new ArrayList<>(investments.size());
+                Set<String> symbols = new LinkedHashSet<>(investments.size());
                 for (Investment i : investments) {
                     symbols.add(i.getSymbol());
 
@@ -88,28 +103,41 @@ public class QuoteService extends IntentService {
                     list.add(i);
                 }
 
-                // get quotes over the wire
+                // get quotes over the wire, only for the symbols the planner thinks could have changed.
+                // This is a pull instead of a streamQuotes subscription because the alarm has to
+                // wake the device and may be the one starting the process
                 try {
-                    Map<String, Quote> quoteMap = financeModel.getQuotes(symbols).blockingFirst();
+                    boolean isFirstSyncOfDay = !DateUtils.isToday(settings.getLastSyncTime());
+                    // every exchange the quote source lists trades on the one market clock
+                    final boolean isMarketOpen = financeModel.isMarketOpen();
+                    QuotePollPlanner.MarketSessions sessions = exchange -> isMarketOpen;
+                    QuotePollPlanner pollPlanner = modelProvider.getQuotePollPlanner();
+                    long pollIntervalMs = settings.getPollInterval() * 1000L;
+                    long now = System.currentTimeMillis();
+
+                    List<String> requestSymbols = pollPlanner.plan(symbols, sessions,
+                            pollIntervalMs, now, isFirstSyncOfDay);
+                    Map<String, Quote> quoteMap = requestSymbols.isEmpty() ?
+                            Collections.<String, Quote>emptyMap() :
+                            financeModel.getQuotes(requestSymbols).blockingFirst();
                     if (quoteMap != null) {
-                        boolean newHasQuotes = false;
-                        for (Investment i : investments) {
+                        pollPlanner.onQuotes(requestSymbols, quoteMap, sessions, pollIntervalMs, now);
+                        Log.i(TAG, pollPlanner.getMetrics().toString());
+                        Log.i(TAG, modelProvider.getModelApiFactory().getHttpMetrics().toString());
+
+                        QUOTE_BOOK.update(quoteMap);
+
+                        // the new prices of every account are written in one transaction, the
+                        // revaluation only writes the price columns so it can't undo a fill
+                        boolean newHasQuotes = updateInvestments(investments, REVALUATION);
+                        if (newHasQuotes) {
                             try {
-                                Quote quote = quoteMap.get(i.getSymbol());
-                                if (quote != null) {
-                                    if (quote.getLastTradeTime().after(i.getLastTradeTime())) {
-                                        newHasQuotes = true;
-                                        i.setPrevDayClose(quote.getPreviousClose());
-                                        i.setPrice(quote.getPrice(), quote.getLastTradeTime());
-                                        portfolioModel.updateInvestment(i);
-                                    }
-                                }
+                                Log.i(TAG, portfolioModel.revalueInvestments(REVALUATION).toString());
                             } catch (Exception ex) {
-                                Log.e(TAG, "updateInvestment exception", ex);
+                                Log.e(TAG, "revalueInvestments exception", ex);
                             }
                         }
 
-                        boolean isFirstSyncOfDay = !DateUtils.isToday(settings.getLastSyncTime());
                         if (isFirstSyncOfDay) {
                             portfolioModel.purgeSnapshots(SNAPSHOT_DAYS_TO_KEEP);
                         }
@@ -118,7 +146,12 @@ public class QuoteService extends IntentService {
                             portfolioModel.createSnapshotTotals(accounts, accountIdToInvestmentMap);
                         }
 
-                        processAccountStrategies(accounts, accountIdToInvestmentMap, quoteMap, isFirstSyncOfDay);
+                        processAccountStrategies(accounts, accountIdToInvestmentMap, quoteMap, QUOTE_BOOK, isFirstSyncOfDay);
+
+                        // orders on the symbols just fetched were evaluated by the OrderProcessor,
+                        // the OrderService alarm is only needed for symbols we don't poll
+                        modelProvider.getOrderProcessor().scheduleFallbackIfNeeded(portfolioModel,
+                                settings.getPollOrderInterval() * 1000L);
 
                         settings.setLastSyncTime(System.currentTimeMillis());
 
@@ -132,6 +165,15 @@ public class QuoteService extends IntentService {
 
             // if the market is closed reset alarm to next market open time
             if (!financeModel.isInPollTime()) {
+                // DAY orders end with the session, the broadcast below tells the UI once
+                long sessionClose = financeModel.getMarketClock().lastMarketClose();
+                if (sessionClose > 0) {
+                    int expiredCount = portfolioModel.expireDayOrders(sessionClose);
+                    if (expiredCount > 0) {
+                        Log.i(TAG, "Expired DAY orders: " + expiredCount);
+                    }
+                }
+
                 TradeApplication.backupDatabase(getApplicationContext(), true);
                 financeModel.setQuoteServiceAlarm();
             }
@@ -148,14 +190,41 @@ public class QuoteService extends IntentService {
         return new Intent(context, QuoteService.class);
     }
 
+    /**
+     * Reprices the investments that have a newer trade in the quote book and adds
+     * them to the revaluation. Returns true if any investment changed.
+     */
+    private boolean updateInvestments(List<Investment> investments, InvestmentRevaluation revaluation) {
+        revaluation.clear();
+        for (Investment i : investments) {
+            int symbolId = QUOTE_BOOK.indexOf(i.getSymbol());
+            if (QUOTE_BOOK.hasQuote(symbolId)) {
+                long lastTradeTime = QUOTE_BOOK.getLastTradeTime(symbolId);
+                if (lastTradeTime > i.getLastTradeTime().getTime()) {
+                    long price = QUOTE_BOOK.getPrice(symbolId);
+                    long previousClose = QUOTE_BOOK.getPreviousClose(symbolId);
+                    i.setPrevDayClose(new Money(previousClose));
+                    i.setPrice(new Money(price), new Date(lastTradeTime));
+                    revaluation.add(i.getId(), price, previousClose, lastTradeTime);
+                }
+            }
+        }
+        return revaluation.size() > 0;
+    }
+
     protected void processAccountStrategies(List<Account> accounts,
-                                            LongSparseArray<List<Investment>> accountIdToInvestmentMap,
-                                            Map<String, Quote> quoteMap, boolean doDailyUpdate) {
-        for (Account account : accounts) {
-            Class<? extends BaseStrategy> strategyClazz = account.getStrategy().getStrategyClazz();
+                                            final LongSparseArray<List<Investment>> accountIdToInvestmentMap,
+                                            final Map<String, Quote> quoteMap, final QuoteBook quoteBook,
+                                            final boolean doDailyUpdate) {
+        TradeModelProvider modelProvider = ((TradeModelProvider)this.getApplication());
+        AccountExecutor accountExecutor = modelProvider.getAccountExecutor();
+
+        // the strategies run on their account's lane, in parallel across lanes
+        List<Future<Void>> updates = new ArrayList<>(accounts.size());
+        for (final Account account : accounts) {
+            final Class<? extends BaseStrategy> strategyClazz = account.getStrategy().getStrategyClazz();
             if (strategyClazz != null) {
-                try {
-                    TradeModelProvider modelProvider = ((TradeModelProvider)this.getApplication());
+                updates.add(accountExecutor.submit(account.getId(), () -> {
                     BaseStrategy strategy = BaseStrategy.createStrategy(strategyClazz,
                             modelProvider.getContext(),
                             modelProvider.getFinanceModel(),
@@ -164,10 +233,17 @@ public class QuoteService extends IntentService {
                     if (doDailyUpdate) {
                         strategy.dailyUpdate(account, accountIdToInvestmentMap.get(account.getId()), quoteMap);
                     }
-                    strategy.pollUpdate(account, accountIdToInvestmentMap.get(account.getId()), quoteMap);
-                } catch (Exception ex) {
-                    Log.e(TAG, "Error calling strategy.pollUpdate", ex);
-                }
+                    strategy.pollUpdate(account, accountIdToInvestmentMap.get(account.getId()), quoteBook);
+                    return null;
+                }));
+            }
+        }
+
+        for (Future<Void> update : updates) {
+            try {
+                AccountExecutor.getResult(update);
+            } catch (Exception ex) {
+                Log.e(TAG, "Error calling strategy.pollUpdate", ex);
             }
         }
     }
@@ -27,8 +27,10 @@ import android.content.SharedPreferences;
 import android.preference.PreferenceManager;
 
 import com.balch.mocktrade.R;
+import com.balch.mocktrade.finance.MarketHolidays;
 import com.balch.mocktrade.services.WearSyncService;
 
+import java.util.Calendar;
 import java.util.TimeZone;
 
 public class Settings {
@@ -39,8 +41,17 @@ public class Settings {
         PREF_TWENTY_FOUR_HOUR_DISPLAY("pref_twenty_four_hour_display", true),
         PREF_MARKET_OPEN_TIME("market_open_time", false),
         PREF_MARKET_CLOSE_TIME("market_close_time", false),
+        PREF_MARKET_HOLIDAYS("market_holidays", false),
+        PREF_MARKET_HALF_DAYS("market_half_days", false),
+        PREF_MARKET_HALF_DAY_CLOSE_TIME("market_half_day_close_time", false),
         PREF_POLL_INTERVAL("poll_interval", false),
         PREF_POLL_INTERVAL_ORDER("poll_interval_order", false),
+        PREF_QUOTE_CACHE_TTL("quote_cache_ttl", false),
+        PREF_QUOTE_PROVIDER("quote_provider", false),
+        PREF_LOCAL_QUOTE_LATENCY("local_quote_latency", false),
+        PREF_LOCAL_QUOTE_ERROR_RATE("local_quote_error_rate", false),
+        PREF_LOCAL_QUOTE_SEED("local_quote_seed", false),
+        PREF_QUOTE_REPLAY_FILE("quote_replay_file", false),
         PREF_LAST_SYNC_TIME("pref_last_sync_time", false);
 
         private final String prefKey;
@@ -71,6 +82,10 @@ public class Settings {
         }
     }
 
+    public static final String QUOTE_PROVIDER_IEX = "iex";
+    public static final String QUOTE_PROVIDER_RANDOM_WALK = "random_walk";
+    public static final String QUOTE_PROVIDER_REPLAY = "replay";
+
     private Application application;
 
     public Settings(Application application) {
@@ -82,6 +97,11 @@ public class Settings {
         return PreferenceManager.getDefaultSharedPreferences(application);
     }
 
+    // SharedPreferences only holds a weak reference, the caller has to keep the listener
+    public void registerOnChangeListener(SharedPreferences.OnSharedPreferenceChangeListener listener) {
+        getSharedPrefs().registerOnSharedPreferenceChangeListener(listener);
+    }
+
     // Polls start time is in HH:mm format in PST
     public String geMarketOpenTime() {
         return getSharedPrefs().getString(Key.PREF_MARKET_OPEN_TIME.key(), "6:30");
@@ -92,6 +112,31 @@ public class Settings {
         return getSharedPrefs().getString(Key.PREF_MARKET_CLOSE_TIME.key(), "13:00");
     }
 
+    // days the market is closed as comma separated yyyy-MM-dd dates, by default
+    // the NYSE holidays of the years around the current one
+    public String getMarketHolidays() {
+        int year = getCurrentYear();
+        return getSharedPrefs().getString(Key.PREF_MARKET_HOLIDAYS.key(),
+                MarketHolidays.getHolidays(year - 1, year + 1));
+    }
+
+    // days the market closes early as comma separated yyyy-MM-dd dates, by default
+    // the NYSE early closes of the years around the current one
+    public String getMarketHalfDays() {
+        int year = getCurrentYear();
+        return getSharedPrefs().getString(Key.PREF_MARKET_HALF_DAYS.key(),
+                MarketHolidays.getHalfDays(year - 1, year + 1));
+    }
+
+    private int getCurrentYear() {
+        return Calendar.getInstance(getSavedSettingsTimeZone()).get(Calendar.YEAR);
+    }
+
+    // Market close time on half days in HH:mm format in PST
+    public String getMarketHalfDayCloseTime() {
+        return getSharedPrefs().getString(Key.PREF_MARKET_HALF_DAY_CLOSE_TIME.key(), "10:00");
+    }
+
     // poll interval specified in seconds
     public int getPollInterval() {
         return Integer.parseInt(getSharedPrefs().getString(Key.PREF_POLL_INTERVAL.key(), "300"));
@@ -102,6 +147,36 @@ public class Settings {
         return Integer.parseInt(getSharedPrefs().getString(Key.PREF_POLL_INTERVAL_ORDER.key(), "30"));
     }
 
+    // time in seconds a fetched quote is reused before going over the wire again
+    public int getQuoteCacheTtl() {
+        return Integer.parseInt(getSharedPrefs().getString(Key.PREF_QUOTE_CACHE_TTL.key(), "10"));
+    }
+
+    // one of iex, random_walk or replay
+    public String getQuoteProvider() {
+        return getSharedPrefs().getString(Key.PREF_QUOTE_PROVIDER.key(), QUOTE_PROVIDER_IEX);
+    }
+
+    // simulated request latency in milliseconds for the local quote providers
+    public int getLocalQuoteLatency() {
+        return Integer.parseInt(getSharedPrefs().getString(Key.PREF_LOCAL_QUOTE_LATENCY.key(), "0"));
+    }
+
+    // percentage (0-100) of local quote requests that fail with an injected error
+    public int getLocalQuoteErrorRate() {
+        return Integer.parseInt(getSharedPrefs().getString(Key.PREF_LOCAL_QUOTE_ERROR_RATE.key(), "0"));
+    }
+
+    // seed for the random walk generator and the error injection
+    public long getLocalQuoteSeed() {
+        return Long.parseLong(getSharedPrefs().getString(Key.PREF_LOCAL_QUOTE_SEED.key(), "42"));
+    }
+
+    // path of the tick file used by the replay provider
+    public String getQuoteReplayFile() {
+        return getSharedPrefs().getString(Key.PREF_QUOTE_REPLAY_FILE.key(), "");
+    }
+
     public TimeZone getSavedSettingsTimeZone() {
         return TimeZone.getTimeZone("America/Los_Angeles");
     }
@@ -0,0 +1,167 @@
+/*
+ * Author: Balch
+ * Created: 10/19/26 10:48 AM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+package com.balch.mocktrade;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.Okio;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class HttpMetricsTest {
+
+    private static final long HEADERS_DELAY_MS = 50;
+    private static final String BODY = "{\"AAPL\":{\"quote\":{\"latestPrice\":154.5}}}";
+
+    private MockWebServer server;
+    private HttpMetrics metrics;
+    private OkHttpClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+
+        metrics = new HttpMetrics();
+        HttpTransportProfile profile = new HttpTransportProfile.Builder()
+                .setConnectTimeout(2, TimeUnit.SECONDS)
+                .setReadTimeout(2, TimeUnit.SECONDS)
+                .build();
+        client = profile.apply(new OkHttpClient.Builder(), metrics).build();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    private static Buffer gzip(String text) throws IOException {
+        Buffer body = new Buffer();
+        try (BufferedSink sink = Okio.buffer(new GzipSink(body))) {
+            sink.writeUtf8(text);
+        }
+        return body;
+    }
+
+    private static MockResponse gzipResponse() throws IOException {
+        return new MockResponse()
+                .setHeader("Content-Encoding", "gzip")
+                .setHeadersDelay(HEADERS_DELAY_MS, TimeUnit.MILLISECONDS)
+                .setBody(gzip(BODY));
+    }
+
+    private String get(String path) throws IOException {
+        Request request = new Request.Builder().url(server.url(path)).build();
+        try (Response response = client.newCall(request).execute()) {
+            return response.body().string();
+        }
+    }
+
+    @Test
+    public void testPhasesAreTimedAndTheConnectionIsReused() throws Exception {
+        server.enqueue(gzipResponse());
+        server.enqueue(gzipResponse());
+
+        assertEquals(BODY, get("/stock/market/batch"));
+        assertEquals(BODY, get("/stock/market/batch"));
+
+        assertEquals(2, metrics.getCallCount());
+        assertEquals(0, metrics.getFailedCount());
+        // only the first call opened a connection
+        assertEquals(1, metrics.getConnectionReuseCount());
+        assertEquals(1, metrics.getCount(HttpMetrics.Phase.CONNECT));
+        assertEquals(2, server.getRequestCount());
+
+        // both responses were compressed on the wire
+        assertEquals(2, metrics.getNetworkResponseCount());
+        assertEquals(2, metrics.getGzipResponseCount());
+        // the body is counted as read off the wire, before it is decompressed
+        assertEquals(2 * gzip(BODY).size(), metrics.getBodyBytes());
+
+        assertEquals(2, metrics.getCount(HttpMetrics.Phase.TTFB));
+        assertEquals(2, metrics.getCount(HttpMetrics.Phase.BODY));
+        assertEquals(2, metrics.getCount(HttpMetrics.Phase.TOTAL));
+        assertTrue(metrics.getAverageMs(HttpMetrics.Phase.TTFB) >= HEADERS_DELAY_MS);
+        assertTrue(metrics.getAverageMs(HttpMetrics.Phase.TOTAL) >=
+                metrics.getAverageMs(HttpMetrics.Phase.TTFB));
+        assertTrue(metrics.getMaxMs(HttpMetrics.Phase.TOTAL) >=
+                metrics.getAverageMs(HttpMetrics.Phase.TOTAL));
+    }
+
+    @Test
+    public void testFailedCallsAreCounted() throws Exception {
+        server.enqueue(gzipResponse());
+        assertEquals(BODY, get("/stock/market/batch"));
+
+        // nothing is listening any more, so the connect fails
+        server.shutdown();
+        try {
+            get("/stock/market/batch");
+            fail("Expected the call to fail");
+        } catch (IOException expected) {
+        }
+
+        assertEquals(2, metrics.getCallCount());
+        assertEquals(1, metrics.getFailedCount());
+        assertEquals(1, metrics.getNetworkResponseCount());
+        assertEquals(2, metrics.getCount(HttpMetrics.Phase.TOTAL));
+    }
+
+    @Test
+    public void testProfileIsConfigurable() {
+        HttpTransportProfile profile = new HttpTransportProfile.Builder()
+                .setMaxIdleConnections(4)
+                .setKeepAlive(30, TimeUnit.SECONDS)
+                .setConnectTimeout(3, TimeUnit.SECONDS)
+                .setReadTimeout(7, TimeUnit.SECONDS)
+                .build();
+
+        assertEquals(4, profile.getMaxIdleConnections());
+        assertEquals(30000, profile.getKeepAliveMs());
+
+        OkHttpClient client = profile.apply(new OkHttpClient.Builder(), new HttpMetrics()).build();
+        assertEquals(3000, client.connectTimeoutMillis());
+        assertEquals(7000, client.readTimeoutMillis());
+        assertEquals(null, client.cache());
+
+        HttpTransportProfile polling = HttpTransportProfile.forPolling(null);
+        assertEquals(TimeUnit.MINUTES.toMillis(5), polling.getKeepAliveMs());
+        assertEquals(2, polling.getMaxIdleConnections());
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 4:12 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+
+package com.balch.mocktrade.account;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AccountExecutorTest {
+
+    private AccountExecutor accountExecutor;
+
+    @Before
+    public void setUp() {
+        accountExecutor = new AccountExecutor(2);
+    }
+
+    @After
+    public void tearDown() {
+        accountExecutor.shutdown();
+    }
+
+    @Test
+    public void testAccountTasksRunInSubmitOrder() throws Exception {
+        final List<Integer> results = Collections.synchronizedList(new ArrayList<Integer>());
+        List<Future<Void>> futures = new ArrayList<>();
+        for (int x = 0; x < 100; x++) {
+            final int value = x;
+            futures.add(accountExecutor.submit(7L, () -> {
+                results.add(value);
+                return null;
+            }));
+        }
+
+        for (Future<Void> future : futures) {
+            AccountExecutor.getResult(future);
+        }
+
+        for (int x = 0; x < 100; x++) {
+            assertEquals(x, (int) results.get(x));
+        }
+    }
+
+    @Test
+    public void testTaskFromItsOwnLaneRunsInline() throws Exception {
+        String result = accountExecutor.execute(1L, () -> accountExecutor.execute(1L, () -> "inline"));
+        assertEquals("inline", result);
+    }
+
+    @Test
+    public void testLanesRunInParallel() throws Exception {
+        assertNotEquals(accountExecutor.getLane(1L), accountExecutor.getLane(2L));
+
+        // the first account waits on the second, which can only finish on another lane
+        final CountDownLatch latch = new CountDownLatch(1);
+        Future<Boolean> waiting = accountExecutor.submit(1L, () -> latch.await(5, TimeUnit.SECONDS));
+        accountExecutor.execute(2L, () -> {
+            latch.countDown();
+            return null;
+        });
+
+        assertTrue(AccountExecutor.getResult(waiting));
+    }
+
+    @Test
+    public void testTaskExceptionIsRethrown() {
+        try {
+            accountExecutor.execute(1L, () -> {
+                throw new IllegalStateException("order is no longer open");
+            });
+            fail("expected an exception");
+        } catch (Exception ex) {
+            assertTrue(ex instanceof IllegalStateException);
+            assertEquals("order is no longer open", ex.getMessage());
+        }
+    }
+}
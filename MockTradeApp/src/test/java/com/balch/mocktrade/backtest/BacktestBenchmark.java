@@ -0,0 +1,114 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 6:20 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+
+package com.balch.mocktrade.backtest;
+
+import com.balch.android.app.framework.types.Money;
+import com.balch.mocktrade.account.strategies.TripleMomentum;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Replays five years of TQQQ/SQQQ prices through TripleMomentum, once as daily
+ * bars and once as 1 minute bars.
+ */
+public class BacktestBenchmark {
+
+    private static final int TRADING_DAYS_PER_YEAR = 252;
+    private static final int YEARS = 5;
+    private static final int MINUTES_PER_SESSION = 390;
+
+    /**
+     * Creates a seeded random walk over weekdays starting in 2019. Daily series are
+     * stamped with the close, intraday series with each minute of the session.
+     */
+    static PriceData createRandomWalk(String[] symbols, int days, int barsPerDay, long seed) {
+        Random random = new Random(seed);
+        double[] prices = new double[symbols.length];
+        for (int s = 0; s < symbols.length; s++) {
+            prices[s] = 50 + random.nextInt(50);
+        }
+
+        Calendar cal = new GregorianCalendar(Backtest.NEW_YORK);
+        cal.clear();
+        cal.set(2019, Calendar.JANUARY, 2);
+
+        PriceData.Builder builder = new PriceData.Builder();
+        for (int day = 0; day < days; day++) {
+            while ((cal.get(Calendar.DAY_OF_WEEK) == Calendar.SATURDAY) ||
+                    (cal.get(Calendar.DAY_OF_WEEK) == Calendar.SUNDAY)) {
+                cal.add(Calendar.DATE, 1);
+            }
+
+            for (int bar = 0; bar < barsPerDay; bar++) {
+                Calendar barTime = (Calendar) cal.clone();
+                if (barsPerDay == 1) {
+                    barTime.set(Calendar.HOUR_OF_DAY, 16);
+                } else {
+                    barTime.set(Calendar.HOUR_OF_DAY, 9);
+                    barTime.set(Calendar.MINUTE, 30 + bar);
+                }
+
+                // the daily moves are larger so both series exercise the trailing stop
+                double volatility = (barsPerDay == 1) ? 0.02 : 0.001;
+                for (int s = 0; s < symbols.length; s++) {
+                    prices[s] = Math.max(1.0, prices[s] * (1 + random.nextGaussian() * volatility));
+                    builder.add(barTime.getTimeInMillis(), symbols[s], Math.round(prices[s] * 100) / 100.0);
+                }
+            }
+            cal.add(Calendar.DATE, 1);
+        }
+        return builder.build();
+    }
+
+    @Test
+    public void benchmark() {
+        String[] symbols = {"TQQQ", "SQQQ"};
+        run("daily", createRandomWalk(symbols, YEARS * TRADING_DAYS_PER_YEAR, 1, 42));
+        run("1 minute", createRandomWalk(symbols, YEARS * TRADING_DAYS_PER_YEAR, MINUTES_PER_SESSION, 42));
+    }
+
+    private static void run(String name, PriceData priceData) {
+        Backtest backtest = new Backtest(priceData);
+
+        // warm up
+        backtest.run(TripleMomentum.class, new Money(10000.0));
+
+        BacktestResult result = backtest.run(TripleMomentum.class, new Money(10000.0));
+        assertEquals(priceData.getBarCount(), result.getPointCount());
+        assertTrue(result.getTrades().size() > 0);
+
+        System.out.println(String.format(Locale.US, "Backtest %d years of %s bars: %s, %.0f bars/s",
+                YEARS, name, priceData, priceData.getBarCount() / (result.getElapsedNanos() / 1e9)));
+        System.out.println(result);
+    }
+}
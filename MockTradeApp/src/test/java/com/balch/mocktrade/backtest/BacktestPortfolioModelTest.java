@@ -0,0 +1,117 @@
+/*
+ * Author: Balch
+ * Created: 10/19/26 8:20 AM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+
+package com.balch.mocktrade.backtest;
+
+import com.balch.android.app.framework.types.Money;
+import com.balch.mocktrade.account.Account;
+import com.balch.mocktrade.finance.MarketClock;
+import com.balch.mocktrade.finance.QuoteBook;
+import com.balch.mocktrade.order.Order;
+import com.balch.mocktrade.order.OrderExecution;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BacktestPortfolioModelTest {
+
+    private QuoteBook quoteBook;
+    private BacktestPortfolioModel portfolioModel;
+    private Account account;
+
+    @Before
+    public void setUp() {
+        Calendar cal = new GregorianCalendar(Backtest.NEW_YORK);
+        cal.clear();
+        cal.set(2023, Calendar.JANUARY, 3, 12, 0);
+        final long now = cal.getTimeInMillis();
+
+        MarketClock marketClock = new MarketClock(() -> now, Backtest.NEW_YORK, Backtest.REGULAR_SESSION);
+        quoteBook = new QuoteBook();
+        portfolioModel = new BacktestPortfolioModel(new BacktestFinanceModel(marketClock, quoteBook));
+
+        quoteBook.startTick();
+        put("AAPL", 10.0, now);
+        put("MSFT", 20.0, now);
+
+        account = new Account("Backtest", "Backtest", new Money(1000.0),
+                Account.Strategy.NONE, false);
+        portfolioModel.createAccount(account);
+    }
+
+    private void put(String symbol, double price, long time) {
+        long microCents = new Money(price).getMicroCents();
+        quoteBook.put(quoteBook.intern(symbol), symbol, "BACKTEST", microCents, microCents, time, 0);
+    }
+
+    private Order createOrder(String symbol, Order.OrderAction action, Order.OrderStrategy strategy,
+                              long quantity) throws Exception {
+        Order order = new Order();
+        order.setAccount(account);
+        order.setSymbol(symbol);
+        order.setStatus(Order.OrderStatus.OPEN);
+        order.setStrategy(strategy);
+        order.setAction(action);
+        order.setDuration(Order.OrderDuration.GOOD_TIL_CANCELED);
+        order.setQuantity(quantity);
+        order.setLimitPrice(new Money(5.0));
+        portfolioModel.createOrder(order);
+        return order;
+    }
+
+    @Test
+    public void testAttemptExecuteOrdersReturnsFillsAndErrors() throws Exception {
+        Order buy = createOrder("AAPL", Order.OrderAction.BUY, Order.OrderStrategy.MARKET, 5);
+        Order sell = createOrder("MSFT", Order.OrderAction.SELL, Order.OrderStrategy.MARKET, 1);
+        Order limit = createOrder("AAPL", Order.OrderAction.BUY, Order.OrderStrategy.LIMIT, 1);
+
+        List<OrderExecution> executions = portfolioModel.attemptExecuteOrders(
+                Arrays.asList(buy, sell, limit), quoteBook);
+
+        // the limit order is below the price and does not trigger
+        assertEquals(2, executions.size());
+        assertTrue(executions.get(0).isSuccess());
+        assertEquals(buy, executions.get(0).getOrder());
+        assertEquals(new Money(50.0).getMicroCents(), executions.get(0).getResult().getCost().getMicroCents());
+        assertFalse(executions.get(1).isSuccess());
+        assertEquals(sell, executions.get(1).getOrder());
+
+        assertEquals(Order.OrderStatus.FULFILLED, buy.getStatus());
+        assertEquals(Order.OrderStatus.ERROR, sell.getStatus());
+        assertEquals(Order.OrderStatus.OPEN, limit.getStatus());
+        assertEquals(1, portfolioModel.getTrades().size());
+        assertEquals(new Money(950.0).getMicroCents(),
+                portfolioModel.getAccount(account.getId()).getAvailableFunds().getMicroCents());
+        assertEquals(Arrays.asList(limit), portfolioModel.getOpenOrders());
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 6:05 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+
+package com.balch.mocktrade.backtest;
+
+import com.balch.android.app.framework.types.Money;
+import com.balch.mocktrade.account.strategies.DogsOfTheDow;
+import com.balch.mocktrade.account.strategies.TripleMomentum;
+import com.balch.mocktrade.order.Order;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BacktestTest {
+
+    private static final Money INITIAL_BALANCE = new Money(10000.0);
+
+    private static long close(int year, int month, int day) {
+        Calendar cal = new GregorianCalendar(Backtest.NEW_YORK);
+        cal.clear();
+        cal.set(year, month - 1, day, 16, 0);
+        return cal.getTimeInMillis();
+    }
+
+    private static long dollars(double dollars) {
+        return new Money(dollars).getMicroCents();
+    }
+
+    @Test
+    public void testPriceDataGroupsTicksIntoBars() throws IOException {
+        PriceData priceData = PriceData.read(new StringReader(
+                "# time,symbol,price,previous_close,dividend\n" +
+                "1000,aapl,10.0\n" +
+                "1000,MSFT,20.0,19.0,1.5\n" +
+                "\n" +
+                "2000,AAPL,11.0\n"));
+
+        assertEquals(2, priceData.getSymbolCount());
+        assertEquals(0, priceData.indexOf("AAPL"));
+        assertEquals(-1, priceData.indexOf("IBM"));
+        assertEquals(2, priceData.getBarCount());
+        assertEquals(2, priceData.getTickEnd(0) - priceData.getTickStart(0));
+        assertEquals(dollars(1.5), priceData.getTickDividendPerShare(1));
+        assertEquals(2000, priceData.getBarTime(1));
+        assertEquals(dollars(11.0), priceData.getTickPrice(priceData.getTickStart(1)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPriceDataRejectsTicksOutOfOrder() {
+        new PriceData.Builder()
+                .add(2000, "AAPL", 10.0)
+                .add(1000, "AAPL", 10.0);
+    }
+
+    @Test
+    public void testTrailingStopSellsAndTripleMomentumBuysBack() {
+        double[] tqqq = {100.0, 110.0, 107.0, 108.0};
+        long[] times = {close(2023, 1, 3), close(2023, 1, 4), close(2023, 1, 5), close(2023, 1, 6)};
+
+        PriceData.Builder builder = new PriceData.Builder();
+        for (int x = 0; x < times.length; x++) {
+            builder.add(times[x], "TQQQ", tqqq[x]);
+            builder.add(times[x], "SQQQ", 50.0);
+        }
+
+        BacktestResult result = new Backtest(builder.build()).run(TripleMomentum.class, INITIAL_BALANCE);
+
+        // half the funds in each symbol, the 2% trailing stop is hit on the third day
+        // (107 is 2.7% off the 110 high) and the daily update buys TQQQ back
+        assertEquals(4, result.getTrades().size());
+        BacktestTrade sell = result.getTrades().get(2);
+        assertEquals(Order.OrderAction.SELL, sell.getAction());
+        assertEquals(Order.OrderStrategy.TRAILING_STOP_PERCENT_CHANGE, sell.getStrategy());
+        assertEquals(50, sell.getQuantity());
+        assertEquals(dollars(107.0), sell.getPrice().getMicroCents());
+        assertEquals(dollars(350.0), sell.getProfit().getMicroCents());
+        assertEquals(times[2], sell.getTime());
+
+        BacktestTrade buy = result.getTrades().get(3);
+        assertEquals(Order.OrderAction.BUY, buy.getAction());
+        assertEquals("TQQQ", buy.getSymbol());
+        assertEquals(50, buy.getQuantity());
+
+        assertEquals(times.length, result.getPointCount());
+        assertEquals(INITIAL_BALANCE.getMicroCents(), result.getEquity(0));
+        assertEquals(dollars(10500.0), result.getEquity(1));
+        assertEquals(dollars(10400.0), result.getFinalEquity().getMicroCents());
+        assertEquals(4.0, result.getTotalReturnPercent(), 0.0001);
+        assertEquals((10500.0 - 10350.0) * 100.0 / 10500.0, result.getMaxDrawdownPercent(), 0.0001);
+    }
+
+    @Test
+    public void testDogsOfTheDowRebalancesOnTheNewYear() {
+        String[] symbols = {"AXP", "BA", "CAT", "CSCO", "CVX", "DD", "XOM", "GE", "GS", "HD", "IBM", "INTC"};
+        long[] times = {close(2023, 12, 28), close(2023, 12, 29), close(2024, 1, 2)};
+
+        PriceData.Builder builder = new PriceData.Builder();
+        for (int x = 0; x < times.length; x++) {
+            for (int s = 0; s < symbols.length; s++) {
+                // the dividends rank the symbols in order, and reverse on the new year
+                double dividend = (x < 2) ? symbols.length - s : s + 1;
+                builder.add(times[x], symbols[s], 100.0, dividend);
+            }
+        }
+
+        BacktestResult result = new Backtest(builder.build()).run(DogsOfTheDow.class, INITIAL_BALANCE);
+
+        // buy the top 10, then sell all of them and buy the new top 10
+        assertEquals(30, result.getTrades().size());
+
+        Set<String> bought = new HashSet<>();
+        for (int x = 20; x < 30; x++) {
+            BacktestTrade trade = result.getTrades().get(x);
+            assertEquals(Order.OrderAction.BUY, trade.getAction());
+            assertEquals(times[2], trade.getTime());
+            bought.add(trade.getSymbol());
+        }
+        assertTrue(bought.contains("INTC"));
+        assertTrue(!bought.contains("AXP"));
+        assertEquals(INITIAL_BALANCE.getMicroCents(), result.getFinalEquity().getMicroCents());
+    }
+
+    @Test
+    public void testRunsAreReproducible() {
+        PriceData priceData = BacktestBenchmark.createRandomWalk(new String[]{"TQQQ", "SQQQ"}, 252, 1, 7);
+        Backtest backtest = new Backtest(priceData);
+
+        BacktestResult first = backtest.run(TripleMomentum.class, INITIAL_BALANCE);
+        BacktestResult second = backtest.run(TripleMomentum.class, INITIAL_BALANCE);
+
+        assertTrue(first.getTrades().size() > 2);
+        assertEquals(first.getTrades().size(), second.getTrades().size());
+        for (int x = 0; x < first.getPointCount(); x++) {
+            assertEquals(first.getEquity(x), second.getEquity(x));
+        }
+    }
+}
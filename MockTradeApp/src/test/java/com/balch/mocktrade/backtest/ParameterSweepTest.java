@@ -0,0 +1,98 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 7:31 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+
+package com.balch.mocktrade.backtest;
+
+import com.balch.android.app.framework.types.Money;
+import com.balch.mocktrade.account.strategies.TripleMomentum;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ParameterSweepTest {
+
+    private static ParameterSweep createSweep() {
+        PriceData priceData = BacktestBenchmark.createRandomWalk(new String[]{"TQQQ", "SQQQ", "UPRO"}, 60, 30, 7);
+        return new ParameterSweep(new Backtest(priceData), TripleMomentum.class, new Money(10000.0))
+                .addParameter(TripleMomentum.PARAM_TRAILING_PERCENTAGE, "1", "2", "3", "5")
+                .addParameter(TripleMomentum.PARAM_SYMBOLS, "TQQQ,SQQQ", "UPRO,SQQQ");
+    }
+
+    @Test
+    public void testCombinations() {
+        List<Map<String, String>> combinations = createSweep().getCombinations();
+
+        assertEquals(8, combinations.size());
+        assertEquals("1", combinations.get(0).get(TripleMomentum.PARAM_TRAILING_PERCENTAGE));
+        assertEquals("TQQQ,SQQQ", combinations.get(0).get(TripleMomentum.PARAM_SYMBOLS));
+        assertEquals("1", combinations.get(1).get(TripleMomentum.PARAM_TRAILING_PERCENTAGE));
+        assertEquals("UPRO,SQQQ", combinations.get(1).get(TripleMomentum.PARAM_SYMBOLS));
+        assertEquals("5", combinations.get(7).get(TripleMomentum.PARAM_TRAILING_PERCENTAGE));
+    }
+
+    @Test
+    public void testResultsDoNotDependOnParallelism() {
+        ParameterSweep sweep = createSweep();
+
+        List<ParameterSweep.Run> serial = sweep.run(1);
+        List<ParameterSweep.Run> parallel = sweep.run(4);
+
+        assertEquals(serial.size(), parallel.size());
+        for (int x = 0; x < serial.size(); x++) {
+            BacktestResult expected = serial.get(x).getResult();
+            BacktestResult actual = parallel.get(x).getResult();
+            assertEquals(serial.get(x).getIndex(), parallel.get(x).getIndex());
+            assertEquals(expected.getTrades().size(), actual.getTrades().size());
+            for (int y = 0; y < expected.getPointCount(); y++) {
+                assertEquals(expected.getEquity(y), actual.getEquity(y));
+            }
+        }
+    }
+
+    @Test
+    public void testRanking() {
+        List<ParameterSweep.Run> ranked = createSweep().run(2);
+
+        for (int x = 1; x < ranked.size(); x++) {
+            assertTrue(ranked.get(x - 1).getResult().getTotalReturnPercent() >=
+                    ranked.get(x).getResult().getTotalReturnPercent());
+        }
+
+        String table = ParameterSweep.formatTable(ranked);
+        assertEquals(ranked.size() + 1, table.split("\n").length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownParameter() {
+        PriceData priceData = BacktestBenchmark.createRandomWalk(new String[]{"TQQQ", "SQQQ"}, 5, 1, 7);
+        new ParameterSweep(new Backtest(priceData), TripleMomentum.class, new Money(10000.0))
+                .addParameter("unknown", "1")
+                .run(1);
+    }
+}
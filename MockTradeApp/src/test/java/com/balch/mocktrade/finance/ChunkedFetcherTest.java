@@ -0,0 +1,160 @@
+/*
+ * Author: Balch
+ * Created: 10/19/26 9:35 AM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+
+package com.balch.mocktrade.finance;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import io.reactivex.Observable;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.schedulers.Schedulers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ChunkedFetcherTest {
+    private static final int CHUNK_SIZE = 100;
+
+    private final ChunkedFetcher fetcher =
+            new ChunkedFetcher(CHUNK_SIZE, 4, 2, Schedulers.trampoline());
+
+    /**
+     * Echoes each symbol back, chunks that contain a failing symbol throw
+     * until they have been requested failCount times.
+     */
+    private static class EchoRequest implements ChunkedFetcher.ChunkRequest<String> {
+        private final Set<String> failingSymbols;
+        private final int failCount;
+        private final Map<String, Integer> attempts = new HashMap<>();
+        private final List<List<String>> chunks = new ArrayList<>();
+
+        EchoRequest(Set<String> failingSymbols, int failCount) {
+            this.failingSymbols = failingSymbols;
+            this.failCount = failCount;
+        }
+
+        @Override
+        public Observable<List<String>> fetch(final List<String> chunk) {
+            chunks.add(chunk);
+            return Observable.fromCallable(() -> {
+                for (String symbol : chunk) {
+                    if (failingSymbols.contains(symbol)) {
+                        Integer count = attempts.get(symbol);
+                        count = (count == null) ? 1 : count + 1;
+                        attempts.put(symbol, count);
+                        if (count <= failCount) {
+                            throw new IOException("chunk failed: " + symbol);
+                        }
+                    }
+                }
+                return chunk;
+            });
+        }
+    }
+
+    private static Set<String> createSymbols(int count) {
+        Set<String> symbols = new LinkedHashSet<>();
+        for (int x = 0; x < count; x++) {
+            symbols.add("S" + x);
+        }
+        return symbols;
+    }
+
+    @Test
+    public void testSymbolsAreSplitIntoChunks() {
+        List<List<String>> chunks = ChunkedFetcher.getChunks(createSymbols(250), CHUNK_SIZE);
+
+        assertEquals(3, chunks.size());
+        assertEquals(100, chunks.get(0).size());
+        assertEquals(100, chunks.get(1).size());
+        assertEquals(50, chunks.get(2).size());
+        assertEquals("S200", chunks.get(2).get(0));
+
+        assertTrue(ChunkedFetcher.getChunks(Collections.<String>emptySet(), CHUNK_SIZE).isEmpty());
+    }
+
+    @Test
+    public void testNoSymbolsReturnsAnEmptyResult() {
+        EchoRequest request = new EchoRequest(Collections.<String>emptySet(), 0);
+
+        ChunkedFetcher.Result<String> result =
+                fetcher.fetch(Collections.<String>emptySet(), request, symbol -> symbol).blockingFirst();
+
+        assertTrue(result.getItems().isEmpty());
+        assertTrue(result.getFailedSymbols().isEmpty());
+        assertTrue(request.chunks.isEmpty());
+    }
+
+    @Test
+    public void testFailedChunkIsRetried() {
+        // fails twice, the second retry succeeds
+        EchoRequest request = new EchoRequest(Collections.singleton("S150"), 2);
+
+        ChunkedFetcher.Result<String> result =
+                fetcher.fetch(createSymbols(250), request, symbol -> symbol).blockingFirst();
+
+        assertEquals(250, result.getItems().size());
+        assertTrue(result.getFailedSymbols().isEmpty());
+        assertEquals(3, (int) request.attempts.get("S150"));
+    }
+
+    @Test
+    public void testFailedChunkIsReported() {
+        EchoRequest request = new EchoRequest(Collections.singleton("S150"), Integer.MAX_VALUE);
+
+        ChunkedFetcher.Result<String> result =
+                fetcher.fetch(createSymbols(250), request, symbol -> symbol).blockingFirst();
+
+        assertEquals(150, result.getItems().size());
+        assertEquals(100, result.getFailedSymbols().size());
+        assertTrue(result.getFailedSymbols().contains("S100"));
+        assertTrue(result.getFailedSymbols().contains("S199"));
+        assertFalse(result.getItems().containsKey("S150"));
+        assertTrue(result.getItems().containsKey("S200"));
+    }
+
+    @Test
+    public void testErrorWhenAllChunksFail() {
+        Set<String> failing = new LinkedHashSet<>();
+        failing.add("S0");
+        failing.add("S100");
+        EchoRequest request = new EchoRequest(failing, Integer.MAX_VALUE);
+
+        TestObserver<ChunkedFetcher.Result<String>> observer =
+                fetcher.fetch(createSymbols(150), request, symbol -> symbol).test();
+
+        observer.assertNoValues();
+        observer.assertError(IOException.class);
+    }
+}
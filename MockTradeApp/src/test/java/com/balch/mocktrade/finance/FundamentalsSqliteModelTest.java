@@ -0,0 +1,87 @@
+/*
+ * Author: Balch
+ * Created: 10/19/26 9:07 AM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+package com.balch.mocktrade.finance;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import com.balch.android.app.framework.sql.SqlConnection;
+import com.balch.android.app.framework.types.Money;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class FundamentalsSqliteModelTest {
+
+    private SqlConnection sqlConnection;
+    private SQLiteDatabase db;
+    private FundamentalsSqliteModel fundamentalsModel;
+
+    @Before
+    public void setUp() throws Exception {
+        sqlConnection = mock(SqlConnection.class);
+        db = mock(SQLiteDatabase.class);
+        doAnswer(invocation -> ((SqlConnection.WriteTask) invocation.getArguments()[0]).run(db))
+                .when(sqlConnection).write(any(SqlConnection.WriteTask.class));
+
+        fundamentalsModel = new FundamentalsSqliteModel(sqlConnection);
+    }
+
+    @Test
+    public void testSaveReplacesEachSymbolInOneWrite() throws Exception {
+        Fundamentals apple = new Fundamentals("AAPL", new Money(1.5));
+        Fundamentals noStats = new Fundamentals("ZZZZ", new Money());
+
+        fundamentalsModel.saveFundamentals(Arrays.asList(apple, noStats));
+
+        verify(sqlConnection, times(1)).write(any(SqlConnection.WriteTask.class));
+        InOrder inOrder = inOrder(db, sqlConnection);
+        inOrder.verify(db).delete(eq("fundamentals"), anyString(), eq(new String[]{"AAPL"}));
+        inOrder.verify(sqlConnection).insert(fundamentalsModel, apple, db);
+        inOrder.verify(db).delete(eq("fundamentals"), anyString(), eq(new String[]{"ZZZZ"}));
+        inOrder.verify(sqlConnection).insert(fundamentalsModel, noStats, db);
+    }
+
+    @Test
+    public void testGetWithNoSymbolsDoesNotQuery() throws Exception {
+        assertTrue(fundamentalsModel.getFundamentals(Collections.<String>emptyList()).isEmpty());
+
+        verify(sqlConnection, never()).query(any(FundamentalsSqliteModel.class), anyString(),
+                any(String[].class), anyString());
+    }
+}
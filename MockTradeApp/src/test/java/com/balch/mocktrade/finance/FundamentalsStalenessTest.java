@@ -0,0 +1,117 @@
+/*
+ * Author: Balch
+ * Created: 10/19/26 8:56 AM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+package com.balch.mocktrade.finance;
+
+import com.balch.android.app.framework.types.Money;
+
+import org.joda.time.DateTime;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FundamentalsStalenessTest {
+
+    private static Fundamentals createFundamentals(String symbol, DateTime updateTime) {
+        Fundamentals fundamentals = new Fundamentals(symbol, new Money(1.5));
+        fundamentals.setUpdateTime(updateTime.toDate());
+        return fundamentals;
+    }
+
+    @Test
+    public void testOnlyFundamentalsFromTodayAreFresh() {
+        DateTime now = new DateTime(2018, 3, 14, 10, 30);
+
+        Map<String, Fundamentals> fundamentalsMap = new HashMap<>();
+        fundamentalsMap.put("TODAY", createFundamentals("TODAY", now.withTimeAtStartOfDay()));
+        fundamentalsMap.put("YESTERDAY", createFundamentals("YESTERDAY", now.minusDays(1)));
+        fundamentalsMap.put("NO_TIME", new Fundamentals("NO_TIME", new Money()));
+
+        Set<String> symbols = new HashSet<>(Arrays.asList("TODAY", "YESTERDAY", "NO_TIME", "UNKNOWN"));
+        Set<String> staleSymbols = FinanceModelImpl.getStaleSymbols(symbols, fundamentalsMap,
+                now.getMillis());
+
+        assertEquals(new HashSet<>(Arrays.asList("YESTERDAY", "NO_TIME", "UNKNOWN")), staleSymbols);
+    }
+
+    @Test
+    public void testSymbolsWithoutStatsAreMarked() {
+        Map<String, Fundamentals> items = new HashMap<>();
+        items.put("AAPL", new Fundamentals("AAPL", new Money(1.5)));
+        ChunkedFetcher.Result<Fundamentals> result = new ChunkedFetcher.Result<>(items,
+                Collections.singleton("FAILED"));
+
+        Set<String> symbols = new HashSet<>(Arrays.asList("AAPL", "NOSTATS", "FAILED"));
+        Map<String, Fundamentals> fundamentalsMap =
+                FinanceModelImpl.addMissingFundamentals(symbols, result);
+
+        assertEquals(2, fundamentalsMap.size());
+        assertEquals(new Money(1.5).getMicroCents(),
+                fundamentalsMap.get("AAPL").getDividendPerShare().getMicroCents());
+        assertEquals(0, fundamentalsMap.get("NOSTATS").getDividendPerShare().getMicroCents());
+        // a failed chunk is requested again on the next poll
+        assertFalse(fundamentalsMap.containsKey("FAILED"));
+    }
+
+    @Test
+    public void testMarkedSymbolIsNotStaleUntilTomorrow() {
+        DateTime now = new DateTime(2018, 3, 14, 10, 30);
+        ChunkedFetcher.Result<Fundamentals> result = new ChunkedFetcher.Result<>(
+                Collections.<String, Fundamentals>emptyMap(), Collections.<String>emptySet());
+
+        Set<String> symbols = Collections.singleton("NOSTATS");
+        Map<String, Fundamentals> fundamentalsMap =
+                FinanceModelImpl.addMissingFundamentals(symbols, result);
+        fundamentalsMap.get("NOSTATS").setUpdateTime(now.toDate());
+
+        assertTrue(FinanceModelImpl.getStaleSymbols(symbols, fundamentalsMap,
+                now.plusHours(5).getMillis()).isEmpty());
+        assertEquals(symbols, FinanceModelImpl.getStaleSymbols(symbols, fundamentalsMap,
+                now.plusDays(1).getMillis()));
+    }
+
+    @Test
+    public void testMergeDoesNotChangeTheFetchedQuote() {
+        Quote quote = new Quote("AAPL", "Apple", "NASDAQ", new Money(10.0), new Date(),
+                new Money(9.0), new Money());
+        Map<String, Quote> quoteMap = Collections.singletonMap("AAPL", quote);
+
+        Map<String, Quote> merged = FinanceModelImpl.mergeFundamentals(quoteMap,
+                Collections.singletonMap("AAPL", new Fundamentals("AAPL", new Money(1.5))));
+
+        assertEquals(new Money(1.5).getMicroCents(),
+                merged.get("AAPL").getDividendPerShare().getMicroCents());
+        assertEquals(new Money(10.0).getMicroCents(), merged.get("AAPL").getPrice().getMicroCents());
+        assertEquals(0, quote.getDividendPerShare().getMicroCents());
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Author: Balch
+ * Created: 10/19/26 8:41 AM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+package com.balch.mocktrade.finance;
+
+import com.balch.android.app.framework.types.Money;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class IEXFundamentalsTypeAdapterTest {
+
+    // recorded from /stock/market/batch?types=stats&symbols=AAPL,T,ZZZZ
+    // trimmed to a handful of the fields IEX returns
+    private static final String PAYLOAD = "{" +
+            "\"AAPL\":{\"stats\":{\"companyName\":\"Apple Inc.\",\"marketcap\":798025577856," +
+            "\"beta\":1.2,\"week52high\":164.94,\"week52low\":106.3,\"dividendRate\":2.52," +
+            "\"dividendYield\":1.6310679611650485,\"exDividendDate\":\"2017-08-10 00:00:00.0\"," +
+            "\"latestEPS\":8.52,\"float\":5161349840}}," +
+            "\"T\":{\"stats\":{\"companyName\":\"AT&T Inc.\",\"dividendYield\":null}}," +
+            "\"ZZZZ\":{}" +
+            "}";
+
+    private final Gson gson = new GsonBuilder()
+            .registerTypeAdapter(FundamentalsResult.class, new IEXFundamentalsTypeAdapter())
+            .create();
+
+    @Test
+    public void testReadRecordedPayload() throws Exception {
+        FundamentalsResult result = gson.fromJson(PAYLOAD, FundamentalsResult.class);
+
+        assertTrue(result.isSuccess());
+        assertEquals(2, result.getFundamentals().size());
+
+        Fundamentals apple = result.getFundamentals().get(0);
+        assertEquals("AAPL", apple.getSymbol());
+        assertEquals(new Money(1.6310679611650485).getMicroCents(),
+                apple.getDividendPerShare().getMicroCents());
+
+        Fundamentals att = result.getFundamentals().get(1);
+        assertEquals("T", att.getSymbol());
+        assertEquals(0, att.getDividendPerShare().getMicroCents());
+    }
+
+    @Test
+    public void testWriteReadsBack() throws Exception {
+        List<Fundamentals> fundamentals = Arrays.asList(
+                new Fundamentals("AAPL", new Money(1.625)),
+                new Fundamentals("T", new Money()));
+
+        String json = gson.toJson(new FundamentalsResult(true, fundamentals));
+        FundamentalsResult result = gson.fromJson(json, FundamentalsResult.class);
+
+        assertEquals(fundamentals.size(), result.getFundamentals().size());
+        for (int x = 0; x < fundamentals.size(); x++) {
+            assertEquals(fundamentals.get(x).getSymbol(), result.getFundamentals().get(x).getSymbol());
+            assertEquals(fundamentals.get(x).getDividendPerShare().getMicroCents(),
+                    result.getFundamentals().get(x).getDividendPerShare().getMicroCents());
+        }
+    }
+}
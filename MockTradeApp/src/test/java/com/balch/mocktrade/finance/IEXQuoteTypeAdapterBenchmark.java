@@ -0,0 +1,151 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 11:02 AM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+package com.balch.mocktrade.finance;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import org.junit.Test;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares the streaming {@link IEXQuoteTypeAdapter} against the original
+ * tree model deserializer on the 1,000 symbol quote+stats batch response
+ * checked in under src/test/resources/iex.
+ */
+public class IEXQuoteTypeAdapterBenchmark {
+
+    private static final String PAYLOAD_RESOURCE = "/iex/batch_quote_stats_1000.json.gz";
+    private static final int SYMBOL_COUNT = 1000;
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int ITERATIONS = 20;
+
+    @Test
+    public void benchmark() throws IOException {
+        String payload = readPayload();
+
+        Gson streamingGson = new GsonBuilder()
+                .registerTypeAdapter(QuoteResult.class, new IEXQuoteTypeAdapter())
+                .create();
+        Gson treeGson = new GsonBuilder()
+                .registerTypeAdapter(QuoteResult.class, new IEXQuoteTreeTypeAdapter())
+                .create();
+
+        QuoteResult streamingResult = streamingGson.fromJson(payload, QuoteResult.class);
+        QuoteResult treeResult = treeGson.fromJson(payload, QuoteResult.class);
+        assertEquals(SYMBOL_COUNT, streamingResult.getQuotes().size());
+        assertEquals(treeResult.getQuotes().size(), streamingResult.getQuotes().size());
+        for (int x = 0; x < SYMBOL_COUNT; x++) {
+            Quote expected = treeResult.getQuotes().get(x);
+            Quote actual = streamingResult.getQuotes().get(x);
+            assertEquals(expected.getSymbol(), actual.getSymbol());
+            assertEquals(expected.getName(), actual.getName());
+            assertEquals(expected.getExchange(), actual.getExchange());
+            assertEquals(expected.getPrice(), actual.getPrice());
+            assertEquals(expected.getPreviousClose(), actual.getPreviousClose());
+            assertEquals(expected.getLastTradeTime(), actual.getLastTradeTime());
+            assertEquals(expected.getDividendPerShare(), actual.getDividendPerShare());
+        }
+
+        Result tree = run("JsonDeserializer (tree)", treeGson, payload);
+        Result streaming = run("TypeAdapter (stream)", streamingGson, payload);
+
+        System.out.println(String.format(Locale.US, "IEX batch payload: %d symbols, %d KB",
+                SYMBOL_COUNT, payload.length() / 1024));
+        System.out.println(tree);
+        System.out.println(streaming);
+    }
+
+    private static Result run(String name, Gson gson, String payload) {
+        for (int x = 0; x < WARMUP_ITERATIONS; x++) {
+            gson.fromJson(payload, QuoteResult.class);
+        }
+
+        long startBytes = getAllocatedBytes();
+        long startNanos = System.nanoTime();
+        for (int x = 0; x < ITERATIONS; x++) {
+            gson.fromJson(payload, QuoteResult.class);
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        long allocatedBytes = getAllocatedBytes() - startBytes;
+
+        return new Result(name, elapsedNanos / ITERATIONS,
+                (startBytes < 0) ? -1 : allocatedBytes / ITERATIONS);
+    }
+
+    private static long getAllocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean)
+                    .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    private String readPayload() throws IOException {
+        InputStream stream = getClass().getResourceAsStream(PAYLOAD_RESOURCE);
+        if (stream == null) {
+            throw new FileNotFoundException(PAYLOAD_RESOURCE);
+        }
+
+        StringBuilder builder = new StringBuilder();
+        try (Reader reader = new InputStreamReader(new GZIPInputStream(stream), "UTF-8")) {
+            char[] buffer = new char[8192];
+            int count;
+            while ((count = reader.read(buffer)) != -1) {
+                builder.append(buffer, 0, count);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static class Result {
+        private final String name;
+        private final long nanosPerParse;
+        private final long bytesPerParse;
+
+        Result(String name, long nanosPerParse, long bytesPerParse) {
+            this.name = name;
+            this.nanosPerParse = nanosPerParse;
+            this.bytesPerParse = bytesPerParse;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%-24s %8.2f ms/parse %8.1f parses/s %10d KB allocated/parse",
+                    name, nanosPerParse / 1e6, 1e9 / nanosPerParse, bytesPerParse / 1024);
+        }
+    }
+}
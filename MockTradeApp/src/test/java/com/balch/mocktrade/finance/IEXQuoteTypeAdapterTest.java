@@ -0,0 +1,122 @@
+/*
+ * Author: Balch
+ * Created: 10/19/26 8:12 AM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+package com.balch.mocktrade.finance;
+
+import com.balch.android.app.framework.types.Money;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class IEXQuoteTypeAdapterTest {
+
+    // recorded from /stock/market/batch?types=quote,stats&symbols=AAPL,MSFT,ZZZZ
+    // trimmed to a handful of the fields IEX returns
+    private static final String PAYLOAD = "{" +
+            "\"AAPL\":{" +
+            "\"quote\":{\"symbol\":\"AAPL\",\"companyName\":\"Apple Inc.\"," +
+            "\"primaryExchange\":\"Nasdaq Global Select\",\"sector\":\"Technology\"," +
+            "\"calculationPrice\":\"tops\",\"open\":154.34,\"openTime\":1506605400394," +
+            "\"close\":153.28,\"closeTime\":1506605400394,\"high\":154.72,\"low\":153.54," +
+            "\"latestPrice\":154.5,\"latestSource\":\"IEX real time price\"," +
+            "\"latestTime\":\"3:57:43 PM\",\"latestUpdate\":1506628663124," +
+            "\"latestVolume\":19848306,\"iexRealtimePrice\":null,\"delayedPrice\":154.45," +
+            "\"previousClose\":153.28,\"change\":1.22,\"changePercent\":0.00796," +
+            "\"marketCap\":798025577856,\"peRatio\":17.38,\"week52High\":164.94," +
+            "\"week52Low\":106.3,\"ytdChange\":0.329}," +
+            "\"stats\":{\"companyName\":\"Apple Inc.\",\"marketcap\":798025577856," +
+            "\"beta\":1.2,\"dividendRate\":2.52,\"dividendYield\":1.6310679611650485," +
+            "\"exDividendDate\":\"2017-08-10 00:00:00.0\",\"latestEPS\":8.52," +
+            "\"shortInterest\":53812321,\"float\":5161349840}}," +
+            "\"MSFT\":{" +
+            "\"quote\":{\"symbol\":\"MSFT\",\"companyName\":\"Microsoft Corporation\"," +
+            "\"primaryExchange\":\"Nasdaq Global Select\",\"latestPrice\":73.87," +
+            "\"latestUpdate\":1506628662000,\"previousClose\":73.49,\"peRatio\":null}," +
+            "\"stats\":{\"dividendYield\":null,\"beta\":1.01}}," +
+            "\"ZZZZ\":{\"stats\":{\"dividendYield\":0.5}}" +
+            "}";
+
+    private final Gson gson = new GsonBuilder()
+            .registerTypeAdapter(QuoteResult.class, new IEXQuoteTypeAdapter())
+            .create();
+
+    @Test
+    public void testReadRecordedPayload() throws Exception {
+        QuoteResult result = gson.fromJson(PAYLOAD, QuoteResult.class);
+
+        assertTrue(result.isSuccess());
+        assertEquals(2, result.getQuotes().size());
+
+        Quote apple = result.getQuotes().get(0);
+        assertEquals("AAPL", apple.getSymbol());
+        assertEquals("Apple Inc.", apple.getName());
+        assertEquals("Nasdaq Global Select", apple.getExchange());
+        assertEquals(new Money(154.5).getMicroCents(), apple.getPrice().getMicroCents());
+        assertEquals(1506628663124L, apple.getLastTradeTime().getTime());
+        assertEquals(new Money(153.28).getMicroCents(), apple.getPreviousClose().getMicroCents());
+        assertEquals(new Money(1.6310679611650485).getMicroCents(),
+                apple.getDividendPerShare().getMicroCents());
+
+        Quote microsoft = result.getQuotes().get(1);
+        assertEquals("MSFT", microsoft.getSymbol());
+        assertEquals(new Money(73.87).getMicroCents(), microsoft.getPrice().getMicroCents());
+        assertEquals(0, microsoft.getDividendPerShare().getMicroCents());
+    }
+
+    @Test
+    public void testWriteReadsBack() throws Exception {
+        List<Quote> quotes = Arrays.asList(
+                new Quote("AAPL", "Apple Inc.", "Nasdaq Global Select", new Money(154.5),
+                        new Date(1506628663124L), new Money(153.25), new Money(1.625)),
+                new Quote("XYZ", null, null, new Money(10.0),
+                        new Date(1506628662000L), new Money(9.5), new Money(0)));
+
+        String json = gson.toJson(new QuoteResult(true, quotes));
+        QuoteResult result = gson.fromJson(json, QuoteResult.class);
+
+        assertEquals(quotes.size(), result.getQuotes().size());
+        for (int x = 0; x < quotes.size(); x++) {
+            Quote expected = quotes.get(x);
+            Quote actual = result.getQuotes().get(x);
+            assertEquals(expected.getSymbol(), actual.getSymbol());
+            assertEquals(expected.getName(), actual.getName());
+            assertEquals(expected.getExchange(), actual.getExchange());
+            assertEquals(expected.getPrice().getMicroCents(), actual.getPrice().getMicroCents());
+            assertEquals(expected.getLastTradeTime(), actual.getLastTradeTime());
+            assertEquals(expected.getPreviousClose().getMicroCents(),
+                    actual.getPreviousClose().getMicroCents());
+            assertEquals(expected.getDividendPerShare().getMicroCents(),
+                    actual.getDividendPerShare().getMicroCents());
+        }
+        assertNull(result.getQuotes().get(1).getName());
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 2:40 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+package com.balch.mocktrade.finance;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LocalQuoteSourceTest {
+
+    private static final String TICKS =
+            "# epoch_ms,symbol,price,previous_close,dividend_per_share\n" +
+            "1000,AAPL,100.00,99.00,2.00\n" +
+            "1000,MSFT,50.00\n" +
+            "\n" +
+            "2000,AAPL,101.50\n" +
+            "3000,MSFT,49.25\n";
+
+    private static Set<String> symbols(String... symbols) {
+        return new HashSet<>(Arrays.asList(symbols));
+    }
+
+    @Test
+    public void testRandomWalkIsReproducible() {
+        RandomWalkQuoteSource first = new RandomWalkQuoteSource(7, () -> 0);
+        RandomWalkQuoteSource second = new RandomWalkQuoteSource(7, () -> 0);
+
+        // the series of a symbol does not depend on the other requested symbols
+        for (int x = 0; x < 100; x++) {
+            Map<String, Quote> firstQuotes = first.getQuotes(symbols("AAPL", "MSFT"));
+            Map<String, Quote> secondQuotes = second.getQuotes(symbols("AAPL"));
+
+            assertEquals(firstQuotes.get("AAPL").getPrice(), secondQuotes.get("AAPL").getPrice());
+            assertEquals(firstQuotes.get("AAPL").getLastTradeTime(), secondQuotes.get("AAPL").getLastTradeTime());
+            assertTrue(firstQuotes.get("MSFT").getPrice().getMicroCents() > 0);
+        }
+    }
+
+    @Test
+    public void testRandomWalkFollowsTheClock() {
+        long[] now = {10000};
+        RandomWalkQuoteSource source = new RandomWalkQuoteSource(7, () -> now[0]);
+
+        assertEquals(10000, source.getQuotes(symbols("AAPL")).get("AAPL").getLastTradeTime().getTime());
+
+        // requests within the same millisecond still get increasing tick times
+        assertEquals(10001, source.getQuotes(symbols("AAPL")).get("AAPL").getLastTradeTime().getTime());
+        assertEquals(10002, source.getQuotes(symbols("AAPL")).get("AAPL").getLastTradeTime().getTime());
+
+        // and never run ahead of the clock once it catches up
+        now[0] = 60000;
+        assertEquals(60000, source.getQuotes(symbols("AAPL")).get("AAPL").getLastTradeTime().getTime());
+    }
+
+    @Test
+    public void testReplayAdvancesOneTimestampPerRequest() throws IOException {
+        ReplayQuoteSource source = new ReplayQuoteSource(new StringReader(TICKS), () -> 0);
+
+        Map<String, Quote> quotes = source.getQuotes(symbols("AAPL", "MSFT", "IBM"));
+        assertEquals(symbols("AAPL", "MSFT"), quotes.keySet());
+        assertEquals(100.0, quotes.get("AAPL").getPrice().getDollars(), 0);
+        assertEquals(99.0, quotes.get("AAPL").getPreviousClose().getDollars(), 0);
+        assertEquals(2.0, quotes.get("AAPL").getDividendPerShare().getDollars(), 0);
+        assertEquals(50.0, quotes.get("MSFT").getPreviousClose().getDollars(), 0);
+
+        quotes = source.getQuotes(symbols("AAPL", "MSFT"));
+        assertEquals(101.5, quotes.get("AAPL").getPrice().getDollars(), 0);
+        assertEquals(99.0, quotes.get("AAPL").getPreviousClose().getDollars(), 0);
+        assertEquals(50.0, quotes.get("MSFT").getPrice().getDollars(), 0);
+
+        quotes = source.getQuotes(symbols("MSFT"));
+        assertEquals(49.25, quotes.get("MSFT").getPrice().getDollars(), 0);
+
+        // starts over at the end of the file
+        quotes = source.getQuotes(symbols("AAPL"));
+        assertEquals(100.0, quotes.get("AAPL").getPrice().getDollars(), 0);
+        assertFalse(quotes.containsKey("MSFT"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testReplayRejectsInvalidTicks() throws IOException {
+        new ReplayQuoteSource(new StringReader("1000,AAPL\n"), () -> 0);
+    }
+
+    @Test
+    public void testReplayTimesFollowTheClock() throws IOException {
+        long[] now = {500000};
+        ReplayQuoteSource source = new ReplayQuoteSource(new StringReader(TICKS), () -> now[0]);
+
+        assertEquals(500000, source.getQuotes(symbols("AAPL")).get("AAPL").getLastTradeTime().getTime());
+        assertEquals(501000, source.getQuotes(symbols("AAPL")).get("AAPL").getLastTradeTime().getTime());
+        assertEquals(502000, source.getQuotes(symbols("MSFT")).get("MSFT").getLastTradeTime().getTime());
+
+        // the next pass starts at the clock
+        now[0] = 900000;
+        assertEquals(900000, source.getQuotes(symbols("AAPL")).get("AAPL").getLastTradeTime().getTime());
+        assertEquals(901000, source.getQuotes(symbols("AAPL")).get("AAPL").getLastTradeTime().getTime());
+        source.getQuotes(symbols("MSFT"));
+
+        // and never goes back in time if the clock did not move
+        assertEquals(902001, source.getQuotes(symbols("AAPL")).get("AAPL").getLastTradeTime().getTime());
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 7:15 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+package com.balch.mocktrade.finance;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MarketClockTest {
+
+    private static final TimeZone TIME_ZONE = TimeZone.getTimeZone("America/Los_Angeles");
+
+    private long now;
+    private String closeTime;
+    private MarketClock marketClock;
+
+    @Before
+    public void setUp() {
+        closeTime = "13:00";
+        marketClock = new MarketClock(() -> now, TIME_ZONE, new MarketClock.Configuration() {
+            @Override
+            public String getOpenTime() {
+                return "6:30";
+            }
+
+            @Override
+            public String getCloseTime() {
+                return closeTime;
+            }
+
+            @Override
+            public String getHolidays() {
+                return "2026-11-26";
+            }
+
+            @Override
+            public String getHalfDays() {
+                return "2026-11-27";
+            }
+
+            @Override
+            public String getHalfDayCloseTime() {
+                return "10:00";
+            }
+        });
+    }
+
+    private static long time(int month, int day, int hour, int minute) {
+        Calendar cal = new GregorianCalendar(TIME_ZONE);
+        cal.clear();
+        cal.set(2026, month - 1, day, hour, minute);
+        return cal.getTimeInMillis();
+    }
+
+    @Test
+    public void testRegularSession() {
+        now = time(11, 24, 6, 20);
+        assertFalse(marketClock.isMarketOpen());
+        assertTrue(marketClock.isInPollTime());
+        assertEquals(time(11, 24, 6, 30), marketClock.nextMarketOpen());
+
+        now = time(11, 24, 12, 0);
+        assertTrue(marketClock.isMarketOpen());
+        assertEquals(now, marketClock.nextMarketOpen());
+        assertTrue(marketClock.isToday(time(11, 24, 0, 0)));
+        assertFalse(marketClock.isToday(time(11, 23, 23, 59)));
+
+        // all of the above came from one computed session
+        assertEquals(1, marketClock.getComputeCount());
+    }
+
+    @Test
+    public void testHolidayAndHalfDay() {
+        // Wednesday after the close, Thursday is a holiday
+        now = time(11, 25, 14, 0);
+        assertFalse(marketClock.isMarketOpen());
+        assertEquals(time(11, 27, 6, 30), marketClock.nextMarketOpen());
+
+        now = time(11, 26, 9, 0);
+        assertFalse(marketClock.isMarketOpen());
+        assertFalse(marketClock.isInPollTime());
+
+        // Friday closes early
+        now = time(11, 27, 9, 59);
+        assertTrue(marketClock.isMarketOpen());
+        now = time(11, 27, 10, 1);
+        assertFalse(marketClock.isMarketOpen());
+        assertEquals(time(11, 27, 10, 0), marketClock.getMarketCloseTime());
+
+        // and the next open skips the weekend
+        assertEquals(time(11, 30, 6, 30), marketClock.nextMarketOpen());
+    }
+
+    @Test
+    public void testLastMarketClose() {
+        // before the open the last close is the previous trading day's
+        now = time(11, 24, 6, 0);
+        assertEquals(time(11, 23, 13, 0), marketClock.lastMarketClose());
+
+        now = time(11, 24, 12, 59);
+        assertEquals(time(11, 23, 13, 0), marketClock.lastMarketClose());
+
+        now = time(11, 24, 13, 1);
+        assertEquals(time(11, 24, 13, 0), marketClock.lastMarketClose());
+
+        // the holiday has no session
+        now = time(11, 26, 20, 0);
+        assertEquals(time(11, 25, 13, 0), marketClock.lastMarketClose());
+
+        // over the weekend it is the half day close
+        now = time(11, 29, 12, 0);
+        assertEquals(time(11, 27, 10, 0), marketClock.lastMarketClose());
+    }
+
+    @Test
+    public void testRecomputesWhenInvalidated() {
+        now = time(11, 24, 13, 30);
+        assertFalse(marketClock.isMarketOpen());
+        int computeCount = marketClock.getComputeCount();
+
+        // the configuration is not read again until the session is invalidated
+        closeTime = "14:00";
+        assertFalse(marketClock.isMarketOpen());
+        assertEquals(computeCount, marketClock.getComputeCount());
+
+        marketClock.invalidate();
+        assertTrue(marketClock.isMarketOpen());
+        assertEquals(computeCount + 1, marketClock.getComputeCount());
+    }
+}
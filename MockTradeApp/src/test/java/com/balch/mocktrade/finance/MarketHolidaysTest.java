@@ -0,0 +1,66 @@
+/*
+ * Author: Balch
+ * Created: 10/19/26 9:25 AM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+
+package com.balch.mocktrade.finance;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+
+public class MarketHolidaysTest {
+
+    @Test
+    public void testHolidaysMatchThePublishedCalendar() {
+        assertEquals("2026-01-01,2026-01-19,2026-02-16,2026-04-03,2026-05-25,2026-06-19,2026-07-03," +
+                        "2026-09-07,2026-11-26,2026-12-25," +
+                        "2027-01-01,2027-01-18,2027-02-15,2027-03-26,2027-05-31,2027-06-18,2027-07-05," +
+                        "2027-09-06,2027-11-25,2027-12-24",
+                MarketHolidays.getHolidays(2026, 2027));
+        assertEquals("2026-11-27,2026-12-24,2027-11-26", MarketHolidays.getHalfDays(2026, 2027));
+    }
+
+    @Test
+    public void testHolidaysAreComputedForLaterYears() {
+        // New Year's Day on a Saturday is not observed, Juneteenth and
+        // Independence Day on a Sunday and Tuesday
+        assertEquals("2028-01-17,2028-02-21,2028-04-14,2028-05-29,2028-06-19,2028-07-04," +
+                        "2028-09-04,2028-11-23,2028-12-25",
+                MarketHolidays.getHolidays(2028, 2028));
+        assertEquals("2028-07-03,2028-11-24", MarketHolidays.getHalfDays(2028, 2028));
+    }
+
+    @Test
+    public void testEaster() {
+        assertEquals("2024-03-31,2025-04-20,2038-04-25", format(2024) + "," + format(2025) + "," + format(2038));
+    }
+
+    private static String format(int year) {
+        Calendar easter = MarketHolidays.getEaster(year);
+        return String.format(Locale.US, "%04d-%02d-%02d", year,
+                easter.get(Calendar.MONTH) + 1, easter.get(Calendar.DAY_OF_MONTH));
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 9:48 AM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+package com.balch.mocktrade.finance;
+
+import com.balch.android.app.framework.types.Money;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import io.reactivex.Observable;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.subjects.PublishSubject;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class QuoteCacheTest {
+
+    private static class RecordingFetcher implements QuoteCache.QuoteFetcher {
+        private final List<Set<String>> requests = new ArrayList<>();
+        private final PublishSubject<Map<String, Quote>> subject = PublishSubject.create();
+
+        @Override
+        public Observable<Map<String, Quote>> fetch(Set<String> symbols) {
+            requests.add(new HashSet<>(symbols));
+            return subject;
+        }
+
+        void complete() {
+            Map<String, Quote> quoteMap = new HashMap<>();
+            for (Set<String> symbols : requests) {
+                for (String symbol : symbols) {
+                    quoteMap.put(symbol, createQuote(symbol));
+                }
+            }
+            subject.onNext(quoteMap);
+            subject.onComplete();
+        }
+    }
+
+    private static Quote createQuote(String symbol) {
+        return new Quote(symbol, symbol, "NYSE", new Money(10.0), new Date(),
+                new Money(9.0), new Money(0));
+    }
+
+    private static Set<String> symbols(String... symbols) {
+        return new HashSet<>(Arrays.asList(symbols));
+    }
+
+    @Test
+    public void testOverlappingRequestsAreCoalesced() {
+        QuoteCache cache = new QuoteCache();
+        RecordingFetcher fetcher = new RecordingFetcher();
+
+        TestObserver<Map<String, Quote>> first = cache.getQuotes(symbols("AAPL", "MSFT"), 10000, fetcher).test();
+        TestObserver<Map<String, Quote>> second = cache.getQuotes(symbols("MSFT", "IBM"), 10000, fetcher).test();
+
+        assertEquals(2, fetcher.requests.size());
+        assertEquals(symbols("AAPL", "MSFT"), fetcher.requests.get(0));
+        assertEquals(symbols("IBM"), fetcher.requests.get(1));
+
+        fetcher.complete();
+
+        assertEquals(symbols("AAPL", "MSFT"), first.values().get(0).keySet());
+        assertEquals(symbols("MSFT", "IBM"), second.values().get(0).keySet());
+        assertEquals(3, cache.getMissCount());
+        assertEquals(1, cache.getCoalescedCount());
+    }
+
+    @Test
+    public void testFreshQuotesAreServedFromCache() {
+        QuoteCache cache = new QuoteCache();
+        RecordingFetcher fetcher = new RecordingFetcher();
+
+        cache.getQuotes(symbols("AAPL"), 10000, fetcher).test();
+        fetcher.complete();
+
+        Map<String, Quote> quoteMap = cache.getQuotes(symbols("AAPL"), 10000, fetcher).blockingFirst();
+
+        assertEquals(1, fetcher.requests.size());
+        assertTrue(quoteMap.containsKey("AAPL"));
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void testStaleQuotesAreRefetched() {
+        QuoteCache cache = new QuoteCache();
+        RecordingFetcher fetcher = new RecordingFetcher();
+
+        cache.getQuotes(symbols("AAPL"), 0, fetcher).test();
+        fetcher.complete();
+        cache.getQuotes(symbols("AAPL"), 0, fetcher).test();
+
+        assertEquals(2, fetcher.requests.size());
+        assertEquals(0, cache.getHitCount());
+    }
+}
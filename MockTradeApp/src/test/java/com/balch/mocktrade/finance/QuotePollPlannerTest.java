@@ -0,0 +1,117 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 6:05 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+package com.balch.mocktrade.finance;
+
+import com.balch.android.app.framework.types.Money;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class QuotePollPlannerTest {
+
+    private static final long INTERVAL_MS = 60000;
+    private static final List<String> SYMBOLS = Arrays.asList("AAPL", "MSFT");
+    private static final QuotePollPlanner.MarketSessions OPEN = exchange -> true;
+    private static final QuotePollPlanner.MarketSessions CLOSED = exchange -> false;
+
+    private static Map<String, Quote> quotes(long aaplTime, long msftTime) {
+        Map<String, Quote> quoteMap = new HashMap<>();
+        quoteMap.put("AAPL", new Quote("AAPL", "AAPL", "NASDAQ", new Money(10.0), new Date(aaplTime), new Money(9.0), new Money(0)));
+        quoteMap.put("MSFT", new Quote("MSFT", "MSFT", "NASDAQ", new Money(10.0), new Date(msftTime), new Money(9.0), new Money(0)));
+        return quoteMap;
+    }
+
+    @Test
+    public void testStaleSymbolsBackOffAndActiveSymbolsArePolledEveryTick() {
+        QuotePollPlanner planner = new QuotePollPlanner();
+
+        // AAPL trades on every tick, MSFT never moves after the first quote
+        int msftPolls = 0;
+        for (int tick = 0; tick < 32; tick++) {
+            long now = tick * INTERVAL_MS;
+            List<String> planned = planner.plan(SYMBOLS, OPEN, INTERVAL_MS, now, false);
+            assertEquals(true, planned.contains("AAPL"));
+            if (planned.contains("MSFT")) {
+                msftPolls++;
+            }
+            planner.onQuotes(planned, quotes(now + 1, 1), OPEN, INTERVAL_MS, now);
+        }
+
+        // polled on ticks 0, 1, 3, 7, 15 and then every 16 ticks
+        assertEquals(6, msftPolls);
+        assertEquals(64 - 6 - 32, planner.getMetrics().getSavedCount());
+        assertEquals(planner.getMetrics().getSavedCount(), planner.getMetrics().getBackoffSkipCount());
+    }
+
+    @Test
+    public void testClosedMarketFetchesClosingPriceOnce() {
+        QuotePollPlanner planner = new QuotePollPlanner();
+
+        List<String> planned = planner.plan(SYMBOLS, OPEN, INTERVAL_MS, 0, false);
+        planner.onQuotes(planned, quotes(1, 1), OPEN, INTERVAL_MS, 0);
+
+        planned = planner.plan(SYMBOLS, CLOSED, INTERVAL_MS, INTERVAL_MS, false);
+        assertEquals(SYMBOLS, planned);
+        planner.onQuotes(planned, quotes(2, 2), CLOSED, INTERVAL_MS, INTERVAL_MS);
+
+        for (int tick = 2; tick < 10; tick++) {
+            assertEquals(Collections.emptyList(),
+                    planner.plan(SYMBOLS, CLOSED, INTERVAL_MS, tick * INTERVAL_MS, false));
+        }
+        assertEquals(16, planner.getMetrics().getClosedSkipCount());
+
+        assertEquals(SYMBOLS, planner.plan(SYMBOLS, CLOSED, INTERVAL_MS, 10 * INTERVAL_MS, true));
+    }
+
+    @Test
+    public void testSessionsAreTrackedPerExchange() {
+        QuotePollPlanner planner = new QuotePollPlanner();
+        List<String> symbols = Arrays.asList("AAPL", "BP");
+        Map<String, Quote> quoteMap = new HashMap<>();
+        quoteMap.put("AAPL", new Quote("AAPL", "AAPL", "NASDAQ", new Money(10.0), new Date(1), new Money(9.0), new Money(0)));
+        quoteMap.put("BP", new Quote("BP", "BP", "LSE", new Money(5.0), new Date(1), new Money(4.0), new Money(0)));
+
+        QuotePollPlanner.MarketSessions londonClosed = exchange -> !"LSE".equals(exchange);
+        List<String> planned = planner.plan(symbols, OPEN, INTERVAL_MS, 0, false);
+        planner.onQuotes(planned, quoteMap, OPEN, INTERVAL_MS, 0);
+
+        // London closes, BP gets its closing price while AAPL keeps backing off
+        planned = planner.plan(symbols, londonClosed, INTERVAL_MS, INTERVAL_MS, false);
+        assertEquals(symbols, planned);
+        planner.onQuotes(planned, quoteMap, londonClosed, INTERVAL_MS, INTERVAL_MS);
+
+        planned = planner.plan(symbols, londonClosed, INTERVAL_MS, 3 * INTERVAL_MS, false);
+        assertEquals(Collections.singletonList("AAPL"), planned);
+        assertEquals(1, planner.getMetrics().getClosedSkipCount());
+        assertEquals(2, planner.getMetrics().getChangedCount());
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 3:45 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+package com.balch.mocktrade.finance;
+
+import com.balch.android.app.framework.types.Money;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Observable;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.schedulers.TestScheduler;
+import io.reactivex.subscribers.TestSubscriber;
+
+import static org.junit.Assert.assertEquals;
+
+public class QuoteStreamTest {
+
+    private static final long INTERVAL_MS = 1000;
+
+    private final List<Set<String>> requests = new ArrayList<>();
+    private TestScheduler scheduler;
+    private QuoteStream quoteStream;
+
+    @Before
+    public void setUp() {
+        scheduler = new TestScheduler();
+        // publishes every fetch like the finance models do
+        quoteStream = new QuoteStream(symbols -> {
+            requests.add(new HashSet<>(symbols));
+            return Observable.just(createQuotes(symbols)).doOnNext(quoteStream::publish);
+        }, scheduler);
+    }
+
+    private static Map<String, Quote> createQuotes(Set<String> symbols) {
+        Map<String, Quote> quoteMap = new HashMap<>();
+        for (String symbol : symbols) {
+            quoteMap.put(symbol, new Quote(symbol, symbol, "NYSE", new Money(10.0),
+                    new Date(), new Money(9.0), new Money(0)));
+        }
+        return quoteMap;
+    }
+
+    private static Set<String> symbols(String... symbols) {
+        return new HashSet<>(Arrays.asList(symbols));
+    }
+
+    @Test
+    public void testSubscribersSharePollForUnionOfSymbols() {
+        TestSubscriber<Map<String, Quote>> first = quoteStream.streamQuotes(symbols("AAPL", "MSFT"), INTERVAL_MS).test();
+        TestSubscriber<Map<String, Quote>> second = quoteStream.streamQuotes(symbols("MSFT", "IBM"), INTERVAL_MS).test();
+        requests.clear();
+
+        scheduler.advanceTimeBy(INTERVAL_MS, TimeUnit.MILLISECONDS);
+
+        assertEquals(1, requests.size());
+        assertEquals(symbols("AAPL", "MSFT", "IBM"), requests.get(0));
+
+        // initial quotes plus one poll, each filtered to the subscriber's symbols,
+        // and the first also gets MSFT from the initial quotes of the second
+        first.assertValueCount(3);
+        second.assertValueCount(2);
+        assertEquals(symbols("MSFT"), first.values().get(1).keySet());
+        assertEquals(symbols("AAPL", "MSFT"), first.values().get(2).keySet());
+        assertEquals(symbols("MSFT", "IBM"), second.values().get(1).keySet());
+    }
+
+    @Test
+    public void testQuotesFetchedByOthersReachSubscribers() {
+        TestSubscriber<Map<String, Quote>> subscriber = quoteStream.streamQuotes(symbols("AAPL", "MSFT"), INTERVAL_MS).test();
+        TestObserver<Map<String, Quote>> updates = quoteStream.getUpdates().test();
+        subscriber.assertValueCount(1);
+
+        // an alarm driven pull for other symbols, one of them shared with the subscriber
+        quoteStream.publish(createQuotes(symbols("MSFT", "IBM")));
+        quoteStream.publish(createQuotes(symbols("IBM")));
+
+        subscriber.assertValueCount(2);
+        assertEquals(symbols("MSFT"), subscriber.values().get(1).keySet());
+        updates.assertValueCount(2);
+
+        scheduler.advanceTimeBy(INTERVAL_MS, TimeUnit.MILLISECONDS);
+        subscriber.assertValueCount(3);
+        assertEquals(symbols("AAPL", "MSFT"), updates.values().get(2).keySet());
+    }
+
+    @Test
+    public void testTicksServedFromTheCacheReachSubscribers() {
+        // a poll shorter than the cache ttl, nothing is fetched so nothing is published
+        final Map<String, Quote> cachedQuotes = createQuotes(symbols("AAPL", "MSFT"));
+        quoteStream = new QuoteStream(symbols -> {
+            requests.add(new HashSet<>(symbols));
+            return Observable.just(cachedQuotes);
+        }, scheduler);
+
+        TestSubscriber<Map<String, Quote>> subscriber = quoteStream.streamQuotes(symbols("AAPL"), INTERVAL_MS).test();
+        TestObserver<Map<String, Quote>> updates = quoteStream.getUpdates().test();
+        subscriber.assertValueCount(1);
+
+        // the cached quote changes when someone else fetches it
+        cachedQuotes.putAll(createQuotes(symbols("AAPL")));
+        scheduler.advanceTimeBy(INTERVAL_MS, TimeUnit.MILLISECONDS);
+
+        subscriber.assertValueCount(2);
+        assertEquals(symbols("AAPL"), subscriber.values().get(1).keySet());
+        updates.assertNoValues();
+
+        // an unchanged tick is not emitted again
+        scheduler.advanceTimeBy(INTERVAL_MS, TimeUnit.MILLISECONDS);
+        assertEquals(3, requests.size());
+        subscriber.assertValueCount(2);
+    }
+
+    @Test
+    public void testPollStopsWhenLastSubscriberCancels() {
+        TestSubscriber<Map<String, Quote>> first = quoteStream.streamQuotes(symbols("AAPL", "MSFT"), INTERVAL_MS).test();
+        TestSubscriber<Map<String, Quote>> second = quoteStream.streamQuotes(symbols("MSFT", "IBM"), INTERVAL_MS).test();
+
+        first.cancel();
+        assertEquals(2, quoteStream.getSubscribedSymbolCount(INTERVAL_MS));
+
+        requests.clear();
+        scheduler.advanceTimeBy(INTERVAL_MS, TimeUnit.MILLISECONDS);
+        assertEquals(symbols("MSFT", "IBM"), requests.get(0));
+
+        second.cancel();
+        assertEquals(0, quoteStream.getSubscribedSymbolCount(INTERVAL_MS));
+
+        requests.clear();
+        scheduler.advanceTimeBy(INTERVAL_MS * 5, TimeUnit.MILLISECONDS);
+        assertEquals(0, requests.size());
+    }
+}
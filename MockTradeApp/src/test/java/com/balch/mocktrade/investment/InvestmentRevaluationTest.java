@@ -0,0 +1,109 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 8:30 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+
+package com.balch.mocktrade.investment;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import com.balch.android.app.framework.sql.SqlConnection;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class InvestmentRevaluationTest {
+
+    private SqlConnection sqlConnection;
+    private SQLiteDatabase db;
+    private SQLiteStatement statement;
+    private InvestmentSqliteModel investmentModel;
+
+    @Before
+    public void setUp() {
+        sqlConnection = mock(SqlConnection.class);
+        db = mock(SQLiteDatabase.class);
+        statement = mock(SQLiteStatement.class);
+        doReturn(db).when(sqlConnection).getWritableDatabase();
+        // writes run inline on the test thread
+        doCallRealMethod().when(sqlConnection).write(any(SqlConnection.WriteTask.class));
+        doReturn(statement).when(db).compileStatement(anyString());
+
+        investmentModel = new InvestmentSqliteModel(sqlConnection);
+    }
+
+    @Test
+    public void testRowsGrowPastTheInitialCapacity() {
+        InvestmentRevaluation revaluation = new InvestmentRevaluation();
+        for (int x = 0; x < 500; x++) {
+            revaluation.add(x, x * 10, x * 20, x * 30);
+        }
+
+        assertEquals(500, revaluation.size());
+        assertEquals(499, revaluation.getInvestmentId(499));
+        assertEquals(4990, revaluation.getPrice(499));
+        assertEquals(9980, revaluation.getPreviousClose(499));
+        assertEquals(14970, revaluation.getLastTradeTime(499));
+
+        revaluation.clear();
+        assertEquals(0, revaluation.size());
+    }
+
+    @Test
+    public void testAllRowsAreWrittenInOneTransaction() {
+        doReturn(1, 0, 1).when(statement).executeUpdateDelete();
+
+        InvestmentRevaluation revaluation = new InvestmentRevaluation();
+        revaluation.add(1, 100, 90, 1000);
+        revaluation.add(2, 200, 190, 2000);
+        revaluation.add(3, 300, 290, 3000);
+
+        assertEquals(2, investmentModel.revalueInvestments(revaluation));
+
+        InOrder inOrder = inOrder(db, statement);
+        inOrder.verify(db).beginTransaction();
+        inOrder.verify(statement, times(3)).executeUpdateDelete();
+        inOrder.verify(db).setTransactionSuccessful();
+        inOrder.verify(db).endTransaction();
+
+        verify(db, times(1)).compileStatement(anyString());
+        verify(statement).bindLong(1, 200);
+        verify(statement).bindLong(2, 190);
+        verify(statement).bindLong(5, 2);
+        // the trade time guards against overwriting a newer price
+        verify(statement).bindLong(3, 3000);
+        verify(statement).bindLong(6, 3000);
+        verify(statement).close();
+    }
+}
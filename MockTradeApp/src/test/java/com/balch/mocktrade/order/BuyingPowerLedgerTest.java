@@ -0,0 +1,166 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 10:31 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+
+package com.balch.mocktrade.order;
+
+import com.balch.android.app.framework.types.Money;
+import com.balch.mocktrade.account.Account;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class BuyingPowerLedgerTest {
+
+    private static long nextId = 1;
+
+    private BuyingPowerLedger.Loader loader;
+    private List<Order> openOrders;
+    private BuyingPowerLedger ledger;
+
+    private static Order createOrder(Order.OrderStrategy strategy, Order.OrderAction action,
+                                     long quantity, double limitPrice) {
+        Account account = new Account();
+        account.setId(1L);
+
+        Order order = new Order();
+        order.setId(nextId++);
+        order.setAccount(account);
+        order.setSymbol("AAPL");
+        order.setStatus(Order.OrderStatus.OPEN);
+        order.setStrategy(strategy);
+        order.setAction(action);
+        order.setQuantity(quantity);
+        order.setLimitPrice(new Money(limitPrice));
+        return order;
+    }
+
+    private static long dollars(double dollars) {
+        return new Money(dollars).getMicroCents();
+    }
+
+    @Before
+    public void setUp() {
+        openOrders = new ArrayList<>();
+        loader = mock(BuyingPowerLedger.Loader.class);
+        doReturn(dollars(100.0)).when(loader).getAvailableFunds(1L);
+        doReturn(openOrders).when(loader).getOpenOrders(1L);
+        ledger = new BuyingPowerLedger(loader);
+    }
+
+    @Test
+    public void testReserveReleaseAndSettle() throws Exception {
+        Order first = createOrder(Order.OrderStrategy.LIMIT, Order.OrderAction.BUY, 4, 10.0);
+        Order second = createOrder(Order.OrderStrategy.LIMIT, Order.OrderAction.BUY, 5, 10.0);
+        ledger.reserve(first);
+        ledger.reserve(second);
+
+        assertEquals(dollars(10.0), ledger.getUnreservedFunds(1L));
+        assertEquals(dollars(90.0), ledger.getReservedFunds(1L));
+        // an order can spend its own reservation
+        assertEquals(dollars(50.0), ledger.getBuyingPower(first));
+
+        ledger.release(second.getId());
+        assertEquals(dollars(60.0), ledger.getUnreservedFunds(1L));
+
+        // filled below the limit
+        ledger.settle(first, -dollars(36.0));
+        assertEquals(dollars(64.0), ledger.getUnreservedFunds(1L));
+        assertEquals(0, ledger.getReservedFunds(1L));
+
+        verify(loader, times(1)).getAvailableFunds(1L);
+    }
+
+    @Test
+    public void testOverCommittedOrderIsRejected() throws Exception {
+        ledger.reserve(createOrder(Order.OrderStrategy.MANUAL, Order.OrderAction.BUY, 8, 10.0));
+
+        Order order = createOrder(Order.OrderStrategy.LIMIT, Order.OrderAction.BUY, 3, 10.0);
+        try {
+            ledger.reserve(order);
+            fail("OrderRejectedException expected");
+        } catch (OrderRejectedException ex) {
+            assertEquals(dollars(20.0), ledger.getUnreservedFunds(1L));
+        }
+    }
+
+    @Test
+    public void testSellsAndMarketOrdersReserveNothing() throws Exception {
+        ledger.reserve(createOrder(Order.OrderStrategy.MARKET, Order.OrderAction.BUY, 100, 0));
+        ledger.reserve(createOrder(Order.OrderStrategy.LIMIT, Order.OrderAction.SELL, 100, 10.0));
+
+        assertEquals(dollars(100.0), ledger.getUnreservedFunds(1L));
+    }
+
+    @Test
+    public void testOpenOrdersAreReservedWhenTheAccountIsLoaded() throws Exception {
+        Order open = createOrder(Order.OrderStrategy.LIMIT, Order.OrderAction.BUY, 5, 10.0);
+        openOrders.addAll(Arrays.asList(open,
+                createOrder(Order.OrderStrategy.TRAILING_STOP_PERCENT_CHANGE, Order.OrderAction.SELL, 5, 0)));
+
+        assertEquals(dollars(50.0), ledger.getUnreservedFunds(1L));
+
+        // reserving an order the load already saw does not count it twice
+        ledger.reserve(open);
+        assertEquals(dollars(50.0), ledger.getUnreservedFunds(1L));
+
+        ledger.removeAccount(1L);
+        ledger.release(open.getId());
+        openOrders.clear();
+        assertEquals(dollars(100.0), ledger.getUnreservedFunds(1L));
+    }
+
+    @Test
+    public void testReservationOfLimitOrder() {
+        assertEquals(dollars(50.0),
+                BuyingPowerLedger.getReservation(createOrder(Order.OrderStrategy.LIMIT, Order.OrderAction.BUY, 5, 10.0)));
+        assertEquals(0,
+                BuyingPowerLedger.getReservation(createOrder(Order.OrderStrategy.MARKET, Order.OrderAction.BUY, 5, 10.0)));
+    }
+
+    @Test
+    public void testClearedLedgerReloadsTheRestoredCash() throws Exception {
+        ledger.reserve(createOrder(Order.OrderStrategy.LIMIT, Order.OrderAction.BUY, 5, 10.0));
+        assertEquals(dollars(50.0), ledger.getUnreservedFunds(1L));
+
+        // the database is restored with different cash and no open orders
+        doReturn(dollars(250.0)).when(loader).getAvailableFunds(1L);
+        assertEquals(dollars(50.0), ledger.getUnreservedFunds(1L));
+
+        ledger.clear();
+        assertEquals(dollars(250.0), ledger.getUnreservedFunds(1L));
+        assertEquals(0, ledger.getReservedFunds(1L));
+        verify(loader, times(2)).getAvailableFunds(1L);
+    }
+}
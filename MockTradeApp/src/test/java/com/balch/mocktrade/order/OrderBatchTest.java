@@ -0,0 +1,313 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 3:20 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+
+package com.balch.mocktrade.order;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import com.balch.android.app.framework.core.DomainObject;
+import com.balch.android.app.framework.sql.SqlConnection;
+import com.balch.android.app.framework.sql.SqlMapper;
+import com.balch.android.app.framework.types.Money;
+import com.balch.mocktrade.account.Account;
+import com.balch.mocktrade.account.AccountSqliteModel;
+import com.balch.mocktrade.account.Transaction;
+import com.balch.mocktrade.finance.Quote;
+import com.balch.mocktrade.investment.Investment;
+import com.balch.mocktrade.investment.InvestmentSqliteModel;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class OrderBatchTest {
+
+    private SqlConnection sqlConnection;
+    private SQLiteDatabase db;
+    private AccountSqliteModel accountModel;
+    private InvestmentSqliteModel investmentModel;
+    private OrderSqliteModel orderModel;
+    private Account account;
+
+    @Before
+    public void setUp() throws Exception {
+        sqlConnection = mock(SqlConnection.class);
+        db = mock(SQLiteDatabase.class);
+        accountModel = mock(AccountSqliteModel.class);
+        investmentModel = mock(InvestmentSqliteModel.class);
+        orderModel = mock(OrderSqliteModel.class);
+
+        account = new Account();
+        account.setId(1L);
+        account.setAvailableFunds(new Money(100.0));
+
+        doReturn(db).when(sqlConnection).getWritableDatabase();
+        // writes run inline on the test thread
+        doCallRealMethod().when(sqlConnection).write(any(SqlConnection.WriteTask.class));
+        doReturn(account).when(sqlConnection).queryById(eq(accountModel), eq(1L));
+        doReturn(true).when(sqlConnection).update(any(SqlMapper.class), any(DomainObject.class), eq(db));
+        doReturn(true).when(sqlConnection).update(any(SqlMapper.class), any(DomainObject.class),
+                anyString(), any(String[].class), eq(db));
+        doReturn(true).when(accountModel).addAvailableFunds(anyLong(), any(Money.class), eq(db));
+    }
+
+    private static long nextId = 1;
+
+    private static Order createOrder(String symbol, Order.OrderAction action, long quantity) {
+        Account account = new Account();
+        account.setId(1L);
+
+        Order order = new Order();
+        order.setId(nextId++);
+        order.setAccount(account);
+        order.setSymbol(symbol);
+        order.setStatus(Order.OrderStatus.OPEN);
+        order.setStrategy(Order.OrderStrategy.MARKET);
+        order.setAction(action);
+        order.setQuantity(quantity);
+        return order;
+    }
+
+    private static Quote createQuote(String symbol, double price) {
+        return new Quote(symbol, symbol, "NYSE", new Money(price), new Date(),
+                new Money(price), new Money(0));
+    }
+
+    private static void stage(OrderBatch batch, Order order, double price) {
+        try {
+            batch.executeOrder(order, createQuote(order.getSymbol(), price), new Money(price));
+        } catch (Exception ex) {
+            batch.fail(order, ex);
+        }
+    }
+
+    @Test
+    public void testFillsShareTheAccountAndOneTransaction() throws Exception {
+        OrderBatch batch = new OrderBatch(sqlConnection, accountModel, investmentModel, orderModel, null, null);
+
+        Order aapl = createOrder("AAPL", Order.OrderAction.BUY, 5);
+        Order msft = createOrder("MSFT", Order.OrderAction.BUY, 4);
+        Order ibm = createOrder("IBM", Order.OrderAction.BUY, 2);
+        stage(batch, aapl, 10.0);
+        stage(batch, msft, 10.0);
+        // only $10 is left after the first two fills
+        stage(batch, ibm, 10.0);
+
+        List<OrderExecution> executions = batch.commit();
+
+        assertEquals(3, executions.size());
+        assertTrue(executions.get(0).isSuccess());
+        assertTrue(executions.get(1).isSuccess());
+        assertFalse(executions.get(2).isSuccess());
+        assertEquals(ibm, executions.get(2).getOrder());
+        assertNull(executions.get(2).getResult());
+
+        assertEquals(Order.OrderStatus.FULFILLED, aapl.getStatus());
+        assertEquals(Order.OrderStatus.FULFILLED, msft.getStatus());
+        assertEquals(Order.OrderStatus.ERROR, ibm.getStatus());
+
+        verify(db, times(1)).beginTransaction();
+        verify(db, times(1)).setTransactionSuccessful();
+        verify(sqlConnection, times(1)).queryById(eq(accountModel), eq(1L));
+        verify(accountModel, times(1)).addAvailableFunds(1L, new Money(-90.0), db);
+        verify(sqlConnection, times(2)).insert(any(Transaction.class), any(Transaction.class), eq(db));
+        verify(sqlConnection, times(2)).insert(eq(investmentModel), any(Investment.class), eq(db));
+        verify(sqlConnection, times(3)).update(eq(orderModel), any(Order.class),
+                eq(OrderSqliteModel.WHERE_STATUS_OPEN), eq(OrderSqliteModel.WHERE_STATUS_OPEN_ARGS), eq(db));
+    }
+
+    @Test
+    public void testReservedOrdersFilledTogetherAreNotCountedTwice() throws Exception {
+        BuyingPowerLedger.Loader loader = mock(BuyingPowerLedger.Loader.class);
+        doReturn(new Money(1000.0).getMicroCents()).when(loader).getAvailableFunds(1L);
+        doReturn(Collections.emptyList()).when(loader).getOpenOrders(1L);
+        BuyingPowerLedger ledger = new BuyingPowerLedger(loader);
+
+        Order aapl = createOrder("AAPL", Order.OrderAction.BUY, 50);
+        Order msft = createOrder("MSFT", Order.OrderAction.BUY, 50);
+        for (Order order : new Order[]{aapl, msft}) {
+            order.setStrategy(Order.OrderStrategy.LIMIT);
+            order.setLimitPrice(new Money(10.0));
+            ledger.reserve(order);
+        }
+        assertEquals(0, ledger.getUnreservedFunds(1L));
+
+        // both limits trigger on the same tick
+        OrderBatch batch = new OrderBatch(sqlConnection, accountModel, investmentModel, orderModel, null, ledger);
+        stage(batch, aapl, 10.0);
+        stage(batch, msft, 10.0);
+
+        List<OrderExecution> executions = batch.commit();
+
+        assertEquals(2, executions.size());
+        assertTrue(executions.get(0).isSuccess());
+        assertTrue(executions.get(1).isSuccess());
+        assertEquals(0, ledger.getUnreservedFunds(1L));
+        assertEquals(0, ledger.getReservedFunds(1L));
+        verify(accountModel, times(1)).addAvailableFunds(1L, new Money(-1000.0), db);
+    }
+
+    @Test
+    public void testLaterOrdersSeeEarlierPositions() throws Exception {
+        OrderBatch batch = new OrderBatch(sqlConnection, accountModel, investmentModel, orderModel, null, null);
+
+        Order buy = createOrder("AAPL", Order.OrderAction.BUY, 5);
+        Order sell = createOrder("AAPL", Order.OrderAction.SELL, 5);
+        stage(batch, buy, 10.0);
+        stage(batch, sell, 12.0);
+
+        List<OrderExecution> executions = batch.commit();
+
+        assertTrue(executions.get(0).isSuccess());
+        assertTrue(executions.get(1).isSuccess());
+        verify(accountModel, times(1)).addAvailableFunds(1L, new Money(10.0), db);
+
+        // bought and sold in the same batch so the position is never written
+        verify(sqlConnection, times(1)).getWritableDatabase();
+        verify(sqlConnection, times(0)).insert(eq(investmentModel), any(Investment.class), eq(db));
+        verify(sqlConnection, times(0)).delete(eq(investmentModel), any(Investment.class), eq(db));
+    }
+
+    @Test
+    public void testLedgerChecksFundsWithoutReadingTheAccount() throws Exception {
+        BuyingPowerLedger.Loader loader = mock(BuyingPowerLedger.Loader.class);
+        doReturn(new Money(100.0).getMicroCents()).when(loader).getAvailableFunds(1L);
+        doReturn(Collections.emptyList()).when(loader).getOpenOrders(1L);
+        BuyingPowerLedger ledger = new BuyingPowerLedger(loader);
+
+        OrderBatch batch = new OrderBatch(sqlConnection, accountModel, investmentModel, orderModel, null, ledger);
+
+        Order aapl = createOrder("AAPL", Order.OrderAction.BUY, 6);
+        Order msft = createOrder("MSFT", Order.OrderAction.BUY, 5);
+        stage(batch, aapl, 10.0);
+        // only $40 is left after the first fill
+        stage(batch, msft, 10.0);
+
+        List<OrderExecution> executions = batch.commit();
+
+        assertTrue(executions.get(0).isSuccess());
+        assertFalse(executions.get(1).isSuccess());
+        assertEquals(new Money(40.0).getMicroCents(), ledger.getUnreservedFunds(1L));
+        verify(sqlConnection, times(0)).queryById(eq(accountModel), anyLong());
+        verify(accountModel, times(1)).addAvailableFunds(1L, new Money(-60.0), db);
+    }
+
+    @Test
+    public void testFailedCommitLeavesOrdersOpen() throws Exception {
+        doReturn(false).when(accountModel).addAvailableFunds(anyLong(), any(Money.class), eq(db));
+        OrderBatch batch = new OrderBatch(sqlConnection, accountModel, investmentModel, orderModel, null, null);
+
+        Order order = createOrder("AAPL", Order.OrderAction.BUY, 5);
+        stage(batch, order, 10.0);
+
+        List<OrderExecution> executions = batch.commit();
+
+        assertEquals(1, executions.size());
+        assertFalse(executions.get(0).isSuccess());
+        assertEquals(Order.OrderStatus.OPEN, order.getStatus());
+        verify(db, times(0)).setTransactionSuccessful();
+        verify(db, times(1)).endTransaction();
+    }
+
+    @Test
+    public void testFailingRowOnlyHoldsBackItsOwnOrder() throws Exception {
+        OrderBatch batch = new OrderBatch(sqlConnection, accountModel, investmentModel, orderModel, null, null);
+
+        Order aapl = createOrder("AAPL", Order.OrderAction.BUY, 5);
+        Order msft = createOrder("MSFT", Order.OrderAction.BUY, 4);
+        Order ibm = createOrder("IBM", Order.OrderAction.BUY, 1);
+        stage(batch, aapl, 10.0);
+        stage(batch, msft, 10.0);
+        stage(batch, ibm, 10.0);
+        // the account row can not take the cash of the batch or of the MSFT fill
+        doReturn(false).when(accountModel).addAvailableFunds(1L, new Money(-100.0), db);
+        doReturn(false).when(accountModel).addAvailableFunds(1L, new Money(-40.0), db);
+
+        List<OrderExecution> executions = batch.commit();
+
+        assertEquals(3, executions.size());
+        assertTrue(executions.get(0).isSuccess());
+        assertEquals(aapl, executions.get(0).getOrder());
+        assertFalse(executions.get(1).isSuccess());
+        assertEquals(msft, executions.get(1).getOrder());
+        assertTrue(executions.get(1).getError() != null);
+        assertTrue(executions.get(2).isSuccess());
+        assertEquals(ibm, executions.get(2).getOrder());
+
+        assertEquals(Order.OrderStatus.FULFILLED, aapl.getStatus());
+        assertEquals(Order.OrderStatus.OPEN, msft.getStatus());
+        assertEquals(Order.OrderStatus.FULFILLED, ibm.getStatus());
+
+        // the batch, then one transaction per fill, and only the good fills commit
+        verify(db, times(4)).beginTransaction();
+        verify(db, times(2)).setTransactionSuccessful();
+        verify(accountModel, times(1)).addAvailableFunds(1L, new Money(-50.0), db);
+        verify(accountModel, times(1)).addAvailableFunds(1L, new Money(-10.0), db);
+    }
+
+    @Test
+    public void testFillOfAClosedOrderIsNotWritten() throws Exception {
+        OrderBatch batch = new OrderBatch(sqlConnection, accountModel, investmentModel, orderModel, null, null);
+
+        Order aapl = createOrder("AAPL", Order.OrderAction.BUY, 5);
+        Order msft = createOrder("MSFT", Order.OrderAction.BUY, 4);
+        stage(batch, aapl, 10.0);
+        stage(batch, msft, 10.0);
+
+        // the MSFT row is no longer open
+        doReturn(false).when(sqlConnection).update(eq(orderModel), eq(msft),
+                anyString(), any(String[].class), eq(db));
+
+        List<OrderExecution> executions = batch.commit();
+
+        assertEquals(2, executions.size());
+        assertTrue(executions.get(0).isSuccess());
+        assertEquals(aapl, executions.get(0).getOrder());
+        assertFalse(executions.get(1).isSuccess());
+        assertEquals(msft, executions.get(1).getOrder());
+        assertEquals(Order.OrderStatus.FULFILLED, aapl.getStatus());
+        assertEquals(Order.OrderStatus.OPEN, msft.getStatus());
+
+        // only the AAPL fill commits
+        verify(db, times(3)).beginTransaction();
+        verify(db, times(1)).setTransactionSuccessful();
+    }
+}
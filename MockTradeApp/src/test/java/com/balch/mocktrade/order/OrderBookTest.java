@@ -0,0 +1,183 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 2:05 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+
+package com.balch.mocktrade.order;
+
+import com.balch.android.app.framework.types.Money;
+import com.balch.mocktrade.account.Account;
+import com.balch.mocktrade.finance.Quote;
+import com.balch.mocktrade.finance.QuoteBook;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class OrderBookTest {
+
+    private static long nextId = 1;
+
+    private static Order createOrder(long accountId, String symbol, Order.OrderStrategy strategy,
+                                     Order.OrderAction action, double limitPrice) {
+        Account account = new Account();
+        account.setId(accountId);
+
+        Order order = new Order();
+        order.setId(nextId++);
+        order.setAccount(account);
+        order.setSymbol(symbol);
+        order.setStatus(Order.OrderStatus.OPEN);
+        order.setStrategy(strategy);
+        order.setAction(action);
+        order.setLimitPrice(new Money(limitPrice));
+        return order;
+    }
+
+    private static long price(double dollars) {
+        return new Money(dollars).getMicroCents();
+    }
+
+    private static Set<Order> set(List<Order> orders) {
+        return new HashSet<>(orders);
+    }
+
+    @Test
+    public void testOnlyCrossedOrdersAreReturned() {
+        Order buy9 = createOrder(1, "AAPL", Order.OrderStrategy.LIMIT, Order.OrderAction.BUY, 9.0);
+        Order buy10 = createOrder(1, "AAPL", Order.OrderStrategy.LIMIT, Order.OrderAction.BUY, 10.0);
+        Order sell11 = createOrder(1, "AAPL", Order.OrderStrategy.LIMIT, Order.OrderAction.SELL, 11.0);
+        Order sell12 = createOrder(1, "AAPL", Order.OrderStrategy.LIMIT, Order.OrderAction.SELL, 12.0);
+        Order stop8 = createOrder(1, "AAPL", Order.OrderStrategy.STOP_LOSS, Order.OrderAction.SELL, 8.0);
+        Order trailing = createOrder(1, "AAPL", Order.OrderStrategy.TRAILING_STOP_PERCENT_CHANGE, Order.OrderAction.SELL, 0);
+        Order msft = createOrder(1, "MSFT", Order.OrderStrategy.LIMIT, Order.OrderAction.BUY, 100.0);
+
+        OrderBook book = new OrderBook();
+        book.rebuild(Arrays.asList(buy9, buy10, sell11, sell12, stop8, trailing, msft));
+
+        assertEquals(7, book.size());
+        assertEquals(new HashSet<>(Arrays.asList("AAPL", "MSFT")), new HashSet<>(book.getSymbols()));
+
+        // between the limits only the trailing stop needs to look at the price
+        assertEquals(set(Arrays.asList(trailing)), set(book.getTriggeredOrders("AAPL", price(10.50))));
+
+        assertEquals(set(Arrays.asList(trailing, buy10)), set(book.getTriggeredOrders("AAPL", price(10.0))));
+        assertEquals(set(Arrays.asList(trailing, buy10, buy9)), set(book.getTriggeredOrders("AAPL", price(9.0))));
+        assertEquals(set(Arrays.asList(trailing, buy10, buy9, stop8)), set(book.getTriggeredOrders("aapl", price(7.99))));
+        assertEquals(set(Arrays.asList(trailing, sell11)), set(book.getTriggeredOrders("AAPL", price(11.50))));
+        assertEquals(set(Arrays.asList(trailing, sell11, sell12)), set(book.getTriggeredOrders("AAPL", price(12.0))));
+
+        assertTrue(book.getTriggeredOrders("IBM", price(1.0)).isEmpty());
+    }
+
+    @Test
+    public void testRemoveKeepsBookInSync() {
+        Order buy = createOrder(1, "AAPL", Order.OrderStrategy.LIMIT, Order.OrderAction.BUY, 10.0);
+        Order sameLimit = createOrder(2, "AAPL", Order.OrderStrategy.LIMIT, Order.OrderAction.BUY, 10.0);
+        Order market = createOrder(2, "MSFT", Order.OrderStrategy.MARKET, Order.OrderAction.BUY, 0);
+
+        OrderBook book = new OrderBook();
+        book.add(buy);
+        book.add(sameLimit);
+        book.add(market);
+        assertEquals(set(Arrays.asList(buy, sameLimit)), set(book.getTriggeredOrders("AAPL", price(10.0))));
+
+        assertTrue(book.remove(buy));
+        assertFalse(book.remove(buy));
+        assertEquals(set(Arrays.asList(sameLimit)), set(book.getTriggeredOrders("AAPL", price(10.0))));
+
+        assertEquals(2, book.removeAccount(2));
+        assertTrue(book.isEmpty());
+        assertTrue(book.getSymbols().isEmpty());
+    }
+
+    @Test
+    public void testRemoveAll() {
+        Order buy = createOrder(1, "AAPL", Order.OrderStrategy.LIMIT, Order.OrderAction.BUY, 10.0);
+        Order sell = createOrder(1, "AAPL", Order.OrderStrategy.LIMIT, Order.OrderAction.SELL, 12.0);
+        Order market = createOrder(2, "MSFT", Order.OrderStrategy.MARKET, Order.OrderAction.BUY, 0);
+
+        OrderBook book = new OrderBook();
+        book.rebuild(Arrays.asList(buy, sell, market));
+
+        // an id that is not in the book is ignored
+        assertEquals(2, book.removeAll(Arrays.asList(sell.getId(), market.getId(), -1L)));
+        assertEquals(1, book.size());
+        assertEquals(Arrays.asList("AAPL"), book.getSymbols());
+        assertTrue(book.contains(buy.getId()));
+    }
+
+    @Test
+    public void testTriggeredOrdersForTick() {
+        Order buy10 = createOrder(1, "AAPL", Order.OrderStrategy.LIMIT, Order.OrderAction.BUY, 10.0);
+        Order sell12 = createOrder(1, "MSFT", Order.OrderStrategy.LIMIT, Order.OrderAction.SELL, 12.0);
+        Order trailing = createOrder(1, "AAPL", Order.OrderStrategy.TRAILING_STOP_AMOUNT_CHANGE, Order.OrderAction.SELL, 0);
+        trailing.setStopPrice(new Money(1.0));
+        trailing.setHighestPrice(new Money(11.0));
+
+        OrderBook book = new OrderBook();
+        book.rebuild(Arrays.asList(buy10, sell12, trailing));
+        assertTrue(book.hasTrailingStops());
+
+        QuoteBook quoteBook = new QuoteBook();
+        Map<String, Quote> quoteMap = new HashMap<>();
+        quoteMap.put("AAPL", new Quote("AAPL", "AAPL", "NYSE", new Money(12.0), new Date(1000),
+                new Money(12.0), new Money(0)));
+        quoteBook.update(quoteMap);
+
+        // the mark moves to 12, nothing crosses
+        assertTrue(book.getTriggeredOrders(quoteBook, 0, null).isEmpty());
+
+        quoteMap.put("AAPL", new Quote("AAPL", "AAPL", "NYSE", new Money(10.0), new Date(2000),
+                new Money(12.0), new Money(0)));
+        quoteBook.update(quoteMap);
+        assertEquals(set(Arrays.asList(buy10, trailing)), set(book.getTriggeredOrders(quoteBook, 0, null)));
+        assertEquals(price(12.0), trailing.getHighestPrice().getMicroCents());
+
+        // trailing stops ignore quotes that are too old
+        assertEquals(set(Arrays.asList(buy10)), set(book.getTriggeredOrders(quoteBook, 3000, null)));
+
+        assertTrue(book.remove(trailing));
+        assertFalse(book.hasTrailingStops());
+    }
+
+    @Test
+    public void testOnlyOpenOrdersAreAdded() {
+        Order order = createOrder(1, "AAPL", Order.OrderStrategy.MARKET, Order.OrderAction.BUY, 0);
+        order.setStatus(Order.OrderStatus.FULFILLED);
+
+        OrderBook book = new OrderBook();
+        book.add(order);
+
+        assertTrue(book.isEmpty());
+    }
+}
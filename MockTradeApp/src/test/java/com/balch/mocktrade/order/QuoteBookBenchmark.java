@@ -0,0 +1,235 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 5:02 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+package com.balch.mocktrade.order;
+
+import android.content.Context;
+
+import com.balch.android.app.framework.types.Money;
+import com.balch.mocktrade.finance.FinanceModel;
+import com.balch.mocktrade.finance.Quote;
+import com.balch.mocktrade.finance.QuoteBook;
+import com.balch.mocktrade.investment.Investment;
+import com.balch.mocktrade.settings.Settings;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Measures the garbage produced per quote tick by a synthetic 5,000 symbol
+ * portfolio (one investment and one open order per symbol) when the tick is
+ * processed straight from the Map of Quote objects versus from a QuoteBook.
+ *
+ * The quote maps are built before measuring, so only the processing of the
+ * tick is counted. Prices are chosen so none of the orders execute.
+ */
+public class QuoteBookBenchmark {
+
+    private static final int SYMBOL_COUNT = 5000;
+    private static final int TICK_COUNT = 50;
+    private static final int WARMUP_PASSES = 5;
+
+    private static class NoopListener implements OrderManager.OrderManagerListener {
+        int executeCount = 0;
+
+        @Override
+        public OrderResult executeOrder(Order order, Quote quote, Money price) {
+            executeCount++;
+            return new OrderResult(true, price, price, price, 0);
+        }
+
+        @Override
+        public Investment getInvestmentBySymbol(String symbol, Long accountId) {
+            return null;
+        }
+
+        @Override
+        public boolean updateOrder(Order order) {
+            return true;
+        }
+    }
+
+    @Test
+    public void benchmark() throws Exception {
+        List<String> symbols = new ArrayList<>(SYMBOL_COUNT);
+        List<Investment> investments = new ArrayList<>(SYMBOL_COUNT);
+        List<Order> orders = new ArrayList<>(SYMBOL_COUNT);
+        for (int x = 0; x < SYMBOL_COUNT; x++) {
+            String symbol = String.format(Locale.US, "S%04d", x);
+            symbols.add(symbol);
+
+            Investment investment = new Investment();
+            investment.setSymbol(symbol);
+            investment.setPrice(new Money(100.0), new Date(0));
+            investments.add(investment);
+
+            orders.add(createOrder(symbol, x));
+        }
+
+        List<Map<String, Quote>> ticks = createTicks(symbols);
+
+        NoopListener listener = new NoopListener();
+        OrderManager orderManager = new OrderManager(mock(Context.class), mock(FinanceModel.class),
+                mock(Settings.class), listener) {
+            @Override
+            boolean isQuoteValid(Quote quote) {
+                return true;
+            }
+        };
+
+        QuoteBook quoteBook = new QuoteBook();
+        for (int x = 0; x < WARMUP_PASSES; x++) {
+            runMapTicks(ticks, investments, orders, orderManager);
+            runQuoteBookTicks(ticks, investments, orders, orderManager, quoteBook);
+        }
+
+        long startBytes = getAllocatedBytes();
+        long startNanos = System.nanoTime();
+        int mapChanged = runMapTicks(ticks, investments, orders, orderManager);
+        long mapNanos = System.nanoTime() - startNanos;
+        long mapBytes = getAllocatedBytes() - startBytes;
+
+        startBytes = getAllocatedBytes();
+        startNanos = System.nanoTime();
+        int bookChanged = runQuoteBookTicks(ticks, investments, orders, orderManager, quoteBook);
+        long bookNanos = System.nanoTime() - startNanos;
+        long bookBytes = getAllocatedBytes() - startBytes;
+
+        assertEquals(mapChanged, bookChanged);
+        assertEquals(0, listener.executeCount);
+
+        System.out.println(String.format(Locale.US, "Quote tick: %d investments, %d open orders",
+                SYMBOL_COUNT, SYMBOL_COUNT));
+        System.out.println(format("Map<String, Quote>", mapNanos, mapBytes, startBytes));
+        System.out.println(format("QuoteBook", bookNanos, bookBytes, startBytes));
+    }
+
+    private static int runMapTicks(List<Map<String, Quote>> ticks, List<Investment> investments,
+                                   List<Order> orders, OrderManager orderManager) throws Exception {
+        int changed = 0;
+        for (Map<String, Quote> quoteMap : ticks) {
+            for (int x = 0; x < investments.size(); x++) {
+                Investment investment = investments.get(x);
+                Quote quote = quoteMap.get(investment.getSymbol());
+                if ((quote != null) && quote.getLastTradeTime().after(investment.getLastTradeTime())) {
+                    changed++;
+                }
+            }
+
+            for (int x = 0; x < orders.size(); x++) {
+                Order order = orders.get(x);
+                orderManager.attemptExecuteOrder(order, quoteMap.get(order.getSymbol()));
+            }
+        }
+        return changed;
+    }
+
+    private static int runQuoteBookTicks(List<Map<String, Quote>> ticks, List<Investment> investments,
+                                         List<Order> orders, OrderManager orderManager,
+                                         QuoteBook quoteBook) throws Exception {
+        int changed = 0;
+        for (Map<String, Quote> quoteMap : ticks) {
+            quoteBook.update(quoteMap);
+
+            for (int x = 0; x < investments.size(); x++) {
+                Investment investment = investments.get(x);
+                int symbolId = quoteBook.indexOf(investment.getSymbol());
+                if (quoteBook.hasQuote(symbolId) &&
+                        (quoteBook.getLastTradeTime(symbolId) > investment.getLastTradeTime().getTime())) {
+                    changed++;
+                }
+            }
+
+            for (int x = 0; x < orders.size(); x++) {
+                Order order = orders.get(x);
+                orderManager.attemptExecuteOrder(order, quoteBook, quoteBook.indexOf(order.getSymbol()));
+            }
+        }
+        return changed;
+    }
+
+    private static Order createOrder(String symbol, int index) {
+        Order order = new Order();
+        order.setSymbol(symbol);
+        switch (index % 3) {
+            case 0:
+                order.setStrategy(Order.OrderStrategy.LIMIT);
+                order.setAction(Order.OrderAction.BUY);
+                order.setLimitPrice(new Money(50.0));
+                break;
+            case 1:
+                order.setStrategy(Order.OrderStrategy.STOP_LOSS);
+                order.setAction(Order.OrderAction.SELL);
+                order.setLimitPrice(new Money(50.0));
+                break;
+            default:
+                order.setStrategy(Order.OrderStrategy.TRAILING_STOP_PERCENT_CHANGE);
+                order.setAction(Order.OrderAction.SELL);
+                order.setStopPercent(25.0);
+                order.setHighestPrice(new Money(120.0));
+                break;
+        }
+        return order;
+    }
+
+    private static List<Map<String, Quote>> createTicks(List<String> symbols) {
+        Random random = new Random(42);
+        List<Map<String, Quote>> ticks = new ArrayList<>(TICK_COUNT);
+        for (int tick = 0; tick < TICK_COUNT; tick++) {
+            Map<String, Quote> quoteMap = new HashMap<>(symbols.size() * 2);
+            for (String symbol : symbols) {
+                double price = 95 + random.nextInt(2000) / 100.0;
+                quoteMap.put(symbol, new Quote(symbol, symbol, "NYSE", new Money(price),
+                        new Date(1000L * tick + random.nextInt(2)), new Money(100.0), new Money(1.0)));
+            }
+            ticks.add(quoteMap);
+        }
+        return ticks;
+    }
+
+    private static String format(String name, long nanos, long bytes, long startBytes) {
+        return String.format(Locale.US, "%-20s %8.2f ms/tick %10d KB allocated/tick",
+                name, nanos / 1e6 / TICK_COUNT, (startBytes < 0) ? -1 : bytes / 1024 / TICK_COUNT);
+    }
+
+    private static long getAllocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean)
+                    .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Author: Balch
+ * Created: 10/19/26 10:02 AM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+package com.balch.mocktrade.order;
+
+import android.content.Context;
+
+import com.balch.android.app.framework.types.Money;
+import com.balch.mocktrade.finance.FinanceModel;
+import com.balch.mocktrade.finance.Quote;
+import com.balch.mocktrade.finance.QuoteBook;
+import com.balch.mocktrade.settings.Settings;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Checks that the QuoteBook tick path of {@link OrderManager} gives the same
+ * outcome as the Quote path for orders that can not be executed.
+ */
+public class TickOrderTest {
+
+    private OrderManager.OrderManagerListener listener;
+    private OrderManager orderManager;
+    private QuoteBook quoteBook;
+    private int symbolId;
+
+    @Before
+    public void setUp() {
+        listener = mock(OrderManager.OrderManagerListener.class);
+        orderManager = spy(new OrderManager(mock(Context.class), mock(FinanceModel.class),
+                mock(Settings.class), listener));
+        doReturn(true).when(orderManager).isQuoteValid(any(Quote.class));
+
+        quoteBook = new QuoteBook();
+        symbolId = quoteBook.intern("TEST");
+        quoteBook.startTick();
+        quoteBook.put(symbolId, "Test", "NYSE", new Money(10.0).getMicroCents(),
+                new Money(9.0).getMicroCents(), 0, 0);
+    }
+
+    private static Order createOrder(Order.OrderStrategy strategy, Order.OrderAction action) {
+        Order order = new Order();
+        order.setSymbol("TEST");
+        order.setStrategy(strategy);
+        order.setAction(action);
+        order.setLimitPrice(new Money(5.0));
+        order.setStopPrice(new Money(1.0));
+        order.setStopPercent(10.0);
+        order.setHighestPrice(new Money(10.0));
+        return order;
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testBuyStopLossIsRejected() throws Exception {
+        orderManager.attemptExecuteOrder(
+                createOrder(Order.OrderStrategy.STOP_LOSS, Order.OrderAction.BUY), quoteBook, symbolId);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testBuyTrailingStopAmountIsRejected() throws Exception {
+        orderManager.attemptExecuteOrder(
+                createOrder(Order.OrderStrategy.TRAILING_STOP_AMOUNT_CHANGE, Order.OrderAction.BUY),
+                quoteBook, symbolId);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testBuyTrailingStopPercentIsRejected() throws Exception {
+        orderManager.attemptExecuteOrder(
+                createOrder(Order.OrderStrategy.TRAILING_STOP_PERCENT_CHANGE, Order.OrderAction.BUY),
+                quoteBook, symbolId);
+    }
+
+    @Test
+    public void testSellStopLossAboveTheLimitIsNotExecuted() throws Exception {
+        OrderResult result = orderManager.attemptExecuteOrder(
+                createOrder(Order.OrderStrategy.STOP_LOSS, Order.OrderAction.SELL), quoteBook, symbolId);
+
+        assertFalse(result.isSuccess());
+        verify(listener, never()).executeOrder(any(Order.class), any(Quote.class), any(Money.class));
+        // the price check short circuits before a Quote is created
+        verify(orderManager, never()).attemptExecuteOrder(any(Order.class), any(Quote.class));
+    }
+}
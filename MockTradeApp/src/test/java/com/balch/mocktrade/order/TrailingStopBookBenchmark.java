@@ -0,0 +1,217 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 9:02 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+
+package com.balch.mocktrade.order;
+
+import com.balch.android.app.framework.types.Money;
+import com.balch.mocktrade.finance.Quote;
+import com.balch.mocktrade.finance.QuoteBook;
+import com.balch.mocktrade.investment.Investment;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Measures the cost of a quote tick with 100,000 open trailing stops spread
+ * over 1,000 symbols, evaluated one Order at a time through OrderManager
+ * versus in one pass over the {@link TrailingStopBook}.
+ *
+ * Prices drift up so marks keep moving, and the stops are wide enough that
+ * none of them execute. Both paths must end with the same marks.
+ */
+public class TrailingStopBookBenchmark {
+
+    private static final int STOP_COUNT = 100000;
+    private static final int SYMBOL_COUNT = 1000;
+    private static final int TICK_COUNT = 50;
+    private static final int WARMUP_PASSES = 3;
+
+    private static class NoopListener implements OrderManager.OrderManagerListener {
+        int executeCount = 0;
+
+        @Override
+        public OrderResult executeOrder(Order order, Quote quote, Money price) {
+            executeCount++;
+            return new OrderResult(true, price, price, price, 0);
+        }
+
+        @Override
+        public Investment getInvestmentBySymbol(String symbol, Long accountId) {
+            return null;
+        }
+
+        @Override
+        public boolean updateOrder(Order order) {
+            return true;
+        }
+    }
+
+    @Test
+    public void benchmark() throws Exception {
+        List<Map<String, Quote>> ticks = createTicks();
+
+        NoopListener listener = new NoopListener();
+        OrderManager orderManager = new OrderManager(null, null, null, listener) {
+            @Override
+            boolean isQuoteValid(Quote quote) {
+                return true;
+            }
+        };
+
+        QuoteBook quoteBook = new QuoteBook();
+        for (int x = 0; x < WARMUP_PASSES; x++) {
+            runOrderTicks(ticks, createOrders(), orderManager, quoteBook);
+            runBookTicks(ticks, createBook(), quoteBook);
+        }
+
+        // fresh marks so the measured ticks raise them like the warm up did
+        List<Order> orders = createOrders();
+        TrailingStopBook book = createBook();
+
+        long startBytes = getAllocatedBytes();
+        long startNanos = System.nanoTime();
+        runOrderTicks(ticks, orders, orderManager, quoteBook);
+        long orderNanos = System.nanoTime() - startNanos;
+        long orderBytes = getAllocatedBytes() - startBytes;
+
+        startBytes = getAllocatedBytes();
+        startNanos = System.nanoTime();
+        int triggered = runBookTicks(ticks, book, quoteBook);
+        long bookNanos = System.nanoTime() - startNanos;
+        long bookBytes = getAllocatedBytes() - startBytes;
+
+        assertEquals(0, listener.executeCount);
+        assertEquals(0, triggered);
+        for (int row = 0; row < book.size(); row++) {
+            assertEquals(orders.get(row).getHighestPrice().getMicroCents(), book.getHighestPrice(row));
+        }
+
+        System.out.println(String.format(Locale.US, "Trailing stop tick: %d stops on %d symbols",
+                STOP_COUNT, SYMBOL_COUNT));
+        System.out.println(format("Order at a time", orderNanos, orderBytes, startBytes));
+        System.out.println(format("TrailingStopBook", bookNanos, bookBytes, startBytes));
+    }
+
+    private static void runOrderTicks(List<Map<String, Quote>> ticks, List<Order> orders,
+                                      OrderManager orderManager, QuoteBook quoteBook) throws Exception {
+        for (Map<String, Quote> quoteMap : ticks) {
+            quoteBook.update(quoteMap);
+            for (int x = 0; x < orders.size(); x++) {
+                Order order = orders.get(x);
+                orderManager.attemptExecuteOrder(order, quoteBook, quoteBook.indexOf(order.getSymbol()));
+            }
+        }
+    }
+
+    private static int runBookTicks(List<Map<String, Quote>> ticks, TrailingStopBook book,
+                                    QuoteBook quoteBook) {
+        int triggered = 0;
+        for (Map<String, Quote> quoteMap : ticks) {
+            quoteBook.update(quoteMap);
+            triggered += book.evaluate(quoteBook, 0, null);
+        }
+        return triggered;
+    }
+
+    private static List<Order> createOrders() {
+        List<Order> orders = new ArrayList<>(STOP_COUNT);
+        for (int x = 0; x < STOP_COUNT; x++) {
+            orders.add(createOrder(x));
+        }
+        return orders;
+    }
+
+    private static TrailingStopBook createBook() {
+        TrailingStopBook book = new TrailingStopBook();
+        for (int x = 0; x < STOP_COUNT; x++) {
+            book.add(createOrder(x));
+        }
+        return book;
+    }
+
+    private static Order createOrder(int index) {
+        String symbol = String.format(Locale.US, "S%04d", index % SYMBOL_COUNT);
+
+        Order order = new Order();
+        order.setId((long) index);
+        order.setSymbol(symbol);
+        order.setStatus(Order.OrderStatus.OPEN);
+        order.setAction(Order.OrderAction.SELL);
+        if (index % 2 == 0) {
+            order.setStrategy(Order.OrderStrategy.TRAILING_STOP_PERCENT_CHANGE);
+            order.setStopPercent(25.0);
+        } else {
+            order.setStrategy(Order.OrderStrategy.TRAILING_STOP_AMOUNT_CHANGE);
+            order.setStopPrice(new Money(25.0));
+        }
+        order.setHighestPrice(new Money(100.0));
+        return order;
+    }
+
+    private static List<Map<String, Quote>> createTicks() {
+        Random random = new Random(42);
+        double[] prices = new double[SYMBOL_COUNT];
+        for (int x = 0; x < SYMBOL_COUNT; x++) {
+            prices[x] = 100.0;
+        }
+
+        List<Map<String, Quote>> ticks = new ArrayList<>(TICK_COUNT);
+        for (int tick = 0; tick < TICK_COUNT; tick++) {
+            Map<String, Quote> quoteMap = new HashMap<>(SYMBOL_COUNT * 2);
+            for (int x = 0; x < SYMBOL_COUNT; x++) {
+                String symbol = String.format(Locale.US, "S%04d", x);
+                prices[x] += (random.nextInt(200) - 80) / 100.0;
+                quoteMap.put(symbol, new Quote(symbol, symbol, "NYSE", new Money(prices[x]),
+                        new Date(1000L * tick), new Money(100.0), new Money(0)));
+            }
+            ticks.add(quoteMap);
+        }
+        return ticks;
+    }
+
+    private static String format(String name, long nanos, long bytes, long startBytes) {
+        return String.format(Locale.US, "%-20s %8.3f ms/tick %10d KB allocated/tick",
+                name, nanos / 1e6 / TICK_COUNT, (startBytes < 0) ? -1 : bytes / 1024 / TICK_COUNT);
+    }
+
+    private static long getAllocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean)
+                    .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
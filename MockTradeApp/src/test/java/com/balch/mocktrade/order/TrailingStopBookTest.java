@@ -0,0 +1,232 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 8:40 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+
+package com.balch.mocktrade.order;
+
+import com.balch.android.app.framework.types.Money;
+import com.balch.mocktrade.account.Account;
+import com.balch.mocktrade.finance.Quote;
+import com.balch.mocktrade.finance.QuoteBook;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TrailingStopBookTest {
+
+    private static final long TRADE_TIME = 1000;
+
+    private static class RecordingListener implements TrailingStopBook.MarkListener {
+        private final Map<Long, Long> marks = new HashMap<>();
+
+        @Override
+        public void onMarksRaised(TrailingStopBook book, int[] rows, int count) {
+            for (int x = 0; x < count; x++) {
+                marks.put(book.getOrderId(rows[x]), book.getHighestPrice(rows[x]));
+            }
+        }
+    }
+
+    private static Order createOrder(long id, String symbol, Order.OrderStrategy strategy,
+                                     double stop, double highestPrice) {
+        Account account = new Account();
+        account.setId(1L);
+
+        Order order = new Order();
+        order.setId(id);
+        order.setAccount(account);
+        order.setSymbol(symbol);
+        order.setStatus(Order.OrderStatus.OPEN);
+        order.setAction(Order.OrderAction.SELL);
+        order.setStrategy(strategy);
+        if (strategy == Order.OrderStrategy.TRAILING_STOP_AMOUNT_CHANGE) {
+            order.setStopPrice(new Money(stop));
+        } else {
+            order.setStopPercent(stop);
+        }
+        order.setHighestPrice(new Money(highestPrice));
+        return order;
+    }
+
+    private static void tick(QuoteBook quoteBook, String symbol, double price) {
+        Map<String, Quote> quoteMap = new HashMap<>();
+        quoteMap.put(symbol, new Quote(symbol, symbol, "NYSE", new Money(price), new Date(TRADE_TIME),
+                new Money(price), new Money(0)));
+        quoteBook.update(quoteMap);
+    }
+
+    private static List<Order> evaluate(TrailingStopBook book, QuoteBook quoteBook,
+                                        TrailingStopBook.MarkListener listener) {
+        List<Order> triggered = new ArrayList<>();
+        int count = book.evaluate(quoteBook, 0, listener);
+        for (int x = 0; x < count; x++) {
+            triggered.add(book.getOrder(book.getTriggeredRow(x)));
+        }
+        return triggered;
+    }
+
+    @Test
+    public void testAmountStop() {
+        TrailingStopBook book = new TrailingStopBook();
+        QuoteBook quoteBook = new QuoteBook();
+        Order order = createOrder(1, "AAPL", Order.OrderStrategy.TRAILING_STOP_AMOUNT_CHANGE, 0.50, 10.0);
+        book.add(order);
+
+        tick(quoteBook, "AAPL", 9.51);
+        assertTrue(evaluate(book, quoteBook, null).isEmpty());
+
+        tick(quoteBook, "AAPL", 9.50);
+        assertEquals(1, evaluate(book, quoteBook, null).size());
+    }
+
+    @Test
+    public void testPercentStopMarkIsRaised() {
+        TrailingStopBook book = new TrailingStopBook();
+        QuoteBook quoteBook = new QuoteBook();
+        RecordingListener listener = new RecordingListener();
+        Order order = createOrder(1, "AAPL", Order.OrderStrategy.TRAILING_STOP_PERCENT_CHANGE, 2.0, 10.0);
+        book.add(order);
+
+        tick(quoteBook, "AAPL", 9.81);
+        assertTrue(evaluate(book, quoteBook, listener).isEmpty());
+        tick(quoteBook, "AAPL", 9.80);
+        assertEquals(1, evaluate(book, quoteBook, listener).size());
+        assertTrue(listener.marks.isEmpty());
+
+        tick(quoteBook, "AAPL", 12.0);
+        assertTrue(evaluate(book, quoteBook, listener).isEmpty());
+        assertEquals(Long.valueOf(new Money(12.0).getMicroCents()), listener.marks.get(1L));
+
+        // 2% of the new mark
+        tick(quoteBook, "AAPL", 11.77);
+        assertTrue(evaluate(book, quoteBook, listener).isEmpty());
+        tick(quoteBook, "AAPL", 11.76);
+        assertEquals(1, evaluate(book, quoteBook, listener).size());
+    }
+
+    @Test
+    public void testStopWithoutMarkIsAlwaysReported() {
+        TrailingStopBook book = new TrailingStopBook();
+        QuoteBook quoteBook = new QuoteBook();
+        Order order = createOrder(1, "AAPL", Order.OrderStrategy.TRAILING_STOP_PERCENT_CHANGE, 2.0, 0);
+        book.add(order);
+
+        tick(quoteBook, "AAPL", 50.0);
+        assertEquals(1, evaluate(book, quoteBook, null).size());
+
+        // OrderManager set the first mark
+        order.setHighestPrice(new Money(50.0));
+        assertTrue(book.raiseHighestPrice(order));
+        assertTrue(evaluate(book, quoteBook, null).isEmpty());
+    }
+
+    @Test
+    public void testQuotesOutsideTheTickOrTooOldAreIgnored() {
+        TrailingStopBook book = new TrailingStopBook();
+        QuoteBook quoteBook = new QuoteBook();
+        book.add(createOrder(1, "AAPL", Order.OrderStrategy.TRAILING_STOP_AMOUNT_CHANGE, 0.50, 10.0));
+
+        tick(quoteBook, "AAPL", 1.0);
+        assertEquals(0, book.evaluate(quoteBook, TRADE_TIME + 1, null));
+
+        tick(quoteBook, "MSFT", 1.0);
+        assertEquals(0, book.evaluate(quoteBook, 0, null));
+    }
+
+    @Test
+    public void testRemoveMovesTheLastRow() {
+        TrailingStopBook book = new TrailingStopBook();
+        QuoteBook quoteBook = new QuoteBook();
+        Order first = createOrder(1, "AAPL", Order.OrderStrategy.TRAILING_STOP_AMOUNT_CHANGE, 1.0, 10.0);
+        Order second = createOrder(2, "AAPL", Order.OrderStrategy.TRAILING_STOP_AMOUNT_CHANGE, 2.0, 10.0);
+        Order third = createOrder(3, "AAPL", Order.OrderStrategy.TRAILING_STOP_AMOUNT_CHANGE, 3.0, 10.0);
+        book.add(first);
+        book.add(second);
+        book.add(third);
+
+        assertTrue(book.remove(1));
+        assertFalse(book.remove(1));
+        assertEquals(2, book.size());
+        assertFalse(book.contains(1));
+
+        tick(quoteBook, "AAPL", 8.0);
+        List<Order> triggered = evaluate(book, quoteBook, null);
+        assertEquals(1, triggered.size());
+        assertEquals(second, triggered.get(0));
+
+        assertTrue(book.remove(3));
+        assertTrue(book.remove(2));
+        assertEquals(0, book.size());
+    }
+
+    @Test
+    public void testMatchesOrderManager() {
+        OrderManager orderManager = new OrderManager(null, null, null, null);
+        TrailingStopBook book = new TrailingStopBook();
+        QuoteBook quoteBook = new QuoteBook();
+        Random random = new Random(42);
+
+        // the book gets its own copies, the orders here are moved like OrderManager does
+        List<Order> orders = new ArrayList<>();
+        for (int x = 0; x < 500; x++) {
+            Order.OrderStrategy strategy = (x % 2 == 0) ?
+                    Order.OrderStrategy.TRAILING_STOP_AMOUNT_CHANGE : Order.OrderStrategy.TRAILING_STOP_PERCENT_CHANGE;
+            double stop = (x % 2 == 0) ? random.nextInt(300) / 100.0 : random.nextInt(3000) / 100.0;
+            orders.add(createOrder(x, "AAPL", strategy, stop, 10.0));
+            book.add(createOrder(x, "AAPL", strategy, stop, 10.0));
+        }
+
+        double price = 10.0;
+        for (int x = 0; x < 500; x++) {
+            price = Math.max(0.01, price + (random.nextInt(41) - 20) / 100.0);
+            tick(quoteBook, "AAPL", price);
+            long microCents = quoteBook.getPrice(quoteBook.indexOf("AAPL"));
+
+            int count = book.evaluate(quoteBook, 0, null);
+            List<Long> triggered = new ArrayList<>();
+            for (int y = 0; y < count; y++) {
+                triggered.add(book.getOrderId(book.getTriggeredRow(y)));
+            }
+
+            for (int row = 0; row < book.size(); row++) {
+                Order order = orders.get((int) book.getOrderId(row));
+                if (microCents > order.getHighestPrice().getMicroCents()) {
+                    order.setHighestPrice(new Money(microCents));
+                } else if (orderManager.mayExecute(order, microCents)) {
+                    assertTrue("order " + order.getId() + " at " + microCents, triggered.contains(order.getId()));
+                }
+                assertEquals(order.getHighestPrice().getMicroCents(), book.getHighestPrice(row));
+            }
+        }
+    }
+}
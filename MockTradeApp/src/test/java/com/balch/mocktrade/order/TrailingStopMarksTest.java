@@ -0,0 +1,140 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 5:55 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+
+package com.balch.mocktrade.order;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import com.balch.android.app.framework.sql.SqlConnection;
+import com.balch.android.app.framework.types.Money;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.schedulers.TestScheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class TrailingStopMarksTest {
+
+    private static final long FLUSH_DELAY_MS = 30000;
+
+    private SqlConnection sqlConnection;
+    private SQLiteDatabase db;
+    private SQLiteStatement statement;
+    private TestScheduler scheduler;
+    private TrailingStopMarks marks;
+
+    @Before
+    public void setUp() {
+        sqlConnection = mock(SqlConnection.class);
+        db = mock(SQLiteDatabase.class);
+        statement = mock(SQLiteStatement.class);
+        doReturn(db).when(sqlConnection).getWritableDatabase();
+        // writes run inline on the test thread
+        doCallRealMethod().when(sqlConnection).write(any(SqlConnection.WriteTask.class));
+        doReturn(statement).when(db).compileStatement(anyString());
+
+        scheduler = new TestScheduler();
+        marks = new TrailingStopMarks(sqlConnection, FLUSH_DELAY_MS, scheduler);
+    }
+
+    private static Order createOrder(long id, double highestPrice) {
+        Order order = new Order();
+        order.setId(id);
+        order.setHighestPrice(new Money(highestPrice));
+        return order;
+    }
+
+    @Test
+    public void testMarksAreCoalescedUntilTheTimerFires() {
+        marks.record(createOrder(1, 10.0));
+        marks.record(createOrder(1, 11.0));
+        marks.record(createOrder(1, 10.5));
+        marks.record(createOrder(2, 20.0));
+
+        assertEquals(2, marks.getPendingCount());
+        verify(db, never()).beginTransaction();
+
+        scheduler.advanceTimeBy(FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+
+        assertEquals(0, marks.getPendingCount());
+        verify(db, times(1)).beginTransaction();
+        verify(db, times(1)).setTransactionSuccessful();
+        verify(statement, times(2)).executeUpdateDelete();
+        // the highest value is written and also used as the guard against lowering the stored mark
+        verify(statement).bindLong(1, new Money(11.0).getMicroCents());
+        verify(statement).bindLong(4, new Money(11.0).getMicroCents());
+        verify(statement, never()).bindLong(1, new Money(10.5).getMicroCents());
+    }
+
+    @Test
+    public void testMarksFromAFailedTransactionAreRestored() {
+        marks.record(createOrder(1, 10.0));
+        Map<Long, Long> flushed = marks.flush(db);
+        assertEquals(0, marks.getPendingCount());
+
+        // a newer mark arrives while the fill transaction is rolled back
+        marks.record(createOrder(1, 12.0));
+        marks.restorePendingMarks(flushed);
+
+        assertEquals(1, marks.getPendingCount());
+        marks.flush(db);
+        verify(statement).bindLong(1, new Money(12.0).getMicroCents());
+    }
+
+    @Test
+    public void testRemovedOrdersAreNotWritten() {
+        marks.record(createOrder(1, 10.0));
+        marks.remove(1);
+
+        scheduler.advanceTimeBy(FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+
+        verify(db, never()).beginTransaction();
+    }
+
+    @Test
+    public void testClearedMarksAreNotWritten() {
+        marks.record(createOrder(1, 10.0));
+        marks.clear();
+        assertEquals(0, marks.getPendingCount());
+
+        scheduler.advanceTimeBy(FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+        marks.flush();
+
+        verify(db, never()).beginTransaction();
+    }
+}
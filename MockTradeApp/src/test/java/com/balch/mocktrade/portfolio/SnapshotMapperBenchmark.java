@@ -0,0 +1,410 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 6:55 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+package com.balch.mocktrade.portfolio;
+
+import android.content.ContentResolver;
+import android.database.CharArrayBuffer;
+import android.database.ContentObserver;
+import android.database.Cursor;
+import android.database.DataSetObserver;
+import android.net.Uri;
+import android.os.Bundle;
+
+import com.balch.android.app.framework.sql.RowMapper;
+import com.balch.android.app.framework.sql.SqlMapper;
+import com.balch.android.app.framework.types.Money;
+import com.balch.mocktrade.shared.PerformanceItem;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Measures reading a 100k row snapshot_totals cursor into PerformanceItems the
+ * way SqlConnection.processCursor used to, with a column name map and a
+ * reflective constructor, versus through the SnapshotMapper RowMapper.
+ *
+ * The rows come from an in-memory cursor so only the mapping is measured.
+ * Both ways allocate about the same, the column indexes are small enough for
+ * the boxed Integer cache, so the difference is in time per row.
+ */
+public class SnapshotMapperBenchmark {
+
+    private static final int ROW_COUNT = 100000;
+    private static final int PASSES = 10;
+    private static final int WARMUP_PASSES = 5;
+
+    private static final String[] COLUMNS = {
+            SqlMapper.COLUMN_ID,
+            SqlMapper.COLUMN_CREATE_TIME,
+            SqlMapper.COLUMN_UPDATE_TIME,
+            SnapshotMapper.COLUMN_ACCOUNT_ID,
+            SnapshotMapper.COLUMN_SNAPSHOT_TIME,
+            SnapshotMapper.COLUMN_TOTAL_VALUE,
+            SnapshotMapper.COLUMN_COST_BASIS,
+            SnapshotMapper.COLUMN_TODAY_CHANGE
+    };
+
+    @Test
+    public void benchmark() throws Exception {
+        long[][] rows = createRows();
+        SnapshotMapper mapper = new SnapshotMapper(true);
+
+        for (int x = 0; x < WARMUP_PASSES; x++) {
+            readColumnMap(mapper, new LongArrayCursor(rows));
+            readRowMapper(mapper, new LongArrayCursor(rows));
+        }
+
+        List<PerformanceItem> columnMapItems = null;
+        long startBytes = getAllocatedBytes();
+        long startNanos = System.nanoTime();
+        for (int x = 0; x < PASSES; x++) {
+            columnMapItems = readColumnMap(mapper, new LongArrayCursor(rows));
+        }
+        long columnMapNanos = System.nanoTime() - startNanos;
+        long columnMapBytes = getAllocatedBytes() - startBytes;
+
+        List<PerformanceItem> rowMapperItems = null;
+        startBytes = getAllocatedBytes();
+        startNanos = System.nanoTime();
+        for (int x = 0; x < PASSES; x++) {
+            rowMapperItems = readRowMapper(mapper, new LongArrayCursor(rows));
+        }
+        long rowMapperNanos = System.nanoTime() - startNanos;
+        long rowMapperBytes = getAllocatedBytes() - startBytes;
+
+        assertEquals(ROW_COUNT, rowMapperItems.size());
+        for (int x = 0; x < ROW_COUNT; x++) {
+            PerformanceItem expected = columnMapItems.get(x);
+            PerformanceItem actual = rowMapperItems.get(x);
+            assertEquals(expected.getAccountId(), actual.getAccountId());
+            assertEquals(expected.getTimestamp(), actual.getTimestamp());
+            assertEquals(expected.getValue(), actual.getValue());
+            assertEquals(expected.getCostBasis(), actual.getCostBasis());
+            assertEquals(expected.getTodayChange(), actual.getTodayChange());
+            assertEquals(expected.getUpdateTime(), actual.getUpdateTime());
+        }
+
+        System.out.println(String.format(Locale.US, "snapshot_totals read: %d rows", ROW_COUNT));
+        System.out.println(format("Column map", columnMapNanos, columnMapBytes));
+        System.out.println(format("RowMapper", rowMapperNanos, rowMapperBytes));
+    }
+
+    private static List<PerformanceItem> readColumnMap(SnapshotMapper mapper, Cursor cursor) throws Exception {
+        List<PerformanceItem> results = new ArrayList<>();
+
+        Map<String, Integer> columnMap = new Hashtable<>(cursor.getColumnCount());
+        for (int x = 0; x < cursor.getColumnCount(); x++) {
+            columnMap.put(cursor.getColumnName(x), x);
+        }
+
+        Constructor<PerformanceItem> ctor = PerformanceItem.class.getConstructor();
+        while (cursor.moveToNext()) {
+            PerformanceItem item = ctor.newInstance();
+
+            if (columnMap.containsKey(SqlMapper.COLUMN_CREATE_TIME)) {
+                item.setCreateTime(new Date(cursor.getLong(columnMap.get(SqlMapper.COLUMN_CREATE_TIME))));
+            }
+
+            if (columnMap.containsKey(SqlMapper.COLUMN_UPDATE_TIME)) {
+                item.setUpdateTime(new Date(cursor.getLong(columnMap.get(SqlMapper.COLUMN_UPDATE_TIME))));
+            }
+
+            item.setAccountId(cursor.getLong(columnMap.get(SnapshotMapper.COLUMN_ACCOUNT_ID)));
+            item.setTimestamp(new Date(cursor.getLong(columnMap.get(SnapshotMapper.COLUMN_SNAPSHOT_TIME))));
+            item.setCostBasis(new Money(cursor.getLong(columnMap.get(SnapshotMapper.COLUMN_COST_BASIS))));
+            item.setValue(new Money(cursor.getLong(columnMap.get(SnapshotMapper.COLUMN_TOTAL_VALUE))));
+            item.setTodayChange(new Money(cursor.getLong(columnMap.get(SnapshotMapper.COLUMN_TODAY_CHANGE))));
+            results.add(item);
+        }
+        return results;
+    }
+
+    private static List<PerformanceItem> readRowMapper(SnapshotMapper mapper, Cursor cursor) {
+        List<PerformanceItem> results = new ArrayList<>();
+
+        RowMapper<PerformanceItem> rowMapper = mapper.getRowMapper(cursor);
+        while (cursor.moveToNext()) {
+            results.add(rowMapper.map(cursor));
+        }
+        return results;
+    }
+
+    private static long[][] createRows() {
+        long[][] rows = new long[ROW_COUNT][];
+        long time = 1500000000000L;
+        for (int x = 0; x < ROW_COUNT; x++) {
+            long value = new Money(10000.0 + (x % 500)).getMicroCents();
+            rows[x] = new long[]{x + 1, time, time, (x % 4) + 1, time, value,
+                    new Money(10000.0).getMicroCents(), value - new Money(10000.0).getMicroCents()};
+            time += 15 * 60 * 1000;
+        }
+        return rows;
+    }
+
+    private static String format(String name, long nanos, long bytes) {
+        return String.format(Locale.US, "%-12s %8.3f ms/read %10d KB allocated/read",
+                name, nanos / 1e6 / PASSES, (getAllocatedBytes() < 0) ? -1 : bytes / 1024 / PASSES);
+    }
+
+    private static long getAllocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean)
+                    .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    /**
+     * Forward only cursor over rows of long values named by COLUMNS.
+     */
+    private static class LongArrayCursor implements Cursor {
+        private final long[][] rows;
+        private int position = -1;
+        private boolean closed;
+
+        LongArrayCursor(long[][] rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public int getCount() {
+            return rows.length;
+        }
+
+        @Override
+        public int getPosition() {
+            return position;
+        }
+
+        @Override
+        public boolean move(int offset) {
+            return moveToPosition(position + offset);
+        }
+
+        @Override
+        public boolean moveToPosition(int position) {
+            this.position = Math.max(-1, Math.min(position, rows.length));
+            return (this.position >= 0) && (this.position < rows.length);
+        }
+
+        @Override
+        public boolean moveToFirst() {
+            return moveToPosition(0);
+        }
+
+        @Override
+        public boolean moveToLast() {
+            return moveToPosition(rows.length - 1);
+        }
+
+        @Override
+        public boolean moveToNext() {
+            return moveToPosition(position + 1);
+        }
+
+        @Override
+        public boolean moveToPrevious() {
+            return moveToPosition(position - 1);
+        }
+
+        @Override
+        public boolean isFirst() {
+            return position == 0;
+        }
+
+        @Override
+        public boolean isLast() {
+            return position == rows.length - 1;
+        }
+
+        @Override
+        public boolean isBeforeFirst() {
+            return position == -1;
+        }
+
+        @Override
+        public boolean isAfterLast() {
+            return position == rows.length;
+        }
+
+        @Override
+        public int getColumnIndex(String columnName) {
+            for (int x = 0; x < COLUMNS.length; x++) {
+                if (COLUMNS[x].equals(columnName)) {
+                    return x;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public int getColumnIndexOrThrow(String columnName) {
+            int index = getColumnIndex(columnName);
+            if (index == -1) {
+                throw new IllegalArgumentException("column '" + columnName + "' does not exist");
+            }
+            return index;
+        }
+
+        @Override
+        public String getColumnName(int columnIndex) {
+            return COLUMNS[columnIndex];
+        }
+
+        @Override
+        public String[] getColumnNames() {
+            return COLUMNS.clone();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public byte[] getBlob(int columnIndex) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String getString(int columnIndex) {
+            return String.valueOf(getLong(columnIndex));
+        }
+
+        @Override
+        public void copyStringToBuffer(int columnIndex, CharArrayBuffer buffer) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public short getShort(int columnIndex) {
+            return (short) getLong(columnIndex);
+        }
+
+        @Override
+        public int getInt(int columnIndex) {
+            return (int) getLong(columnIndex);
+        }
+
+        @Override
+        public long getLong(int columnIndex) {
+            return rows[position][columnIndex];
+        }
+
+        @Override
+        public float getFloat(int columnIndex) {
+            return getLong(columnIndex);
+        }
+
+        @Override
+        public double getDouble(int columnIndex) {
+            return getLong(columnIndex);
+        }
+
+        @Override
+        public int getType(int columnIndex) {
+            return FIELD_TYPE_INTEGER;
+        }
+
+        @Override
+        public boolean isNull(int columnIndex) {
+            return false;
+        }
+
+        @Override
+        public void deactivate() {
+        }
+
+        @Override
+        public boolean requery() {
+            return false;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        @Override
+        public boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public void registerContentObserver(ContentObserver observer) {
+        }
+
+        @Override
+        public void unregisterContentObserver(ContentObserver observer) {
+        }
+
+        @Override
+        public void registerDataSetObserver(DataSetObserver observer) {
+        }
+
+        @Override
+        public void unregisterDataSetObserver(DataSetObserver observer) {
+        }
+
+        @Override
+        public void setNotificationUri(ContentResolver cr, Uri uri) {
+        }
+
+        @Override
+        public Uri getNotificationUri() {
+            return null;
+        }
+
+        @Override
+        public boolean getWantsAllOnMoveCalls() {
+            return false;
+        }
+
+        @Override
+        public void setExtras(Bundle extras) {
+        }
+
+        @Override
+        public Bundle getExtras() {
+            return null;
+        }
+
+        @Override
+        public Bundle respond(Bundle extras) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 9:15 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+
+package com.balch.mocktrade.portfolio;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import com.balch.android.app.framework.sql.SqlConnection;
+import com.balch.android.app.framework.types.Money;
+import com.balch.mocktrade.settings.Settings;
+import com.balch.mocktrade.shared.PerformanceItem;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.startsWith;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class SnapshotTotalsSqliteModelTest {
+    private static final long DAY_MS = TimeUnit.DAYS.toMillis(1);
+
+    // 1/1/2018 was a Monday
+    private static final long MONDAY = 17532;
+    private static final long SATURDAY = MONDAY + 5;
+
+    private SQLiteDatabase db;
+    private SQLiteStatement update;
+    private SQLiteStatement insert;
+    private SnapshotTotalsSqliteModel snapshotTotalsModel;
+
+    @Before
+    public void setUp() {
+        db = mock(SQLiteDatabase.class);
+        update = mock(SQLiteStatement.class);
+        insert = mock(SQLiteStatement.class);
+        doReturn(update).when(db).compileStatement(startsWith("UPDATE"));
+        doReturn(insert).when(db).compileStatement(startsWith("INSERT"));
+
+        snapshotTotalsModel = new SnapshotTotalsSqliteModel(mock(SqlConnection.class), mock(Settings.class));
+    }
+
+    private static PerformanceItem createItem(long accountId, long time, double value) {
+        return new PerformanceItem(accountId, new Date(time), new Money(1000.0),
+                new Money(value), new Money(value - 1000.0));
+    }
+
+    @Test
+    public void testWeekendsAreSkipped() {
+        assertFalse(SnapshotTotalsSqliteModel.isWeekend(0));
+        assertFalse(SnapshotTotalsSqliteModel.isWeekend(MONDAY));
+        assertFalse(SnapshotTotalsSqliteModel.isWeekend(MONDAY + 4));
+        assertTrue(SnapshotTotalsSqliteModel.isWeekend(SATURDAY));
+        assertTrue(SnapshotTotalsSqliteModel.isWeekend(SATURDAY + 1));
+
+        snapshotTotalsModel.updateDailySnapshots(
+                Collections.singletonList(createItem(1, SATURDAY * DAY_MS + 1000, 1100.0)), db);
+
+        verify(update, never()).executeUpdateDelete();
+        verify(insert, never()).executeInsert();
+        verify(update).close();
+        verify(insert).close();
+    }
+
+    @Test
+    public void testTheDayIsUpdatedWhenItExists() {
+        long time = MONDAY * DAY_MS + TimeUnit.HOURS.toMillis(20);
+        doReturn(1).when(update).executeUpdateDelete();
+
+        snapshotTotalsModel.updateDailySnapshots(
+                Collections.singletonList(createItem(2, time, 1100.0)), db);
+
+        verify(update).bindLong(1, time);
+        verify(update).bindLong(3, new Money(1100.0).getMicroCents());
+        verify(update).bindLong(6, 2);
+        verify(update).bindLong(7, MONDAY);
+        // an older snapshot never replaces a newer one
+        verify(update).bindLong(8, time);
+        verify(insert, never()).executeInsert();
+    }
+
+    @Test
+    public void testTheDayIsInsertedWhenItIsMissing() {
+        long time = MONDAY * DAY_MS + TimeUnit.HOURS.toMillis(15);
+        doReturn(0).when(update).executeUpdateDelete();
+
+        snapshotTotalsModel.updateDailySnapshots(Arrays.asList(
+                createItem(1, time, 1100.0),
+                createItem(2, time, 1200.0)), db);
+
+        verify(update, times(2)).executeUpdateDelete();
+        verify(insert, times(2)).executeInsert();
+        verify(insert).bindLong(1, 1);
+        verify(insert).bindLong(1, 2);
+        verify(insert, times(2)).bindLong(2, MONDAY);
+        verify(insert, times(2)).bindLong(3, time);
+        verify(insert).bindLong(5, new Money(1200.0).getMicroCents());
+        verify(insert, times(2)).bindLong(eq(7), anyLong());
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Author: Balch
+ * Created: 10/18/26 4:45 PM
+ *
+ * This file is part of MockTrade.
+ *
+ * MockTrade is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MockTrade is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MockTrade.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026
+ *
+ */
+
+
+package com.balch.mocktrade.services;
+
+import com.balch.android.app.framework.types.Money;
+import com.balch.mocktrade.TradeModelProvider;
+import com.balch.mocktrade.account.Account;
+import com.balch.mocktrade.finance.FinanceModel;
+import com.balch.mocktrade.finance.Quote;
+import com.balch.mocktrade.order.Order;
+import com.balch.mocktrade.order.OrderBook;
+import com.balch.mocktrade.portfolio.PortfolioModel;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import io.reactivex.schedulers.Schedulers;
+import io.reactivex.subjects.PublishSubject;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class OrderProcessorTest {
+
+    private static final long MAX_AGE_MS = 60000;
+
+    private PublishSubject<Map<String, Quote>> quoteUpdates;
+    private OrderProcessor orderProcessor;
+
+    private static Order createOrder(long id, String symbol) {
+        Account account = new Account();
+        account.setId(1L);
+
+        Order order = new Order();
+        order.setId(id);
+        order.setAccount(account);
+        order.setSymbol(symbol);
+        order.setStatus(Order.OrderStatus.OPEN);
+        order.setStrategy(Order.OrderStrategy.LIMIT);
+        order.setAction(Order.OrderAction.BUY);
+        order.setLimitPrice(new Money(1.0));
+        return order;
+    }
+
+    private static Map<String, Quote> quotes(String... symbols) {
+        Map<String, Quote> quoteMap = new HashMap<>();
+        for (String symbol : symbols) {
+            quoteMap.put(symbol, new Quote(symbol, symbol, "NYSE", new Money(100.0), new Date(),
+                    new Money(100.0), new Money(0)));
+        }
+        return quoteMap;
+    }
+
+    @Before
+    public void setUp() {
+        OrderBook orderBook = new OrderBook();
+        orderBook.rebuild(Arrays.asList(createOrder(1, "AAPL"), createOrder(2, "MSFT")));
+
+        quoteUpdates = PublishSubject.create();
+        FinanceModel financeModel = mock(FinanceModel.class);
+        doReturn(quoteUpdates).when(financeModel).getQuoteUpdates();
+
+        TradeModelProvider modelProvider = mock(TradeModelProvider.class);
+        doReturn(orderBook).when(modelProvider).getOrderBook();
+        doReturn(financeModel).when(modelProvider).getFinanceModel();
+
+        orderProcessor = new OrderProcessor(modelProvider, Schedulers.trampoline());
+        orderProcessor.subscribe(financeModel);
+    }
+
+    @Test
+    public void testQuotesFetchedByOthersCoverTheirSymbols() {
+        long now = System.currentTimeMillis();
+        assertEquals(new HashSet<>(Arrays.asList("AAPL", "MSFT")),
+                new HashSet<>(orderProcessor.getUncoveredSymbols(now, MAX_AGE_MS)));
+
+        // a quote fetched for an investment also covers the order on the symbol
+        quoteUpdates.onNext(quotes("AAPL", "IBM"));
+
+        assertEquals(Collections.singletonList("MSFT"),
+                orderProcessor.getUncoveredSymbols(System.currentTimeMillis(), MAX_AGE_MS));
+        assertEquals(2, orderProcessor.getUncoveredSymbols(now + MAX_AGE_MS * 2, MAX_AGE_MS).size());
+    }
+
+    @Test
+    public void testFallbackIsOnlyScheduledForUncoveredSymbols() {
+        PortfolioModel portfolioModel = mock(PortfolioModel.class);
+
+        quoteUpdates.onNext(quotes("AAPL", "MSFT"));
+        orderProcessor.scheduleFallbackIfNeeded(portfolioModel, MAX_AGE_MS);
+        verify(portfolioModel, times(0)).scheduleOrderServiceAlarm();
+
+        quoteUpdates.onNext(quotes("AAPL"));
+        orderProcessor.scheduleFallbackIfNeeded(portfolioModel, 0);
+        orderProcessor.scheduleFallbackIfNeeded(portfolioModel, 0);
+        verify(portfolioModel, times(1)).scheduleOrderServiceAlarm();
+
+        // the alarm ran and decided not to reschedule
+        orderProcessor.setFallbackScheduled(false);
+        orderProcessor.scheduleFallbackIfNeeded(portfolioModel, 0);
+        verify(portfolioModel, times(2)).scheduleOrderServiceAlarm();
+    }
+
+    @Test
+    public void testResubscribeDropsThePreviousModel() {
+        PublishSubject<Map<String, Quote>> newUpdates = PublishSubject.create();
+        FinanceModel newModel = mock(FinanceModel.class);
+        doReturn(newUpdates).when(newModel).getQuoteUpdates();
+
+        orderProcessor.subscribe(newModel);
+
+        assertTrue(!quoteUpdates.hasObservers());
+        assertTrue(newUpdates.hasObservers());
+    }
+}